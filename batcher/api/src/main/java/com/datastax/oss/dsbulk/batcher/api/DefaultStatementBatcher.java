@@ -346,8 +346,11 @@ public class DefaultStatementBatcher implements StatementBatcher {
     @Override
     public boolean test(@NonNull BatchableStatement<?> statement) {
       boolean statementsOverflowBuffer = ++statementsCounter >= getMaxBatchStatements();
+      // Sizes are only needed when the batch size is limited; the size of a SizedStatement is not
+      // computed again.
       boolean bytesOverflowBuffer =
-          (bytesInCurrentBatch += calculateSize(statement)) >= getMaxSizeInBytes();
+          maxSizeInBytes > 0
+              && (bytesInCurrentBatch += calculateSize(statement)) >= getMaxSizeInBytes();
       boolean shouldFlush = statementsOverflowBuffer || bytesOverflowBuffer;
       if (shouldFlush) {
         statementsCounter = 0;
@@ -18,6 +18,7 @@ package com.datastax.oss.dsbulk.batcher.api;
 import com.datastax.oss.driver.api.core.cql.BatchableStatement;
 import com.datastax.oss.driver.api.core.cql.Statement;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import java.time.Duration;
 import org.reactivestreams.Publisher;
 
 /**
@@ -53,6 +54,45 @@ public interface ReactiveStatementBatcher extends StatementBatcher {
   @NonNull
   Publisher<Statement<?>> batchByGroupingKey(@NonNull Publisher<BatchableStatement<?>> statements);
 
+  /**
+   * Continuously accumulates the given statements into groups of statements having the same
+   * grouping key, and emits each group as soon as it is full, or when it has been waiting for too
+   * long.
+   *
+   * <p>Unlike {@link #batchByGroupingKey(Publisher)}, which only groups together statements that
+   * appear in the same publisher, this method keeps one accumulator per grouping key for the whole
+   * lifetime of the subscription. This usually yields much better batches when statements sharing
+   * the same grouping key are scattered across the input, e.g. when the dataset is not ordered by
+   * partition key.
+   *
+   * <p>An accumulator is emitted:
+   *
+   * <ol>
+   *   <li>When it reaches the maximum number of statements or the maximum data size;
+   *   <li>When its oldest statement has been waiting for longer than {@code maxDelay};
+   *   <li>When the total number of accumulated statements, all grouping keys combined, exceeds
+   *       {@code maxBufferedStatements}; in this case, the oldest accumulators are emitted first;
+   *   <li>When the upstream publisher completes.
+   * </ol>
+   *
+   * <p>Note that when a resulting group contains only one statement, this method will not create a
+   * batch statement containing that single statement; instead, it will return that same statement.
+   * Statements for which no grouping key can be determined are emitted immediately.
+   *
+   * @param statements the statements to batch together.
+   * @param maxBufferedStatements the maximum number of statements to keep in memory, all grouping
+   *     keys combined.
+   * @param maxDelay the maximum time a statement can wait for its group to be emitted; if zero or
+   *     negative, groups are only emitted when they are full, when there are too many accumulated
+   *     statements, or when the upstream publisher completes.
+   * @return A {@link Publisher} of batched statements.
+   */
+  @NonNull
+  Publisher<Statement<?>> accumulateByGroupingKey(
+      @NonNull Publisher<BatchableStatement<?>> statements,
+      int maxBufferedStatements,
+      @NonNull Duration maxDelay);
+
   /**
    * Batches together all the given statements into groups of statements, <em>regardless of their
    * grouping key</em>. Each group size is capped by the maximum number of statements and the
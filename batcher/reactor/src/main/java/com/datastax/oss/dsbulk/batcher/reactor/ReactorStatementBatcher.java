@@ -28,7 +28,13 @@ import com.datastax.oss.dsbulk.batcher.api.DefaultStatementBatcher;
 import com.datastax.oss.dsbulk.batcher.api.ReactiveStatementBatcher;
 import com.datastax.oss.dsbulk.batcher.api.ReactiveStatementBatcherFactory;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 
@@ -176,6 +182,40 @@ public class ReactorStatementBatcher extends DefaultStatementBatcher
     return Flux.from(statements).groupBy(this::groupingKey).flatMap(this::batchAll);
   }
 
+  @Override
+  @NonNull
+  public Flux<Statement<?>> accumulateByGroupingKey(
+      @NonNull Publisher<BatchableStatement<?>> statements,
+      int maxBufferedStatements,
+      @NonNull Duration maxDelay) {
+    return Flux.defer(
+        () -> {
+          Accumulators accumulators = new Accumulators(maxBufferedStatements, maxDelay);
+          Flux<Statement<?>> batches =
+              Flux.from(statements)
+                  .concatMapIterable(accumulators::add)
+                  .concatWith(Flux.defer(() -> Flux.fromIterable(accumulators.flushAll())));
+          if (maxDelay.isZero() || maxDelay.isNegative()) {
+            return batches;
+          }
+          // check for expired accumulators twice per delay, so that no statement waits
+          // much longer than the maximum delay.
+          Duration period = maxDelay.dividedBy(2);
+          if (period.isZero()) {
+            period = maxDelay;
+          }
+          Duration checkPeriod = period;
+          return batches.publish(
+              shared ->
+                  Flux.merge(
+                      shared,
+                      Flux.interval(checkPeriod)
+                          .onBackpressureDrop()
+                          .concatMapIterable(tick -> accumulators.flushExpired())
+                          .takeUntilOther(shared.then())));
+        });
+  }
+
   @Override
   @NonNull
   public Flux<Statement<?>> batchAll(@NonNull Publisher<BatchableStatement<?>> statements) {
@@ -198,4 +238,108 @@ public class ReactorStatementBatcher extends DefaultStatementBatcher
   }
 
   private class ReactorAdaptiveSizingBatchPredicate extends AdaptiveSizingBatchPredicate {}
+
+  /**
+   * The accumulators of one subscription to {@link #accumulateByGroupingKey(Publisher, int,
+   * Duration)}, in creation order. Accumulators are accessed by the upstream publisher's thread as
+   * well as by the timer thread that flushes expired accumulators, hence all methods are
+   * synchronized.
+   */
+  private class Accumulators {
+
+    private final Map<Object, Accumulator> accumulators = new LinkedHashMap<>();
+    private final int maxBufferedStatements;
+    private final long maxDelayNanos;
+
+    private int bufferedStatements;
+
+    private Accumulators(int maxBufferedStatements, Duration maxDelay) {
+      this.maxBufferedStatements = maxBufferedStatements;
+      this.maxDelayNanos = maxDelay.toNanos();
+    }
+
+    private synchronized List<Statement<?>> add(BatchableStatement<?> statement) {
+      Object key = groupingKey(statement);
+      if (key == statement) {
+        return Collections.singletonList(statement);
+      }
+      List<Statement<?>> flushed = null;
+      Accumulator accumulator = accumulators.get(key);
+      if (accumulator == null) {
+        accumulator = new Accumulator(System.nanoTime());
+        accumulators.put(key, accumulator);
+      }
+      bufferedStatements++;
+      if (accumulator.add(statement)) {
+        accumulators.remove(key);
+        flushed = new ArrayList<>(1);
+        flushed.add(flush(accumulator));
+      }
+      if (bufferedStatements > maxBufferedStatements) {
+        Iterator<Accumulator> it = accumulators.values().iterator();
+        while (bufferedStatements > maxBufferedStatements && it.hasNext()) {
+          Accumulator eldest = it.next();
+          it.remove();
+          if (flushed == null) {
+            flushed = new ArrayList<>();
+          }
+          flushed.add(flush(eldest));
+        }
+      }
+      return flushed == null ? Collections.emptyList() : flushed;
+    }
+
+    private synchronized List<Statement<?>> flushExpired() {
+      List<Statement<?>> flushed = null;
+      long now = System.nanoTime();
+      Iterator<Accumulator> it = accumulators.values().iterator();
+      while (it.hasNext()) {
+        Accumulator accumulator = it.next();
+        // accumulators are sorted by creation time, the first one not expired ends the scan
+        if (now - accumulator.createdNanos < maxDelayNanos) {
+          break;
+        }
+        it.remove();
+        if (flushed == null) {
+          flushed = new ArrayList<>();
+        }
+        flushed.add(flush(accumulator));
+      }
+      return flushed == null ? Collections.emptyList() : flushed;
+    }
+
+    private synchronized List<Statement<?>> flushAll() {
+      List<Statement<?>> flushed = new ArrayList<>(accumulators.size());
+      for (Accumulator accumulator : accumulators.values()) {
+        flushed.add(flush(accumulator));
+      }
+      accumulators.clear();
+      return flushed;
+    }
+
+    private Statement<?> flush(Accumulator accumulator) {
+      List<BatchableStatement<?>> children = accumulator.statements;
+      bufferedStatements -= children.size();
+      return children.size() == 1
+          ? children.get(0)
+          : BatchStatement.newInstance(batchType, children);
+    }
+  }
+
+  private class Accumulator {
+
+    private final List<BatchableStatement<?>> statements = new ArrayList<>();
+    private final AdaptiveSizingBatchPredicate full = new ReactorAdaptiveSizingBatchPredicate();
+    private final long createdNanos;
+
+    private Accumulator(long createdNanos) {
+      this.createdNanos = createdNanos;
+    }
+
+    /** @return true if the accumulator is full and must be flushed. */
+    private boolean add(BatchableStatement<?> statement) {
+      statements.add(statement);
+      return full.test(statement);
+    }
+  }
 }
@@ -21,11 +21,13 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchableStatement;
 import com.datastax.oss.driver.api.core.cql.Statement;
 import com.datastax.oss.driver.api.core.metadata.Metadata;
 import com.datastax.oss.driver.api.core.metadata.TokenMap;
 import com.datastax.oss.dsbulk.batcher.api.BatchMode;
 import com.datastax.oss.dsbulk.batcher.api.StatementBatcherTest;
+import java.time.Duration;
 import java.util.HashSet;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
@@ -244,4 +246,74 @@ class ReactorStatementBatcherTest extends StatementBatcherTest {
         .extracting(EXTRACTOR)
         .contains(tuple(stmt1, stmt2, stmt3, stmt4, stmt5, stmt6));
   }
+
+  @Test
+  void should_accumulate_by_routing_key_until_full() {
+    assignRoutingKeys();
+    ReactorStatementBatcher batcher = new ReactorStatementBatcher(2);
+    Flux<Statement<?>> statements =
+        batcher.accumulateByGroupingKey(
+            Flux.just(stmt1, stmt3, stmt5, stmt2, stmt4, stmt6), 100, Duration.ZERO);
+    assertThat(statements.collectList().block())
+        .extracting(EXTRACTOR)
+        .containsExactly(tuple(stmt1, stmt2), tuple(stmt3, stmt4), tuple(stmt5), tuple(stmt6));
+  }
+
+  @Test
+  void should_accumulate_by_routing_key_until_too_many_buffered_statements() {
+    assignRoutingKeys();
+    ReactorStatementBatcher batcher = new ReactorStatementBatcher();
+    Flux<Statement<?>> statements =
+        batcher.accumulateByGroupingKey(
+            Flux.just(stmt1, stmt2, stmt3, stmt4, stmt5, stmt6), 2, Duration.ZERO);
+    assertThat(statements.collectList().block())
+        .extracting(EXTRACTOR)
+        .containsExactly(tuple(stmt1, stmt2), tuple(stmt3, stmt4), tuple(stmt5), tuple(stmt6));
+  }
+
+  @Test
+  void should_accumulate_by_routing_key_until_max_delay() {
+    assignRoutingKeys();
+    ReactorStatementBatcher batcher = new ReactorStatementBatcher();
+    Flux<Statement<?>> statements =
+        batcher.accumulateByGroupingKey(
+            Flux.<BatchableStatement<?>>just(stmt1, stmt3, stmt2).concatWith(Flux.never()),
+            100,
+            Duration.ofMillis(50));
+    assertThat(statements.take(2).collectList().block(Duration.ofSeconds(10)))
+        .extracting(EXTRACTOR)
+        .containsExactly(tuple(stmt1, stmt2), tuple(stmt3));
+  }
+
+  @Test
+  void should_accumulate_by_replica_set() {
+    assignRoutingKeys();
+    Metadata metadata = mock(Metadata.class);
+    TokenMap tokenMap = mock(TokenMap.class);
+    when(session.getMetadata()).thenReturn(metadata);
+    when(metadata.getTokenMap()).thenReturn(Optional.of(tokenMap));
+    when(tokenMap.getReplicas(ks, key1)).thenReturn(replicaSet1);
+    when(tokenMap.getReplicas(ks, key2)).thenReturn(replicaSet2);
+    when(tokenMap.getReplicas(ks, key3)).thenReturn(replicaSet1);
+    ReactorStatementBatcher batcher = new ReactorStatementBatcher(session, BatchMode.REPLICA_SET);
+    Flux<Statement<?>> statements =
+        batcher.accumulateByGroupingKey(
+            Flux.just(stmt1, stmt2, stmt3, stmt4, stmt5, stmt6), 100, Duration.ofMinutes(1));
+    assertThat(statements.collectList().block())
+        .extracting(EXTRACTOR)
+        .containsExactly(tuple(stmt1, stmt2, stmt5, stmt6), tuple(stmt3, stmt4));
+  }
+
+  @Test
+  void should_not_accumulate_statements_without_grouping_key() {
+    ReactorStatementBatcher batcher = new ReactorStatementBatcher();
+    Flux<Statement<?>> statements =
+        batcher.accumulateByGroupingKey(
+            Flux.<BatchableStatement<?>>just(stmt1, stmt2).concatWith(Flux.never()),
+            100,
+            Duration.ZERO);
+    assertThat(statements.take(2).collectList().block(Duration.ofSeconds(10)))
+        .extracting(EXTRACTOR)
+        .containsExactly(tuple(stmt1), tuple(stmt2));
+  }
 }
@@ -0,0 +1,214 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.benchmarks;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.dsbulk.connectors.api.DefaultMappedField;
+import com.datastax.oss.dsbulk.connectors.api.MappedField;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Random;
+
+/**
+ * Synthetic, reproducible datasets for benchmarks.
+ *
+ * <p>All datasets have the same columns: an int partition key, a bigint clustering column, and
+ * text, decimal, timestamp and boolean regular columns. Rows are generated from a fixed seed, so
+ * that two runs of the same benchmark always operate on the same data.
+ */
+final class BenchmarkData {
+
+  static final String KEYSPACE = "ks";
+  static final String TABLE = "t";
+
+  static final String[] COLUMNS = {"pk", "cc", "name", "price", "created", "flag"};
+
+  static final DataType[] TYPES = {
+    DataTypes.INT,
+    DataTypes.BIGINT,
+    DataTypes.TEXT,
+    DataTypes.DECIMAL,
+    DataTypes.TIMESTAMP,
+    DataTypes.BOOLEAN
+  };
+
+  static final long SEED = 20201012L;
+
+  private static final Instant START = Instant.parse("2020-01-01T00:00:00Z");
+
+  private BenchmarkData() {}
+
+  /** @return the fields of the dataset, named after its columns. */
+  static MappedField[] fields() {
+    MappedField[] fields = new MappedField[COLUMNS.length];
+    for (int i = 0; i < COLUMNS.length; i++) {
+      fields[i] = new DefaultMappedField(COLUMNS[i]);
+    }
+    return fields;
+  }
+
+  /**
+   * Generates the given number of rows, as strings.
+   *
+   * @param count the number of rows.
+   * @return the rows, each row containing one string per column.
+   */
+  static String[][] rows(int count) {
+    Random random = new Random(SEED);
+    String[][] rows = new String[count][];
+    for (int i = 0; i < count; i++) {
+      rows[i] =
+          new String[] {
+            Integer.toString(i),
+            Long.toString(random.nextLong()),
+            randomText(random),
+            BigDecimal.valueOf(random.nextInt(1_000_000), 2).toString(),
+            START.plusMillis(random.nextInt(Integer.MAX_VALUE)).toString(),
+            Boolean.toString(random.nextBoolean())
+          };
+    }
+    return rows;
+  }
+
+  /**
+   * Writes the given number of rows to a temporary CSV file with a header. The file is deleted when
+   * the JVM exits.
+   *
+   * @param count the number of rows.
+   * @return the file.
+   */
+  static Path csvFile(int count) {
+    try {
+      Path file = Files.createTempFile("dsbulk-benchmark", ".csv");
+      file.toFile().deleteOnExit();
+      try (BufferedWriter writer = Files.newBufferedWriter(file, UTF_8)) {
+        writer.write(String.join(",", COLUMNS));
+        writer.newLine();
+        for (String[] row : rows(count)) {
+          // text values may contain commas and quotes, so they are always quoted
+          row[2] = '"' + row[2].replace("\"", "\\\"") + '"';
+          writer.write(String.join(",", row));
+          writer.newLine();
+        }
+      }
+      return file;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Writes the given number of rows to a temporary Json file, one document per line. The file is
+   * deleted when the JVM exits.
+   *
+   * @param count the number of rows.
+   * @return the file.
+   */
+  static Path jsonFile(int count) {
+    try {
+      Path file = Files.createTempFile("dsbulk-benchmark", ".json");
+      file.toFile().deleteOnExit();
+      try (BufferedWriter writer = Files.newBufferedWriter(file, UTF_8)) {
+        for (String[] row : rows(count)) {
+          writer.write(
+              String.format(
+                  "{\"pk\":%s,\"cc\":%s,\"name\":\"%s\",\"price\":%s,\"created\":\"%s\",\"flag\":%s}",
+                  row[0], row[1], row[2].replace("\"", "\\\""), row[3], row[4], row[5]));
+          writer.newLine();
+        }
+      }
+      return file;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Writes the given number of wide documents to a temporary Json file, one document per line. Each
+   * document has the given number of fields, cycling through int, text, decimal and boolean values,
+   * plus one list field. The file is deleted when the JVM exits.
+   *
+   * @param count the number of documents.
+   * @param width the number of scalar fields per document.
+   * @return the file.
+   */
+  static Path wideJsonFile(int count, int width) {
+    try {
+      Path file = Files.createTempFile("dsbulk-benchmark", ".json");
+      file.toFile().deleteOnExit();
+      Random random = new Random(SEED);
+      try (BufferedWriter writer = Files.newBufferedWriter(file, UTF_8)) {
+        for (int i = 0; i < count; i++) {
+          StringBuilder sb = new StringBuilder("{\"pk\":").append(i);
+          for (int j = 0; j < width; j++) {
+            sb.append(",\"c").append(j).append("\":");
+            switch (j % 4) {
+              case 0:
+                sb.append(random.nextInt());
+                break;
+              case 1:
+                sb.append('"').append(randomText(random).replace("\"", "\\\"")).append('"');
+                break;
+              case 2:
+                sb.append(BigDecimal.valueOf(random.nextInt(1_000_000), 2));
+                break;
+              default:
+                sb.append(random.nextBoolean());
+            }
+          }
+          sb.append(",\"tags\":[")
+              .append(random.nextInt(100))
+              .append(',')
+              .append(random.nextInt(100))
+              .append("]}");
+          writer.write(sb.toString());
+          writer.newLine();
+        }
+      }
+      return file;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static String randomText(Random random) {
+    int length = 10 + random.nextInt(30);
+    StringBuilder sb = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      int c = random.nextInt(64);
+      if (c < 26) {
+        sb.append((char) ('a' + c));
+      } else if (c < 52) {
+        sb.append((char) ('A' + c - 26));
+      } else if (c < 62) {
+        sb.append((char) ('0' + c - 52));
+      } else if (c == 62) {
+        sb.append(' ');
+      } else {
+        sb.append(random.nextBoolean() ? ',' : '"');
+      }
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.benchmarks;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinition;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.detach.AttachmentPoint;
+import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
+import com.datastax.oss.driver.internal.core.cql.DefaultColumnDefinition;
+import com.datastax.oss.driver.internal.core.cql.DefaultColumnDefinitions;
+import com.datastax.oss.driver.internal.core.cql.DefaultPreparedStatement;
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableSet;
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableSetMultimap;
+import com.datastax.oss.dsbulk.codecs.api.ConvertingCodecFactory;
+import com.datastax.oss.dsbulk.codecs.text.TextConversionContext;
+import com.datastax.oss.dsbulk.connectors.api.MappedField;
+import com.datastax.oss.dsbulk.mapping.CQLWord;
+import com.datastax.oss.dsbulk.mapping.DefaultMapping;
+import com.datastax.oss.dsbulk.mapping.Mapping;
+import com.datastax.oss.protocol.internal.response.result.ColumnSpec;
+import com.datastax.oss.protocol.internal.response.result.RawType;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Driver objects for benchmarks that do not connect to any cluster: column definitions, prepared
+ * statements, mappings, etc. They all describe the table of {@link BenchmarkData}.
+ */
+final class BenchmarkDriverObjects {
+
+  private BenchmarkDriverObjects() {}
+
+  /** @return the definitions of the dataset columns, in dataset order. */
+  static ColumnDefinitions columnDefinitions() {
+    List<ColumnDefinition> definitions = new ArrayList<>();
+    for (int i = 0; i < BenchmarkData.COLUMNS.length; i++) {
+      ColumnSpec spec =
+          new ColumnSpec(
+              BenchmarkData.KEYSPACE,
+              BenchmarkData.TABLE,
+              BenchmarkData.COLUMNS[i],
+              i,
+              RawType.PRIMITIVES.get(BenchmarkData.TYPES[i].getProtocolCode()));
+      definitions.add(new DefaultColumnDefinition(spec, AttachmentPoint.NONE));
+    }
+    return DefaultColumnDefinitions.valueOf(definitions);
+  }
+
+  /**
+   * @return an INSERT statement for the dataset table, as if it had been prepared by the driver.
+   */
+  static PreparedStatement insertStatement() {
+    String query =
+        String.format(
+            "INSERT INTO %s.%s (%s) VALUES (:%s)",
+            BenchmarkData.KEYSPACE,
+            BenchmarkData.TABLE,
+            String.join(",", BenchmarkData.COLUMNS),
+            String.join(",:", BenchmarkData.COLUMNS));
+    return new DefaultPreparedStatement(
+        ByteBuffer.wrap(new byte[] {1}),
+        query,
+        columnDefinitions(),
+        Collections.singletonList(0),
+        null,
+        DefaultColumnDefinitions.valueOf(Collections.emptyList()),
+        CqlIdentifier.fromInternal(BenchmarkData.KEYSPACE),
+        Collections.emptyMap(),
+        null,
+        null,
+        null,
+        null,
+        null,
+        Collections.emptyMap(),
+        null,
+        null,
+        null,
+        Integer.MIN_VALUE,
+        null,
+        null,
+        false,
+        CodecRegistry.DEFAULT,
+        ProtocolVersion.DEFAULT);
+  }
+
+  /** @return a mapping of each dataset field to the column with the same name. */
+  static Mapping mapping() {
+    ImmutableSetMultimap.Builder<com.datastax.oss.dsbulk.connectors.api.Field, CQLWord> builder =
+        ImmutableSetMultimap.builder();
+    for (MappedField field : BenchmarkData.fields()) {
+      builder.put(field, CQLWord.fromInternal(field.getFieldName()));
+    }
+    return new DefaultMapping(builder.build(), codecFactory(), ImmutableSet.of());
+  }
+
+  /** @return a codec factory with DSBulk's default conversion settings. */
+  static ConvertingCodecFactory codecFactory() {
+    return new ConvertingCodecFactory(new TextConversionContext());
+  }
+
+  /** @return an execution info that is never inspected. */
+  static ExecutionInfo executionInfo() {
+    return (ExecutionInfo)
+        Proxy.newProxyInstance(
+            BenchmarkDriverObjects.class.getClassLoader(),
+            new Class<?>[] {ExecutionInfo.class},
+            (proxy, method, args) -> {
+              throw new UnsupportedOperationException(method.getName());
+            });
+  }
+}
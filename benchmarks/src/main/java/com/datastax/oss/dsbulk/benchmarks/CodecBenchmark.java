@@ -0,0 +1,116 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.benchmarks;
+
+import com.datastax.oss.driver.api.core.type.reflect.GenericType;
+import com.datastax.oss.dsbulk.codecs.api.ConvertingCodec;
+import com.datastax.oss.dsbulk.codecs.api.ConvertingCodecFactory;
+import com.datastax.oss.dsbulk.codecs.text.json.JsonCodecUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the string and Json converting codecs, in both directions, for each column of the
+ * benchmark dataset.
+ *
+ * <p>Each invocation converts one column of the whole dataset; scores are reported per value.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CodecBenchmark {
+
+  private static final int ROWS = 10_000;
+
+  @Param({"pk", "cc", "name", "price", "created", "flag"})
+  public String column;
+
+  private ConvertingCodec<String, Object> stringCodec;
+  private ConvertingCodec<JsonNode, Object> jsonCodec;
+
+  private String[] strings;
+  private JsonNode[] nodes;
+  private Object[] internals;
+
+  @Setup
+  public void setup() {
+    int index = Arrays.asList(BenchmarkData.COLUMNS).indexOf(column);
+    ConvertingCodecFactory codecFactory = BenchmarkDriverObjects.codecFactory();
+    stringCodec =
+        codecFactory.createConvertingCodec(BenchmarkData.TYPES[index], GenericType.STRING, true);
+    jsonCodec =
+        codecFactory.createConvertingCodec(
+            BenchmarkData.TYPES[index], JsonCodecUtils.JSON_NODE_TYPE, true);
+    String[][] rows = BenchmarkData.rows(ROWS);
+    strings = new String[ROWS];
+    nodes = new JsonNode[ROWS];
+    internals = new Object[ROWS];
+    for (int i = 0; i < ROWS; i++) {
+      strings[i] = rows[i][index];
+      internals[i] = stringCodec.externalToInternal(strings[i]);
+      nodes[i] = jsonCodec.internalToExternal(internals[i]);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public void parseString(Blackhole bh) {
+    for (String string : strings) {
+      bh.consume(stringCodec.externalToInternal(string));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public void formatString(Blackhole bh) {
+    for (Object internal : internals) {
+      bh.consume(stringCodec.internalToExternal(internal));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public void parseJson(Blackhole bh) {
+    for (JsonNode node : nodes) {
+      bh.consume(jsonCodec.externalToInternal(node));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public void formatJson(Blackhole bh) {
+    for (Object internal : internals) {
+      bh.consume(jsonCodec.internalToExternal(internal));
+    }
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.benchmarks;
+
+import com.datastax.oss.dsbulk.config.ConfigUtils;
+import com.datastax.oss.dsbulk.connectors.api.Connector;
+import com.datastax.oss.dsbulk.connectors.api.ErrorRecord;
+import com.datastax.oss.dsbulk.connectors.api.Record;
+import com.datastax.oss.dsbulk.connectors.csv.CSVConnector;
+import com.datastax.oss.dsbulk.connectors.json.JsonConnector;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValueFactory;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+
+/**
+ * Measures how fast the CSV and Json connectors read and parse records from a local file.
+ *
+ * <p>Each invocation reads a whole file; scores are reported per record. The Json connector is also
+ * measured on wide documents, against a baseline that materializes each document as a Json tree
+ * before extracting its fields, which is how the connector used to read documents.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConnectorBenchmark {
+
+  private static final int ROWS = 100_000;
+
+  private static final int WIDE_ROWS = 10_000;
+  private static final int WIDE_COLUMNS = 100;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private Path csvFile;
+  private Path jsonFile;
+  private Path wideJsonFile;
+
+  @Setup
+  public void setup() throws Exception {
+    csvFile = BenchmarkData.csvFile(ROWS);
+    jsonFile = BenchmarkData.jsonFile(ROWS);
+    wideJsonFile = BenchmarkData.wideJsonFile(WIDE_ROWS, WIDE_COLUMNS);
+    objectMapper.setNodeFactory(JsonNodeFactory.withExactBigDecimals(true));
+    objectMapper.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+    // make sure that the datasets are valid
+    read(open(new CSVConnector(), "csv", csvFile), ConnectorBenchmark::check);
+    read(open(new JsonConnector(), "json", jsonFile), ConnectorBenchmark::check);
+    read(open(new JsonConnector(), "json", wideJsonFile), ConnectorBenchmark::check);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public void readCsv(Blackhole bh) throws Exception {
+    read(open(new CSVConnector(), "csv", csvFile), bh::consume);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public void readJson(Blackhole bh) throws Exception {
+    read(open(new JsonConnector(), "json", jsonFile), bh::consume);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(WIDE_ROWS)
+  public void readWideJson(Blackhole bh) throws Exception {
+    read(open(new JsonConnector(), "json", wideJsonFile), bh::consume);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(WIDE_ROWS)
+  public void readWideJsonTrees(Blackhole bh) throws Exception {
+    try (JsonParser parser = objectMapper.getFactory().createParser(wideJsonFile.toFile());
+        MappingIterator<JsonNode> nodes = objectMapper.readValues(parser, JsonNode.class)) {
+      while (nodes.hasNext()) {
+        JsonNode node = nodes.next();
+        Object[] values = new Object[node.size()];
+        Iterator<Entry<String, JsonNode>> fields = node.fields();
+        for (int i = 0; fields.hasNext(); i++) {
+          Entry<String, JsonNode> field = fields.next();
+          bh.consume(field.getKey());
+          values[i] = field.getValue();
+        }
+        bh.consume(values);
+      }
+    }
+  }
+
+  private static Connector open(Connector connector, String name, Path file) throws Exception {
+    Config settings =
+        ConfigFactory.empty()
+            .withValue("url", ConfigValueFactory.fromAnyRef(file.toUri().toString()))
+            .withFallback(
+                ConfigUtils.createReferenceConfig()
+                    .resolve()
+                    .getConfig("dsbulk.connector." + name));
+    connector.configure(settings, true, false);
+    connector.init();
+    return connector;
+  }
+
+  private static void read(Connector connector, Consumer<Record> consumer) throws Exception {
+    try {
+      Flux.merge(connector.read()).doOnNext(consumer).blockLast();
+    } finally {
+      connector.close();
+    }
+  }
+
+  private static void check(Record record) {
+    if (record instanceof ErrorRecord) {
+      throw new IllegalStateException(
+          "Invalid record: " + record, ((ErrorRecord) record).getError());
+    }
+    if (record.fields().isEmpty()) {
+      throw new IllegalStateException("Empty record: " + record);
+    }
+  }
+}
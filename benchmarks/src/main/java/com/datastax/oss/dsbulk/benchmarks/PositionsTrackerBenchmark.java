@@ -0,0 +1,87 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.benchmarks;
+
+import com.datastax.oss.dsbulk.workflow.commons.log.PositionsTracker;
+import java.net.URI;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how fast {@link PositionsTracker} records processed positions.
+ *
+ * <p>Positions are either fed in order, as with a single-threaded read, or shuffled within a
+ * window, as happens when records complete out of order. Each invocation tracks all the positions
+ * of a resource in a fresh tracker; scores are reported per position.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PositionsTrackerBenchmark {
+
+  private static final int POSITIONS = 100_000;
+
+  private static final URI RESOURCE = URI.create("file://benchmark.csv");
+
+  /** The size of the window within which positions are shuffled; 1 means no shuffling. */
+  @Param({"1", "100", "10000"})
+  public int window;
+
+  private long[] positions;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(BenchmarkData.SEED);
+    positions = new long[POSITIONS];
+    for (int i = 0; i < POSITIONS; i++) {
+      positions[i] = i + 1;
+    }
+    for (int start = 0; start < POSITIONS; start += window) {
+      int end = Math.min(start + window, POSITIONS);
+      for (int i = end - 1; i > start; i--) {
+        int j = start + random.nextInt(i - start + 1);
+        long tmp = positions[i];
+        positions[i] = positions[j];
+        positions[j] = tmp;
+      }
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(POSITIONS)
+  public PositionsTracker update() {
+    PositionsTracker tracker = new PositionsTracker();
+    for (long position : positions) {
+      tracker.update(RESOURCE, position);
+    }
+    return tracker;
+  }
+}
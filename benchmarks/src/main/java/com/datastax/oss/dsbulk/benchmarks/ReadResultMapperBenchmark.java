@@ -0,0 +1,124 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.benchmarks;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.detach.AttachmentPoint;
+import com.datastax.oss.driver.api.core.type.reflect.GenericType;
+import com.datastax.oss.driver.internal.core.cql.DefaultRow;
+import com.datastax.oss.dsbulk.codecs.api.ConvertingCodec;
+import com.datastax.oss.dsbulk.codecs.api.ConvertingCodecFactory;
+import com.datastax.oss.dsbulk.codecs.text.json.JsonCodecUtils;
+import com.datastax.oss.dsbulk.connectors.api.ErrorRecord;
+import com.datastax.oss.dsbulk.connectors.api.Record;
+import com.datastax.oss.dsbulk.executor.api.result.DefaultReadResult;
+import com.datastax.oss.dsbulk.executor.api.result.ReadResult;
+import com.datastax.oss.dsbulk.workflow.commons.schema.DefaultReadResultMapper;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures how fast {@link DefaultReadResultMapper} converts rows into records, that is, the
+ * per-row work of an unload operation before the connector writes the records.
+ *
+ * <p>Rows are mapped to text fields, as the CSV connector does, or to Json nodes, as the Json
+ * connector does; with {@code csv-utf8}, text fields are formatted directly as UTF-8 bytes, as the
+ * CSV connector does when its encoding is UTF-8. Each invocation maps the whole dataset; scores are
+ * reported per row.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReadResultMapperBenchmark {
+
+  private static final int ROWS = 10_000;
+
+  @Param({"csv", "csv-utf8", "json"})
+  public String format;
+
+  private DefaultReadResultMapper mapper;
+  private ReadResult[] results;
+
+  @Setup
+  public void setup() {
+    GenericType<?> fieldType =
+        format.startsWith("csv") ? GenericType.STRING : JsonCodecUtils.JSON_NODE_TYPE;
+    mapper =
+        new DefaultReadResultMapper(
+            BenchmarkDriverObjects.mapping(),
+            (field, cqlType) -> fieldType,
+            URI.create("cql://ks/t"),
+            false,
+            format.equals("csv-utf8"));
+    ConvertingCodecFactory codecFactory = BenchmarkDriverObjects.codecFactory();
+    List<ConvertingCodec<String, Object>> codecs = new ArrayList<>();
+    for (int i = 0; i < BenchmarkData.TYPES.length; i++) {
+      codecs.add(
+          codecFactory.createConvertingCodec(BenchmarkData.TYPES[i], GenericType.STRING, true));
+    }
+    ColumnDefinitions definitions = BenchmarkDriverObjects.columnDefinitions();
+    SimpleStatement statement = SimpleStatement.newInstance("SELECT * FROM ks.t");
+    ExecutionInfo executionInfo = BenchmarkDriverObjects.executionInfo();
+    String[][] rows = BenchmarkData.rows(ROWS);
+    results = new ReadResult[ROWS];
+    for (int i = 0; i < ROWS; i++) {
+      List<ByteBuffer> values = new ArrayList<>(rows[i].length);
+      for (int j = 0; j < rows[i].length; j++) {
+        values.add(codecs.get(j).encode(rows[i][j], ProtocolVersion.DEFAULT));
+      }
+      DefaultRow row = new DefaultRow(definitions, values, AttachmentPoint.NONE);
+      results[i] = new DefaultReadResult(statement, executionInfo, row);
+    }
+    // make sure that the rows are mappable
+    for (ReadResult result : results) {
+      Record record = mapper.map(result);
+      if (record instanceof ErrorRecord) {
+        throw new IllegalStateException(
+            "Unmappable row: " + result, ((ErrorRecord) record).getError());
+      }
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public void map(Blackhole bh) {
+    for (ReadResult result : results) {
+      bh.consume(mapper.map(result));
+    }
+  }
+}
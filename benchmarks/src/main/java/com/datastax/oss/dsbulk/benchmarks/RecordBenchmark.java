@@ -0,0 +1,97 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.benchmarks;
+
+import com.datastax.oss.dsbulk.connectors.api.ArrayBackedRecord;
+import com.datastax.oss.dsbulk.connectors.api.DefaultIndexedField;
+import com.datastax.oss.dsbulk.connectors.api.DefaultMappedField;
+import com.datastax.oss.dsbulk.connectors.api.DefaultRecord;
+import com.datastax.oss.dsbulk.connectors.api.MappedField;
+import com.datastax.oss.dsbulk.connectors.api.Record;
+import com.datastax.oss.dsbulk.connectors.api.RecordLayout;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the cost of creating and reading records with {@link DefaultRecord} and {@link
+ * ArrayBackedRecord}, the way the CSV connector creates them for a file with a header: each value
+ * is accessible both by name and by index, and is read once by name afterwards.
+ *
+ * <p>Run with {@code -prof gc} to compare allocation rates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecordBenchmark {
+
+  private static final URI RESOURCE = URI.create("file://data.csv");
+
+  @Param({"5", "20"})
+  int fieldCount;
+
+  private MappedField[] fields;
+  private RecordLayout layout;
+  private String[] values;
+
+  @Setup
+  public void setup() {
+    fields = new MappedField[fieldCount];
+    values = new String[fieldCount];
+    for (int i = 0; i < fieldCount; i++) {
+      fields[i] = new DefaultMappedField("field" + i);
+      values[i] = "value" + i;
+    }
+    layout = RecordLayout.mappedAndIndexed(fields);
+  }
+
+  @Benchmark
+  public void defaultRecord(Blackhole bh) {
+    Object[] row = values.clone();
+    DefaultRecord record = DefaultRecord.mapped(null, RESOURCE, 1, fields, row);
+    for (int i = 0; i < row.length; i++) {
+      record.setFieldValue(new DefaultIndexedField(i), row[i]);
+    }
+    consume(record, bh);
+  }
+
+  @Benchmark
+  public void arrayBackedRecord(Blackhole bh) {
+    Object[] row = values.clone();
+    ArrayBackedRecord record = new ArrayBackedRecord(null, RESOURCE, 1, layout, row);
+    consume(record, bh);
+  }
+
+  private void consume(Record record, Blackhole bh) {
+    for (MappedField field : fields) {
+      bh.consume(record.getFieldValue(field));
+    }
+  }
+}
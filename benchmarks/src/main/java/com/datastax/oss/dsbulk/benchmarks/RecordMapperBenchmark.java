@@ -0,0 +1,99 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.benchmarks;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.cql.BatchableStatement;
+import com.datastax.oss.driver.api.core.type.reflect.GenericType;
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableSet;
+import com.datastax.oss.dsbulk.connectors.api.ArrayBackedRecord;
+import com.datastax.oss.dsbulk.connectors.api.Record;
+import com.datastax.oss.dsbulk.connectors.api.RecordLayout;
+import com.datastax.oss.dsbulk.mapping.CQLWord;
+import com.datastax.oss.dsbulk.workflow.commons.schema.DefaultRecordMapper;
+import com.datastax.oss.dsbulk.workflow.commons.statement.MappedBoundStatement;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures how fast {@link DefaultRecordMapper} converts text records into bound statements, that
+ * is, the per-record work of a load operation once the connector has produced its records.
+ *
+ * <p>Each invocation maps the whole dataset; scores are reported per record.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecordMapperBenchmark {
+
+  private static final int ROWS = 10_000;
+
+  private DefaultRecordMapper mapper;
+  private Record[] records;
+
+  @Setup
+  public void setup() {
+    mapper =
+        new DefaultRecordMapper(
+            BenchmarkDriverObjects.insertStatement(),
+            ImmutableSet.of(CQLWord.fromInternal(BenchmarkData.COLUMNS[0])),
+            ImmutableSet.of(CQLWord.fromInternal(BenchmarkData.COLUMNS[1])),
+            ProtocolVersion.DEFAULT,
+            BenchmarkDriverObjects.mapping(),
+            (field, cqlType) -> GenericType.STRING,
+            true,
+            true,
+            false);
+    RecordLayout layout = RecordLayout.mappedAndIndexed(BenchmarkData.fields());
+    URI resource = URI.create("file://benchmark.csv");
+    String[][] rows = BenchmarkData.rows(ROWS);
+    records = new Record[ROWS];
+    for (int i = 0; i < ROWS; i++) {
+      // same layout as the CSV connector when reading files with a header
+      records[i] = new ArrayBackedRecord(rows[i], resource, i + 1, layout, rows[i].clone());
+    }
+    // make sure that the records are mappable
+    for (Record record : records) {
+      BatchableStatement<?> statement = mapper.map(record);
+      if (!(statement instanceof MappedBoundStatement)) {
+        throw new IllegalStateException("Unmappable record: " + statement);
+      }
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public void map(Blackhole bh) {
+    for (Record record : records) {
+      bh.consume(mapper.map(record));
+    }
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.benchmarks;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.cql.BatchableStatement;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
+import com.datastax.oss.dsbulk.batcher.api.DefaultStatementBatcher;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how fast {@link DefaultStatementBatcher#batchByGroupingKey(Iterable)} groups statements
+ * by partition key, for a varying number of distinct partitions in the same buffer.
+ *
+ * <p>Each invocation batches one buffer of statements; scores are reported per statement.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StatementBatcherBenchmark {
+
+  private static final int STATEMENTS = 10_000;
+
+  @Param({"1", "100", "10000"})
+  public int partitions;
+
+  private DefaultStatementBatcher batcher;
+  private List<BatchableStatement<?>> statements;
+
+  @Setup
+  public void setup() {
+    batcher = new DefaultStatementBatcher(32);
+    Random random = new Random(BenchmarkData.SEED);
+    statements = new ArrayList<>(STATEMENTS);
+    for (int i = 0; i < STATEMENTS; i++) {
+      int pk = random.nextInt(partitions);
+      statements.add(
+          SimpleStatement.newInstance("INSERT INTO ks.t (pk, cc) VALUES (?, ?)", pk, i)
+              .setRoutingKey(TypeCodecs.INT.encode(pk, ProtocolVersion.DEFAULT)));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(STATEMENTS)
+  public Object batchByGroupingKey() {
+    return batcher.batchByGroupingKey(statements);
+  }
+}
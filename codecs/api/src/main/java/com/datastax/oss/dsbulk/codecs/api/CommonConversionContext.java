@@ -24,6 +24,7 @@ import com.datastax.oss.dsbulk.codecs.api.util.Base64BinaryFormat;
 import com.datastax.oss.dsbulk.codecs.api.util.BinaryFormat;
 import com.datastax.oss.dsbulk.codecs.api.util.CodecUtils;
 import com.datastax.oss.dsbulk.codecs.api.util.OverflowStrategy;
+import com.datastax.oss.dsbulk.codecs.api.util.TemporalCache;
 import com.datastax.oss.dsbulk.codecs.api.util.TemporalFormat;
 import com.datastax.oss.dsbulk.codecs.api.util.TimeUUIDGenerator;
 import edu.umd.cs.findbugs.annotations.NonNull;
@@ -89,6 +90,8 @@ public class CommonConversionContext extends ConversionContext {
   public static final String BINARY_FORMAT = "BINARY_FORMAT";
   public static final String ALLOW_EXTRA_FIELDS = "ALLOW_EXTRA_FIELDS";
   public static final String ALLOW_MISSING_FIELDS = "ALLOW_MISSING_FIELDS";
+  public static final String TEMPORAL_CACHE_SIZE = "TEMPORAL_CACHE_SIZE";
+  public static final String TEMPORAL_CACHE_STATISTICS = "TEMPORAL_CACHE_STATISTICS";
 
   public CommonConversionContext() {
     addAttribute(LOCALE, Locale.US);
@@ -110,6 +113,8 @@ public class CommonConversionContext extends ConversionContext {
     addAttribute(ALLOW_EXTRA_FIELDS, false);
     addAttribute(ALLOW_MISSING_FIELDS, false);
     addAttribute(BINARY_FORMAT, Base64BinaryFormat.INSTANCE);
+    addAttribute(TEMPORAL_CACHE_SIZE, 0);
+    addAttribute(TEMPORAL_CACHE_STATISTICS, new TemporalCache.Statistics());
     rebuildFormats();
   }
 
@@ -426,6 +431,22 @@ public class CommonConversionContext extends ConversionContext {
     return this;
   }
 
+  /**
+   * The number of parsed temporals to cache, per codec, for conversions from {@code String} to CQL
+   * {@code timestamp}, {@code date} and {@code time}. The default is 0, which disables caching.
+   *
+   * <p>Caching pays off when the same temporal strings repeat across many records, e.g. when
+   * timestamps are truncated to the second or to the day. All caches created with this context
+   * report their hits and misses to the {@linkplain #TEMPORAL_CACHE_STATISTICS same statistics}.
+   *
+   * @return this builder (for method chaining).
+   * @see TemporalCache
+   */
+  public CommonConversionContext setTemporalCacheSize(int temporalCacheSize) {
+    addAttribute(TEMPORAL_CACHE_SIZE, temporalCacheSize);
+    return this;
+  }
+
   private void rebuildFormats() {
     String numericPattern = getAttribute(NUMERIC_PATTERN);
     String timestampPattern = getAttribute(TIMESTAMP_PATTERN);
@@ -66,6 +66,10 @@ public class CodecUtils {
   private static final String CQL_TIMESTAMP = "CQL_TIMESTAMP";
   private static final String UNITS_SINCE_EPOCH = "UNITS_SINCE_EPOCH";
 
+  // the largest magnitudes below which all integers are exactly representable as floats / doubles
+  private static final long MAX_EXACT_FLOAT_INTEGER = 1L << 24;
+  private static final long MAX_EXACT_DOUBLE_INTEGER = 1L << 53;
+
   /**
    * Parses the given string as a number.
    *
@@ -273,6 +277,133 @@ public class CodecUtils {
     return number;
   }
 
+  /**
+   * Parses the given string if it is a plain number: an optional sign followed by ASCII digits and,
+   * if {@code decimals} is true, optionally by a dot and more digits, whose unscaled value fits in
+   * a long.
+   *
+   * <p>This method never throws and allocates nothing but the returned object; strings containing
+   * anything else, such as whitespace, grouping separators or exponents, are rejected and should be
+   * parsed with {@link #parseNumber(String, NumberFormat, TemporalFormat, ZoneId, TimeUnit,
+   * ZonedDateTime, Map, List)} instead. The returned values are equal to the ones that {@code new
+   * BigDecimal(s)} would produce, scale included.
+   *
+   * @param s the string to parse; cannot be {@code null}.
+   * @param decimals whether to accept decimal numbers.
+   * @return an {@link Integer} or a {@link Long} for integers, depending on their magnitude, a
+   *     {@link BigDecimal} for decimals, or {@code null} if the string is not a plain number.
+   * @see #parsesPlainIntegers(NumberFormat)
+   * @see #parsesPlainDecimals(NumberFormat)
+   */
+  @Nullable
+  public static Number parsePlainNumber(@NonNull String s, boolean decimals) {
+    int length = s.length();
+    int i = 0;
+    boolean negative = false;
+    if (length > 0 && (s.charAt(0) == '-' || s.charAt(0) == '+')) {
+      negative = s.charAt(0) == '-';
+      i = 1;
+    }
+    // accumulate negatively, as Long.parseLong does, to reach Long.MIN_VALUE
+    long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+    long multiplicationLimit = limit / 10;
+    long unscaled = 0;
+    int digits = 0;
+    // -1 until a dot is found, then the number of digits after it
+    int scale = -1;
+    for (; i < length; i++) {
+      char c = s.charAt(i);
+      if (c >= '0' && c <= '9') {
+        int digit = c - '0';
+        if (unscaled < multiplicationLimit) {
+          return null;
+        }
+        unscaled *= 10;
+        if (unscaled < limit + digit) {
+          return null;
+        }
+        unscaled -= digit;
+        digits++;
+        if (scale != -1) {
+          scale++;
+        }
+      } else if (c == '.' && decimals && scale == -1 && digits > 0) {
+        scale = 0;
+      } else {
+        return null;
+      }
+    }
+    if (digits == 0 || scale == 0) {
+      return null;
+    }
+    if (!negative) {
+      unscaled = -unscaled;
+    }
+    if (scale > 0) {
+      return BigDecimal.valueOf(unscaled, scale);
+    }
+    if (unscaled >= Integer.MIN_VALUE && unscaled <= Integer.MAX_VALUE) {
+      return (int) unscaled;
+    }
+    return unscaled;
+  }
+
+  /**
+   * Returns whether {@link #parsePlainNumber(String, boolean) plain integers} are parsed by the
+   * given format to the same values that {@link #parsePlainNumber(String, boolean)} returns.
+   *
+   * <p>This is the case for the formats created by {@link #getNumberFormat(String, Locale,
+   * RoundingMode, boolean)}: grouping separators, prefixes and suffixes do not alter the value of a
+   * string of digits, and the strings that such formats reject are parsed with {@code new
+   * BigDecimal(s)} anyway.
+   *
+   * @param format the format to inspect; cannot be {@code null}.
+   * @return whether plain integers can be parsed without the given format.
+   */
+  public static boolean parsesPlainIntegers(@NonNull NumberFormat format) {
+    return plainNumberDelegate(format) != null;
+  }
+
+  /**
+   * Returns whether {@link #parsePlainNumber(String, boolean) plain decimals} are parsed by the
+   * given format to the same values that {@link #parsePlainNumber(String, boolean)} returns. This
+   * requires, in addition to {@link #parsesPlainIntegers(NumberFormat)}, the decimal separator to
+   * be a dot.
+   *
+   * @param format the format to inspect; cannot be {@code null}.
+   * @return whether plain decimals can be parsed without the given format.
+   */
+  public static boolean parsesPlainDecimals(@NonNull NumberFormat format) {
+    DecimalFormat delegate = plainNumberDelegate(format);
+    if (delegate == null) {
+      return false;
+    }
+    DecimalFormatSymbols symbols = delegate.getDecimalFormatSymbols();
+    return symbols.getDecimalSeparator() == '.'
+        && symbols.getMonetaryDecimalSeparator() == '.'
+        && symbols.getGroupingSeparator() != '.';
+  }
+
+  @Nullable
+  private static DecimalFormat plainNumberDelegate(@NonNull NumberFormat format) {
+    Objects.requireNonNull(format);
+    NumberFormat delegate;
+    if (format instanceof ToStringNumberFormat) {
+      delegate = ((ToStringNumberFormat) format).getDelegate();
+    } else if (format instanceof ExactNumberFormat) {
+      delegate = ((ExactNumberFormat) format).getDelegate();
+    } else {
+      return null;
+    }
+    if (delegate instanceof DecimalFormat) {
+      DecimalFormat decimalFormat = (DecimalFormat) delegate;
+      if (decimalFormat.isParseBigDecimal() && decimalFormat.getMultiplier() == 1) {
+        return decimalFormat;
+      }
+    }
+    return null;
+  }
+
   /**
    * Formats the given number using the given format.
    *
@@ -515,6 +646,8 @@ public class CodecUtils {
     Objects.requireNonNull(value);
     if (value instanceof Float) {
       return (Float) value;
+    } else if (isExactIntegral(value, MAX_EXACT_FLOAT_INTEGER)) {
+      return value.floatValue();
     } else if (Float.isNaN(value.floatValue())) {
       return Float.NaN;
     } else if (Float.isInfinite(value.floatValue())) {
@@ -545,6 +678,8 @@ public class CodecUtils {
     Objects.requireNonNull(value);
     if (value instanceof Double) {
       return (Double) value;
+    } else if (isExactIntegral(value, MAX_EXACT_DOUBLE_INTEGER)) {
+      return value.doubleValue();
     } else if (Double.isNaN(value.doubleValue())) {
       return Double.NaN;
     } else if (Double.isInfinite(value.doubleValue())) {
@@ -589,6 +724,21 @@ public class CodecUtils {
     }
   }
 
+  /**
+   * Whether the given number is a primitive integral whose magnitude does not exceed the given
+   * maximum; such numbers can be converted to floating-point types without the exactness check.
+   */
+  private static boolean isExactIntegral(@NonNull Number value, long max) {
+    if (value instanceof Byte
+        || value instanceof Short
+        || value instanceof Integer
+        || value instanceof Long) {
+      long l = value.longValue();
+      return l >= -max && l <= max;
+    }
+    return false;
+  }
+
   private static ArithmeticException conversionFailed(
       @NonNull Number value,
       @NonNull Class<? extends Number> targetClass,
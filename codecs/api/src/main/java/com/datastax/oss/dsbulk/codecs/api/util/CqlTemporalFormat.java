@@ -22,12 +22,18 @@ import static java.time.temporal.ChronoField.NANO_OF_SECOND;
 import static java.time.temporal.ChronoField.SECOND_OF_MINUTE;
 import static java.util.Locale.US;
 
+import com.datastax.oss.driver.shaded.guava.common.annotations.VisibleForTesting;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.time.Month;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.time.chrono.IsoChronology;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
 import java.time.format.ResolverStyle;
+import java.time.temporal.TemporalAccessor;
 
 /**
  * A special zoned temporal format that recognizes all valid CQL input formats when parsing.
@@ -43,8 +49,129 @@ public class CqlTemporalFormat extends ZonedTemporalFormat {
     super(createParser(), createFormatter(timeZone), timeZone);
   }
 
+  @Override
+  public TemporalAccessor parse(String text) {
+    if (text != null) {
+      ZonedDateTime temporal = parseFixedLayout(text, getTimeZone());
+      if (temporal != null) {
+        return temporal;
+      }
+    }
+    return super.parse(text);
+  }
+
+  /**
+   * Parses the most common layouts of ISO-8601 timestamps without going through a {@link
+   * DateTimeFormatter}: {@code yyyy-MM-dd}, optionally followed by {@code 'T'} or a blank and by
+   * {@code HH:mm[:ss[.SSSSSSSSS]]}, and then optionally by {@code 'Z'} or {@code +HH:MM}.
+   *
+   * <p>The returned values represent the same instants, local dates and local times as the ones
+   * produced by the full parser. For any other layout, and for invalid fields, this method returns
+   * {@code null}, leaving the string to the full parser, which then reports errors as usual.
+   *
+   * @param text the string to parse; cannot be {@code null}.
+   * @param timeZone the time zone to apply when the string has no offset.
+   * @return the parsed temporal, or {@code null} if the string has another layout.
+   */
+  @Nullable
+  @VisibleForTesting
+  static ZonedDateTime parseFixedLayout(@NonNull String text, @NonNull ZoneId timeZone) {
+    int length = text.length();
+    if (length < 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+      return null;
+    }
+    int year = digits(text, 0, 4);
+    int month = digits(text, 5, 2);
+    int day = digits(text, 8, 2);
+    if (year < 0 || month < 1 || month > 12 || day < 1) {
+      return null;
+    }
+    if (day > 28 && day > Month.of(month).length(IsoChronology.INSTANCE.isLeapYear(year))) {
+      return null;
+    }
+    if (length == 10) {
+      return ZonedDateTime.of(year, month, day, 0, 0, 0, 0, timeZone);
+    }
+    char separator = text.charAt(10);
+    if ((separator != 'T' && separator != ' ') || length < 16 || text.charAt(13) != ':') {
+      return null;
+    }
+    int hour = digits(text, 11, 2);
+    int minute = digits(text, 14, 2);
+    if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+      return null;
+    }
+    int second = 0;
+    int nano = 0;
+    int i = 16;
+    if (i < length && text.charAt(i) == ':') {
+      second = digits(text, i + 1, 2);
+      if (second < 0 || second > 59) {
+        return null;
+      }
+      i += 3;
+      if (i < length && text.charAt(i) == '.') {
+        int start = ++i;
+        while (i < length && i - start < 9 && isDigit(text.charAt(i))) {
+          nano = nano * 10 + (text.charAt(i++) - '0');
+        }
+        int fractionDigits = i - start;
+        if (fractionDigits == 0) {
+          return null;
+        }
+        for (int j = fractionDigits; j < 9; j++) {
+          nano *= 10;
+        }
+      }
+    }
+    ZoneId zone;
+    if (i == length) {
+      zone = timeZone;
+    } else if (i == length - 1 && text.charAt(i) == 'Z') {
+      zone = ZoneOffset.UTC;
+    } else if (i == length - 6
+        && (text.charAt(i) == '+' || text.charAt(i) == '-')
+        && text.charAt(i + 3) == ':') {
+      int offsetHours = digits(text, i + 1, 2);
+      int offsetMinutes = digits(text, i + 4, 2);
+      if (offsetHours < 0
+          || offsetMinutes < 0
+          || offsetMinutes > 59
+          || offsetHours > 18
+          || (offsetHours == 18 && offsetMinutes > 0)) {
+        return null;
+      }
+      int offsetSeconds = offsetHours * 3600 + offsetMinutes * 60;
+      zone = ZoneOffset.ofTotalSeconds(text.charAt(i) == '-' ? -offsetSeconds : offsetSeconds);
+    } else {
+      return null;
+    }
+    return ZonedDateTime.of(year, month, day, hour, minute, second, nano, zone);
+  }
+
+  /** Parses the given number of ASCII digits, or returns -1 if there is a non-digit. */
+  private static int digits(String text, int start, int count) {
+    if (start + count > text.length()) {
+      return -1;
+    }
+    int value = 0;
+    for (int i = start; i < start + count; i++) {
+      char c = text.charAt(i);
+      if (!isDigit(c)) {
+        return -1;
+      }
+      value = value * 10 + (c - '0');
+    }
+    return value;
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
   @NonNull
-  private static DateTimeFormatter createParser() {
+  @VisibleForTesting
+  static DateTimeFormatter createParser() {
     // this formatter is a hybrid parser that combines all valid CQL patterns declared in C* 2.2+
     // into a single parser. To achieve that we "cheat" a little bit and accept many optional
     // components that would not make sense together. For example, we accept both 'T' and blank as
@@ -31,6 +31,11 @@ public class ExactNumberFormat extends NumberFormat {
     this.delegate = delegate;
   }
 
+  /** @return the format that this format delegates parsing to. */
+  public NumberFormat getDelegate() {
+    return delegate;
+  }
+
   @Override
   public Number parse(String source, ParsePosition parsePosition) {
     return delegate.parse(source, parsePosition);
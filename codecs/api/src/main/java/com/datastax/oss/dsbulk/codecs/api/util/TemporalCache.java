@@ -0,0 +1,129 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.codecs.api.util;
+
+import com.datastax.oss.driver.shaded.guava.common.base.Preconditions;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.time.temporal.TemporalAccessor;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of parsed temporals, keyed by their textual representation.
+ *
+ * <p>This cache is meant for data where the same temporal strings repeat across many consecutive
+ * records, e.g. timestamps truncated to the second or to the day. It is direct-mapped: each string
+ * can only occupy one slot, determined by its hash code, and evicts the previous occupant of that
+ * slot. Lookups and insertions are thus constant-time, lock-free and never block; concurrent
+ * insertions into the same slot simply race, and the last one wins.
+ *
+ * @param <T> the type of cached temporals.
+ */
+public class TemporalCache<T extends TemporalAccessor> {
+
+  private final Entry<T>[] entries;
+  private final int mask;
+  private final Statistics statistics;
+
+  /**
+   * Creates a new cache.
+   *
+   * @param size the number of slots, rounded up to the next power of two; must be strictly
+   *     positive.
+   * @param statistics the statistics to update on each lookup.
+   */
+  @SuppressWarnings("unchecked")
+  public TemporalCache(int size, @NonNull Statistics statistics) {
+    Preconditions.checkArgument(size > 0, "size must be > 0, got %s", size);
+    Preconditions.checkArgument(size <= 1 << 30, "size must be <= 2^30, got %s", size);
+    int capacity = Integer.highestOneBit(size);
+    if (capacity < size) {
+      capacity <<= 1;
+    }
+    entries = new Entry[capacity];
+    mask = capacity - 1;
+    this.statistics = Objects.requireNonNull(statistics);
+  }
+
+  /**
+   * Returns the temporal cached for the given string, if any.
+   *
+   * @param text the string to look up; cannot be {@code null}.
+   * @return the cached temporal, or {@code null} if the string is not cached.
+   */
+  @Nullable
+  public T get(@NonNull String text) {
+    Entry<T> entry = entries[index(text)];
+    if (entry != null && entry.text.equals(text)) {
+      statistics.hits.increment();
+      return entry.value;
+    }
+    statistics.misses.increment();
+    return null;
+  }
+
+  /**
+   * Caches the given temporal for the given string, possibly evicting another string.
+   *
+   * @param text the string; cannot be {@code null}.
+   * @param value the temporal parsed from the string; cannot be {@code null}.
+   */
+  public void put(@NonNull String text, @NonNull T value) {
+    // entries are immutable, so they can be safely published without synchronization
+    entries[index(text)] = new Entry<>(text, value);
+  }
+
+  private int index(String text) {
+    int h = text.hashCode();
+    return (h ^ (h >>> 16)) & mask;
+  }
+
+  private static final class Entry<T> {
+
+    private final String text;
+    private final T value;
+
+    private Entry(String text, T value) {
+      this.text = text;
+      this.value = value;
+    }
+  }
+
+  /** Hit and miss counters, shareable between caches. */
+  public static class Statistics {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /** @return the number of lookups that found a cached temporal. */
+    public long getHits() {
+      return hits.sum();
+    }
+
+    /** @return the number of lookups that did not find a cached temporal. */
+    public long getMisses() {
+      return misses.sum();
+    }
+
+    /** @return the ratio of hits to lookups, or 0 if there was no lookup yet. */
+    public double getHitRatio() {
+      long hits = getHits();
+      long total = hits + getMisses();
+      return total == 0 ? 0 : (double) hits / total;
+    }
+  }
+}
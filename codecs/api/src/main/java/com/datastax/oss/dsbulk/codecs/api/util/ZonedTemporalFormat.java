@@ -47,6 +47,11 @@ public class ZonedTemporalFormat extends SimpleTemporalFormat {
     this.timeZone = timeZone;
   }
 
+  /** @return the time zone applied to parsed inputs, and to all formatted values. */
+  public ZoneId getTimeZone() {
+    return timeZone;
+  }
+
   @Override
   public TemporalAccessor parse(String text) {
     TemporalAccessor temporal = super.parse(text);
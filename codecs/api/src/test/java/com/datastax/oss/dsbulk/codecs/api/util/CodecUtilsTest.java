@@ -21,6 +21,7 @@ import static com.datastax.oss.dsbulk.codecs.api.util.CodecUtils.formatNumber;
 import static com.datastax.oss.dsbulk.codecs.api.util.CodecUtils.instantToNumber;
 import static com.datastax.oss.dsbulk.codecs.api.util.CodecUtils.numberToInstant;
 import static com.datastax.oss.dsbulk.codecs.api.util.CodecUtils.parseNumber;
+import static com.datastax.oss.dsbulk.codecs.api.util.CodecUtils.parsePlainNumber;
 import static com.datastax.oss.dsbulk.codecs.api.util.CodecUtils.toBigDecimal;
 import static com.datastax.oss.dsbulk.codecs.api.util.CodecUtils.toBigIntegerExact;
 import static com.datastax.oss.dsbulk.codecs.api.util.CodecUtils.toByteValueExact;
@@ -85,7 +86,9 @@ import java.time.YearMonth;
 import java.time.ZonedDateTime;
 import java.util.Base64;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
@@ -287,6 +290,100 @@ class CodecUtilsTest {
         .hasMessageContaining("Invalid number format: 0.1234 ABC");
   }
 
+  @Test
+  void should_parse_plain_number() {
+    assertThat(parsePlainNumber("0", false)).isEqualTo(0);
+    assertThat(parsePlainNumber("-0", false)).isEqualTo(0);
+    assertThat(parsePlainNumber("+123", false)).isEqualTo(123);
+    assertThat(parsePlainNumber("-2147483648", false)).isEqualTo(Integer.MIN_VALUE);
+    assertThat(parsePlainNumber("2147483648", false)).isEqualTo(2147483648L);
+    assertThat(parsePlainNumber("9223372036854775807", false)).isEqualTo(Long.MAX_VALUE);
+    assertThat(parsePlainNumber("-9223372036854775808", false)).isEqualTo(Long.MIN_VALUE);
+    assertThat(parsePlainNumber("-0000000000000000000001", false)).isEqualTo(-1);
+    assertThat(parsePlainNumber("-922337203685477580.8", true))
+        .isEqualTo(new BigDecimal("-922337203685477580.8"));
+    assertThat(parsePlainNumber("-0.0", true)).isEqualTo(new BigDecimal("0.0"));
+    assertThat(parsePlainNumber("1.50", true)).isEqualTo(new BigDecimal("1.50"));
+    assertThat(parsePlainNumber("-12.340", true)).isEqualTo(new BigDecimal("-12.340"));
+    assertThat(parsePlainNumber("1.5", false)).isNull();
+    // not plain: left to the slow path
+    assertThat(parsePlainNumber("", true)).isNull();
+    assertThat(parsePlainNumber("-", true)).isNull();
+    assertThat(parsePlainNumber(" 1", true)).isNull();
+    assertThat(parsePlainNumber("1 ", true)).isNull();
+    assertThat(parsePlainNumber("1.", true)).isNull();
+    assertThat(parsePlainNumber(".1", true)).isNull();
+    assertThat(parsePlainNumber("1.2.3", true)).isNull();
+    assertThat(parsePlainNumber("1,234", true)).isNull();
+    assertThat(parsePlainNumber("1e3", true)).isNull();
+    assertThat(parsePlainNumber("--1", true)).isNull();
+    assertThat(parsePlainNumber("١", true)).isNull();
+    assertThat(parsePlainNumber("9223372036854775808", true)).isNull();
+    assertThat(parsePlainNumber("-9223372036854775809", true)).isNull();
+    assertThat(parsePlainNumber("92233720368547758.08", true)).isNull();
+  }
+
+  @Test
+  void should_parse_plain_numbers_like_number_formats() throws ParseException {
+    NumberFormat french = CodecUtils.getNumberFormat("#,###.##", Locale.FRANCE, HALF_EVEN, true);
+    NumberFormat german = CodecUtils.getNumberFormat("#,###.##", Locale.GERMANY, HALF_EVEN, true);
+    NumberFormat currency = CodecUtils.getNumberFormat("¤#,###.##", US, HALF_EVEN, true);
+    Random random = new Random(42);
+    for (int i = 0; i < 10_000; i++) {
+      StringBuilder sb = new StringBuilder();
+      if (random.nextInt(4) == 0) {
+        sb.append('-');
+      }
+      int digits = 1 + random.nextInt(19);
+      int scale = random.nextBoolean() ? 0 : random.nextInt(digits);
+      for (int j = 0; j < digits; j++) {
+        if (scale > 0 && j == digits - scale) {
+          sb.append('.');
+        }
+        sb.append((char) ('0' + random.nextInt(10)));
+      }
+      String s = sb.toString();
+      for (NumberFormat format :
+          Lists.newArrayList(
+              numberFormat1,
+              numberFormat2,
+              numberFormat3,
+              numberFormat4,
+              french,
+              german,
+              currency)) {
+        boolean decimals = CodecUtils.parsesPlainDecimals(format);
+        Number plain = parsePlainNumber(s, decimals);
+        if ((scale > 0 && !decimals) || new BigDecimal(s).unscaledValue().bitLength() > 63) {
+          assertThat(plain).isNull();
+          continue;
+        }
+        Number expected;
+        try {
+          expected = parseNumber(s, format);
+        } catch (ParseException e) {
+          expected = new BigDecimal(s);
+        }
+        assertThat(plain).isNotNull();
+        assertThat(toBigDecimal(plain)).isEqualTo(expected);
+      }
+    }
+  }
+
+  @Test
+  void should_detect_formats_parsing_plain_numbers() {
+    assertThat(CodecUtils.parsesPlainIntegers(numberFormat1)).isTrue();
+    assertThat(CodecUtils.parsesPlainDecimals(numberFormat1)).isTrue();
+    assertThat(CodecUtils.parsesPlainIntegers(numberFormat4)).isTrue();
+    assertThat(CodecUtils.parsesPlainDecimals(numberFormat4)).isTrue();
+    NumberFormat german = CodecUtils.getNumberFormat("#,###.##", Locale.GERMANY, HALF_EVEN, true);
+    assertThat(CodecUtils.parsesPlainIntegers(german)).isTrue();
+    assertThat(CodecUtils.parsesPlainDecimals(german)).isFalse();
+    NumberFormat percent = CodecUtils.getNumberFormat("#%", US, HALF_EVEN, true);
+    assertThat(CodecUtils.parsesPlainIntegers(percent)).isFalse();
+    assertThat(CodecUtils.parsesPlainIntegers(NumberFormat.getInstance(US))).isFalse();
+  }
+
   @Test
   void should_format_number() {
     assertThat(formatNumber(null, numberFormat1)).isNull();
@@ -811,6 +908,11 @@ class CodecUtilsTest {
     assertThat(toFloatValueExact(Double.NEGATIVE_INFINITY)).isEqualTo(Float.NEGATIVE_INFINITY);
     assertThat(toFloatValueExact(Double.POSITIVE_INFINITY)).isEqualTo(Float.POSITIVE_INFINITY);
     assertThat(toFloatValueExact(Double.NaN)).isNaN();
+    assertThat(toFloatValueExact(1L << 24)).isEqualTo(16777216f);
+    assertThat(toFloatValueExact(-(1L << 24))).isEqualTo(-16777216f);
+    assertThatThrownBy(() -> toFloatValueExact((1L << 24) + 1))
+        .isInstanceOf(ArithmeticException.class)
+        .hasMessageContaining("Cannot convert 16777217 from Long to Float");
     // float -> double type widening may alter the original
     assertThatThrownBy(() -> toFloatValueExact((double) Float.MAX_VALUE))
         .isInstanceOf(ArithmeticException.class)
@@ -846,6 +948,11 @@ class CodecUtilsTest {
     assertThat(toDoubleValueExact(Float.NEGATIVE_INFINITY)).isEqualTo(Double.NEGATIVE_INFINITY);
     assertThat(toDoubleValueExact(Float.POSITIVE_INFINITY)).isEqualTo(Double.POSITIVE_INFINITY);
     assertThat(toDoubleValueExact(Float.NaN)).isNaN();
+    assertThat(toDoubleValueExact(1L << 53)).isEqualTo(9007199254740992d);
+    assertThat(toDoubleValueExact(-(1L << 53))).isEqualTo(-9007199254740992d);
+    assertThatThrownBy(() -> toDoubleValueExact((1L << 53) + 1))
+        .isInstanceOf(ArithmeticException.class)
+        .hasMessageContaining("Cannot convert 9007199254740993 from Long to Double");
     // too big for double
     BigDecimal bigDecimal = BigDecimal.valueOf(Double.MAX_VALUE).add(BigDecimal.ONE);
     assertThatThrownBy(() -> toDoubleValueExact(bigDecimal))
@@ -25,7 +25,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import com.datastax.oss.driver.shaded.guava.common.collect.Lists;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import java.time.DateTimeException;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
@@ -34,7 +36,9 @@ import java.time.format.DateTimeFormatterBuilder;
 import java.time.temporal.TemporalAccessor;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
@@ -64,6 +68,82 @@ class CqlTemporalFormatTest {
     assertThat(actual).isEqualTo(expected);
   }
 
+  @Test
+  void should_parse_fixed_layouts_like_full_parser() {
+    List<String> inputs =
+        Lists.newArrayList(
+            "2020-02-29",
+            "2021-02-29",
+            "2020-04-31",
+            "2020-13-01",
+            "0000-01-01",
+            "9999-12-31T23:59:59.999999999Z",
+            "2020-01-02T03:04",
+            "2020-01-02 03:04:05",
+            "2020-01-02T03:04:05.1",
+            "2020-01-02T03:04:05.",
+            "2020-01-02T03:04:05.1234567891",
+            "2020-01-02T24:00",
+            "2020-01-02T23:60",
+            "2020-01-02T23:59:60",
+            "2020-01-02T03:04:05-00:00",
+            "2020-01-02T03:04:05+18:00",
+            "2020-01-02T03:04:05+18:01",
+            "2020-01-02T03:04:05-12:34",
+            "2020-01-02T03:04:05+0200",
+            "2020-01-02T03:04:05+02",
+            "2020-01-02T03:04:05 UTC",
+            "2020-01-02 UTC",
+            "2020-01-02Z",
+            "2020-03-08T02:30:00",
+            " 2020-01-02",
+            "2020-01-02 ",
+            "+2020-01-02",
+            "2020-1-02");
+    Random random = new Random(42);
+    for (int i = 0; i < 1000; i++) {
+      ZonedDateTime zdt =
+          ZonedDateTime.ofInstant(
+              Instant.ofEpochSecond(random.nextInt(Integer.MAX_VALUE), random.nextInt(1000) * 1000),
+              ZoneOffset.ofTotalSeconds((random.nextInt(49) - 24) * 1800));
+      inputs.add(ISO_OFFSET_DATE_TIME.format(zdt));
+      inputs.add(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(zdt));
+    }
+    for (ZoneId zone : Lists.newArrayList(ZoneOffset.UTC, ZoneId.of("America/New_York"))) {
+      ZonedTemporalFormat reference =
+          new ZonedTemporalFormat(CqlTemporalFormat.createParser(), ISO_OFFSET_DATE_TIME, zone);
+      for (String input : inputs) {
+        ZonedDateTime actual = CqlTemporalFormat.parseFixedLayout(input, zone);
+        TemporalAccessor expected;
+        try {
+          expected = reference.parse(input);
+        } catch (DateTimeException e) {
+          assertThat(actual).as(input).isNull();
+          continue;
+        }
+        if (actual != null) {
+          LocalDate epoch = LocalDate.ofEpochDay(0);
+          assertThat(actual.toInstant())
+              .as(input)
+              .isEqualTo(CodecUtils.toInstant(expected, zone, epoch));
+          assertThat(actual.toLocalDate())
+              .as(input)
+              .isEqualTo(CodecUtils.toLocalDate(expected, zone));
+          assertThat(actual.toLocalTime())
+              .as(input)
+              .isEqualTo(CodecUtils.toLocalTime(expected, zone));
+          assertThat(actual).as(input).isEqualTo(CodecUtils.toZonedDateTime(expected, zone, epoch));
+        }
+      }
+    }
+    // the most common layouts should not need the full parser
+    assertThat(CqlTemporalFormat.parseFixedLayout("2020-01-02", ZoneOffset.UTC)).isNotNull();
+    assertThat(CqlTemporalFormat.parseFixedLayout("2020-01-02T03:04:05Z", ZoneOffset.UTC))
+        .isNotNull();
+    assertThat(CqlTemporalFormat.parseFixedLayout("2020-01-02 03:04:05.678+01:00", ZoneOffset.UTC))
+        .isNotNull();
+  }
+
   // all valid CQL patterns, as used in Cassandra 2.2+
   private static final List<String> PATTERNS =
       Lists.newArrayList(
@@ -0,0 +1,63 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.codecs.api.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+
+class TemporalCacheTest {
+
+  @Test
+  void should_cache_and_evict_values() {
+    TemporalCache.Statistics statistics = new TemporalCache.Statistics();
+    // a single slot: each new string evicts the previous one
+    TemporalCache<LocalDate> cache = new TemporalCache<>(1, statistics);
+    LocalDate date1 = LocalDate.of(2020, 1, 1);
+    LocalDate date2 = LocalDate.of(2020, 1, 2);
+    assertThat(cache.get("2020-01-01")).isNull();
+    cache.put("2020-01-01", date1);
+    assertThat(cache.get("2020-01-01")).isSameAs(date1);
+    cache.put("2020-01-02", date2);
+    assertThat(cache.get("2020-01-02")).isSameAs(date2);
+    assertThat(cache.get("2020-01-01")).isNull();
+    assertThat(statistics.getHits()).isEqualTo(2);
+    assertThat(statistics.getMisses()).isEqualTo(2);
+    assertThat(statistics.getHitRatio()).isEqualTo(0.5);
+  }
+
+  @Test
+  void should_share_statistics() {
+    TemporalCache.Statistics statistics = new TemporalCache.Statistics();
+    assertThat(statistics.getHitRatio()).isZero();
+    TemporalCache<LocalDate> cache1 = new TemporalCache<>(8, statistics);
+    TemporalCache<LocalDate> cache2 = new TemporalCache<>(8, statistics);
+    cache1.put("2020-01-01", LocalDate.of(2020, 1, 1));
+    assertThat(cache1.get("2020-01-01")).isNotNull();
+    assertThat(cache2.get("2020-01-01")).isNull();
+    assertThat(statistics.getHits()).isEqualTo(1);
+    assertThat(statistics.getMisses()).isEqualTo(1);
+  }
+
+  @Test
+  void should_reject_invalid_size() {
+    assertThatThrownBy(() -> new TemporalCache<>(0, new TemporalCache.Statistics()))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("size must be > 0, got 0");
+  }
+}
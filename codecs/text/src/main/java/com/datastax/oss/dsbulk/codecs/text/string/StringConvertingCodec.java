@@ -17,6 +17,7 @@ package com.datastax.oss.dsbulk.codecs.text.string;
 
 import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
 import com.datastax.oss.dsbulk.codecs.api.ConvertingCodec;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.util.List;
 
 public abstract class StringConvertingCodec<T> extends ConvertingCodec<String, T> {
@@ -71,4 +72,16 @@ public abstract class StringConvertingCodec<T> extends ConvertingCodec<String, T
   protected String nullString() {
     return nullStrings.isEmpty() ? null : nullStrings.get(0);
   }
+
+  /**
+   * Returns a formatter that formats serialized values of this codec's CQL type directly as UTF-8
+   * text, or {@code null} if this codec does not have one.
+   *
+   * <p>Codecs typically only have such a formatter when their formatting settings are simple
+   * enough; the default implementation returns {@code null}.
+   */
+  @Nullable
+  public Utf8Formatter getUtf8Formatter() {
+    return null;
+  }
 }
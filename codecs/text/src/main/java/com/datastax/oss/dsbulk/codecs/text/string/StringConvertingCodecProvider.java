@@ -16,6 +16,8 @@
 package com.datastax.oss.dsbulk.codecs.text.string;
 
 import static com.datastax.oss.dsbulk.codecs.api.CommonConversionContext.BINARY_FORMAT;
+import static com.datastax.oss.dsbulk.codecs.api.CommonConversionContext.TEMPORAL_CACHE_SIZE;
+import static com.datastax.oss.dsbulk.codecs.api.CommonConversionContext.TEMPORAL_CACHE_STATISTICS;
 import static com.datastax.oss.dsbulk.codecs.text.TextConversionContext.BOOLEAN_INPUT_WORDS;
 import static com.datastax.oss.dsbulk.codecs.text.TextConversionContext.BOOLEAN_NUMBERS;
 import static com.datastax.oss.dsbulk.codecs.text.TextConversionContext.BOOLEAN_OUTPUT_WORDS;
@@ -74,6 +76,7 @@ import com.datastax.oss.dsbulk.codecs.api.ConversionContext;
 import com.datastax.oss.dsbulk.codecs.api.ConvertingCodec;
 import com.datastax.oss.dsbulk.codecs.api.ConvertingCodecFactory;
 import com.datastax.oss.dsbulk.codecs.api.ConvertingCodecProvider;
+import com.datastax.oss.dsbulk.codecs.api.util.TemporalCache;
 import com.datastax.oss.dsbulk.codecs.text.string.dse.StringToDateRangeCodec;
 import com.datastax.oss.dsbulk.codecs.text.string.dse.StringToLineStringCodec;
 import com.datastax.oss.dsbulk.codecs.text.string.dse.StringToPointCodec;
@@ -82,6 +85,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import java.time.Instant;
+import java.time.temporal.TemporalAccessor;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -247,16 +251,23 @@ public class StringConvertingCodecProvider implements ConvertingCodecProvider {
             nullStrings);
       case DATE:
         return new StringToLocalDateCodec(
-            context.getAttribute(LOCAL_DATE_FORMAT), context.getAttribute(TIME_ZONE), nullStrings);
+            context.getAttribute(LOCAL_DATE_FORMAT),
+            context.getAttribute(TIME_ZONE),
+            nullStrings,
+            createTemporalCache(context));
       case TIME:
         return new StringToLocalTimeCodec(
-            context.getAttribute(LOCAL_TIME_FORMAT), context.getAttribute(TIME_ZONE), nullStrings);
+            context.getAttribute(LOCAL_TIME_FORMAT),
+            context.getAttribute(TIME_ZONE),
+            nullStrings,
+            createTemporalCache(context));
       case TIMESTAMP:
         return new StringToInstantCodec(
             context.getAttribute(TIMESTAMP_FORMAT),
             context.getAttribute(TIME_ZONE),
             context.getAttribute(EPOCH),
-            nullStrings);
+            nullStrings,
+            createTemporalCache(context));
       case INET:
         return new StringToInetAddressCodec(nullStrings);
       case UUID:
@@ -346,4 +357,14 @@ public class StringConvertingCodecProvider implements ConvertingCodecProvider {
         return null;
     }
   }
+
+  @Nullable
+  private static <T extends TemporalAccessor> TemporalCache<T> createTemporalCache(
+      ConversionContext context) {
+    int size = context.getAttribute(TEMPORAL_CACHE_SIZE);
+    if (size <= 0) {
+      return null;
+    }
+    return new TemporalCache<>(size, context.getAttribute(TEMPORAL_CACHE_STATISTICS));
+  }
 }
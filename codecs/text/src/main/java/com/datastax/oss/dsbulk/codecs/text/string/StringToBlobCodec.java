@@ -16,18 +16,28 @@
 package com.datastax.oss.dsbulk.codecs.text.string;
 
 import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
+import com.datastax.oss.dsbulk.codecs.api.util.Base64BinaryFormat;
 import com.datastax.oss.dsbulk.codecs.api.util.BinaryFormat;
 import com.datastax.oss.dsbulk.codecs.api.util.CodecUtils;
+import com.datastax.oss.dsbulk.codecs.api.util.HexBinaryFormat;
 import java.nio.ByteBuffer;
 import java.util.List;
 
 public class StringToBlobCodec extends StringConvertingCodec<ByteBuffer> {
 
   private final BinaryFormat binaryFormat;
+  private final Utf8Formatter utf8Formatter;
 
   public StringToBlobCodec(List<String> nullStrings, BinaryFormat binaryFormat) {
     super(TypeCodecs.BLOB, nullStrings);
     this.binaryFormat = binaryFormat;
+    if (binaryFormat == HexBinaryFormat.INSTANCE) {
+      utf8Formatter = Utf8Formatters.ofHexBlob();
+    } else if (binaryFormat == Base64BinaryFormat.INSTANCE) {
+      utf8Formatter = Utf8Formatters.ofBase64Blob();
+    } else {
+      utf8Formatter = null;
+    }
   }
 
   @Override
@@ -46,4 +56,9 @@ public class StringToBlobCodec extends StringConvertingCodec<ByteBuffer> {
     }
     return binaryFormat.format(value);
   }
+
+  @Override
+  public Utf8Formatter getUtf8Formatter() {
+    return utf8Formatter;
+  }
 }
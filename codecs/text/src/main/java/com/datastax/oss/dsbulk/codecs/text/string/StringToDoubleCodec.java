@@ -32,6 +32,8 @@ import java.util.concurrent.TimeUnit;
 
 public class StringToDoubleCodec extends StringToNumberCodec<Double> {
 
+  private final Utf8Formatter utf8Formatter;
+
   public StringToDoubleCodec(
       FastThreadLocal<NumberFormat> numberFormat,
       OverflowStrategy overflowStrategy,
@@ -55,6 +57,7 @@ public class StringToDoubleCodec extends StringToNumberCodec<Double> {
         booleanStrings,
         booleanNumbers.stream().map(BigDecimal::doubleValue).collect(toList()),
         nullStrings);
+    utf8Formatter = formatsWithToString() ? Utf8Formatters.ofDouble(this) : null;
   }
 
   @Override
@@ -65,4 +68,9 @@ public class StringToDoubleCodec extends StringToNumberCodec<Double> {
     }
     return narrowNumber(number, Double.class);
   }
+
+  @Override
+  public Utf8Formatter getUtf8Formatter() {
+    return utf8Formatter;
+  }
 }
@@ -17,7 +17,10 @@ package com.datastax.oss.dsbulk.codecs.text.string;
 
 import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
 import com.datastax.oss.dsbulk.codecs.api.util.CodecUtils;
+import com.datastax.oss.dsbulk.codecs.api.util.CqlTemporalFormat;
+import com.datastax.oss.dsbulk.codecs.api.util.TemporalCache;
 import com.datastax.oss.dsbulk.codecs.api.util.TemporalFormat;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -28,23 +31,41 @@ public class StringToInstantCodec extends StringToTemporalCodec<Instant> {
 
   private final ZoneId timeZone;
   private final ZonedDateTime epoch;
+  private final Utf8Formatter utf8Formatter;
 
   public StringToInstantCodec(
       TemporalFormat temporalFormat,
       ZoneId timeZone,
       ZonedDateTime epoch,
       List<String> nullStrings) {
-    super(TypeCodecs.TIMESTAMP, temporalFormat, nullStrings);
+    this(temporalFormat, timeZone, epoch, nullStrings, null);
+  }
+
+  public StringToInstantCodec(
+      TemporalFormat temporalFormat,
+      ZoneId timeZone,
+      ZonedDateTime epoch,
+      List<String> nullStrings,
+      @Nullable TemporalCache<Instant> cache) {
+    super(TypeCodecs.TIMESTAMP, temporalFormat, nullStrings, cache);
     this.timeZone = timeZone;
     this.epoch = epoch;
+    // only the default format has a fixed layout
+    if (temporalFormat.getClass() == CqlTemporalFormat.class) {
+      utf8Formatter =
+          Utf8Formatters.ofIsoTimestamp(this, ((CqlTemporalFormat) temporalFormat).getTimeZone());
+    } else {
+      utf8Formatter = null;
+    }
   }
 
   @Override
-  public Instant externalToInternal(String s) {
-    TemporalAccessor temporal = parseTemporalAccessor(s);
-    if (temporal == null) {
-      return null;
-    }
+  Instant convertTemporal(TemporalAccessor temporal) {
     return CodecUtils.toInstant(temporal, timeZone, epoch.toLocalDate());
   }
+
+  @Override
+  public Utf8Formatter getUtf8Formatter() {
+    return utf8Formatter;
+  }
 }
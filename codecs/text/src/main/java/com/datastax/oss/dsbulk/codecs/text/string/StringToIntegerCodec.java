@@ -32,6 +32,8 @@ import java.util.concurrent.TimeUnit;
 
 public class StringToIntegerCodec extends StringToNumberCodec<Integer> {
 
+  private final Utf8Formatter utf8Formatter;
+
   public StringToIntegerCodec(
       FastThreadLocal<NumberFormat> numberFormat,
       OverflowStrategy overflowStrategy,
@@ -55,6 +57,7 @@ public class StringToIntegerCodec extends StringToNumberCodec<Integer> {
         booleanStrings,
         booleanNumbers.stream().map(BigDecimal::intValueExact).collect(toList()),
         nullStrings);
+    utf8Formatter = formatsWithToString() ? Utf8Formatters.ofInt(this) : null;
   }
 
   @Override
@@ -65,4 +68,9 @@ public class StringToIntegerCodec extends StringToNumberCodec<Integer> {
     }
     return narrowNumber(number, Integer.class);
   }
+
+  @Override
+  public Utf8Formatter getUtf8Formatter() {
+    return utf8Formatter;
+  }
 }
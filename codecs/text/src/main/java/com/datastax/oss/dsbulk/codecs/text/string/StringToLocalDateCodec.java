@@ -17,7 +17,9 @@ package com.datastax.oss.dsbulk.codecs.text.string;
 
 import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
 import com.datastax.oss.dsbulk.codecs.api.util.CodecUtils;
+import com.datastax.oss.dsbulk.codecs.api.util.TemporalCache;
 import com.datastax.oss.dsbulk.codecs.api.util.TemporalFormat;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.temporal.TemporalAccessor;
@@ -28,16 +30,20 @@ public class StringToLocalDateCodec extends StringToTemporalCodec<LocalDate> {
   private final ZoneId timeZone;
 
   public StringToLocalDateCodec(TemporalFormat parser, ZoneId timeZone, List<String> nullStrings) {
-    super(TypeCodecs.DATE, parser, nullStrings);
+    this(parser, timeZone, nullStrings, null);
+  }
+
+  public StringToLocalDateCodec(
+      TemporalFormat parser,
+      ZoneId timeZone,
+      List<String> nullStrings,
+      @Nullable TemporalCache<LocalDate> cache) {
+    super(TypeCodecs.DATE, parser, nullStrings, cache);
     this.timeZone = timeZone;
   }
 
   @Override
-  public LocalDate externalToInternal(String s) {
-    TemporalAccessor temporal = parseTemporalAccessor(s);
-    if (temporal == null) {
-      return null;
-    }
+  LocalDate convertTemporal(TemporalAccessor temporal) {
     return CodecUtils.toLocalDate(temporal, timeZone);
   }
 }
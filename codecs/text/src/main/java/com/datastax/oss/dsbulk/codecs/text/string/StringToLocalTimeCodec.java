@@ -17,7 +17,9 @@ package com.datastax.oss.dsbulk.codecs.text.string;
 
 import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
 import com.datastax.oss.dsbulk.codecs.api.util.CodecUtils;
+import com.datastax.oss.dsbulk.codecs.api.util.TemporalCache;
 import com.datastax.oss.dsbulk.codecs.api.util.TemporalFormat;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.temporal.TemporalAccessor;
@@ -28,16 +30,20 @@ public class StringToLocalTimeCodec extends StringToTemporalCodec<LocalTime> {
   private final ZoneId timeZone;
 
   public StringToLocalTimeCodec(TemporalFormat parser, ZoneId timeZone, List<String> nullStrings) {
-    super(TypeCodecs.TIME, parser, nullStrings);
+    this(parser, timeZone, nullStrings, null);
+  }
+
+  public StringToLocalTimeCodec(
+      TemporalFormat parser,
+      ZoneId timeZone,
+      List<String> nullStrings,
+      @Nullable TemporalCache<LocalTime> cache) {
+    super(TypeCodecs.TIME, parser, nullStrings, cache);
     this.timeZone = timeZone;
   }
 
   @Override
-  public LocalTime externalToInternal(String s) {
-    TemporalAccessor temporal = parseTemporalAccessor(s);
-    if (temporal == null) {
-      return null;
-    }
+  LocalTime convertTemporal(TemporalAccessor temporal) {
     return CodecUtils.toLocalTime(temporal, timeZone);
   }
 }
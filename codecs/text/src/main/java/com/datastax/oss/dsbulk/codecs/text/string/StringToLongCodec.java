@@ -32,6 +32,8 @@ import java.util.concurrent.TimeUnit;
 
 public class StringToLongCodec extends StringToNumberCodec<Long> {
 
+  private final Utf8Formatter utf8Formatter;
+
   public StringToLongCodec(
       PrimitiveLongCodec targetCodec,
       FastThreadLocal<NumberFormat> numberFormat,
@@ -56,6 +58,7 @@ public class StringToLongCodec extends StringToNumberCodec<Long> {
         booleanStrings,
         booleanNumbers.stream().map(BigDecimal::longValueExact).collect(toList()),
         nullStrings);
+    utf8Formatter = formatsWithToString() ? Utf8Formatters.ofBigint(this) : null;
   }
 
   @Override
@@ -66,4 +69,9 @@ public class StringToLongCodec extends StringToNumberCodec<Long> {
     }
     return narrowNumber(number, Long.class);
   }
+
+  @Override
+  public Utf8Formatter getUtf8Formatter() {
+    return utf8Formatter;
+  }
 }
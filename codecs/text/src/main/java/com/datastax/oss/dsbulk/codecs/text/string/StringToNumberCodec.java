@@ -19,7 +19,9 @@ import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
 import com.datastax.oss.dsbulk.codecs.api.util.CodecUtils;
 import com.datastax.oss.dsbulk.codecs.api.util.OverflowStrategy;
 import com.datastax.oss.dsbulk.codecs.api.util.TemporalFormat;
+import com.datastax.oss.dsbulk.codecs.api.util.ToStringNumberFormat;
 import io.netty.util.concurrent.FastThreadLocal;
+import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.text.NumberFormat;
 import java.time.ZoneId;
@@ -39,6 +41,9 @@ public abstract class StringToNumberCodec<N extends Number> extends StringConver
   private final ZonedDateTime epoch;
   private final Map<String, Boolean> booleanStrings;
   private final List<N> booleanNumbers;
+  private final boolean plainIntegers;
+  private final boolean plainDecimals;
+  private final long maxExactInteger;
 
   StringToNumberCodec(
       TypeCodec<N> targetCodec,
@@ -62,6 +67,10 @@ public abstract class StringToNumberCodec<N extends Number> extends StringConver
     this.epoch = epoch;
     this.booleanStrings = booleanStrings;
     this.booleanNumbers = booleanNumbers;
+    NumberFormat format = numberFormat.get();
+    plainIntegers = CodecUtils.parsesPlainIntegers(format);
+    plainDecimals = CodecUtils.parsesPlainDecimals(format);
+    maxExactInteger = maxExactInteger(targetCodec.getJavaType().getRawType());
   }
 
   @Override
@@ -72,10 +81,31 @@ public abstract class StringToNumberCodec<N extends Number> extends StringConver
     return CodecUtils.formatNumber(value, numberFormat.get());
   }
 
+  /** Whether numbers are formatted with {@link Number#toString()}. */
+  boolean formatsWithToString() {
+    return numberFormat.get() instanceof ToStringNumberFormat;
+  }
+
   Number parseNumber(String s) {
     if (isNullOrEmpty(s)) {
       return null;
     }
+    if (plainIntegers) {
+      // fast path for plain numbers, which the number format would parse to the same value
+      Number number = CodecUtils.parsePlainNumber(s, plainDecimals);
+      if (number != null) {
+        if (number instanceof BigDecimal) {
+          return number;
+        }
+        long l = number.longValue();
+        if (l >= -maxExactInteger - 1 && l <= maxExactInteger) {
+          return number;
+        }
+        // the value will overflow: narrow a BigDecimal, as the slow path would have returned, to
+        // report the overflow exactly as it would have
+        return BigDecimal.valueOf(l);
+      }
+    }
     return CodecUtils.parseNumber(
         s,
         numberFormat.get(),
@@ -90,4 +120,29 @@ public abstract class StringToNumberCodec<N extends Number> extends StringConver
   N narrowNumber(Number number, Class<? extends N> targetClass) {
     return CodecUtils.narrowNumber(number, targetClass, overflowStrategy, roundingMode);
   }
+
+  /**
+   * Returns the largest integer that can be converted to the given class without overflow nor
+   * precision loss; its opposite minus one is the smallest.
+   */
+  private static long maxExactInteger(Class<?> targetClass) {
+    if (targetClass.equals(Byte.class)) {
+      return Byte.MAX_VALUE;
+    }
+    if (targetClass.equals(Short.class)) {
+      return Short.MAX_VALUE;
+    }
+    if (targetClass.equals(Integer.class)) {
+      return Integer.MAX_VALUE;
+    }
+    if (targetClass.equals(Float.class)) {
+      // all integers up to 2^24 are exactly representable as floats
+      return (1L << 24) - 1;
+    }
+    if (targetClass.equals(Double.class)) {
+      // all integers up to 2^53 are exactly representable as doubles
+      return (1L << 53) - 1;
+    }
+    return Long.MAX_VALUE;
+  }
 }
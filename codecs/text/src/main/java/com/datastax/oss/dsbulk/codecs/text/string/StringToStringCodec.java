@@ -16,12 +16,20 @@
 package com.datastax.oss.dsbulk.codecs.text.string;
 
 import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
 import java.util.List;
 
 public class StringToStringCodec extends StringConvertingCodec<String> {
 
+  private final Utf8Formatter utf8Formatter;
+
   public StringToStringCodec(TypeCodec<String> innerCodec, List<String> nullStrings) {
     super(innerCodec, nullStrings);
+    if (innerCodec == TypeCodecs.TEXT || innerCodec == TypeCodecs.ASCII) {
+      utf8Formatter = Utf8Formatters.ofText(this, innerCodec == TypeCodecs.ASCII);
+    } else {
+      utf8Formatter = null;
+    }
   }
 
   @Override
@@ -40,4 +48,9 @@ public class StringToStringCodec extends StringConvertingCodec<String> {
     }
     return value;
   }
+
+  @Override
+  public Utf8Formatter getUtf8Formatter() {
+    return utf8Formatter;
+  }
 }
@@ -16,7 +16,9 @@
 package com.datastax.oss.dsbulk.codecs.text.string;
 
 import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
+import com.datastax.oss.dsbulk.codecs.api.util.TemporalCache;
 import com.datastax.oss.dsbulk.codecs.api.util.TemporalFormat;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.time.temporal.TemporalAccessor;
 import java.util.List;
 
@@ -24,11 +26,35 @@ public abstract class StringToTemporalCodec<T extends TemporalAccessor>
     extends StringConvertingCodec<T> {
 
   final TemporalFormat temporalFormat;
+  @Nullable private final TemporalCache<T> cache;
 
   StringToTemporalCodec(
-      TypeCodec<T> targetCodec, TemporalFormat temporalFormat, List<String> nullStrings) {
+      TypeCodec<T> targetCodec,
+      TemporalFormat temporalFormat,
+      List<String> nullStrings,
+      @Nullable TemporalCache<T> cache) {
     super(targetCodec, nullStrings);
     this.temporalFormat = temporalFormat;
+    this.cache = cache;
+  }
+
+  @Override
+  public T externalToInternal(String s) {
+    if (isNullOrEmpty(s)) {
+      return null;
+    }
+    T value = cache == null ? null : cache.get(s);
+    if (value == null) {
+      TemporalAccessor temporal = temporalFormat.parse(s);
+      if (temporal == null) {
+        return null;
+      }
+      value = convertTemporal(temporal);
+      if (cache != null) {
+        cache.put(s, value);
+      }
+    }
+    return value;
   }
 
   @Override
@@ -39,10 +65,6 @@ public abstract class StringToTemporalCodec<T extends TemporalAccessor>
     return temporalFormat.format(value);
   }
 
-  TemporalAccessor parseTemporalAccessor(String s) {
-    if (isNullOrEmpty(s)) {
-      return null;
-    }
-    return temporalFormat.parse(s);
-  }
+  /** Converts a temporal parsed from an external string into the internal type. */
+  abstract T convertTemporal(TemporalAccessor temporal);
 }
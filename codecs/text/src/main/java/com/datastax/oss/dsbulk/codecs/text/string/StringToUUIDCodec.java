@@ -16,6 +16,7 @@
 package com.datastax.oss.dsbulk.codecs.text.string;
 
 import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
 import com.datastax.oss.dsbulk.codecs.api.ConvertingCodec;
 import com.datastax.oss.dsbulk.codecs.api.util.CodecUtils;
 import com.datastax.oss.dsbulk.codecs.api.util.TimeUUIDGenerator;
@@ -27,6 +28,7 @@ public class StringToUUIDCodec extends StringConvertingCodec<UUID> {
 
   private final ConvertingCodec<String, Instant> instantCodec;
   private final TimeUUIDGenerator generator;
+  private final Utf8Formatter utf8Formatter;
 
   public StringToUUIDCodec(
       TypeCodec<UUID> targetCodec,
@@ -36,6 +38,11 @@ public class StringToUUIDCodec extends StringConvertingCodec<UUID> {
     super(targetCodec, nullStrings);
     this.instantCodec = instantCodec;
     this.generator = generator;
+    if (targetCodec == TypeCodecs.UUID || targetCodec == TypeCodecs.TIMEUUID) {
+      utf8Formatter = Utf8Formatters.ofUuid(this);
+    } else {
+      utf8Formatter = null;
+    }
   }
 
   @Override
@@ -53,4 +60,9 @@ public class StringToUUIDCodec extends StringConvertingCodec<UUID> {
     }
     return value.toString();
   }
+
+  @Override
+  public Utf8Formatter getUtf8Formatter() {
+    return utf8Formatter;
+  }
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.codecs.text.string;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.nio.ByteBuffer;
+
+/**
+ * Formats serialized CQL values directly as UTF-8 encoded text, without deserializing them to Java
+ * objects and then converting these objects to strings.
+ *
+ * <p>Formatters are obtained from {@linkplain StringConvertingCodec#getUtf8Formatter() string
+ * converting codecs}. For any serialized value, the bytes written by a formatter must be exactly
+ * the UTF-8 encoding of the string that its codec would have produced for the same value.
+ */
+@FunctionalInterface
+public interface Utf8Formatter {
+
+  /**
+   * Formats the given serialized value into the given buffer, starting at the buffer's current
+   * position.
+   *
+   * @param raw The serialized value to format; never {@code null} nor empty. Implementors must not
+   *     alter its position nor its limit.
+   * @param out The buffer to write to.
+   * @return {@code true} if the value was written, {@code false} if the buffer did not have enough
+   *     room for it, in which case the buffer's position is left unchanged.
+   */
+  boolean format(@NonNull ByteBuffer raw, @NonNull ByteBuffer out);
+}
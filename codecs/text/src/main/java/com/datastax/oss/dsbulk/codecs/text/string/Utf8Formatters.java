@@ -0,0 +1,370 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.codecs.text.string;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.netty.util.concurrent.FastThreadLocal;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
+
+/**
+ * {@link Utf8Formatter} implementations for the most common CQL types.
+ *
+ * <p>Serialized values that a formatter cannot handle itself (for example, timestamps outside the
+ * range of 4-digit years, or malformed text) are handed over to the formatter's codec instead, so
+ * that the output, or the error, is always identical to the codec's.
+ */
+final class Utf8Formatters {
+
+  private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(UTF_8);
+
+  private static final byte[] BASE64_DIGITS =
+      "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes(UTF_8);
+
+  private static final long MILLIS_PER_DAY = 86_400_000L;
+
+  // years -1000 and 11000, roughly
+  private static final long MIN_MILLIS = -93_750_000_000_000L;
+  private static final long MAX_MILLIS = 284_960_000_000_000L;
+
+  private static final FastThreadLocal<StringBuilder> DOUBLE_BUFFER =
+      new FastThreadLocal<StringBuilder>() {
+        @Override
+        protected StringBuilder initialValue() {
+          return new StringBuilder(32);
+        }
+      };
+
+  private Utf8Formatters() {}
+
+  /** Formats 32-bit integers like {@link Integer#toString(int)}. */
+  static Utf8Formatter ofInt(@NonNull StringConvertingCodec<?> codec) {
+    return (raw, out) -> {
+      if (raw.remaining() != 4) {
+        return fallback(codec, raw, out);
+      }
+      // "-2147483648"
+      if (out.remaining() < 11) {
+        return false;
+      }
+      putLong(raw.getInt(raw.position()), out);
+      return true;
+    };
+  }
+
+  /** Formats 64-bit integers like {@link Long#toString(long)}. */
+  static Utf8Formatter ofBigint(@NonNull StringConvertingCodec<?> codec) {
+    return (raw, out) -> {
+      if (raw.remaining() != 8) {
+        return fallback(codec, raw, out);
+      }
+      // "-9223372036854775808"
+      if (out.remaining() < 20) {
+        return false;
+      }
+      putLong(raw.getLong(raw.position()), out);
+      return true;
+    };
+  }
+
+  /** Formats doubles like {@link Double#toString(double)}. */
+  static Utf8Formatter ofDouble(@NonNull StringConvertingCodec<?> codec) {
+    return (raw, out) -> {
+      if (raw.remaining() != 8) {
+        return fallback(codec, raw, out);
+      }
+      StringBuilder sb = DOUBLE_BUFFER.get();
+      sb.setLength(0);
+      sb.append(raw.getDouble(raw.position()));
+      int length = sb.length();
+      if (out.remaining() < length) {
+        return false;
+      }
+      for (int i = 0; i < length; i++) {
+        out.put((byte) sb.charAt(i));
+      }
+      return true;
+    };
+  }
+
+  /** Formats UUIDs like {@link java.util.UUID#toString()}. */
+  static Utf8Formatter ofUuid(@NonNull StringConvertingCodec<?> codec) {
+    return (raw, out) -> {
+      if (raw.remaining() != 16) {
+        return fallback(codec, raw, out);
+      }
+      if (out.remaining() < 36) {
+        return false;
+      }
+      int start = raw.position();
+      for (int i = 0; i < 16; i++) {
+        if (i == 4 || i == 6 || i == 8 || i == 10) {
+          out.put((byte) '-');
+        }
+        putHex(raw.get(start + i), out);
+      }
+      return true;
+    };
+  }
+
+  /**
+   * Formats text values by copying their bytes, provided that they are well-formed; ascii values
+   * must only contain 7-bit characters, other text values must be valid UTF-8.
+   */
+  static Utf8Formatter ofText(@NonNull StringConvertingCodec<?> codec, boolean ascii) {
+    return (raw, out) -> {
+      int start = raw.position();
+      int end = raw.limit();
+      if (!(ascii ? isAscii(raw, start, end) : isUtf8(raw, start, end))) {
+        return fallback(codec, raw, out);
+      }
+      if (out.remaining() < end - start) {
+        return false;
+      }
+      out.put(raw.duplicate());
+      return true;
+    };
+  }
+
+  /** Formats blobs like {@link com.datastax.oss.dsbulk.codecs.api.util.HexBinaryFormat}. */
+  static Utf8Formatter ofHexBlob() {
+    return (raw, out) -> {
+      int start = raw.position();
+      int end = raw.limit();
+      if (out.remaining() < 2 + 2 * (end - start)) {
+        return false;
+      }
+      out.put((byte) '0').put((byte) 'x');
+      for (int i = start; i < end; i++) {
+        putHex(raw.get(i), out);
+      }
+      return true;
+    };
+  }
+
+  /** Formats blobs like {@link com.datastax.oss.dsbulk.codecs.api.util.Base64BinaryFormat}. */
+  static Utf8Formatter ofBase64Blob() {
+    return (raw, out) -> {
+      int start = raw.position();
+      int end = raw.limit();
+      if (out.remaining() < 4 * ((end - start + 2) / 3)) {
+        return false;
+      }
+      int i = start;
+      for (; i + 2 < end; i += 3) {
+        int bits = (raw.get(i) & 0xff) << 16 | (raw.get(i + 1) & 0xff) << 8 | raw.get(i + 2) & 0xff;
+        out.put(BASE64_DIGITS[bits >>> 18])
+            .put(BASE64_DIGITS[bits >>> 12 & 0x3f])
+            .put(BASE64_DIGITS[bits >>> 6 & 0x3f])
+            .put(BASE64_DIGITS[bits & 0x3f]);
+      }
+      if (i < end) {
+        int bits = (raw.get(i) & 0xff) << 16 | (i + 1 < end ? (raw.get(i + 1) & 0xff) << 8 : 0);
+        out.put(BASE64_DIGITS[bits >>> 18]).put(BASE64_DIGITS[bits >>> 12 & 0x3f]);
+        out.put(i + 1 < end ? BASE64_DIGITS[bits >>> 6 & 0x3f] : (byte) '=').put((byte) '=');
+      }
+      return true;
+    };
+  }
+
+  /**
+   * Formats timestamps like {@link java.time.format.DateTimeFormatter#ISO_OFFSET_DATE_TIME} does in
+   * the given time zone.
+   */
+  static Utf8Formatter ofIsoTimestamp(@NonNull StringConvertingCodec<?> codec, ZoneId timeZone) {
+    ZoneRules rules = timeZone.getRules();
+    ZoneOffset fixedOffset = rules.isFixedOffset() ? rules.getOffset(Instant.EPOCH) : null;
+    return (raw, out) -> {
+      if (raw.remaining() != 8) {
+        return fallback(codec, raw, out);
+      }
+      long millis = raw.getLong(raw.position());
+      // stay well clear of overflows; such timestamps have years with more than 4 digits anyway
+      if (millis < MIN_MILLIS || millis > MAX_MILLIS) {
+        return fallback(codec, raw, out);
+      }
+      ZoneOffset offset =
+          fixedOffset == null ? rules.getOffset(Instant.ofEpochMilli(millis)) : fixedOffset;
+      long local = millis + offset.getTotalSeconds() * 1000L;
+      long epochDay = Math.floorDiv(local, MILLIS_PER_DAY);
+      int millisOfDay = (int) Math.floorMod(local, MILLIS_PER_DAY);
+      // civil date from days since the epoch, see
+      // http://howardhinnant.github.io/date_algorithms.html
+      long z = epochDay + 719468;
+      long era = Math.floorDiv(z, 146097);
+      int dayOfEra = (int) (z - era * 146097);
+      int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+      int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+      int mp = (5 * dayOfYear + 2) / 153;
+      int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+      int month = mp < 10 ? mp + 3 : mp - 9;
+      long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+      if (year < 0 || year > 9999) {
+        // years that need a sign
+        return fallback(codec, raw, out);
+      }
+      // "yyyy-MM-ddTHH:mm:ss.SSS+HH:MM:SS"
+      if (out.remaining() < 32) {
+        return false;
+      }
+      put2Digits((int) (year / 100), out);
+      put2Digits((int) (year % 100), out);
+      out.put((byte) '-');
+      put2Digits(month, out);
+      out.put((byte) '-');
+      put2Digits(day, out);
+      out.put((byte) 'T');
+      put2Digits(millisOfDay / 3_600_000, out);
+      out.put((byte) ':');
+      put2Digits(millisOfDay / 60_000 % 60, out);
+      out.put((byte) ':');
+      put2Digits(millisOfDay / 1000 % 60, out);
+      int fraction = millisOfDay % 1000;
+      if (fraction != 0) {
+        // as many digits as necessary, without trailing zeros
+        out.put((byte) '.').put((byte) ('0' + fraction / 100));
+        if (fraction % 100 != 0) {
+          out.put((byte) ('0' + fraction / 10 % 10));
+          if (fraction % 10 != 0) {
+            out.put((byte) ('0' + fraction % 10));
+          }
+        }
+      }
+      putOffset(offset.getTotalSeconds(), out);
+      return true;
+    };
+  }
+
+  private static boolean fallback(
+      @NonNull StringConvertingCodec<?> codec, @NonNull ByteBuffer raw, @NonNull ByteBuffer out) {
+    String s = (String) codec.decode(raw.duplicate(), ProtocolVersion.DEFAULT);
+    byte[] bytes = s.getBytes(UTF_8);
+    if (out.remaining() < bytes.length) {
+      return false;
+    }
+    out.put(bytes);
+    return true;
+  }
+
+  private static void putLong(long value, ByteBuffer out) {
+    // work on negative values, which can represent Long.MIN_VALUE
+    long v = value;
+    if (v < 0) {
+      out.put((byte) '-');
+    } else {
+      v = -v;
+    }
+    int digits = 1;
+    for (long n = v / 10; n != 0; n /= 10) {
+      digits++;
+    }
+    int start = out.position();
+    for (int i = start + digits - 1; i >= start; i--) {
+      out.put(i, (byte) ('0' - v % 10));
+      v /= 10;
+    }
+    out.position(start + digits);
+  }
+
+  private static void put2Digits(int value, ByteBuffer out) {
+    out.put((byte) ('0' + value / 10)).put((byte) ('0' + value % 10));
+  }
+
+  private static void putHex(byte b, ByteBuffer out) {
+    out.put(HEX_DIGITS[b >>> 4 & 0xf]).put(HEX_DIGITS[b & 0xf]);
+  }
+
+  private static void putOffset(int totalSeconds, ByteBuffer out) {
+    if (totalSeconds == 0) {
+      out.put((byte) 'Z');
+      return;
+    }
+    int abs = Math.abs(totalSeconds);
+    out.put((byte) (totalSeconds < 0 ? '-' : '+'));
+    put2Digits(abs / 3600, out);
+    out.put((byte) ':');
+    put2Digits(abs / 60 % 60, out);
+    if (abs % 60 != 0) {
+      out.put((byte) ':');
+      put2Digits(abs % 60, out);
+    }
+  }
+
+  private static boolean isAscii(ByteBuffer bytes, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if (bytes.get(i) < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Whether the given bytes are well-formed UTF-8, that is, whether decoding and re-encoding them
+   * yields the same bytes: no overlong encodings, no surrogates and no code points beyond U+10FFFF.
+   */
+  private static boolean isUtf8(ByteBuffer bytes, int start, int end) {
+    int i = start;
+    while (i < end) {
+      int b = bytes.get(i++);
+      if (b >= 0) {
+        continue;
+      }
+      int continuations;
+      int min;
+      int max;
+      if ((b & 0xe0) == 0xc0) {
+        continuations = 1;
+        min = 0xc2;
+        max = 0xdf;
+      } else if ((b & 0xf0) == 0xe0) {
+        continuations = 2;
+        min = 0xe0;
+        max = 0xef;
+      } else if ((b & 0xf8) == 0xf0) {
+        continuations = 3;
+        min = 0xf0;
+        max = 0xf4;
+      } else {
+        return false;
+      }
+      int lead = b & 0xff;
+      if (lead < min || lead > max || end - i < continuations) {
+        return false;
+      }
+      int second = bytes.get(i) & 0xff;
+      // reject overlong encodings, surrogates and code points beyond U+10FFFF
+      if ((lead == 0xe0 && second < 0xa0)
+          || (lead == 0xed && second > 0x9f)
+          || (lead == 0xf0 && second < 0x90)
+          || (lead == 0xf4 && second > 0x8f)) {
+        return false;
+      }
+      for (int j = 0; j < continuations; j++) {
+        if ((bytes.get(i++) & 0xc0) != 0x80) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+}
@@ -15,6 +15,7 @@
  */
 package com.datastax.oss.dsbulk.codecs.text.string;
 
+import static com.datastax.oss.dsbulk.codecs.api.CommonConversionContext.TEMPORAL_CACHE_STATISTICS;
 import static com.datastax.oss.dsbulk.tests.assertions.TestAssertions.assertThat;
 import static java.util.concurrent.TimeUnit.MINUTES;
 
@@ -23,6 +24,7 @@ import com.datastax.oss.driver.api.core.type.reflect.GenericType;
 import com.datastax.oss.dsbulk.codecs.api.ConversionContext;
 import com.datastax.oss.dsbulk.codecs.api.ConvertingCodecFactory;
 import com.datastax.oss.dsbulk.codecs.api.util.CqlTemporalFormat;
+import com.datastax.oss.dsbulk.codecs.api.util.TemporalCache;
 import com.datastax.oss.dsbulk.codecs.text.TextConversionContext;
 import java.time.Duration;
 import java.time.Instant;
@@ -140,4 +142,23 @@ class StringToInstantCodecTest {
   void should_not_convert_from_invalid_external() {
     assertThat(codec1).cannotConvertFromExternal("not a valid date format");
   }
+
+  @Test
+  void should_cache_parsed_values() {
+    ConversionContext context = new TextConversionContext().setTemporalCacheSize(16);
+    StringToInstantCodec codec =
+        (StringToInstantCodec)
+            new ConvertingCodecFactory(context)
+                .<String, Instant>createConvertingCodec(
+                    DataTypes.TIMESTAMP, GenericType.STRING, true);
+    TemporalCache.Statistics statistics = context.getAttribute(TEMPORAL_CACHE_STATISTICS);
+    Instant first = codec.externalToInternal("2000-01-01T00:00:00Z");
+    assertThat(first).isEqualTo(millennium);
+    assertThat(codec.externalToInternal("2000-01-01T00:00:00Z")).isSameAs(first);
+    assertThat(codec.externalToInternal("2000-01-01 00:00:00 UTC")).isEqualTo(millennium);
+    assertThat(codec.externalToInternal("")).isNull();
+    assertThat(statistics.getHits()).isEqualTo(1);
+    assertThat(statistics.getMisses()).isEqualTo(2);
+    assertThat(statistics.getHitRatio()).isEqualTo(1d / 3);
+  }
 }
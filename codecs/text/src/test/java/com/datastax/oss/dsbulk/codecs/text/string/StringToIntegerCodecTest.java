@@ -16,6 +16,7 @@
 package com.datastax.oss.dsbulk.codecs.text.string;
 
 import static com.datastax.oss.dsbulk.tests.assertions.TestAssertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.datastax.oss.driver.api.core.type.DataTypes;
 import com.datastax.oss.driver.api.core.type.reflect.GenericType;
@@ -156,4 +157,14 @@ class StringToIntegerCodecTest {
         .cannotConvertFromExternal("2000-01-01T00:00:00Z") // overflow
     ;
   }
+
+  @Test
+  void should_report_overflows_of_plain_numbers_like_overflows_of_formatted_numbers() {
+    assertThatThrownBy(() -> codec1.externalToInternal("2147483648"))
+        .isInstanceOf(ArithmeticException.class)
+        .hasMessage("Cannot convert 2147483648 from BigDecimal to Integer");
+    assertThatThrownBy(() -> codec1.externalToInternal("2,147,483,648"))
+        .isInstanceOf(ArithmeticException.class)
+        .hasMessage("Cannot convert 2147483648 from BigDecimal to Integer");
+  }
 }
@@ -0,0 +1,254 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.codecs.text.string;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.reflect.GenericType;
+import com.datastax.oss.driver.api.core.uuid.Uuids;
+import com.datastax.oss.dsbulk.codecs.api.ConversionContext;
+import com.datastax.oss.dsbulk.codecs.api.ConvertingCodecFactory;
+import com.datastax.oss.dsbulk.codecs.api.util.Base64BinaryFormat;
+import com.datastax.oss.dsbulk.codecs.api.util.HexBinaryFormat;
+import com.datastax.oss.dsbulk.codecs.text.TextConversionContext;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class Utf8FormattersTest {
+
+  private final Random random = new Random(42);
+
+  @Test
+  void should_format_ints_like_codec() {
+    StringConvertingCodec<Integer> codec = codec(new TextConversionContext(), DataTypes.INT);
+    assertFormatsLikeCodec(codec, 0);
+    assertFormatsLikeCodec(codec, -1);
+    assertFormatsLikeCodec(codec, Integer.MIN_VALUE);
+    assertFormatsLikeCodec(codec, Integer.MAX_VALUE);
+    for (int i = 0; i < 1000; i++) {
+      assertFormatsLikeCodec(codec, random.nextInt() >> random.nextInt(32));
+    }
+  }
+
+  @Test
+  void should_format_bigints_like_codec() {
+    StringConvertingCodec<Long> codec = codec(new TextConversionContext(), DataTypes.BIGINT);
+    assertFormatsLikeCodec(codec, 0L);
+    assertFormatsLikeCodec(codec, Long.MIN_VALUE);
+    assertFormatsLikeCodec(codec, Long.MAX_VALUE);
+    for (int i = 0; i < 1000; i++) {
+      assertFormatsLikeCodec(codec, random.nextLong() >> random.nextInt(64));
+    }
+  }
+
+  @Test
+  void should_format_doubles_like_codec() {
+    StringConvertingCodec<Double> codec = codec(new TextConversionContext(), DataTypes.DOUBLE);
+    for (double d :
+        new double[] {
+          0d,
+          -0d,
+          1d,
+          0.1,
+          1e7,
+          1e-3,
+          1e-4,
+          Double.MIN_VALUE,
+          Double.MAX_VALUE,
+          Double.NaN,
+          Double.POSITIVE_INFINITY,
+          Double.NEGATIVE_INFINITY
+        }) {
+      assertFormatsLikeCodec(codec, d);
+    }
+    for (int i = 0; i < 1000; i++) {
+      assertFormatsLikeCodec(codec, Double.longBitsToDouble(random.nextLong()));
+    }
+  }
+
+  @Test
+  void should_format_uuids_like_codec() {
+    StringConvertingCodec<UUID> codec = codec(new TextConversionContext(), DataTypes.UUID);
+    StringConvertingCodec<UUID> timeCodec = codec(new TextConversionContext(), DataTypes.TIMEUUID);
+    for (int i = 0; i < 1000; i++) {
+      assertFormatsLikeCodec(codec, new UUID(random.nextLong(), random.nextLong()));
+      assertFormatsLikeCodec(timeCodec, Uuids.timeBased());
+    }
+  }
+
+  @Test
+  void should_format_text_like_codec() {
+    StringConvertingCodec<String> codec = codec(new TextConversionContext(), DataTypes.TEXT);
+    StringConvertingCodec<String> asciiCodec = codec(new TextConversionContext(), DataTypes.ASCII);
+    assertFormatsLikeCodec(codec, "Hello, World!");
+    assertFormatsLikeCodec(codec, "Grüß Gott, 日本語, 😀");
+    assertFormatsLikeCodec(asciiCodec, "Hello, World!");
+    for (int i = 0; i < 1000; i++) {
+      StringBuilder sb = new StringBuilder();
+      for (int j = 0; j < 1 + random.nextInt(20); j++) {
+        sb.appendCodePoint(randomCodePoint());
+      }
+      assertFormatsLikeCodec(codec, sb.toString());
+    }
+  }
+
+  @Test
+  void should_reject_malformed_text_like_codec() {
+    StringConvertingCodec<String> codec = codec(new TextConversionContext(), DataTypes.TEXT);
+    StringConvertingCodec<String> asciiCodec = codec(new TextConversionContext(), DataTypes.ASCII);
+    byte[][] malformed = {
+      {(byte) 0xc0, (byte) 0x80}, // overlong NUL
+      {(byte) 0xe0, (byte) 0x80, (byte) 0x80}, // overlong
+      {(byte) 0xed, (byte) 0xa0, (byte) 0x80}, // surrogate
+      {(byte) 0xf4, (byte) 0x90, (byte) 0x80, (byte) 0x80}, // beyond U+10FFFF
+      {'a', (byte) 0xc3}, // truncated
+      {'a', (byte) 0x80, 'b'}, // stray continuation
+      {(byte) 0xff}
+    };
+    for (byte[] bytes : malformed) {
+      assertRejectsLikeCodec(codec, ByteBuffer.wrap(bytes));
+    }
+    assertRejectsLikeCodec(asciiCodec, ByteBuffer.wrap("café".getBytes(UTF_8)));
+  }
+
+  @Test
+  void should_format_blobs_like_codec() {
+    StringConvertingCodec<ByteBuffer> hexCodec =
+        codec(
+            new TextConversionContext().setBinaryFormat(HexBinaryFormat.INSTANCE), DataTypes.BLOB);
+    StringConvertingCodec<ByteBuffer> base64Codec =
+        codec(
+            new TextConversionContext().setBinaryFormat(Base64BinaryFormat.INSTANCE),
+            DataTypes.BLOB);
+    for (int length = 1; length < 100; length++) {
+      byte[] bytes = new byte[length];
+      random.nextBytes(bytes);
+      assertFormatsSerializedLikeCodec(hexCodec, ByteBuffer.wrap(bytes));
+      assertFormatsSerializedLikeCodec(base64Codec, ByteBuffer.wrap(bytes));
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"UTC", "Europe/Paris", "America/New_York", "+05:30", "+01:02:03"})
+  void should_format_timestamps_like_codec(String zone) {
+    StringConvertingCodec<Instant> codec =
+        codec(new TextConversionContext().setTimeZone(ZoneId.of(zone)), DataTypes.TIMESTAMP);
+    assertFormatsLikeCodec(codec, Instant.EPOCH);
+    assertFormatsLikeCodec(codec, Instant.parse("0000-01-01T00:00:00Z"));
+    assertFormatsLikeCodec(codec, Instant.parse("9999-12-31T23:59:59.999Z"));
+    // years that need a sign are formatted by the codec
+    assertFormatsLikeCodec(codec, Instant.ofEpochMilli(Long.MIN_VALUE));
+    assertFormatsLikeCodec(codec, Instant.ofEpochMilli(Long.MAX_VALUE));
+    assertFormatsLikeCodec(codec, Instant.parse("-0001-06-01T12:00:00Z"));
+    assertFormatsLikeCodec(codec, Instant.parse("+10000-06-01T12:00:00Z"));
+    for (int i = 0; i < 1000; i++) {
+      // years 1000 to 3000 roughly, with all kinds of milliseconds
+      long millis = -30_610_000_000_000L + (long) (random.nextDouble() * 63_110_000_000_000L);
+      assertFormatsLikeCodec(codec, Instant.ofEpochMilli(millis / 10 * 10));
+      assertFormatsLikeCodec(codec, Instant.ofEpochMilli(millis / 100 * 100));
+      assertFormatsLikeCodec(codec, Instant.ofEpochMilli(millis));
+    }
+  }
+
+  @Test
+  void should_not_have_formatter_when_formatting_is_customized() {
+    ConversionContext context =
+        new TextConversionContext().setFormatNumbers(true).setTimestampFormat("yyyy-MM-dd");
+    assertThat(codec(context, DataTypes.INT).getUtf8Formatter()).isNull();
+    assertThat(codec(context, DataTypes.BIGINT).getUtf8Formatter()).isNull();
+    assertThat(codec(context, DataTypes.DOUBLE).getUtf8Formatter()).isNull();
+    assertThat(codec(context, DataTypes.TIMESTAMP).getUtf8Formatter()).isNull();
+    assertThat(codec(context, DataTypes.DURATION).getUtf8Formatter()).isNull();
+  }
+
+  @Test
+  void should_not_write_when_buffer_is_too_small() {
+    StringConvertingCodec<String> codec = codec(new TextConversionContext(), DataTypes.TEXT);
+    ByteBuffer raw = ByteBuffer.wrap("Hello, World!".getBytes(UTF_8));
+    ByteBuffer out = ByteBuffer.allocate(16);
+    out.position(4);
+    Utf8Formatter formatter = codec.getUtf8Formatter();
+    assertThat(formatter).isNotNull();
+    assertThat(formatter.format(raw, out)).isFalse();
+    assertThat(out.position()).isEqualTo(4);
+    out.position(3);
+    assertThat(formatter.format(raw, out)).isTrue();
+    assertThat(out.position()).isEqualTo(16);
+  }
+
+  private static <T> StringConvertingCodec<T> codec(ConversionContext context, DataType cqlType) {
+    return (StringConvertingCodec<T>)
+        new ConvertingCodecFactory(context)
+            .<String, T>createConvertingCodec(cqlType, GenericType.STRING, true);
+  }
+
+  private static <T> void assertFormatsLikeCodec(StringConvertingCodec<T> codec, T value) {
+    assertFormatsSerializedLikeCodec(
+        codec, codec.getInternalCodec().encode(value, ProtocolVersion.DEFAULT));
+  }
+
+  private static void assertFormatsSerializedLikeCodec(
+      StringConvertingCodec<?> codec, ByteBuffer raw) {
+    Utf8Formatter formatter = codec.getUtf8Formatter();
+    assertThat(formatter).isNotNull();
+    String expected = codec.decode(raw.duplicate(), ProtocolVersion.DEFAULT);
+    ByteBuffer out = ByteBuffer.allocate(256);
+    int position = raw.position();
+    assertThat(formatter.format(raw, out)).isTrue();
+    assertThat(raw.position()).isEqualTo(position);
+    byte[] actual = new byte[out.flip().remaining()];
+    out.get(actual);
+    assertThat(actual).as(expected).isEqualTo(expected.getBytes(UTF_8));
+  }
+
+  private static void assertRejectsLikeCodec(StringConvertingCodec<?> codec, ByteBuffer raw) {
+    Utf8Formatter formatter = codec.getUtf8Formatter();
+    assertThat(formatter).isNotNull();
+    Throwable expected =
+        catchThrowable(() -> codec.decode(raw.duplicate(), ProtocolVersion.DEFAULT));
+    assertThat(expected).isNotNull();
+    assertThatThrownBy(() -> formatter.format(raw, ByteBuffer.allocate(256)))
+        .isInstanceOf(expected.getClass())
+        .hasMessage(expected.getMessage());
+  }
+
+  private int randomCodePoint() {
+    switch (random.nextInt(4)) {
+      case 0:
+        return random.nextInt(0x80);
+      case 1:
+        return 0x80 + random.nextInt(0x780);
+      case 2:
+        // skip surrogates
+        int cp = 0x800 + random.nextInt(0xf800);
+        return cp >= 0xd800 && cp <= 0xdfff ? 'x' : cp;
+      default:
+        return 0x10000 + random.nextInt(0x100000);
+    }
+  }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.connectors.api;
+
+import com.datastax.oss.driver.shaded.guava.common.base.MoreObjects;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.net.URI;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A record that stores its values in a plain array, and its fields in a {@link RecordLayout} shared
+ * with other records.
+ *
+ * <p>Contrary to {@link DefaultRecord}, creating a record of this type does not allocate anything
+ * else than the record itself and its values array, which makes it the preferred implementation for
+ * connectors emitting large amounts of records with the same fields.
+ */
+public class ArrayBackedRecord implements Record {
+
+  private static final Object[] NO_VALUES = new Object[0];
+
+  private final Object source;
+  private final URI resource;
+  private final long position;
+
+  private RecordLayout layout;
+  private Object[] values;
+
+  /**
+   * Creates a new record with the given layout and values.
+   *
+   * @param source the record source (its original form); may be null if the source cannot be
+   *     determined or should not be retained.
+   * @param resource the record resource (where it comes from: file, database, etc).
+   * @param position the record position inside the resource (line number, etc.).
+   * @param layout the record layout.
+   * @param values the record values, one per slot in the layout. The array is not copied.
+   * @throws IllegalArgumentException if the number of values does not match the layout size.
+   */
+  public ArrayBackedRecord(
+      @Nullable Object source,
+      @NonNull URI resource,
+      long position,
+      @NonNull RecordLayout layout,
+      @NonNull Object[] values) {
+    if (layout.size() != values.length) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Expecting record to contain %d fields but found %d.", layout.size(), values.length));
+    }
+    this.source = source;
+    this.resource = resource;
+    this.position = position;
+    this.layout = layout;
+    this.values = values;
+  }
+
+  /**
+   * Creates a new record with the given layout; all its values are initially null.
+   *
+   * @param source the record source (its original form); may be null if the source cannot be
+   *     determined or should not be retained.
+   * @param resource the record resource (where it comes from: file, database, etc).
+   * @param position the record position inside the resource (line number, etc.).
+   * @param layout the record layout.
+   */
+  public ArrayBackedRecord(
+      @Nullable Object source, @NonNull URI resource, long position, @NonNull RecordLayout layout) {
+    this(source, resource, position, layout, new Object[layout.size()]);
+  }
+
+  @Nullable
+  @Override
+  public Object getSource() {
+    return source;
+  }
+
+  @NonNull
+  @Override
+  public URI getResource() {
+    return resource;
+  }
+
+  @Override
+  public long getPosition() {
+    return position;
+  }
+
+  @NonNull
+  @Override
+  public Set<Field> fields() {
+    return layout.fields();
+  }
+
+  @NonNull
+  @Override
+  public Collection<Object> values() {
+    RecordLayout layout = this.layout;
+    Object[] values = this.values;
+    return new AbstractList<Object>() {
+      @Override
+      public Object get(int index) {
+        return values[layout.slotAt(index)];
+      }
+
+      @Override
+      public int size() {
+        return layout.fieldCount();
+      }
+    };
+  }
+
+  @Nullable
+  @Override
+  public Object getFieldValue(@NonNull Field field) {
+    int slot = layout.slot(field);
+    return slot == -1 ? null : values[slot];
+  }
+
+  /**
+   * Sets the value associated with the given field.
+   *
+   * @param field the field to set.
+   * @param value The value to set.
+   * @throws IllegalArgumentException if this record's layout does not contain such a field.
+   */
+  public void setFieldValue(@NonNull Field field, @Nullable Object value) {
+    int slot = layout.slot(field);
+    if (slot == -1) {
+      throw new IllegalArgumentException("Record does not contain field: " + field);
+    }
+    values[slot] = value;
+  }
+
+  @Override
+  public void clear() {
+    layout = RecordLayout.EMPTY;
+    values = NO_VALUES;
+  }
+
+  @Override
+  public String toString() {
+    List<String> entries = new ArrayList<>(layout.fieldCount());
+    for (int i = 0; i < layout.fieldCount(); i++) {
+      entries.add(layout.fieldAt(i) + "=" + values[layout.slotAt(i)]);
+    }
+    return MoreObjects.toStringHelper(this)
+        .add("source", source)
+        .add("resource", resource)
+        .add("position", position)
+        .add("entries", entries)
+        .toString();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    ArrayBackedRecord that = (ArrayBackedRecord) o;
+    if (position != that.position
+        || !Objects.equals(source, that.source)
+        || !resource.equals(that.resource)
+        || !fields().equals(that.fields())) {
+      return false;
+    }
+    for (Field field : fields()) {
+      if (!Objects.equals(getFieldValue(field), that.getFieldValue(field))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int entries = 0;
+    for (int i = 0; i < layout.fieldCount(); i++) {
+      entries += layout.fieldAt(i).hashCode() ^ Objects.hashCode(values[layout.slotAt(i)]);
+    }
+    return Objects.hash(entries, source, resource, position);
+  }
+}
@@ -36,5 +36,13 @@ public enum CommonConnectorFeature implements ConnectorFeature {
    * more than once, then data size sampling should be disallowed. This is notably the case when
    * reading live data streams such as {@linkplain System#in standard input}.
    */
-  DATA_SIZE_SAMPLING
+  DATA_SIZE_SAMPLING,
+
+  /**
+   * Indicates that the connector can write textual field values held as UTF-8 encoded bytes, that
+   * is, {@link Utf8Value} instances. When this feature is supported, the values of some common CQL
+   * types are formatted directly from their serialized form when unloading, bypassing the creation
+   * of intermediary Java objects and strings.
+   */
+  UTF8_VALUES
 }
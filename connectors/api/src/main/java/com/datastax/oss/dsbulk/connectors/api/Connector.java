@@ -17,6 +17,9 @@ package com.datastax.oss.dsbulk.connectors.api;
 
 import com.typesafe.config.Config;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
 import java.util.function.Function;
 import org.reactivestreams.Publisher;
 
@@ -31,7 +34,9 @@ import org.reactivestreams.Publisher;
  *
  * <ol>
  *   <li>{@link #configure(Config, boolean, boolean)}
+ *   <li>{@link #preserveExistingData()} (optional, only when writing)
  *   <li>{@link #init()}
+ *   <li>{@link #skipProcessedRecords(Map)} (optional, only when reading)
  *   <li>{@link #read()} or {@link #write()}
  *   <li>{@link #close()}
  * </ol>
@@ -93,6 +98,10 @@ import org.reactivestreams.Publisher;
  * to optimize for single-subscriber use cases. Implementors are also allowed to memoize the
  * transforming functions.
  *
+ * <p>Connectors that buffer the records they emit, rather than writing each one durably before
+ * emitting it, should implement {@link #flush()}: DSBulk invokes it before recording that the
+ * records emitted so far were written, e.g. when checkpointing an unload operation.
+ *
  * <p>DSBulk will optimize writes according to the write concurrency. Implementors should implement
  * {@link #writeConcurrency()} carefully.
  *
@@ -161,6 +170,51 @@ public interface Connector extends AutoCloseable {
    */
   default void init() throws Exception {}
 
+  /**
+   * Instructs the connector to preserve the data written by a previous operation, typically because
+   * the current operation is resuming an interrupted one. Connectors should then write to new
+   * resources, rather than overwrite or reject existing ones. The default implementation does
+   * nothing.
+   *
+   * <p>This method is only called when writing, after the connector is properly {@link
+   * #configure(Config, boolean, boolean) configured}, and before it is {@link #init()
+   * initialized}.
+   */
+  default void preserveExistingData() {}
+
+  /**
+   * Instructs the connector to skip records that were already processed by a previous operation,
+   * typically because the current operation is resuming an interrupted one.
+   *
+   * <p>Records are identified by their {@linkplain Record#getResource() resource} and {@linkplain
+   * Record#getPosition() position}; for each resource, the given map contains the number of leading
+   * records that were processed, that is, the records whose positions range from 1 to that number.
+   * Connectors should avoid emitting these records, and, if possible, avoid reading them at all.
+   *
+   * <p>Skipping records is an optimization: DSBulk discards records already processed anyway,
+   * including those not listed here. The default implementation does nothing.
+   *
+   * <p>This method is only called when reading, after the connector is properly {@link
+   * #configure(Config, boolean, boolean) configured} and {@link #init() initialized}, and before
+   * {@link #read()} is called.
+   *
+   * @param processedRecords the number of leading records already processed, keyed by resource.
+   */
+  default void skipProcessedRecords(@NonNull Map<URI, Long> processedRecords) {}
+
+  /**
+   * Flushes the records emitted so far by the {@linkplain #write() write function} to the
+   * datasource, so that they are not lost if the operation is interrupted. The default
+   * implementation does nothing.
+   *
+   * <p>This method is only called when writing, after the connector is properly {@link #init()
+   * initialized}. It may be called concurrently with the write function, and after the connector
+   * is {@linkplain #close() closed}, in which case it should fail if closing the connector failed.
+   *
+   * @throws IOException if the records could not be flushed.
+   */
+  default void flush() throws IOException {}
+
   /**
    * Closes the connector.
    *
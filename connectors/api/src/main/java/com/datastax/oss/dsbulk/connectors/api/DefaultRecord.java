@@ -28,6 +28,13 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.stream.IntStream;
 
+/**
+ * A record backed by a {@link LinkedHashMap}.
+ *
+ * <p>This implementation is convenient to create records with arbitrary fields, but is costly in
+ * terms of allocations; connectors emitting large amounts of records with the same fields should
+ * rather use {@link ArrayBackedRecord}.
+ */
 public class DefaultRecord extends LinkedHashMap<Field, Object> implements Record {
 
   /**
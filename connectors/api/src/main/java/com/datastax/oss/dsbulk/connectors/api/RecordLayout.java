@@ -0,0 +1,173 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.connectors.api;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The fields of an {@link ArrayBackedRecord}, and the slot in the record's values array that holds
+ * the value of each field.
+ *
+ * <p>Layouts are immutable and meant to be computed once, then shared by all the records that have
+ * the same fields, e.g. all the records of a given file. A field can be accessed either by its
+ * index or by its name when the layout was created with {@link #mappedAndIndexed(MappedField[])};
+ * in that case both fields share the same slot and the value is stored only once.
+ */
+public final class RecordLayout {
+
+  /** A layout with no fields. */
+  public static final RecordLayout EMPTY = new RecordLayout(new Field[0], new int[0], 0, 0);
+
+  /**
+   * Creates a layout containing the indexed fields {@code 0} to {@code size - 1}.
+   *
+   * @param size the number of fields.
+   * @return a new layout.
+   */
+  @NonNull
+  public static RecordLayout indexed(int size) {
+    Field[] fields = new Field[size];
+    int[] slots = new int[size];
+    for (int i = 0; i < size; i++) {
+      fields[i] = new DefaultIndexedField(i);
+      slots[i] = i;
+    }
+    return new RecordLayout(fields, slots, size, size);
+  }
+
+  /**
+   * Creates a layout containing the given fields, in the given order. Fields appearing more than
+   * once are only included once, at the position of their first occurrence.
+   *
+   * @param fields the fields.
+   * @return a new layout.
+   */
+  @NonNull
+  public static RecordLayout mapped(@NonNull Field... fields) {
+    Map<Field, Integer> seen = new HashMap<>();
+    for (Field field : fields) {
+      seen.putIfAbsent(field, seen.size());
+    }
+    Field[] distinct = new Field[seen.size()];
+    int[] slots = new int[distinct.length];
+    for (Map.Entry<Field, Integer> entry : seen.entrySet()) {
+      distinct[entry.getValue()] = entry.getKey();
+      slots[entry.getValue()] = entry.getValue();
+    }
+    return new RecordLayout(distinct, slots, distinct.length, 0);
+  }
+
+  /**
+   * Creates a layout containing the given mapped fields, followed by the indexed fields {@code 0}
+   * to {@code fields.length - 1}. The mapped field at position {@code i} and the indexed field
+   * {@code i} share the same slot.
+   *
+   * @param fields the mapped fields; must not contain duplicates.
+   * @return a new layout.
+   */
+  @NonNull
+  public static RecordLayout mappedAndIndexed(@NonNull MappedField[] fields) {
+    int size = fields.length;
+    Field[] all = new Field[size * 2];
+    int[] slots = new int[size * 2];
+    for (int i = 0; i < size; i++) {
+      all[i] = fields[i];
+      slots[i] = i;
+      all[size + i] = new DefaultIndexedField(i);
+      slots[size + i] = i;
+    }
+    return new RecordLayout(all, slots, size, size);
+  }
+
+  private final Field[] fields;
+  private final int[] slots;
+  private final int size;
+  private final int indexedSize;
+  private final Map<Field, Integer> mappedSlots;
+  private final Set<Field> fieldSet;
+
+  private RecordLayout(Field[] fields, int[] slots, int size, int indexedSize) {
+    this.fields = fields;
+    this.slots = slots;
+    this.size = size;
+    this.indexedSize = indexedSize;
+    mappedSlots = new HashMap<>();
+    Set<Field> fieldSet = new LinkedHashSet<>();
+    for (int i = 0; i < fields.length; i++) {
+      if (!(fields[i] instanceof IndexedField) || indexedSize == 0) {
+        mappedSlots.put(fields[i], slots[i]);
+      }
+      fieldSet.add(fields[i]);
+    }
+    this.fieldSet = Collections.unmodifiableSet(fieldSet);
+  }
+
+  /** @return the number of slots, that is, the number of distinct values, in this layout. */
+  public int size() {
+    return size;
+  }
+
+  /** @return the fields in this layout, in iteration order. */
+  @NonNull
+  public Set<Field> fields() {
+    return fieldSet;
+  }
+
+  /**
+   * Returns the slot holding the value of the given field.
+   *
+   * @param field the field.
+   * @return the slot of the field, or -1 if this layout does not contain such a field.
+   */
+  public int slot(@NonNull Field field) {
+    if (field instanceof IndexedField && indexedSize > 0) {
+      int index = ((IndexedField) field).getFieldIndex();
+      return index < indexedSize ? index : -1;
+    }
+    Integer slot = mappedSlots.get(field);
+    return slot == null ? -1 : slot;
+  }
+
+  /**
+   * @return the number of fields in this layout. This can be greater than {@link #size()} if some
+   *     fields share the same slot.
+   */
+  public int fieldCount() {
+    return fields.length;
+  }
+
+  /**
+   * @param position the position of the field in this layout.
+   * @return the slot holding the value of the field at the given position in this layout.
+   */
+  public int slotAt(int position) {
+    return slots[position];
+  }
+
+  /**
+   * @param position the position of the field in this layout.
+   * @return the field at the given position in this layout.
+   */
+  @NonNull
+  public Field fieldAt(int position) {
+    return fields[position];
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.connectors.api;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.Arrays;
+
+/**
+ * A textual field value that is held as UTF-8 encoded bytes.
+ *
+ * <p>Such values are only emitted to connectors that support {@link
+ * CommonConnectorFeature#UTF8_VALUES}; these connectors can write the bytes as is, instead of
+ * encoding the value's {@linkplain #toString() string representation} again.
+ */
+public final class Utf8Value {
+
+  private final byte[] bytes;
+
+  private String string;
+
+  /**
+   * Creates a new value.
+   *
+   * @param bytes The UTF-8 encoded text; it must not be modified afterwards.
+   */
+  public Utf8Value(@NonNull byte[] bytes) {
+    this.bytes = bytes;
+  }
+
+  /** @return the UTF-8 encoded text; the returned array must not be modified. */
+  @NonNull
+  public byte[] getBytes() {
+    return bytes;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof Utf8Value)) {
+      return false;
+    }
+    Utf8Value that = (Utf8Value) o;
+    return Arrays.equals(bytes, that.bytes);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(bytes);
+  }
+
+  @Override
+  @NonNull
+  public String toString() {
+    String string = this.string;
+    if (string == null) {
+      string = new String(bytes, UTF_8);
+      this.string = string;
+    }
+    return string;
+  }
+}
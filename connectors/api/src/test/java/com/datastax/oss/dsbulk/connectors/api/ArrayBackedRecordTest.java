@@ -0,0 +1,162 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.connectors.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.net.URI;
+import org.junit.jupiter.api.Test;
+
+class ArrayBackedRecordTest {
+
+  private final URI resource = URI.create("file://file1?line=1");
+
+  private final MappedField a = new DefaultMappedField("a");
+  private final MappedField b = new DefaultMappedField("b");
+  private final MappedField c = new DefaultMappedField("c");
+
+  private final IndexedField i0 = new DefaultIndexedField(0);
+  private final IndexedField i1 = new DefaultIndexedField(1);
+
+  @Test
+  void should_reject_values_not_matching_layout() {
+    assertThatThrownBy(
+            () ->
+                new ArrayBackedRecord(
+                    "source", resource, 1, RecordLayout.indexed(2), new Object[] {"foo"}))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Expecting record to contain 2 fields but found 1.");
+  }
+
+  @Test
+  void should_get_and_set_values() {
+    ArrayBackedRecord record =
+        new ArrayBackedRecord("source", resource, 1, RecordLayout.mapped(a, b));
+    assertThat(record.getFieldValue(a)).isNull();
+    record.setFieldValue(a, "foo");
+    record.setFieldValue(b, 42);
+    assertThat(record.getFieldValue(a)).isEqualTo("foo");
+    assertThat(record.getFieldValue(b)).isEqualTo(42);
+    assertThat(record.fields()).containsExactly(a, b);
+    assertThat(record.values()).containsExactly("foo", 42);
+  }
+
+  @Test
+  void should_share_values_between_mapped_and_indexed_fields() {
+    ArrayBackedRecord record =
+        new ArrayBackedRecord(
+            "source",
+            resource,
+            1,
+            RecordLayout.mappedAndIndexed(new MappedField[] {a, b}),
+            new Object[] {"foo", "bar"});
+    assertThat(record.getFieldValue(a)).isEqualTo("foo").isEqualTo(record.getFieldValue(i0));
+    assertThat(record.getFieldValue(b)).isEqualTo("bar").isEqualTo(record.getFieldValue(i1));
+    record.setFieldValue(i0, "qix");
+    assertThat(record.getFieldValue(a)).isEqualTo("qix");
+    assertThat(record.fields()).containsExactly(a, b, i0, i1);
+    assertThat(record.values()).containsExactly("qix", "bar", "qix", "bar");
+  }
+
+  @Test
+  void should_handle_unknown_fields() {
+    ArrayBackedRecord record =
+        new ArrayBackedRecord(
+            "source", resource, 1, RecordLayout.mapped(a, b), new Object[] {"foo", "bar"});
+    assertThat(record.getFieldValue(c)).isNull();
+    assertThat(record.getFieldValue(i0)).isNull();
+    assertThatThrownBy(() -> record.setFieldValue(c, "qix"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Record does not contain field: " + c);
+  }
+
+  @Test
+  void should_clear_record() {
+    ArrayBackedRecord record =
+        new ArrayBackedRecord(
+            "source", resource, 1, RecordLayout.mapped(a, b), new Object[] {"foo", "bar"});
+    record.clear();
+    assertThat(record.fields()).isEmpty();
+    assertThat(record.values()).isEmpty();
+    assertThat(record.getFieldValue(a)).isNull();
+    assertThat(record.getSource()).isEqualTo("source");
+    assertThat(record.getResource()).isEqualTo(resource);
+    assertThat(record.getPosition()).isEqualTo(1);
+  }
+
+  @Test
+  void should_be_equal_when_default_records_are_equal() {
+    ArrayBackedRecord record1 =
+        new ArrayBackedRecord(
+            "source", resource, 1, RecordLayout.mapped(a, b), new Object[] {"foo", null});
+    // same fields in a different order, in a different layout instance
+    ArrayBackedRecord record2 =
+        new ArrayBackedRecord(
+            "source", resource, 1, RecordLayout.mapped(b, a), new Object[] {null, "foo"});
+    DefaultRecord default1 =
+        DefaultRecord.mapped("source", resource, 1, new Field[] {a, b}, "foo", null);
+    DefaultRecord default2 =
+        DefaultRecord.mapped("source", resource, 1, new Field[] {b, a}, null, "foo");
+    assertThat(default1).isEqualTo(default2);
+    assertThat(record1).isEqualTo(record2).hasSameHashCodeAs(record2);
+    assertThat(record1.hashCode()).isEqualTo(default1.hashCode());
+  }
+
+  @Test
+  void should_not_be_equal_when_default_records_are_not_equal() {
+    ArrayBackedRecord record =
+        new ArrayBackedRecord(
+            "source", resource, 1, RecordLayout.mapped(a, b), new Object[] {"foo", "bar"});
+    assertThat(record)
+        .isNotEqualTo(
+            new ArrayBackedRecord(
+                "source", resource, 1, RecordLayout.mapped(a, b), new Object[] {"foo", "qix"}))
+        .isNotEqualTo(
+            new ArrayBackedRecord(
+                "source", resource, 1, RecordLayout.mapped(a, c), new Object[] {"foo", "bar"}))
+        .isNotEqualTo(
+            new ArrayBackedRecord(
+                "source", resource, 2, RecordLayout.mapped(a, b), new Object[] {"foo", "bar"}))
+        .isNotEqualTo(
+            new ArrayBackedRecord(
+                "other", resource, 1, RecordLayout.mapped(a, b), new Object[] {"foo", "bar"}))
+        .isNotEqualTo(
+            new ArrayBackedRecord(
+                "source", resource, 1, RecordLayout.mapped(a), new Object[] {"foo"}));
+    // records of different implementations are never equal, as for DefaultRecord
+    DefaultRecord defaultRecord =
+        DefaultRecord.mapped("source", resource, 1, new Field[] {a, b}, "foo", "bar");
+    assertThat(record).isNotEqualTo(defaultRecord).hasSameHashCodeAs(defaultRecord);
+    assertThat(defaultRecord).isNotEqualTo(record);
+  }
+
+  @Test
+  void should_have_same_hash_code_as_default_record_with_shared_slots() {
+    ArrayBackedRecord record =
+        new ArrayBackedRecord(
+            null,
+            resource,
+            1,
+            RecordLayout.mappedAndIndexed(new MappedField[] {a, b}),
+            new Object[] {"foo", "bar"});
+    DefaultRecord defaultRecord =
+        DefaultRecord.mapped(
+            null, resource, 1, new Field[] {a, b, i0, i1}, "foo", "bar", "foo", "bar");
+    assertThat(record.hashCode()).isEqualTo(defaultRecord.hashCode());
+    assertThat(record.toString()).contains("a=foo", "b=bar", "0=foo", "1=bar");
+  }
+}
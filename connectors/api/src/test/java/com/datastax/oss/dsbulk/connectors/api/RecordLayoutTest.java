@@ -0,0 +1,92 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.connectors.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class RecordLayoutTest {
+
+  private final MappedField a = new DefaultMappedField("a");
+  private final MappedField b = new DefaultMappedField("b");
+  private final MappedField c = new DefaultMappedField("c");
+
+  private final IndexedField i0 = new DefaultIndexedField(0);
+  private final IndexedField i1 = new DefaultIndexedField(1);
+  private final IndexedField i2 = new DefaultIndexedField(2);
+
+  @Test
+  void should_create_indexed_layout() {
+    RecordLayout layout = RecordLayout.indexed(2);
+    assertThat(layout.size()).isEqualTo(2);
+    assertThat(layout.fieldCount()).isEqualTo(2);
+    assertThat(layout.fields()).containsExactly(i0, i1);
+    assertThat(layout.slot(i0)).isEqualTo(0);
+    assertThat(layout.slot(i1)).isEqualTo(1);
+  }
+
+  @Test
+  void should_deduplicate_mapped_fields() {
+    RecordLayout layout = RecordLayout.mapped(b, a, b, c, a);
+    assertThat(layout.size()).isEqualTo(3);
+    assertThat(layout.fieldCount()).isEqualTo(3);
+    // duplicates are kept at the position of their first occurrence
+    assertThat(layout.fields()).containsExactly(b, a, c);
+    assertThat(layout.fieldAt(0)).isEqualTo(b);
+    assertThat(layout.fieldAt(1)).isEqualTo(a);
+    assertThat(layout.fieldAt(2)).isEqualTo(c);
+    assertThat(layout.slot(b)).isEqualTo(0);
+    assertThat(layout.slot(a)).isEqualTo(1);
+    assertThat(layout.slot(c)).isEqualTo(2);
+  }
+
+  @Test
+  void should_look_up_indexed_fields_by_equality_in_mapped_layout() {
+    RecordLayout layout = RecordLayout.mapped(a, i1);
+    assertThat(layout.slot(a)).isEqualTo(0);
+    assertThat(layout.slot(new DefaultIndexedField(1))).isEqualTo(1);
+    assertThat(layout.slot(i0)).isEqualTo(-1);
+  }
+
+  @Test
+  void should_share_slots_between_mapped_and_indexed_fields() {
+    RecordLayout layout = RecordLayout.mappedAndIndexed(new MappedField[] {a, b});
+    assertThat(layout.size()).isEqualTo(2);
+    assertThat(layout.fieldCount()).isEqualTo(4);
+    assertThat(layout.fields()).containsExactly(a, b, i0, i1);
+    assertThat(layout.slot(a)).isEqualTo(0).isEqualTo(layout.slot(i0));
+    assertThat(layout.slot(b)).isEqualTo(1).isEqualTo(layout.slot(i1));
+    for (int i = 0; i < layout.fieldCount(); i++) {
+      assertThat(layout.slotAt(i)).isEqualTo(layout.slot(layout.fieldAt(i)));
+    }
+  }
+
+  @Test
+  void should_return_minus_one_for_unknown_fields() {
+    RecordLayout indexed = RecordLayout.indexed(2);
+    assertThat(indexed.slot(i2)).isEqualTo(-1);
+    assertThat(indexed.slot(a)).isEqualTo(-1);
+    RecordLayout mapped = RecordLayout.mapped(a, b);
+    assertThat(mapped.slot(c)).isEqualTo(-1);
+    assertThat(mapped.slot(i0)).isEqualTo(-1);
+    RecordLayout mappedAndIndexed = RecordLayout.mappedAndIndexed(new MappedField[] {a, b});
+    assertThat(mappedAndIndexed.slot(c)).isEqualTo(-1);
+    assertThat(mappedAndIndexed.slot(i2)).isEqualTo(-1);
+    assertThat(RecordLayout.EMPTY.slot(a)).isEqualTo(-1);
+    assertThat(RecordLayout.EMPTY.slot(i0)).isEqualTo(-1);
+  }
+}
@@ -22,9 +22,11 @@ import com.datastax.oss.dsbulk.io.CompressedIOUtils;
 import com.datastax.oss.dsbulk.io.IOUtils;
 import com.typesafe.config.Config;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.net.MalformedURLException;
+import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.charset.Charset;
@@ -37,6 +39,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -64,6 +67,7 @@ public abstract class AbstractFileBasedConnector implements Connector {
   protected static final String MAX_CONCURRENT_FILES = "maxConcurrentFiles";
   protected static final String RECURSIVE = "recursive";
   protected static final String FILE_NAME_FORMAT = "fileNameFormat";
+  protected static final String CHUNK_SIZE = "chunkSize";
 
   protected boolean read;
   protected boolean retainRecordSources;
@@ -79,10 +83,17 @@ public abstract class AbstractFileBasedConnector implements Connector {
   protected long maxRecords;
   protected int resourceCount;
   protected int maxConcurrentFiles;
+  protected long chunkSize;
+  protected FileChunker chunker;
   protected Deque<RecordWriter> writers;
   protected RecordWriter singleWriter;
+  // all the writers, including those in use, so that they can be flushed concurrently
+  protected List<RecordWriter> allWriters;
+  private IOException closeError;
   protected AtomicInteger fileCounter;
   protected AtomicInteger nextWriterIndex;
+  protected Map<URI, Long> processedRecords = Collections.emptyMap();
+  protected boolean preserveExistingData;
 
   // Public API
 
@@ -135,11 +146,21 @@ public abstract class AbstractFileBasedConnector implements Connector {
     }
     skipRecords = settings.getLong(SKIP_RECORDS);
     maxRecords = settings.getLong(MAX_RECORDS);
+    chunkSize = settings.hasPath(CHUNK_SIZE) ? settings.getBytes(CHUNK_SIZE) : 0;
+    if (chunkSize < 0) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Invalid value for connector.%s.%s: Expecting integer >= 0, got: %d",
+              getConnectorName(), CHUNK_SIZE, chunkSize));
+    }
   }
 
   @Override
   public void init() throws URISyntaxException, IOException {
     if (read) {
+      if (chunkSize > 0 && CompressedIOUtils.isNoneCompression(compression)) {
+        chunker = newFileChunker();
+      }
       processURLsForRead();
     } else {
       processURLsForWrite();
@@ -150,19 +171,33 @@ public abstract class AbstractFileBasedConnector implements Connector {
         for (int i = 0; i < maxConcurrentFiles; i++) {
           writers.add(newSingleFileWriter());
         }
+        allWriters = new ArrayList<>(writers);
       } else {
         singleWriter = newSingleFileWriter();
+        allWriters = Collections.singletonList(singleWriter);
       }
     }
   }
 
+  @Override
+  public void preserveExistingData() {
+    assert !read;
+    preserveExistingData = true;
+  }
+
+  @Override
+  public void skipProcessedRecords(@NonNull Map<URI, Long> processedRecords) {
+    assert read;
+    this.processedRecords = processedRecords;
+  }
+
   @NonNull
   @Override
   public Publisher<Publisher<Record>> read() {
     assert read;
     return Flux.concat(
             Flux.fromIterable(roots).flatMap(this::scanRootDirectory), Flux.fromIterable(files))
-        .map(url -> readSingleFile(url).transform(this::applyPerFileLimits));
+        .concatMap(this::readSingleResource);
   }
 
   @SuppressWarnings("BlockingMethodInNonBlockingContext")
@@ -180,7 +215,9 @@ public abstract class AbstractFileBasedConnector implements Connector {
                               ctx -> {
                                 try {
                                   RecordWriter writer = ctx.get("WRITER");
-                                  writer.write(record);
+                                  synchronized (writer) {
+                                    writer.write(record);
+                                  }
                                   return Mono.just(record);
                                 } catch (Exception e) {
                                   return Mono.error(e);
@@ -193,7 +230,9 @@ public abstract class AbstractFileBasedConnector implements Connector {
                           ctx -> {
                             try {
                               RecordWriter writer = ctx.get("WRITER");
-                              writer.flush();
+                              synchronized (writer) {
+                                writer.flush();
+                              }
                               writers.offer(writer);
                               return Mono.empty();
                             } catch (Exception e) {
@@ -207,7 +246,9 @@ public abstract class AbstractFileBasedConnector implements Connector {
               .concatMap(
                   record -> {
                     try {
-                      singleWriter.write(record);
+                      synchronized (singleWriter) {
+                        singleWriter.write(record);
+                      }
                       return Mono.just(record);
                     } catch (Exception e) {
                       return Mono.error(e);
@@ -218,7 +259,9 @@ public abstract class AbstractFileBasedConnector implements Connector {
                   Flux.create(
                       sink -> {
                         try {
-                          singleWriter.flush();
+                          synchronized (singleWriter) {
+                            singleWriter.flush();
+                          }
                           sink.complete();
                         } catch (Exception e) {
                           sink.error(e);
@@ -227,14 +270,35 @@ public abstract class AbstractFileBasedConnector implements Connector {
     }
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Flushes all the writers, including those being written to. Writers are never written to
+   * and flushed at the same time; once closed, they have nothing left to flush.
+   */
+  @Override
+  public synchronized void flush() throws IOException {
+    assert !read;
+    if (closeError != null) {
+      throw new IOException("Connector could not be closed properly", closeError);
+    }
+    for (RecordWriter writer : allWriters) {
+      synchronized (writer) {
+        writer.flush();
+      }
+    }
+  }
+
   @Override
-  public void close() {
+  public synchronized void close() {
     if (writers != null) {
       IOException e = null;
       for (RecordWriter writer : writers) {
         try {
-          writer.flush();
-          writer.close();
+          synchronized (writer) {
+            writer.flush();
+            writer.close();
+          }
         } catch (IOException e1) {
           if (e == null) {
             e = e1;
@@ -244,14 +308,18 @@ public abstract class AbstractFileBasedConnector implements Connector {
         }
       }
       if (e != null) {
+        closeError = e;
         throw new UncheckedIOException(e);
       }
     }
     if (singleWriter != null) {
       try {
-        singleWriter.flush();
-        singleWriter.close();
+        synchronized (singleWriter) {
+          singleWriter.flush();
+          singleWriter.close();
+        }
       } catch (IOException e) {
+        closeError = e;
         throw new UncheckedIOException(e);
       }
     }
@@ -268,6 +336,144 @@ public abstract class AbstractFileBasedConnector implements Connector {
   @NonNull
   protected abstract String getConnectorName();
 
+  /**
+   * Reads a single resource accessible through the given URL. Used during the {@linkplain #read()
+   * data reading phase}.
+   *
+   * <p>If the resource is a local file that can be {@linkplain #getChunkableFile(URL) split into
+   * chunks}, this method emits one stream of records per chunk; otherwise, it emits one single
+   * stream of records for the whole resource.
+   *
+   * <p>Records that were {@linkplain #skipProcessedRecords(Map) already processed} are not emitted;
+   * chunks containing only such records are not read at all.
+   */
+  @NonNull
+  protected Flux<Flux<Record>> readSingleResource(@NonNull URL url) {
+    long processed = getProcessedRecords(url);
+    Path file = getChunkableFile(url);
+    if (file == null) {
+      return Flux.just(
+          readSingleFile(url)
+              .transform(this::applyPerFileLimits)
+              .transform(records -> skipProcessed(records, processed)));
+    }
+    assert chunker != null;
+    return chunker
+        .split(url, file)
+        .filter(this::isChunkWithinLimits)
+        .filter(chunk -> chunk.getLastRecordNumber() > processed)
+        .map(
+            chunk ->
+                readSingleChunk(chunk)
+                    .transform(this::applyPerChunkLimits)
+                    .transform(records -> skipProcessed(records, processed)));
+  }
+
+  /**
+   * Returns the number of leading records of the given resource that were {@linkplain
+   * #skipProcessedRecords(Map) already processed}, or zero if none.
+   */
+  protected long getProcessedRecords(@NonNull URL url) {
+    if (processedRecords.isEmpty()) {
+      return 0;
+    }
+    long processed = processedRecords.getOrDefault(URI.create(url.toExternalForm()), 0L);
+    if (processed > 0) {
+      LOGGER.debug("Skipping {} records already processed in {}", processed, url);
+    }
+    return processed;
+  }
+
+  /**
+   * Skips the records whose positions are lesser than or equal to the given number of processed
+   * records. Since positions are increasing in each stream of records, only the leading records of
+   * the stream are inspected.
+   */
+  @SuppressWarnings("ReactiveStreamsUnusedPublisher")
+  @NonNull
+  protected Flux<Record> skipProcessed(@NonNull Flux<Record> records, long processed) {
+    if (processed > 0) {
+      records = records.skipWhile(record -> record.getPosition() <= processed);
+    }
+    return records;
+  }
+
+  /**
+   * Returns the local file to split into chunks for the given URL, or null if the URL cannot or
+   * should not be split.
+   *
+   * <p>Chunking is only possible when this connector {@linkplain #newFileChunker() supports it},
+   * when it was enabled by setting a chunk size, when files are not compressed, and when the URL is
+   * a regular file on a known filesystem that is bigger than the chunk size.
+   */
+  @Nullable
+  protected Path getChunkableFile(@NonNull URL url) {
+    if (chunker != null) {
+      try {
+        Path file = Paths.get(url.toURI());
+        if (Files.isRegularFile(file) && chunker.shouldSplit(Files.size(file))) {
+          return file;
+        }
+      } catch (URISyntaxException | FileSystemNotFoundException | IllegalArgumentException e) {
+        // not a path on a known filesystem
+      } catch (IOException e) {
+        throw new UncheckedIOException("Error reading size of " + url, e);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns a new {@link FileChunker} suitable for files read by this connector, or null if this
+   * connector cannot read files in chunks. Only used when reading, and only if a chunk size was
+   * set.
+   *
+   * <p>Connectors returning a non-null chunker must also override {@link
+   * #newSingleChunkReader(FileChunk)}. This implementation returns null.
+   */
+  @Nullable
+  protected FileChunker newFileChunker() {
+    return null;
+  }
+
+  /**
+   * Reads a single chunk of a text file. Used during the {@linkplain #read() data reading phase},
+   * when the file is big enough to be split into chunks.
+   *
+   * <p>Implementors should not care about {@code maxRecords} and {@code skipRecords}, these will be
+   * applied later on, see {@link #applyPerChunkLimits(Flux)}.
+   *
+   * @param chunk The chunk to read; must not be null.
+   * @return A stream of {@link Record}s; never null but may be empty.
+   */
+  @NonNull
+  protected Flux<Record> readSingleChunk(@NonNull FileChunk chunk) {
+    return Flux.generate(
+        () -> newSingleChunkReader(chunk),
+        RecordReader::readNext,
+        recordReader -> {
+          try {
+            recordReader.close();
+          } catch (IOException e) {
+            LOGGER.error("Error closing " + chunk, e);
+          }
+        });
+  }
+
+  /**
+   * Returns a new {@link RecordReader} instance for the given chunk; cannot be null. Only used when
+   * reading files in chunks. The reader must only read the chunk's byte range, and must number its
+   * records starting with the chunk's {@linkplain FileChunk#getFirstRecordNumber() first record
+   * number}.
+   *
+   * <p>This implementation throws {@link UnsupportedOperationException}.
+   */
+  @NonNull
+  protected RecordReader newSingleChunkReader(@NonNull FileChunk chunk) throws IOException {
+    throw new UnsupportedOperationException(
+        getConnectorName() + " connector does not support reading files in chunks");
+  }
+
   /**
    * Reads a single text file accessible through the given URL. Used during the {@linkplain #read()
    * data reading phase}.
@@ -347,7 +553,7 @@ public abstract class AbstractFileBasedConnector implements Connector {
 
     /**
      * Writes the record to the destination file, in a thread-safe manner (i.e., this method is
-     * never called concurrently).
+     * never called concurrently, nor concurrently with {@link #flush()}).
      *
      * @param record The record to write.
      * @throws IOException If an I/O error occurs while writing the record or dealing with the file
@@ -441,7 +647,13 @@ public abstract class AbstractFileBasedConnector implements Connector {
           }
           roots.add(root);
           int inDirectoryResourceCount =
-              Objects.requireNonNull(scanRootDirectory(root).take(1000).count().block()).intValue();
+              Objects.requireNonNull(
+                      scanRootDirectory(root)
+                          .take(1000)
+                          .map(this::countResources)
+                          .reduce(0, Integer::sum)
+                          .block())
+                  .intValue();
           if (inDirectoryResourceCount == 0) {
             if (IOUtils.countReadableFiles(root, recursive) == 0) {
               LOGGER.warn("Directory {} has no readable files.", root);
@@ -455,7 +667,7 @@ public abstract class AbstractFileBasedConnector implements Connector {
           }
           resourceCount += inDirectoryResourceCount;
         } else {
-          resourceCount += 1;
+          resourceCount += countResources(u);
           files.add(u);
         }
       } catch (FileSystemNotFoundException ignored) {
@@ -487,7 +699,7 @@ public abstract class AbstractFileBasedConnector implements Connector {
         if (!Files.isWritable(root)) {
           throw new IllegalArgumentException(String.format("Directory is not writable: %s.", root));
         }
-        if (IOUtils.isDirectoryNonEmpty(root)) {
+        if (!preserveExistingData && IOUtils.isDirectoryNonEmpty(root)) {
           throw new IllegalArgumentException(
               String.format(
                   "Invalid value for connector.%s.url: target directory "
@@ -496,6 +708,12 @@ public abstract class AbstractFileBasedConnector implements Connector {
                   getConnectorName()));
         }
         this.roots.add(root);
+      } else if (preserveExistingData && Files.exists(root)) {
+        throw new IllegalArgumentException(
+            String.format(
+                "Invalid value for connector.%s.url: target file %s already exists; "
+                    + "to resume an operation, please write to a directory.",
+                getConnectorName(), root));
       }
     } catch (FileSystemNotFoundException ignored) {
       // not a path on a known filesystem, fall back to writing to URL directly
@@ -547,19 +765,67 @@ public abstract class AbstractFileBasedConnector implements Connector {
     return records;
   }
 
+  /**
+   * Whether the given chunk may contain records within the limits set by {@code skipRecords} and
+   * {@code maxRecords}. Chunks that cannot contain such records do not need to be read at all.
+   */
+  protected boolean isChunkWithinLimits(@NonNull FileChunk chunk) {
+    return maxRecords == -1 || chunk.getFirstRecordNumber() <= skipRecords + maxRecords;
+  }
+
+  /**
+   * Applies per-file limits to a stream of records coming from {@link #readSingleChunk(FileChunk)}.
+   *
+   * <p>Since chunks of the same file are read independently, limits are applied to record
+   * positions, which are relative to the beginning of the file.
+   */
+  @SuppressWarnings("ReactiveStreamsUnusedPublisher")
+  @NonNull
+  protected Flux<Record> applyPerChunkLimits(@NonNull Flux<Record> records) {
+    if (skipRecords > 0) {
+      records = records.filter(record -> record.getPosition() > skipRecords);
+    }
+    if (maxRecords != -1) {
+      records = records.takeWhile(record -> record.getPosition() <= skipRecords + maxRecords);
+    }
+    return records;
+  }
+
+  /**
+   * Returns the number of resources that the given URL will be read as: the number of chunks if the
+   * URL can be split into chunks, or 1 otherwise.
+   */
+  protected int countResources(@NonNull URL url) {
+    Path file = getChunkableFile(url);
+    if (file == null) {
+      return 1;
+    }
+    assert chunker != null;
+    try {
+      return chunker.estimateChunks(Files.size(file));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Error reading size of " + url, e);
+    }
+  }
+
   /**
    * Returns the URL that the connector should write to. Not used for reads.
    *
    * <p>This can be either a single file or a directory of files. If the former, each invocation of
    * this method will return the same URL; if the latter, each invocation of this method will
-   * generate a new URL inside the directory, with a unique file name.
+   * generate a new URL inside the directory, with a unique file name. When {@linkplain
+   * #preserveExistingData() preserving existing data}, file names already taken are skipped.
    */
   @NonNull
   protected URL getOrCreateDestinationURL() {
     if (!roots.isEmpty()) {
       try {
-        String next = String.format(fileNameFormat, fileCounter.incrementAndGet());
-        return roots.get(0).resolve(next).toUri().toURL(); // for UNLOAD always one URL
+        Path next;
+        do {
+          // for UNLOAD always one URL
+          next = roots.get(0).resolve(String.format(fileNameFormat, fileCounter.incrementAndGet()));
+        } while (preserveExistingData && Files.exists(next));
+        return next.toUri().toURL();
       } catch (MalformedURLException e) {
         throw new UncheckedIOException(
             String.format("Could not create file URL with format %s", fileNameFormat), e);
@@ -0,0 +1,104 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.connectors.commons;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.net.URL;
+import java.nio.file.Path;
+
+/**
+ * A byte range of a local file that starts and ends on record boundaries, and that can therefore be
+ * parsed independently of the rest of the file.
+ *
+ * <p>Chunks are created by a {@link FileChunker}.
+ */
+public final class FileChunk {
+
+  private final URL url;
+  private final Path file;
+  private final int index;
+  private final long start;
+  private final long end;
+  private final long firstRecordNumber;
+  private final long lastRecordNumber;
+
+  public FileChunk(
+      @NonNull URL url,
+      @NonNull Path file,
+      int index,
+      long start,
+      long end,
+      long firstRecordNumber,
+      long lastRecordNumber) {
+    this.url = url;
+    this.file = file;
+    this.index = index;
+    this.start = start;
+    this.end = end;
+    this.firstRecordNumber = firstRecordNumber;
+    this.lastRecordNumber = lastRecordNumber;
+  }
+
+  /** @return The URL of the file this chunk belongs to. */
+  @NonNull
+  public URL getUrl() {
+    return url;
+  }
+
+  /** @return The path of the file this chunk belongs to. */
+  @NonNull
+  public Path getFile() {
+    return file;
+  }
+
+  /** @return The zero-based index of this chunk in its file. */
+  public int getIndex() {
+    return index;
+  }
+
+  /** @return The offset of the first byte of this chunk, inclusive. */
+  public long getStart() {
+    return start;
+  }
+
+  /** @return The offset of the last byte of this chunk, exclusive. */
+  public long getEnd() {
+    return end;
+  }
+
+  /**
+   * @return The position of the first record in this chunk, relative to the beginning of the file.
+   *     Positions are 1-based and do not account for header lines, exactly as if the file had been
+   *     read sequentially.
+   */
+  public long getFirstRecordNumber() {
+    return firstRecordNumber;
+  }
+
+  /**
+   * @return The position of the last record in this chunk, relative to the beginning of the file;
+   *     lesser than the {@linkplain #getFirstRecordNumber() first record number} if this chunk does
+   *     not contain any record.
+   */
+  public long getLastRecordNumber() {
+    return lastRecordNumber;
+  }
+
+  @Override
+  public String toString() {
+    return url + " [" + start + ',' + end + ')';
+  }
+}
@@ -0,0 +1,395 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.connectors.commons;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Splits local, uncompressed text files into {@linkplain FileChunk chunks} that start and end on
+ * record boundaries, so that each chunk can be parsed by a different reader.
+ *
+ * <p>Records are assumed to be terminated by line feed characters ({@code \n}). Line feeds
+ * appearing inside quoted values do not terminate records; since it is not possible to tell whether
+ * an arbitrary byte offset falls inside a quoted value or not without reading the file from its
+ * beginning, each chunk is scanned speculatively for every possible parser state at its start; the
+ * actual state is then resolved chunk after chunk, which is cheap. This way, chunks can be scanned
+ * in parallel, and each file is read only once by this class.
+ *
+ * <p>Scanning also counts the records starting in each chunk, which allows to assign each chunk the
+ * position of its first record, and thus to report record positions exactly as if the file had been
+ * read sequentially.
+ *
+ * <p>Scanning happens at the byte level: the file encoding must encode line feeds, quotes, escapes,
+ * delimiters and comment characters as single bytes, and those bytes must not appear inside other
+ * multi-byte characters. This is the case of UTF-8 and of most single-byte charsets.
+ */
+public class FileChunker {
+
+  /** Beginning of a line, no record started yet. */
+  private static final int LINE_START = 0;
+
+  /** Beginning of a field inside a record. */
+  private static final int FIELD_START = 1;
+
+  /** Inside an unquoted field. */
+  private static final int UNQUOTED = 2;
+
+  /** Inside a quoted field. */
+  private static final int QUOTED = 3;
+
+  /** Inside a quoted field, right after an escape character. */
+  private static final int QUOTED_ESCAPE = 4;
+
+  /** Right after a quote closing a quoted field, or right before an escaped quote. */
+  private static final int AFTER_QUOTE = 5;
+
+  /** Inside a comment line. */
+  private static final int COMMENT = 6;
+
+  private static final int NUM_STATES = 7;
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final long chunkSize;
+  private final boolean header;
+  private final int concurrency;
+  private final byte[][] transitions = new byte[NUM_STATES][256];
+
+  /**
+   * Creates a new chunker.
+   *
+   * @param chunkSize The desired chunk size in bytes; actual chunks will be slightly smaller or
+   *     bigger, since their boundaries are aligned on record boundaries.
+   * @param delimiter The field delimiter byte, or -1 if records have no fields. If the delimiter is
+   *     made of many characters, its last character should be used.
+   * @param quote The quote byte, or -1 if quotes should not be taken into account.
+   * @param escape The escape byte, or -1 if quotes cannot be escaped.
+   * @param comment The byte starting comment lines, or -1 if comments are not allowed.
+   * @param ignoreLeadingWhitespaces Whether leading whitespace in fields and whitespace-only lines
+   *     should be ignored.
+   * @param header Whether the first record of each file is a header record, which should not be
+   *     counted.
+   * @param concurrency The maximum number of chunks to scan in parallel.
+   */
+  public FileChunker(
+      long chunkSize,
+      int delimiter,
+      int quote,
+      int escape,
+      int comment,
+      boolean ignoreLeadingWhitespaces,
+      boolean header,
+      int concurrency) {
+    this.chunkSize = chunkSize;
+    this.header = header;
+    this.concurrency = concurrency;
+    for (int state = 0; state < NUM_STATES; state++) {
+      for (int b = 0; b < 256; b++) {
+        transitions[state][b] =
+            (byte)
+                transition(state, b, delimiter, quote, escape, comment, ignoreLeadingWhitespaces);
+      }
+    }
+  }
+
+  /**
+   * Returns whether the given file is big enough to be split in more than one chunk.
+   *
+   * @param size The file size in bytes.
+   */
+  public boolean shouldSplit(long size) {
+    return size > chunkSize;
+  }
+
+  /**
+   * Returns the number of chunks that a file of the given size would be roughly split in.
+   *
+   * @param size The file size in bytes.
+   */
+  public int estimateChunks(long size) {
+    return (int) Math.max(1, (size + chunkSize - 1) / chunkSize);
+  }
+
+  /**
+   * Splits the given file into chunks.
+   *
+   * <p>Chunks are emitted in order, as soon as they are resolved; consumers can therefore start
+   * parsing the first chunks while subsequent ones are still being scanned.
+   *
+   * @param url The URL of the file to split.
+   * @param file The file to split; must be a regular file on a known filesystem.
+   * @return A stream of chunks covering the entire file.
+   */
+  @NonNull
+  public Flux<FileChunk> split(@NonNull URL url, @NonNull Path file) {
+    return Flux.defer(
+        () -> {
+          long size;
+          try {
+            size = Files.size(file);
+          } catch (IOException e) {
+            throw new UncheckedIOException("Error reading size of " + file, e);
+          }
+          int numChunks = estimateChunks(size);
+          ChunkAssembler assembler = new ChunkAssembler(url, file, size);
+          return Flux.range(0, numChunks)
+              .flatMapSequential(
+                  i ->
+                      Mono.fromCallable(
+                              () -> scan(file, i * chunkSize, Math.min(size, (i + 1) * chunkSize)))
+                          .subscribeOn(Schedulers.boundedElastic()),
+                  concurrency)
+              .concatMapIterable(assembler::accept)
+              .concatWith(Mono.fromSupplier(assembler::complete));
+        });
+  }
+
+  /**
+   * Scans the byte range {@code [start,end)} of the given file, simulating the scan for each
+   * possible parser state at {@code start}.
+   */
+  @NonNull
+  private ChunkScan scan(@NonNull Path file, long start, long end) throws IOException {
+    int[] state = new int[NUM_STATES];
+    long[] boundary = new long[NUM_STATES];
+    long[] count = new long[NUM_STATES];
+    int[] alias = new int[NUM_STATES];
+    long[] delta = new long[NUM_STATES];
+    // the entry states that are still being simulated; other entry states
+    // have converged with one of these and are resolved through their alias
+    int[] tracks = new int[NUM_STATES];
+    int numTracks = NUM_STATES;
+    for (int entry = 0; entry < NUM_STATES; entry++) {
+      state[entry] = entry;
+      boundary[entry] = entry == LINE_START ? start : -1;
+      alias[entry] = entry;
+      tracks[entry] = entry;
+    }
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+      byte[] bytes = buffer.array();
+      long position = start;
+      while (position < end) {
+        buffer.clear();
+        buffer.limit((int) Math.min(BUFFER_SIZE, end - position));
+        int read = channel.read(buffer, position);
+        if (read == -1) {
+          break;
+        }
+        for (int i = 0; i < read; i++) {
+          int b = bytes[i] & 0xFF;
+          for (int t = 0; t < numTracks; t++) {
+            int entry = tracks[t];
+            int current = state[entry];
+            int next = transitions[current][b];
+            if (current == LINE_START) {
+              if (next != LINE_START && next != COMMENT) {
+                count[entry]++;
+              }
+            } else if (next == LINE_START && boundary[entry] == -1) {
+              boundary[entry] = position + i + 1;
+            }
+            state[entry] = next;
+          }
+          if (b == '\n' && numTracks > 1) {
+            numTracks = mergeTracks(tracks, numTracks, state, boundary, count, alias, delta);
+          }
+        }
+        position += read;
+      }
+    }
+    ChunkScan scan = new ChunkScan();
+    for (int entry = 0; entry < NUM_STATES; entry++) {
+      int track = entry;
+      long trackDelta = 0;
+      long trackBoundary = boundary[entry];
+      while (alias[track] != track) {
+        trackDelta += delta[track];
+        track = alias[track];
+        if (trackBoundary == -1) {
+          trackBoundary = boundary[track];
+        }
+      }
+      scan.endState[entry] = state[track];
+      scan.boundary[entry] = trackBoundary;
+      scan.count[entry] = count[track] + trackDelta;
+    }
+    return scan;
+  }
+
+  /**
+   * Merges tracks that reached the same state: from now on, they will evolve identically, so only
+   * one of them needs to be simulated.
+   */
+  private static int mergeTracks(
+      int[] tracks,
+      int numTracks,
+      int[] state,
+      long[] boundary,
+      long[] count,
+      int[] alias,
+      long[] delta) {
+    int kept = 0;
+    outer:
+    for (int t = 0; t < numTracks; t++) {
+      int entry = tracks[t];
+      for (int k = 0; k < kept; k++) {
+        int other = tracks[k];
+        if (state[other] == state[entry] && (boundary[other] == -1) == (boundary[entry] == -1)) {
+          alias[entry] = other;
+          delta[entry] = count[entry] - count[other];
+          continue outer;
+        }
+      }
+      tracks[kept++] = entry;
+    }
+    return kept;
+  }
+
+  private static int transition(
+      int state,
+      int b,
+      int delimiter,
+      int quote,
+      int escape,
+      int comment,
+      boolean ignoreLeadingWhitespaces) {
+    boolean whitespace = b == ' ' || b == '\t';
+    if (b == '\n') {
+      return state == QUOTED || state == QUOTED_ESCAPE ? QUOTED : LINE_START;
+    }
+    switch (state) {
+      case LINE_START:
+        if (b == '\r' || (ignoreLeadingWhitespaces && whitespace)) {
+          return LINE_START;
+        }
+        if (b == comment) {
+          return COMMENT;
+        }
+        return transition(
+            FIELD_START, b, delimiter, quote, escape, comment, ignoreLeadingWhitespaces);
+      case FIELD_START:
+        if (b == quote) {
+          return QUOTED;
+        }
+        if (b == delimiter || (ignoreLeadingWhitespaces && whitespace)) {
+          return FIELD_START;
+        }
+        return UNQUOTED;
+      case UNQUOTED:
+        return b == delimiter ? FIELD_START : UNQUOTED;
+      case QUOTED:
+        // check quotes before escapes, in case the escape character is the quote itself
+        if (b == quote) {
+          return AFTER_QUOTE;
+        }
+        return b == escape ? QUOTED_ESCAPE : QUOTED;
+      case QUOTED_ESCAPE:
+        return QUOTED;
+      case AFTER_QUOTE:
+        if (b == quote) {
+          return QUOTED;
+        }
+        return b == delimiter ? FIELD_START : UNQUOTED;
+      case COMMENT:
+        return COMMENT;
+      default:
+        throw new AssertionError("Unknown state: " + state);
+    }
+  }
+
+  /** The result of a speculative scan, indexed by parser state at the beginning of the chunk. */
+  private static class ChunkScan {
+
+    /** The parser state at the end of the chunk. */
+    private final int[] endState = new int[NUM_STATES];
+
+    /** The offset of the first line beginning in the chunk, or -1 if none. */
+    private final long[] boundary = new long[NUM_STATES];
+
+    /** The number of records beginning in the chunk. */
+    private final long[] count = new long[NUM_STATES];
+  }
+
+  /**
+   * Resolves the actual parser state at the beginning of each scanned chunk, and creates the
+   * corresponding {@link FileChunk}s. Scans must be accepted in order.
+   */
+  private class ChunkAssembler {
+
+    private final URL url;
+    private final Path file;
+    private final long size;
+
+    private int index = 0;
+    private int state = LINE_START;
+    private long chunkStart = 0;
+    private long chunkFirstRecord = 1;
+    private long nextRecord = 1;
+    private boolean first = true;
+
+    private ChunkAssembler(URL url, Path file, long size) {
+      this.url = url;
+      this.file = file;
+      this.size = size;
+    }
+
+    private List<FileChunk> accept(ChunkScan scan) {
+      List<FileChunk> chunks = Collections.emptyList();
+      long recordsInChunk = scan.count[state];
+      if (first) {
+        first = false;
+        if (header && recordsInChunk > 0) {
+          recordsInChunk--;
+        }
+      } else {
+        long boundary = scan.boundary[state];
+        if (boundary != -1) {
+          // a new chunk begins with the first line of this scanned range;
+          // otherwise, the range is entirely inside a record that began earlier,
+          // and is merged into the current chunk.
+          chunks = new ArrayList<>(1);
+          chunks.add(
+              new FileChunk(
+                  url, file, index++, chunkStart, boundary, chunkFirstRecord, nextRecord - 1));
+          chunkStart = boundary;
+          chunkFirstRecord = nextRecord;
+        }
+      }
+      nextRecord += recordsInChunk;
+      state = scan.endState[state];
+      return chunks;
+    }
+
+    private FileChunk complete() {
+      return new FileChunk(url, file, index, chunkStart, size, chunkFirstRecord, nextRecord - 1);
+    }
+  }
+}
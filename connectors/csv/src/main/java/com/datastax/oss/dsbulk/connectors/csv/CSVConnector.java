@@ -17,18 +17,21 @@ package com.datastax.oss.dsbulk.connectors.csv;
 
 import com.datastax.oss.driver.api.core.type.reflect.GenericType;
 import com.datastax.oss.dsbulk.config.ConfigUtils;
+import com.datastax.oss.dsbulk.connectors.api.ArrayBackedRecord;
 import com.datastax.oss.dsbulk.connectors.api.CommonConnectorFeature;
 import com.datastax.oss.dsbulk.connectors.api.ConnectorFeature;
 import com.datastax.oss.dsbulk.connectors.api.DefaultErrorRecord;
-import com.datastax.oss.dsbulk.connectors.api.DefaultIndexedField;
 import com.datastax.oss.dsbulk.connectors.api.DefaultMappedField;
-import com.datastax.oss.dsbulk.connectors.api.DefaultRecord;
 import com.datastax.oss.dsbulk.connectors.api.Field;
 import com.datastax.oss.dsbulk.connectors.api.MappedField;
 import com.datastax.oss.dsbulk.connectors.api.Record;
+import com.datastax.oss.dsbulk.connectors.api.RecordLayout;
 import com.datastax.oss.dsbulk.connectors.api.RecordMetadata;
 import com.datastax.oss.dsbulk.connectors.commons.AbstractFileBasedConnector;
+import com.datastax.oss.dsbulk.connectors.commons.FileChunk;
+import com.datastax.oss.dsbulk.connectors.commons.FileChunker;
 import com.datastax.oss.dsbulk.io.CompressedIOUtils;
+import com.datastax.oss.dsbulk.io.IOUtils;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigException;
 import com.univocity.parsers.common.ParsingContext;
@@ -40,6 +43,7 @@ import com.univocity.parsers.csv.CsvParserSettings;
 import com.univocity.parsers.csv.CsvWriter;
 import com.univocity.parsers.csv.CsvWriterSettings;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.io.IOException;
 import java.io.Reader;
 import java.net.URI;
@@ -47,8 +51,12 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLStreamHandler;
 import java.nio.channels.ClosedChannelException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -106,7 +114,9 @@ public class CSVConnector extends AbstractFileBasedConnector {
   private String nullValue;
   private String emptyValue;
   private CsvParserSettings parserSettings;
+  private CsvParserSettings chunkParserSettings;
   private CsvWriterSettings writerSettings;
+  private ConcurrentMap<URL, ChunkedFile> chunkedFiles;
 
   @Override
   @NonNull
@@ -182,6 +192,12 @@ public class CSVConnector extends AbstractFileBasedConnector {
       } else {
         format.setLineSeparator(newline);
       }
+      if (chunker != null) {
+        // chunks other than the first one do not start with a header line
+        chunkParserSettings = parserSettings.clone();
+        chunkParserSettings.setHeaderExtractionEnabled(false);
+        chunkedFiles = new ConcurrentHashMap<>();
+      }
     } else {
       writerSettings = new CsvWriterSettings();
       writerSettings.setFormat(format);
@@ -221,6 +237,9 @@ public class CSVConnector extends AbstractFileBasedConnector {
           return true;
         case DATA_SIZE_SAMPLING:
           return isDataSizeSamplingAvailable();
+        case UTF8_VALUES:
+          // UTF-8 values are written as is when the encoding is UTF-8
+          return encoding.equals(StandardCharsets.UTF_8);
       }
     }
     return false;
@@ -229,7 +248,52 @@ public class CSVConnector extends AbstractFileBasedConnector {
   @Override
   @NonNull
   protected RecordReader newSingleFileReader(@NonNull URL url) throws IOException {
-    return new CSVRecordReader(url);
+    return new CSVRecordReader(url, null);
+  }
+
+  @Nullable
+  @Override
+  protected FileChunker newFileChunker() {
+    // chunks are scanned byte by byte, so all special characters must be encoded as single bytes
+    if (!isSingleByte('\n')
+        || !isSingleByte(delimiter.charAt(delimiter.length() - 1))
+        || !isSingleByte(quote)
+        || !isSingleByte(escape)
+        || (comment != '\0' && !isSingleByte(comment))
+        || (!AUTO_NEWLINE.equalsIgnoreCase(newline) && newline.indexOf('\n') == -1)) {
+      LOGGER.warn(
+          "Files cannot be read in chunks with the current settings, "
+              + "connector.csv.{} will be ignored: the encoding must be UTF-8 or a single-byte "
+              + "charset, special characters must be ASCII characters, "
+              + "and the newline character must be LF or CRLF.",
+          CHUNK_SIZE);
+      return null;
+    }
+    return new FileChunker(
+        chunkSize,
+        delimiter.charAt(delimiter.length() - 1),
+        quote,
+        escape,
+        comment == '\0' ? -1 : comment,
+        ignoreLeadingWhitespaces,
+        header,
+        maxConcurrentFiles);
+  }
+
+  private boolean isSingleByte(char c) {
+    if (c >= 0x80
+        || !(encoding.equals(StandardCharsets.UTF_8)
+            || encoding.newEncoder().maxBytesPerChar() == 1)) {
+      return false;
+    }
+    byte[] bytes = String.valueOf(c).getBytes(encoding);
+    return bytes.length == 1 && bytes[0] == c;
+  }
+
+  @NonNull
+  @Override
+  protected RecordReader newSingleChunkReader(@NonNull FileChunk chunk) throws IOException {
+    return new CSVRecordReader(chunk.getUrl(), chunk);
   }
 
   private class CSVRecordReader implements RecordReader {
@@ -240,22 +304,72 @@ public class CSVConnector extends AbstractFileBasedConnector {
     private final ParsingContext context;
     private final MappedField[] fieldNames;
 
-    private long recordNumber = 1;
+    private RecordLayout layout;
+    private long recordNumber;
 
-    private CSVRecordReader(URL url) throws IOException {
+    private CSVRecordReader(URL url, @Nullable FileChunk chunk) throws IOException {
       this.url = url;
       try {
         resource = URI.create(url.toExternalForm());
-        parser = new CsvParser(parserSettings);
-        Reader r = CompressedIOUtils.newBufferedReader(url, encoding, compression);
-        parser.beginParsing(r);
-        context = parser.getContext();
-        fieldNames = header ? getFieldNames(url, context) : null;
+        if (chunk == null) {
+          parser = new CsvParser(parserSettings);
+          parser.beginParsing(CompressedIOUtils.newBufferedReader(url, encoding, compression));
+          context = parser.getContext();
+          fieldNames = header ? getFieldNames(url, context) : null;
+          recordNumber = 1;
+        } else {
+          Reader r =
+              IOUtils.newBufferedReader(
+                  chunk.getFile(), chunk.getStart(), chunk.getEnd(), encoding);
+          if (chunk.getIndex() == 0) {
+            parser = new CsvParser(parserSettings);
+            parser.beginParsing(r);
+            context = parser.getContext();
+            fieldNames = header ? getFieldNames(url, context) : null;
+          } else {
+            ChunkedFile chunkedFile = getChunkedFile(url);
+            fieldNames = chunkedFile.fieldNames;
+            parser = new CsvParser(chunkedFile.settings);
+            parser.beginParsing(r);
+            context = parser.getContext();
+          }
+          recordNumber = chunk.getFirstRecordNumber();
+        }
+        layout =
+            fieldNames == null ? RecordLayout.EMPTY : RecordLayout.mappedAndIndexed(fieldNames);
       } catch (Exception e) {
         throw asIOException(url, e, "Error creating CSV parser for " + url);
       }
     }
 
+    /**
+     * Returns the header and parser settings to use for chunks of a file, except its first chunk.
+     * The beginning of the file is only parsed once, then its header and line separator are shared
+     * by all its chunks.
+     */
+    private ChunkedFile getChunkedFile(URL url) throws IOException {
+      ChunkedFile chunkedFile = chunkedFiles.get(url);
+      if (chunkedFile == null) {
+        CsvParser headParser = new CsvParser(parserSettings);
+        try {
+          headParser.beginParsing(IOUtils.newBufferedReader(url, encoding));
+          MappedField[] fieldNames = header ? getFieldNames(url, headParser.getContext()) : null;
+          CsvParserSettings settings = chunkParserSettings.clone();
+          CsvFormat detectedFormat = headParser.getDetectedFormat();
+          if (detectedFormat != null) {
+            // line separators must be detected at the beginning of the file, not of the chunk
+            settings.setLineSeparatorDetectionEnabled(false);
+            settings.getFormat().setLineSeparator(detectedFormat.getLineSeparator());
+          }
+          chunkedFile = new ChunkedFile(settings, fieldNames);
+        } finally {
+          headParser.stopParsing();
+        }
+        chunkedFiles.putIfAbsent(url, chunkedFile);
+      }
+      return chunkedFile;
+    }
+
     private MappedField[] getFieldNames(URL url, ParsingContext context) throws IOException {
       List<String> fieldNames = new ArrayList<>();
       String[] parsedHeaders = context.headers();
@@ -310,17 +424,11 @@ public class CSVConnector extends AbstractFileBasedConnector {
       Record record;
       try {
         Object[] values = row.getValues();
-        if (header) {
-          record = DefaultRecord.mapped(source, resource, recordNumber++, fieldNames, values);
-          // also emit indexed fields
-          for (int i = 0; i < values.length; i++) {
-            DefaultIndexedField field = new DefaultIndexedField(i);
-            Object value = values[i];
-            ((DefaultRecord) record).setFieldValue(field, value);
-          }
-        } else {
-          record = DefaultRecord.indexed(source, resource, recordNumber++, values);
+        if (!header && layout.size() != values.length) {
+          layout = RecordLayout.indexed(values.length);
         }
+        // when there is a header, fields are accessible both by name and by index
+        record = new ArrayBackedRecord(source, resource, recordNumber++, layout, values);
       } catch (Exception e) {
         record = new DefaultErrorRecord(source, resource, recordNumber, e);
       }
@@ -335,6 +443,17 @@ public class CSVConnector extends AbstractFileBasedConnector {
     }
   }
 
+  private static class ChunkedFile {
+
+    private final CsvParserSettings settings;
+    private final MappedField[] fieldNames;
+
+    private ChunkedFile(CsvParserSettings settings, MappedField[] fieldNames) {
+      this.settings = settings;
+      this.fieldNames = fieldNames;
+    }
+  }
+
   @NonNull
   @Override
   protected RecordWriter newSingleFileWriter() {
@@ -344,22 +463,24 @@ public class CSVConnector extends AbstractFileBasedConnector {
   private class CSVRecordWriter implements RecordWriter {
 
     private URL url;
+    // only one of these is used: UTF-8 files are written by the faster utf8Writer
     private CsvWriter writer;
+    private Utf8CsvWriter utf8Writer;
 
     @Override
     public void write(@NonNull Record record) throws IOException {
       try {
-        if (writer == null) {
+        if (!isOpen()) {
           open();
         } else if (shouldRoll()) {
           close();
           open();
         }
         if (shouldWriteHeader()) {
-          writer.writeHeaders(record.fields().stream().map(Field::toString).toArray(String[]::new));
+          writeHeaders(record.fields().stream().map(Field::toString).toArray(String[]::new));
         }
         LOGGER.trace("Writing record {} to {}", record, url);
-        writer.writeRow(record.values());
+        writeRow(record.values());
       } catch (TextWritingException e) {
         if (!(e.getCause() instanceof ClosedChannelException)) {
           throw new IOException(String.format("Error writing to %s", url), e);
@@ -367,20 +488,62 @@ public class CSVConnector extends AbstractFileBasedConnector {
       }
     }
 
+    private boolean isOpen() {
+      return writer != null || utf8Writer != null;
+    }
+
+    private long getRecordCount() {
+      return utf8Writer != null ? utf8Writer.getRecordCount() : writer.getRecordCount();
+    }
+
     private boolean shouldWriteHeader() {
-      return header && writer.getRecordCount() == 0;
+      return header && getRecordCount() == 0;
     }
 
     private boolean shouldRoll() {
-      return !roots.isEmpty() && writer.getRecordCount() == maxRecords;
+      return !roots.isEmpty() && getRecordCount() == maxRecords;
+    }
+
+    private void writeHeaders(String[] headers) throws IOException {
+      if (utf8Writer == null) {
+        writer.writeHeaders(headers);
+      } else {
+        try {
+          utf8Writer.writeHeaders(headers);
+        } catch (ClosedChannelException e) {
+          // OK, happens when the channel was closed due to interruption
+        } catch (IOException e) {
+          throw new IOException(String.format("Error writing to %s", url), e);
+        }
+      }
+    }
+
+    private void writeRow(Collection<Object> values) throws IOException {
+      if (utf8Writer == null) {
+        writer.writeRow(values);
+      } else {
+        try {
+          utf8Writer.writeRow(values.toArray());
+        } catch (ClosedChannelException e) {
+          // OK, happens when the channel was closed due to interruption
+        } catch (IOException e) {
+          throw new IOException(String.format("Error writing to %s", url), e);
+        }
+      }
     }
 
     private void open() throws IOException {
       url = getOrCreateDestinationURL();
       try {
-        writer =
-            new CsvWriter(
-                CompressedIOUtils.newBufferedWriter(url, encoding, compression), writerSettings);
+        if (encoding.equals(StandardCharsets.UTF_8)) {
+          utf8Writer =
+              new Utf8CsvWriter(
+                  CompressedIOUtils.newBufferedOutputStream(url, compression), writerSettings);
+        } else {
+          writer =
+              new CsvWriter(
+                  CompressedIOUtils.newBufferedWriter(url, encoding, compression), writerSettings);
+        }
         LOGGER.debug("Writing {}", url);
       } catch (ClosedChannelException e) {
         // OK, happens when the channel was closed due to interruption
@@ -397,6 +560,14 @@ public class CSVConnector extends AbstractFileBasedConnector {
         } catch (RuntimeException e) {
           throw new IOException(String.format("Error flushing %s", url), e);
         }
+      } else if (utf8Writer != null) {
+        try {
+          utf8Writer.flush();
+        } catch (ClosedChannelException e) {
+          // OK, happens when the channel was closed due to interruption
+        } catch (IOException e) {
+          throw new IOException(String.format("Error flushing %s", url), e);
+        }
       }
     }
 
@@ -413,6 +584,16 @@ public class CSVConnector extends AbstractFileBasedConnector {
             throw new IOException(String.format("Error closing %s", url), e.getCause());
           }
         }
+      } else if (utf8Writer != null) {
+        try {
+          utf8Writer.close();
+          LOGGER.debug("Done writing {}", url);
+          utf8Writer = null;
+        } catch (ClosedChannelException e) {
+          // OK, happens when the channel was closed due to interruption
+        } catch (IOException e) {
+          throw new IOException(String.format("Error closing %s", url), e);
+        }
       }
     }
   }
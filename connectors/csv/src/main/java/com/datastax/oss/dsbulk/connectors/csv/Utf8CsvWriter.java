@@ -0,0 +1,219 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.connectors.csv;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.datastax.oss.dsbulk.connectors.api.Utf8Value;
+import com.univocity.parsers.csv.CsvFormat;
+import com.univocity.parsers.csv.CsvWriter;
+import com.univocity.parsers.csv.CsvWriterSettings;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Writes CSV rows to a stream of UTF-8 bytes.
+ *
+ * <p>Rows whose values can be written as they are, without any quoting, escaping nor trimming, are
+ * encoded directly into a reusable buffer; in particular, {@link Utf8Value}s are copied as they
+ * are, without being decoded to strings. All other rows are formatted by a {@link CsvWriter} with
+ * the same settings, so that the output is always identical to what the latter would have written.
+ */
+final class Utf8CsvWriter implements Closeable, Flushable {
+
+  private static final int INITIAL_BUFFER_SIZE = 8192;
+
+  /** Buffers grown bigger than this by a large row are not retained for the next rows. */
+  private static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+
+  private final OutputStream out;
+  private final CsvWriter formatter;
+  private final byte[] delimiter;
+  private final byte[] lineSeparator;
+  private final int maxColumns;
+  private final boolean nullsAsEmpty;
+
+  /** The ASCII characters that could require a value to be quoted or escaped. */
+  private final boolean[] special = new boolean[128];
+
+  /** Whether rows can be written directly; false if some special characters are not ASCII. */
+  private final boolean direct;
+
+  private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+  private long recordCount;
+
+  Utf8CsvWriter(@NonNull OutputStream out, @NonNull CsvWriterSettings settings) {
+    this.out = out;
+    formatter = new CsvWriter(settings);
+    CsvFormat format = settings.getFormat();
+    delimiter = format.getDelimiterString().getBytes(UTF_8);
+    lineSeparator = format.getLineSeparatorString().getBytes(UTF_8);
+    maxColumns = settings.getMaxColumns();
+    nullsAsEmpty = settings.getNullValue() == null;
+    StringBuilder specials =
+        new StringBuilder()
+            .append(format.getDelimiterString())
+            .append(format.getQuote())
+            .append(format.getQuoteEscape())
+            .append(format.getCharToEscapeQuoteEscaping())
+            .append(format.getComment())
+            .append(format.getNormalizedNewline());
+    boolean ascii = true;
+    for (int i = 0; i < specials.length(); i++) {
+      char c = specials.charAt(i);
+      if (c < 128) {
+        special[c] = true;
+      } else {
+        ascii = false;
+      }
+    }
+    direct = ascii;
+  }
+
+  /**
+   * @return the number of rows written so far, headers included, like {@link
+   *     CsvWriter#getRecordCount()}.
+   */
+  long getRecordCount() {
+    return recordCount;
+  }
+
+  void writeHeaders(@NonNull String... headers) throws IOException {
+    writeRow((Object[]) headers);
+  }
+
+  void writeRow(@NonNull Object... values) throws IOException {
+    buffer.clear();
+    if (!direct || !writeDirect(values)) {
+      buffer.clear();
+      String row = formatter.writeRowToString(values);
+      if (row == null) {
+        // the row is skipped, e.g. when it only has one null value
+        return;
+      }
+      putString(row);
+      put(lineSeparator);
+    }
+    out.write(buffer.array(), 0, buffer.position());
+    recordCount++;
+    if (buffer.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+      buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    out.close();
+  }
+
+  /** Writes the row to the buffer, or returns false if it needs to be formatted. */
+  private boolean writeDirect(Object[] values) {
+    if (values.length == 0 || values.length > maxColumns) {
+      return false;
+    }
+    boolean allNull = true;
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) {
+        put(delimiter);
+      }
+      Object value = values[i];
+      if (value == null) {
+        if (!nullsAsEmpty) {
+          return false;
+        }
+        continue;
+      }
+      allNull = false;
+      int start = buffer.position();
+      if (value instanceof Utf8Value) {
+        put(((Utf8Value) value).getBytes());
+      } else if (value instanceof String) {
+        putString((String) value);
+      } else {
+        return false;
+      }
+      if (!isPlain(start, buffer.position())) {
+        return false;
+      }
+    }
+    if (allNull) {
+      // empty rows are subject to special rules
+      return false;
+    }
+    put(lineSeparator);
+    return true;
+  }
+
+  /**
+   * Whether the given bytes form a non-empty value that the CSV writer would neither quote, nor
+   * escape, nor trim.
+   */
+  private boolean isPlain(int start, int end) {
+    if (start == end) {
+      return false;
+    }
+    byte[] bytes = buffer.array();
+    // leading and trailing whitespace could be trimmed; bytes of multi-byte characters are negative
+    if ((bytes[start] >= 0 && bytes[start] <= ' ')
+        || (bytes[end - 1] >= 0 && bytes[end - 1] <= ' ')) {
+      return false;
+    }
+    for (int i = start; i < end; i++) {
+      byte b = bytes[i];
+      if (b >= 0 && (b < ' ' || special[b])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void putString(String s) {
+    int length = s.length();
+    ensureCapacity(length);
+    for (int i = 0; i < length; i++) {
+      char c = s.charAt(i);
+      if (c >= 128) {
+        put(s.substring(i).getBytes(UTF_8));
+        return;
+      }
+      buffer.put((byte) c);
+    }
+  }
+
+  private void put(byte[] bytes) {
+    ensureCapacity(bytes.length);
+    buffer.put(bytes);
+  }
+
+  private void ensureCapacity(int length) {
+    if (buffer.remaining() < length) {
+      ByteBuffer grown =
+          ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + length));
+      buffer.flip();
+      grown.put(buffer);
+      buffer = grown;
+    }
+  }
+}
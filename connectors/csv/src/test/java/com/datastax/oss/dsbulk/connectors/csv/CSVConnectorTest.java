@@ -37,6 +37,7 @@ import com.datastax.oss.dsbulk.connectors.api.DefaultRecord;
 import com.datastax.oss.dsbulk.connectors.api.ErrorRecord;
 import com.datastax.oss.dsbulk.connectors.api.Field;
 import com.datastax.oss.dsbulk.connectors.api.Record;
+import com.datastax.oss.dsbulk.connectors.api.Utf8Value;
 import com.datastax.oss.dsbulk.io.CompressedIOUtils;
 import com.datastax.oss.dsbulk.tests.logging.LogCapture;
 import com.datastax.oss.dsbulk.tests.logging.LogInterceptingExtension;
@@ -67,7 +68,9 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -85,7 +88,9 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.reactivestreams.Publisher;
 import org.slf4j.event.Level;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.UnicastProcessor;
 import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 import ru.lanwen.wiremock.ext.WiremockResolver;
@@ -343,6 +348,96 @@ class CSVConnectorTest {
     assertThat(connector.supports(CommonConnectorFeature.DATA_SIZE_SAMPLING)).isFalse();
   }
 
+  @Test
+  void should_support_utf8_values_only_when_encoding_is_utf8() throws Exception {
+    CSVConnector connector = new CSVConnector();
+    Config settings = TestConfigUtils.createTestConfig("dsbulk.connector.csv", "url", "-");
+    connector.configure(settings, false, true);
+    connector.init();
+    assertThat(connector.supports(CommonConnectorFeature.UTF8_VALUES)).isTrue();
+    connector.close();
+    settings =
+        TestConfigUtils.createTestConfig(
+            "dsbulk.connector.csv", "url", "-", "encoding", "ISO-8859-1");
+    connector.configure(settings, false, true);
+    connector.init();
+    assertThat(connector.supports(CommonConnectorFeature.UTF8_VALUES)).isFalse();
+    connector.close();
+  }
+
+  @Test
+  void should_write_utf8_values() throws Exception {
+    CSVConnector connector = new CSVConnector();
+    Path out = Files.createTempDirectory("test");
+    try {
+      Config settings =
+          TestConfigUtils.createTestConfig(
+              "dsbulk.connector.csv",
+              "url",
+              StringUtils.quoteJson(out),
+              "header",
+              false,
+              "maxConcurrentFiles",
+              1);
+      connector.configure(settings, false, true);
+      connector.init();
+      Flux.<Record>just(
+              DefaultRecord.indexed(
+                  "source",
+                  resource,
+                  IRRELEVANT_POSITION,
+                  new Utf8Value("fóô".getBytes(UTF_8)),
+                  new Utf8Value("b,r".getBytes(UTF_8)),
+                  "qïx"),
+              DefaultRecord.indexed(
+                  "source", resource, IRRELEVANT_POSITION, new Utf8Value("42".getBytes(UTF_8))))
+          .transform(connector.write())
+          .blockLast();
+      connector.close();
+      List<String> actual = Files.readAllLines(out.resolve("output-000001.csv"));
+      assertThat(actual).containsExactly("fóô,\"b,r\",qïx", "42");
+    } finally {
+      FileUtils.deleteDirectory(out);
+    }
+  }
+
+  @Test
+  void should_flush_records_while_writing() throws Exception {
+    CSVConnector connector = new CSVConnector();
+    Path out = Files.createTempDirectory("test");
+    try {
+      Config settings =
+          TestConfigUtils.createTestConfig(
+              "dsbulk.connector.csv",
+              "url",
+              StringUtils.quoteJson(out),
+              "header",
+              false,
+              "maxConcurrentFiles",
+              1);
+      connector.configure(settings, false, true);
+      connector.init();
+      UnicastProcessor<Record> records = UnicastProcessor.create();
+      List<Record> written = new CopyOnWriteArrayList<>();
+      Disposable subscription =
+          Flux.from(connector.write().apply(records)).subscribe(written::add);
+      Record record = DefaultRecord.indexed("source", resource, IRRELEVANT_POSITION, "foo", "42");
+      records.onNext(record);
+      // the record is emitted as soon as it is written, but is still buffered
+      assertThat(written).containsExactly(record);
+      Path file = out.resolve("output-000001.csv");
+      assertThat(Files.readAllLines(file)).isEmpty();
+      connector.flush();
+      assertThat(Files.readAllLines(file)).containsExactly("foo,42");
+      records.onComplete();
+      subscription.dispose();
+      connector.close();
+      assertThat(Files.readAllLines(file)).containsExactly("foo,42");
+    } finally {
+      FileUtils.deleteDirectory(out);
+    }
+  }
+
   @Test
   void should_write_to_stdout_with_special_encoding() throws Exception {
     PrintStream stdout = System.out;
@@ -867,6 +962,153 @@ class CSVConnectorTest {
     }
   }
 
+  @ParameterizedTest(name = "[{index}] header: {0}, chunk size: {1}")
+  @MethodSource
+  void should_read_single_file_in_chunks(boolean header, int chunkSize) throws Exception {
+    Path dir = Files.createTempDirectory("chunks");
+    try {
+      Path file = dir.resolve("chunks.csv");
+      StringBuilder contents = new StringBuilder();
+      if (header) {
+        contents.append("id,value\n");
+      }
+      for (int i = 1; i <= 500; i++) {
+        switch (i % 5) {
+          case 0:
+            contents.append(i).append(",\"multi\nline, with \\\"escaped\\\" quotes\"\n");
+            break;
+          case 1:
+            contents.append("\n").append(i).append(",after empty line\n");
+            break;
+          case 2:
+            contents.append(i).append(",\"carriage\r\nreturn\"\r\n");
+            break;
+          case 3:
+            contents.append(i).append(",unquoted \"quote\n");
+            break;
+          default:
+            contents.append(i).append(",\"\n,\n\"\n");
+        }
+      }
+      Files.write(file, contents.toString().getBytes(UTF_8));
+      List<Record> expected = readRecords(file, header, 0);
+      List<Record> actual = readRecords(file, header, chunkSize);
+      assertThat(expected).hasSize(500);
+      assertThat(actual).hasSize(500);
+      for (int i = 0; i < expected.size(); i++) {
+        Record expectedRecord = expected.get(i);
+        Record actualRecord = actual.get(i);
+        assertThat(actualRecord.getPosition()).isEqualTo(expectedRecord.getPosition());
+        assertThat(actualRecord.getResource()).isEqualTo(expectedRecord.getResource());
+        assertThat(actualRecord.getSource()).isEqualTo(expectedRecord.getSource());
+        assertThat(actualRecord.values()).containsExactlyElementsOf(expectedRecord.values());
+      }
+    } finally {
+      FileUtils.deleteDirectory(dir);
+    }
+  }
+
+  private static Stream<Arguments> should_read_single_file_in_chunks() {
+    return Stream.of(
+        arguments(true, 1),
+        arguments(true, 64),
+        arguments(true, 1000),
+        arguments(false, 1),
+        arguments(false, 64),
+        arguments(false, 1000));
+  }
+
+  private static List<Record> readRecords(Path file, boolean header, int chunkSize)
+      throws Exception {
+    CSVConnector connector = new CSVConnector();
+    Config settings =
+        TestConfigUtils.createTestConfig(
+            "dsbulk.connector.csv",
+            "url",
+            StringUtils.quoteJson(file),
+            "header",
+            header,
+            "chunkSize",
+            chunkSize,
+            "maxConcurrentFiles",
+            4);
+    connector.configure(settings, true, true);
+    connector.init();
+    if (chunkSize > 0) {
+      assertThat(connector.readConcurrency()).isEqualTo(4);
+    } else {
+      assertThat(connector.readConcurrency()).isOne();
+    }
+    List<Record> records =
+        Flux.merge(connector.read())
+            .sort(Comparator.comparingLong(Record::getPosition))
+            .collectList()
+            .block();
+    connector.close();
+    return records;
+  }
+
+  @Test
+  void should_honor_skip_and_max_records_when_reading_in_chunks() throws Exception {
+    Path dir = Files.createTempDirectory("chunks");
+    try {
+      Path file = dir.resolve("chunks.csv");
+      StringBuilder contents = new StringBuilder("id\n");
+      for (int i = 1; i <= 100; i++) {
+        contents.append(i).append('\n');
+      }
+      Files.write(file, contents.toString().getBytes(UTF_8));
+      CSVConnector connector = new CSVConnector();
+      Config settings =
+          TestConfigUtils.createTestConfig(
+              "dsbulk.connector.csv",
+              "url",
+              StringUtils.quoteJson(file),
+              "chunkSize",
+              16,
+              "skipRecords",
+              10,
+              "maxRecords",
+              20);
+      connector.configure(settings, true, true);
+      connector.init();
+      List<Long> positions =
+          Flux.merge(connector.read()).map(Record::getPosition).sort().collectList().block();
+      assertThat(positions).hasSize(20).startsWith(11L).endsWith(30L);
+      connector.close();
+    } finally {
+      FileUtils.deleteDirectory(dir);
+    }
+  }
+
+  @ParameterizedTest(name = "[{index}] chunk size: {0}")
+  @ValueSource(ints = {0, 16})
+  void should_skip_processed_records(int chunkSize) throws Exception {
+    Path dir = Files.createTempDirectory("resume");
+    try {
+      Path file = dir.resolve("resume.csv");
+      StringBuilder contents = new StringBuilder("id\n");
+      for (int i = 1; i <= 100; i++) {
+        contents.append(i).append('\n');
+      }
+      Files.write(file, contents.toString().getBytes(UTF_8));
+      CSVConnector connector = new CSVConnector();
+      Config settings =
+          TestConfigUtils.createTestConfig(
+              "dsbulk.connector.csv", "url", StringUtils.quoteJson(file), "chunkSize", chunkSize);
+      connector.configure(settings, true, true);
+      connector.init();
+      URI resource = Flux.merge(connector.read()).blockFirst().getResource();
+      connector.skipProcessedRecords(Collections.singletonMap(resource, 42L));
+      List<Long> positions =
+          Flux.merge(connector.read()).map(Record::getPosition).sort().collectList().block();
+      assertThat(positions).hasSize(58).startsWith(43L).endsWith(100L);
+      connector.close();
+    } finally {
+      FileUtils.deleteDirectory(dir);
+    }
+  }
+
   @Test
   void should_skip_records() throws Exception {
     CSVConnector connector = new CSVConnector();
@@ -1330,6 +1572,28 @@ class CSVConnectorTest {
     }
   }
 
+  @Test
+  void should_write_to_new_files_when_preserving_existing_data() throws Exception {
+    CSVConnector connector = new CSVConnector();
+    Path out = Files.createTempDirectory("test");
+    try {
+      Path existing = out.resolve("output-000001.csv");
+      Files.write(existing, Collections.singletonList("previous"));
+      Config settings =
+          TestConfigUtils.createTestConfig(
+              "dsbulk.connector.csv", "url", StringUtils.quoteJson(out), "maxConcurrentFiles", 1);
+      connector.configure(settings, false, true);
+      connector.preserveExistingData();
+      connector.init();
+      Flux.fromIterable(createRecords()).transform(connector.write()).blockLast();
+      connector.close();
+      assertThat(Files.readAllLines(existing)).containsExactly("previous");
+      assertThat(Files.readAllLines(out.resolve("output-000002.csv"))).hasSize(7);
+    } finally {
+      FileUtils.deleteDirectory(out);
+    }
+  }
+
   @Test
   void should_error_when_newline_is_wrong() {
     CSVConnector connector = new CSVConnector();
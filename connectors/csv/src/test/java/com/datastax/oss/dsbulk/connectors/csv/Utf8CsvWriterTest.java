@@ -0,0 +1,132 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.connectors.csv;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.datastax.oss.dsbulk.connectors.api.Utf8Value;
+import com.univocity.parsers.csv.CsvFormat;
+import com.univocity.parsers.csv.CsvWriter;
+import com.univocity.parsers.csv.CsvWriterSettings;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class Utf8CsvWriterTest {
+
+  private static final String[] VALUES = {
+    "foo",
+    "42",
+    "-1.5E-7",
+    "2020-01-01T00:00:00Z",
+    "fóô bàr",
+    "日本語",
+    "😀",
+    "",
+    " ",
+    " foo",
+    "foo ",
+    "foo bar",
+    "foo,bar",
+    "foo;bar",
+    "foo\"bar",
+    "\"",
+    "foo\\bar",
+    "#foo",
+    "foo#",
+    "foo\nbar",
+    "foo\r\nbar",
+    "\n",
+    "foo\tbar",
+    "\tfoo",
+    "foo\u0000",
+    "NULL",
+  };
+
+  @ParameterizedTest
+  @MethodSource
+  void should_write_same_bytes_as_csv_writer(CsvWriterSettings settings) throws Exception {
+    Random random = new Random(42);
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    ByteArrayOutputStream actual = new ByteArrayOutputStream();
+    CsvWriter writer = new CsvWriter(new OutputStreamWriter(expected, UTF_8), settings);
+    Utf8CsvWriter utf8Writer = new Utf8CsvWriter(actual, settings);
+    String[] headers = {"a", "b c", "d,e"};
+    writer.writeHeaders(headers);
+    utf8Writer.writeHeaders(headers);
+    assertThat(utf8Writer.getRecordCount()).isEqualTo(writer.getRecordCount());
+    for (int i = 0; i < 10_000; i++) {
+      Object[] row = new Object[1 + random.nextInt(4)];
+      for (int j = 0; j < row.length; j++) {
+        int k = random.nextInt(VALUES.length + 1);
+        if (k < VALUES.length) {
+          String value = VALUES[k];
+          row[j] = random.nextBoolean() ? value : new Utf8Value(value.getBytes(UTF_8));
+        }
+      }
+      writer.writeRow(row);
+      utf8Writer.writeRow(row);
+      assertThat(utf8Writer.getRecordCount()).isEqualTo(writer.getRecordCount());
+    }
+    writer.close();
+    utf8Writer.close();
+    assertThat(new String(actual.toByteArray(), UTF_8))
+        .isEqualTo(new String(expected.toByteArray(), UTF_8));
+  }
+
+  @SuppressWarnings("unused")
+  private static Stream<Arguments> should_write_same_bytes_as_csv_writer() {
+    CsvWriterSettings defaults = settings(",", '"', '\\', "\n", null, "\"\"", true);
+    CsvWriterSettings custom = settings(";", '\'', '\'', "\r\n", "NULL", "", false);
+    CsvWriterSettings multiChar = settings("||", '"', '"', "\n", null, "\"\"", true);
+    CsvWriterSettings nonAscii = settings("§", '"', '\\', "\n", null, "\"\"", true);
+    return Stream.of(
+        Arguments.of(defaults),
+        Arguments.of(custom),
+        Arguments.of(multiChar),
+        Arguments.of(nonAscii));
+  }
+
+  private static CsvWriterSettings settings(
+      String delimiter,
+      char quote,
+      char escape,
+      String newline,
+      String nullValue,
+      String emptyValue,
+      boolean ignoreWhitespaces) {
+    CsvFormat format = new CsvFormat();
+    format.setDelimiter(delimiter);
+    format.setQuote(quote);
+    format.setQuoteEscape(escape);
+    format.setComment('#');
+    format.setLineSeparator(newline);
+    CsvWriterSettings settings = new CsvWriterSettings();
+    settings.setFormat(format);
+    settings.setNullValue(nullValue);
+    settings.setEmptyValue(emptyValue);
+    settings.setQuoteEscapingEnabled(true);
+    settings.setIgnoreLeadingWhitespaces(ignoreWhitespaces);
+    settings.setIgnoreTrailingWhitespaces(ignoreWhitespaces);
+    settings.setMaxColumns(3);
+    return settings;
+  }
+}
@@ -17,15 +17,20 @@ package com.datastax.oss.dsbulk.connectors.json;
 
 import com.datastax.oss.driver.api.core.type.reflect.GenericType;
 import com.datastax.oss.dsbulk.config.ConfigUtils;
+import com.datastax.oss.dsbulk.connectors.api.ArrayBackedRecord;
 import com.datastax.oss.dsbulk.connectors.api.CommonConnectorFeature;
 import com.datastax.oss.dsbulk.connectors.api.ConnectorFeature;
 import com.datastax.oss.dsbulk.connectors.api.DefaultMappedField;
-import com.datastax.oss.dsbulk.connectors.api.DefaultRecord;
+import com.datastax.oss.dsbulk.connectors.api.Field;
 import com.datastax.oss.dsbulk.connectors.api.MappedField;
 import com.datastax.oss.dsbulk.connectors.api.Record;
+import com.datastax.oss.dsbulk.connectors.api.RecordLayout;
 import com.datastax.oss.dsbulk.connectors.api.RecordMetadata;
 import com.datastax.oss.dsbulk.connectors.commons.AbstractFileBasedConnector;
+import com.datastax.oss.dsbulk.connectors.commons.FileChunk;
+import com.datastax.oss.dsbulk.connectors.commons.FileChunker;
 import com.datastax.oss.dsbulk.io.CompressedIOUtils;
+import com.datastax.oss.dsbulk.io.IOUtils;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
@@ -34,15 +39,17 @@ import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.io.SerializedString;
 import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.databind.DeserializationConfig;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigException;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.net.URI;
@@ -50,10 +57,14 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLStreamHandler;
 import java.nio.channels.ClosedChannelException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.SynchronousSink;
@@ -166,6 +177,9 @@ public class JsonConnector extends AbstractFileBasedConnector {
           return false;
         case DATA_SIZE_SAMPLING:
           return isDataSizeSamplingAvailable();
+        case UTF8_VALUES:
+          // Json fields are not written as text
+          return false;
       }
     }
     return false;
@@ -174,32 +188,96 @@ public class JsonConnector extends AbstractFileBasedConnector {
   @Override
   @NonNull
   protected RecordReader newSingleFileReader(@NonNull URL url) throws IOException {
-    return new JsonRecordReader(url);
+    return new JsonRecordReader(url, null);
+  }
+
+  @Nullable
+  @Override
+  protected FileChunker newFileChunker() {
+    if (mode != DocumentMode.MULTI_DOCUMENT) {
+      LOGGER.warn(
+          "Files can only be read in chunks when connector.json.mode is MULTI_DOCUMENT, "
+              + "connector.json.{} will be ignored.",
+          CHUNK_SIZE);
+      return null;
+    }
+    // chunks are scanned byte by byte, so line feeds must be encoded as single bytes
+    if (!encoding.equals(StandardCharsets.UTF_8) && encoding.newEncoder().maxBytesPerChar() != 1) {
+      LOGGER.warn(
+          "Files cannot be read in chunks with the current settings, "
+              + "connector.json.{} will be ignored: the encoding must be UTF-8 or a single-byte "
+              + "charset.",
+          CHUNK_SIZE);
+      return null;
+    }
+    // one document per line: no delimiters, quotes, escapes nor comments to track, since Json
+    // strings cannot contain raw line feeds; blank lines do not count as records.
+    return new FileChunker(chunkSize, -1, -1, -1, -1, true, false, maxConcurrentFiles);
+  }
+
+  @NonNull
+  @Override
+  protected RecordReader newSingleChunkReader(@NonNull FileChunk chunk) throws IOException {
+    return new JsonRecordReader(chunk.getUrl(), chunk);
   }
 
+  /**
+   * A streaming reader for Json documents.
+   *
+   * <p>Documents are not materialized as {@link ObjectNode} trees: the reader pulls tokens from the
+   * parser and creates scalar nodes directly, exactly as Jackson's tree deserializer would; only
+   * the fields containing objects or arrays, which are usually mapped to collections, UDTs or
+   * tuples, are read as sub-trees. A whole document is only materialized when record sources must
+   * be retained.
+   */
   private class JsonRecordReader implements RecordReader {
 
     private final URL url;
     private final URI resource;
     private final JsonParser parser;
-    private final MappingIterator<JsonNode> nodesIterator;
+    private final JsonNodeFactory nodeFactory;
+    private final boolean useBigDecimalForFloats;
+    private final boolean useBigIntegerForInts;
+    private final boolean useLongForInts;
+
+    private long recordNumber;
 
-    private long recordNumber = 1;
+    /**
+     * The layout of the last emitted record; documents in a file usually all have the same fields
+     * in the same order, in which case their records can share the same layout.
+     */
+    private RecordLayout layout = RecordLayout.EMPTY;
 
-    private JsonRecordReader(URL url) throws IOException {
+    // scratch arrays holding the fields of the document being read
+    private String[] names = new String[16];
+    private JsonNode[] values = new JsonNode[16];
+
+    private JsonRecordReader(URL url, @Nullable FileChunk chunk) throws IOException {
       this.url = url;
       resource = URI.create(url.toExternalForm());
+      DeserializationConfig config = objectMapper.getDeserializationConfig();
+      nodeFactory = config.getNodeFactory();
+      useBigDecimalForFloats = config.isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+      useBigIntegerForInts = config.isEnabled(DeserializationFeature.USE_BIG_INTEGER_FOR_INTS);
+      useLongForInts = config.isEnabled(DeserializationFeature.USE_LONG_FOR_INTS);
       try {
         JsonFactory factory = objectMapper.getFactory();
-        BufferedReader r = CompressedIOUtils.newBufferedReader(url, encoding, compression);
+        BufferedReader r;
+        if (chunk == null) {
+          r = CompressedIOUtils.newBufferedReader(url, encoding, compression);
+          recordNumber = 1;
+        } else {
+          r =
+              IOUtils.newBufferedReader(
+                  chunk.getFile(), chunk.getStart(), chunk.getEnd(), encoding);
+          recordNumber = chunk.getFirstRecordNumber();
+        }
         parser = factory.createParser(r);
         if (mode == DocumentMode.SINGLE_DOCUMENT) {
           do {
             parser.nextToken();
           } while (parser.currentToken() != JsonToken.START_ARRAY && parser.currentToken() != null);
-          parser.nextToken();
         }
-        nodesIterator = objectMapper.readValues(parser, JsonNode.class);
       } catch (Exception e) {
         throw new IOException(String.format("Error reading from %s", url), e);
       }
@@ -209,36 +287,151 @@ public class JsonConnector extends AbstractFileBasedConnector {
     @Override
     public RecordReader readNext(@NonNull SynchronousSink<Record> sink) {
       try {
-        if (nodesIterator.hasNext()) {
-          if (parser.currentToken() != JsonToken.START_OBJECT) {
-            throw new JsonParseException(
-                parser,
-                String.format(
-                    "Expecting START_OBJECT, got %s. Did you forget to set connector.json.mode to SINGLE_DOCUMENT?",
-                    parser.currentToken()));
-          }
-          JsonNode source = nodesIterator.next();
-          Map<MappedField, JsonNode> fields = new HashMap<>();
-          Iterator<Entry<String, JsonNode>> children = source.fields();
-          while (children.hasNext()) {
-            Entry<String, JsonNode> child = children.next();
-            fields.put(new DefaultMappedField(child.getKey()), child.getValue());
-          }
-          Record record =
-              DefaultRecord.mapped(
-                  retainRecordSources ? source : null, resource, recordNumber++, fields);
-          LOGGER.trace("Emitting record {}", record);
-          sink.next(record);
-        } else {
+        JsonToken token = parser.nextToken();
+        if (token == null
+            || (token == JsonToken.END_ARRAY && mode == DocumentMode.SINGLE_DOCUMENT)) {
           LOGGER.debug("Done reading {}", url);
           sink.complete();
+          return this;
         }
+        if (token != JsonToken.START_OBJECT) {
+          throw new JsonParseException(
+              parser,
+              String.format(
+                  "Expecting START_OBJECT, got %s. Did you forget to set connector.json.mode to SINGLE_DOCUMENT?",
+                  token));
+        }
+        int size = 0;
+        boolean sameLayout = true;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          String name = parser.getCurrentName();
+          parser.nextToken();
+          if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+          }
+          names[size] = name;
+          values[size] = readValue();
+          sameLayout =
+              sameLayout
+                  && size < layout.size()
+                  && ((MappedField) layout.fieldAt(size)).getFieldName().equals(name);
+          size++;
+        }
+        Object[] recordValues;
+        if (sameLayout && size == layout.size()) {
+          recordValues = Arrays.copyOf(values, size, Object[].class);
+        } else {
+          recordValues = newLayout(size);
+        }
+        Record record =
+            new ArrayBackedRecord(
+                retainRecordSources ? newSource(recordValues) : null,
+                resource,
+                recordNumber++,
+                layout,
+                recordValues);
+        LOGGER.trace("Emitting record {}", record);
+        sink.next(record);
       } catch (Exception e) {
         sink.error(new IOException(String.format("Error reading from %s", url), e));
       }
       return this;
     }
 
+    /** Reads the value at the current token, which must be the first token of that value. */
+    @NonNull
+    private JsonNode readValue() throws IOException {
+      switch (parser.currentToken()) {
+        case VALUE_STRING:
+          return nodeFactory.textNode(parser.getText());
+        case VALUE_NUMBER_INT:
+          return readInt();
+        case VALUE_NUMBER_FLOAT:
+          return readFloat();
+        case VALUE_TRUE:
+          return nodeFactory.booleanNode(true);
+        case VALUE_FALSE:
+          return nodeFactory.booleanNode(false);
+        case VALUE_NULL:
+          return nodeFactory.nullNode();
+        default:
+          // objects, arrays and embedded objects
+          return parser.readValueAsTree();
+      }
+    }
+
+    // same rules as Jackson's JsonNodeDeserializer
+    private JsonNode readInt() throws IOException {
+      JsonParser.NumberType type;
+      if (useBigIntegerForInts) {
+        type = JsonParser.NumberType.BIG_INTEGER;
+      } else if (useLongForInts) {
+        type = JsonParser.NumberType.LONG;
+      } else {
+        type = parser.getNumberType();
+      }
+      if (type == JsonParser.NumberType.INT) {
+        return nodeFactory.numberNode(parser.getIntValue());
+      }
+      if (type == JsonParser.NumberType.LONG) {
+        return nodeFactory.numberNode(parser.getLongValue());
+      }
+      return nodeFactory.numberNode(parser.getBigIntegerValue());
+    }
+
+    private JsonNode readFloat() throws IOException {
+      JsonParser.NumberType type = parser.getNumberType();
+      if (type == JsonParser.NumberType.BIG_DECIMAL) {
+        return nodeFactory.numberNode(parser.getDecimalValue());
+      }
+      if (useBigDecimalForFloats) {
+        // NaN cannot be represented as a BigDecimal
+        return parser.isNaN()
+            ? nodeFactory.numberNode(parser.getDoubleValue())
+            : nodeFactory.numberNode(parser.getDecimalValue());
+      }
+      if (type == JsonParser.NumberType.FLOAT) {
+        return nodeFactory.numberNode(parser.getFloatValue());
+      }
+      return nodeFactory.numberNode(parser.getDoubleValue());
+    }
+
+    /**
+     * Creates a new layout for the fields of the document just read, and returns the record values.
+     * Like with Json trees, when a field appears more than once, its last value wins, but its first
+     * position is retained.
+     */
+    @NonNull
+    private Object[] newLayout(int size) {
+      Map<String, Integer> positions = new LinkedHashMap<>();
+      List<JsonNode> distinct = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        Integer position = positions.putIfAbsent(names[i], distinct.size());
+        if (position == null) {
+          distinct.add(values[i]);
+        } else {
+          distinct.set(position, values[i]);
+        }
+      }
+      MappedField[] fields = new MappedField[positions.size()];
+      int i = 0;
+      for (String name : positions.keySet()) {
+        fields[i++] = new DefaultMappedField(name);
+      }
+      layout = RecordLayout.mapped(fields);
+      return distinct.toArray();
+    }
+
+    @NonNull
+    private ObjectNode newSource(@NonNull Object[] recordValues) {
+      ObjectNode source = nodeFactory.objectNode();
+      for (int i = 0; i < recordValues.length; i++) {
+        source.set(((MappedField) layout.fieldAt(i)).getFieldName(), (JsonNode) recordValues[i]);
+      }
+      return source;
+    }
+
     @Override
     public void close() throws IOException {
       if (parser != null) {
@@ -273,7 +466,9 @@ public class JsonConnector extends AbstractFileBasedConnector {
           writer.writeRaw(',');
         }
 
-        writer.writeObject(record);
+        // records are serialized as maps, so that serialization features and inclusion settings
+        // apply to their fields
+        writer.writeObject(record instanceof Map ? record : toMap(record));
         currentLine++;
       } catch (ClosedChannelException e) {
         // OK, happens when the channel was closed due to interruption
@@ -286,6 +481,16 @@ public class JsonConnector extends AbstractFileBasedConnector {
       return !roots.isEmpty() && currentLine == maxRecords;
     }
 
+    @NonNull
+    private Map<Field, Object> toMap(@NonNull Record record) {
+      Map<Field, Object> map = new LinkedHashMap<>();
+      Iterator<Object> values = record.values().iterator();
+      for (Field field : record.fields()) {
+        map.put(field, values.next());
+      }
+      return map;
+    }
+
     private void open() throws IOException {
       url = getOrCreateDestinationURL();
       try {
@@ -22,6 +22,7 @@ import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.client.WireMock.any;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
 import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.util.Throwables.getRootCause;
@@ -31,11 +32,13 @@ import static org.junit.jupiter.params.provider.Arguments.arguments;
 
 import com.datastax.oss.driver.shaded.guava.common.base.Charsets;
 import com.datastax.oss.dsbulk.config.ConfigUtils;
+import com.datastax.oss.dsbulk.connectors.api.ArrayBackedRecord;
 import com.datastax.oss.dsbulk.connectors.api.CommonConnectorFeature;
 import com.datastax.oss.dsbulk.connectors.api.DefaultMappedField;
 import com.datastax.oss.dsbulk.connectors.api.DefaultRecord;
 import com.datastax.oss.dsbulk.connectors.api.Field;
 import com.datastax.oss.dsbulk.connectors.api.Record;
+import com.datastax.oss.dsbulk.connectors.api.RecordLayout;
 import com.datastax.oss.dsbulk.io.CompressedIOUtils;
 import com.datastax.oss.dsbulk.tests.logging.LogCapture;
 import com.datastax.oss.dsbulk.tests.logging.LogInterceptingExtension;
@@ -46,6 +49,7 @@ import com.datastax.oss.dsbulk.tests.utils.TestConfigUtils;
 import com.datastax.oss.dsbulk.url.BulkLoaderURLStreamHandlerFactory;
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
@@ -69,6 +73,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
@@ -266,6 +271,95 @@ class JsonConnectorTest {
     connector.close();
   }
 
+  @Test
+  void should_read_documents_with_different_fields() throws Exception {
+    Path file = Files.createTempFile("test", ".json");
+    try {
+      Files.write(
+          file,
+          Arrays.asList(
+              "{\"a\":1,\"b\":2}",
+              "{\"a\":3,\"b\":4}",
+              "{\"b\":5,\"a\":6}",
+              "{\"c\":7}",
+              "{}",
+              "{\"a\":8,\"b\":9}"),
+          UTF_8);
+      JsonConnector connector = new JsonConnector();
+      Config settings =
+          TestConfigUtils.createTestConfig("dsbulk.connector.json", "url", quoteJson(file));
+      connector.configure(settings, true, true);
+      connector.init();
+      List<Record> actual = Flux.merge(connector.read()).collectList().block();
+      connector.close();
+      DefaultMappedField a = new DefaultMappedField("a");
+      DefaultMappedField b = new DefaultMappedField("b");
+      DefaultMappedField c = new DefaultMappedField("c");
+      assertThat(actual).hasSize(6);
+      assertThat(actual.get(0).fields()).containsExactly(a, b);
+      assertThat(actual.get(0).values())
+          .containsExactly(factory.numberNode(1), factory.numberNode(2));
+      assertThat(actual.get(1).fields()).containsExactly(a, b);
+      assertThat(actual.get(1).getFieldValue(b)).isEqualTo(factory.numberNode(4));
+      assertThat(actual.get(2).fields()).containsExactly(b, a);
+      assertThat(actual.get(2).values())
+          .containsExactly(factory.numberNode(5), factory.numberNode(6));
+      assertThat(actual.get(2).getFieldValue(a)).isEqualTo(factory.numberNode(6));
+      assertThat(actual.get(3).fields()).containsExactly(c);
+      assertThat(actual.get(3).getFieldValue(a)).isNull();
+      assertThat(actual.get(4).fields()).isEmpty();
+      assertThat(actual.get(5).fields()).containsExactly(a, b);
+      assertThat(actual.get(5).values())
+          .containsExactly(factory.numberNode(8), factory.numberNode(9));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  void should_read_documents_as_json_trees_would() throws Exception {
+    List<String> documents =
+        Arrays.asList(
+            "{\"int\":1,\"long\":12345678901,\"varint\":123456789012345678901234567890}",
+            "{\"float\":1.5,\"double\":1.0E300,\"decimal\":0.10000000000000000000001}",
+            "{\"text\":\"foo\",\"true\":true,\"false\":false,\"null\":null}",
+            "{\"list\":[1,[2.5,\"a\"]],\"udt\":{\"f1\":{\"f2\":null},\"f3\":[]}}",
+            "{\"a\":1,\"b\":2,\"a\":3}");
+    Path file = Files.createTempFile("test", ".json");
+    try {
+      Files.write(file, documents, UTF_8);
+      JsonConnector connector = new JsonConnector();
+      Config settings =
+          TestConfigUtils.createTestConfig("dsbulk.connector.json", "url", quoteJson(file));
+      connector.configure(settings, true, true);
+      connector.init();
+      List<Record> actual = Flux.merge(connector.read()).collectList().block();
+      connector.close();
+      ObjectMapper treeMapper = new ObjectMapper();
+      treeMapper.setNodeFactory(JsonNodeFactory.withExactBigDecimals(true));
+      treeMapper.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+      assertThat(actual).hasSize(documents.size());
+      for (int i = 0; i < documents.size(); i++) {
+        JsonNode expected = treeMapper.readTree(documents.get(i));
+        Record record = actual.get(i);
+        assertThat(record.getSource()).isEqualTo(expected);
+        assertThat(record.fields()).hasSize(expected.size());
+        for (Field field : record.fields()) {
+          JsonNode value = expected.get(((DefaultMappedField) field).getFieldName());
+          // same node types, same values
+          assertThat(record.getFieldValue(field)).isEqualTo(value).hasSameClassAs(value);
+        }
+      }
+      // duplicate fields: last value wins, first position is retained
+      assertThat(actual.get(4).fields())
+          .containsExactly(new DefaultMappedField("a"), new DefaultMappedField("b"));
+      assertThat(actual.get(4).values())
+          .containsExactly(factory.numberNode(3), factory.numberNode(2));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
   @Test
   void should_read_from_stdin_with_special_encoding() throws Exception {
     InputStream stdin = System.in;
@@ -902,6 +996,136 @@ class JsonConnectorTest {
     connector.close();
   }
 
+  @ParameterizedTest(name = "[{index}] chunk size: {0}")
+  @ValueSource(ints = {1, 64, 1000})
+  void should_read_single_file_in_chunks(int chunkSize) throws Exception {
+    Path dir = Files.createTempDirectory("chunks");
+    try {
+      Path file = dir.resolve("chunks.json");
+      StringBuilder contents = new StringBuilder();
+      for (int i = 1; i <= 500; i++) {
+        switch (i % 4) {
+          case 0:
+            contents.append("{\"id\":").append(i).append(",\"value\":\"escaped\\nline\"}\n");
+            break;
+          case 1:
+            contents
+                .append("\n  \n{\"id\":")
+                .append(i)
+                .append(",\"value\":\"after blank lines\"}\n");
+            break;
+          case 2:
+            contents.append("{\"id\":").append(i).append(",\"value\":[1,{\"a\":\"é\"}]}\r\n");
+            break;
+          default:
+            contents.append("  {\"id\":").append(i).append(",\"value\":null}  \n");
+        }
+      }
+      Files.write(file, contents.toString().getBytes(UTF_8));
+      List<Record> expected = readRecords(file, 0);
+      List<Record> actual = readRecords(file, chunkSize);
+      assertThat(expected).hasSize(500);
+      assertThat(actual).hasSize(500);
+      for (int i = 0; i < expected.size(); i++) {
+        Record expectedRecord = expected.get(i);
+        Record actualRecord = actual.get(i);
+        assertThat(actualRecord.getPosition()).isEqualTo(expectedRecord.getPosition());
+        assertThat(actualRecord.getResource()).isEqualTo(expectedRecord.getResource());
+        assertThat(actualRecord.getSource()).isEqualTo(expectedRecord.getSource());
+        assertThat(actualRecord.values()).containsExactlyElementsOf(expectedRecord.values());
+      }
+    } finally {
+      FileUtils.deleteDirectory(dir);
+    }
+  }
+
+  private static List<Record> readRecords(Path file, int chunkSize) throws Exception {
+    JsonConnector connector = new JsonConnector();
+    Config settings =
+        TestConfigUtils.createTestConfig(
+            "dsbulk.connector.json",
+            "url",
+            quoteJson(file),
+            "chunkSize",
+            chunkSize,
+            "maxConcurrentFiles",
+            4);
+    connector.configure(settings, true, true);
+    connector.init();
+    if (chunkSize > 0) {
+      assertThat(connector.readConcurrency()).isEqualTo(4);
+    } else {
+      assertThat(connector.readConcurrency()).isOne();
+    }
+    List<Record> records =
+        Flux.merge(connector.read())
+            .sort(Comparator.comparingLong(Record::getPosition))
+            .collectList()
+            .block();
+    connector.close();
+    return records;
+  }
+
+  @Test
+  void should_honor_skip_and_max_records_when_reading_in_chunks() throws Exception {
+    Path dir = Files.createTempDirectory("chunks");
+    try {
+      Path file = dir.resolve("chunks.json");
+      StringBuilder contents = new StringBuilder();
+      for (int i = 1; i <= 100; i++) {
+        contents.append("{\"id\":").append(i).append("}\n");
+      }
+      Files.write(file, contents.toString().getBytes(UTF_8));
+      JsonConnector connector = new JsonConnector();
+      Config settings =
+          TestConfigUtils.createTestConfig(
+              "dsbulk.connector.json",
+              "url",
+              quoteJson(file),
+              "chunkSize",
+              64,
+              "skipRecords",
+              10,
+              "maxRecords",
+              20);
+      connector.configure(settings, true, true);
+      connector.init();
+      List<Long> positions =
+          Flux.merge(connector.read()).map(Record::getPosition).sort().collectList().block();
+      assertThat(positions).hasSize(20).startsWith(11L).endsWith(30L);
+      connector.close();
+    } finally {
+      FileUtils.deleteDirectory(dir);
+    }
+  }
+
+  @Test
+  void should_not_read_in_chunks_when_single_document_mode() throws Exception {
+    Path dir = Files.createTempDirectory("chunks");
+    try {
+      Path file = dir.resolve("chunks.json");
+      Files.write(file, "[\n{\"id\":1},\n{\"id\":2},\n{\"id\":3}\n]".getBytes(UTF_8));
+      JsonConnector connector = new JsonConnector();
+      Config settings =
+          TestConfigUtils.createTestConfig(
+              "dsbulk.connector.json",
+              "url",
+              quoteJson(file),
+              "mode",
+              "SINGLE_DOCUMENT",
+              "chunkSize",
+              1);
+      connector.configure(settings, true, true);
+      connector.init();
+      assertThat(connector.readConcurrency()).isOne();
+      List<Record> records = Flux.merge(connector.read()).collectList().block();
+      assertThat(records).extracting(Record::getPosition).containsExactly(1L, 2L, 3L);
+      connector.close();
+    } finally {
+      FileUtils.deleteDirectory(dir);
+    }
+  }
+
   @Test
   void should_honor_max_records() throws Exception {
     JsonConnector connector = new JsonConnector();
@@ -1341,6 +1565,7 @@ class JsonConnectorTest {
     fields[2] = new DefaultMappedField("Model");
     fields[3] = new DefaultMappedField("Description");
     fields[4] = new DefaultMappedField("Price");
+    RecordLayout layout = RecordLayout.mapped(fields);
     JsonNode source1;
     JsonNode source2;
     JsonNode source3;
@@ -1396,60 +1621,70 @@ class JsonConnectorTest {
       throw new UncheckedIOException(e);
     }
     records.add(
-        DefaultRecord.mapped(
+        new ArrayBackedRecord(
             retainRecordSources ? source1 : null,
             resource,
             1,
-            fields,
-            source1.get("Year"),
-            source1.get("Make"),
-            source1.get("Model"),
-            source1.get("Description"),
-            source1.get("Price")));
+            layout,
+            new Object[] {
+              source1.get("Year"),
+              source1.get("Make"),
+              source1.get("Model"),
+              source1.get("Description"),
+              source1.get("Price")
+            }));
     records.add(
-        DefaultRecord.mapped(
+        new ArrayBackedRecord(
             retainRecordSources ? source2 : null,
             resource,
             2,
-            fields,
-            source2.get("Year"),
-            source2.get("Make"),
-            source2.get("Model"),
-            source2.get("Description"),
-            source2.get("Price")));
+            layout,
+            new Object[] {
+              source2.get("Year"),
+              source2.get("Make"),
+              source2.get("Model"),
+              source2.get("Description"),
+              source2.get("Price")
+            }));
     records.add(
-        DefaultRecord.mapped(
+        new ArrayBackedRecord(
             retainRecordSources ? source3 : null,
             resource,
             3,
-            fields,
-            source3.get("Year"),
-            source3.get("Make"),
-            source3.get("Model"),
-            source3.get("Description"),
-            source3.get("Price")));
+            layout,
+            new Object[] {
+              source3.get("Year"),
+              source3.get("Make"),
+              source3.get("Model"),
+              source3.get("Description"),
+              source3.get("Price")
+            }));
     records.add(
-        DefaultRecord.mapped(
+        new ArrayBackedRecord(
             retainRecordSources ? source4 : null,
             resource,
             4,
-            fields,
-            source4.get("Year"),
-            source4.get("Make"),
-            source4.get("Model"),
-            source4.get("Description"),
-            source4.get("Price")));
+            layout,
+            new Object[] {
+              source4.get("Year"),
+              source4.get("Make"),
+              source4.get("Model"),
+              source4.get("Description"),
+              source4.get("Price")
+            }));
     records.add(
-        DefaultRecord.mapped(
+        new ArrayBackedRecord(
             retainRecordSources ? source5 : null,
             resource,
             5,
-            fields,
-            source5.get("Year"),
-            source5.get("Make"),
-            source5.get("Model"),
-            source5.get("Description"),
-            source5.get("Price")));
+            layout,
+            new Object[] {
+              source5.get("Year"),
+              source5.get("Make"),
+              source5.get("Model"),
+              source5.get("Description"),
+              source5.get("Price")
+            }));
     return records;
   }
 
@@ -16,8 +16,11 @@
 package com.datastax.oss.dsbulk.executor.api;
 
 import com.datastax.oss.driver.api.core.CqlSession;
-import com.datastax.oss.driver.shaded.guava.common.util.concurrent.RateLimiter;
+import com.datastax.oss.dsbulk.executor.api.limiter.AdaptiveConcurrencyLimiter;
+import com.datastax.oss.dsbulk.executor.api.limiter.StripedRateLimiter;
+import com.datastax.oss.dsbulk.executor.api.listener.CompositeExecutionListener;
 import com.datastax.oss.dsbulk.executor.api.listener.ExecutionListener;
+import com.datastax.oss.dsbulk.executor.api.retry.WriteRetryStrategy;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import java.util.Objects;
@@ -38,12 +41,21 @@ public abstract class AbstractBulkExecutor implements BulkExecutor, AutoCloseabl
 
   protected final @Nullable Semaphore maxConcurrentRequests;
 
-  protected final @Nullable RateLimiter rateLimiter;
+  protected final @Nullable StripedRateLimiter rateLimiter;
+
+  protected final @Nullable WriteRetryStrategy writeRetryStrategy;
 
   protected final @Nullable ExecutionListener listener;
 
   protected AbstractBulkExecutor(CqlSession session) {
-    this(session, true, DEFAULT_MAX_IN_FLIGHT_REQUESTS, DEFAULT_MAX_REQUESTS_PER_SECOND, null);
+    this(
+        session,
+        true,
+        DEFAULT_MAX_IN_FLIGHT_REQUESTS,
+        DEFAULT_MAX_REQUESTS_PER_SECOND,
+        null,
+        null,
+        null);
   }
 
   protected AbstractBulkExecutor(AbstractBulkExecutorBuilder<?> builder) {
@@ -52,6 +64,8 @@ public abstract class AbstractBulkExecutor implements BulkExecutor, AutoCloseabl
         builder.failFast,
         builder.maxInFlightRequests,
         builder.maxRequestsPerSecond,
+        builder.concurrencyLimiter,
+        builder.writeRetryStrategy,
         builder.listener);
   }
 
@@ -60,14 +74,27 @@ public abstract class AbstractBulkExecutor implements BulkExecutor, AutoCloseabl
       boolean failFast,
       int maxInFlightRequests,
       int maxRequestsPerSecond,
+      @Nullable AdaptiveConcurrencyLimiter concurrencyLimiter,
+      @Nullable WriteRetryStrategy writeRetryStrategy,
       @Nullable ExecutionListener listener) {
     Objects.requireNonNull(session, "session cannot be null");
     this.session = session;
     this.failFast = failFast;
-    this.maxConcurrentRequests =
-        maxInFlightRequests <= 0 ? null : new Semaphore(maxInFlightRequests);
-    this.rateLimiter = maxRequestsPerSecond <= 0 ? null : RateLimiter.create(maxRequestsPerSecond);
-    this.listener = listener;
+    this.writeRetryStrategy = writeRetryStrategy;
+    this.rateLimiter =
+        maxRequestsPerSecond <= 0 ? null : new StripedRateLimiter(maxRequestsPerSecond);
+    if (concurrencyLimiter == null) {
+      this.maxConcurrentRequests =
+          maxInFlightRequests <= 0 ? null : new Semaphore(maxInFlightRequests);
+      this.listener = listener;
+    } else {
+      // the limiter needs to be notified of request completions to adjust its limit
+      this.maxConcurrentRequests = concurrencyLimiter;
+      this.listener =
+          listener == null
+              ? concurrencyLimiter
+              : new CompositeExecutionListener(listener, concurrencyLimiter);
+    }
   }
 
   @Override
@@ -16,7 +16,9 @@
 package com.datastax.oss.dsbulk.executor.api;
 
 import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.dsbulk.executor.api.limiter.AdaptiveConcurrencyLimiter;
 import com.datastax.oss.dsbulk.executor.api.listener.ExecutionListener;
+import com.datastax.oss.dsbulk.executor.api.retry.WriteRetryStrategy;
 
 @SuppressWarnings("WeakerAccess")
 public abstract class AbstractBulkExecutorBuilder<T extends BulkExecutor>
@@ -30,6 +32,10 @@ public abstract class AbstractBulkExecutorBuilder<T extends BulkExecutor>
 
   protected int maxRequestsPerSecond = AbstractBulkExecutor.DEFAULT_MAX_REQUESTS_PER_SECOND;
 
+  protected AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+  protected WriteRetryStrategy writeRetryStrategy;
+
   protected ExecutionListener listener;
 
   protected AbstractBulkExecutorBuilder(CqlSession session) {
@@ -57,6 +63,22 @@ public abstract class AbstractBulkExecutorBuilder<T extends BulkExecutor>
     return this;
   }
 
+  @Override
+  @SuppressWarnings("UnusedReturnValue")
+  public AbstractBulkExecutorBuilder<T> withConcurrencyLimiter(
+      AdaptiveConcurrencyLimiter concurrencyLimiter) {
+    this.concurrencyLimiter = concurrencyLimiter;
+    return this;
+  }
+
+  @Override
+  @SuppressWarnings("UnusedReturnValue")
+  public AbstractBulkExecutorBuilder<T> withWriteRetryStrategy(
+      WriteRetryStrategy writeRetryStrategy) {
+    this.writeRetryStrategy = writeRetryStrategy;
+    return this;
+  }
+
   @Override
   @SuppressWarnings("UnusedReturnValue")
   public AbstractBulkExecutorBuilder<T> withExecutionListener(ExecutionListener listener) {
@@ -17,10 +17,12 @@ package com.datastax.oss.dsbulk.executor.api;
 
 import com.datastax.oss.driver.api.core.cql.Statement;
 import com.datastax.oss.dsbulk.executor.api.exception.BulkExecutionException;
+import com.datastax.oss.dsbulk.executor.api.limiter.AdaptiveConcurrencyLimiter;
 import com.datastax.oss.dsbulk.executor.api.listener.ExecutionListener;
 import com.datastax.oss.dsbulk.executor.api.result.ReadResult;
 import com.datastax.oss.dsbulk.executor.api.result.Result;
 import com.datastax.oss.dsbulk.executor.api.result.WriteResult;
+import com.datastax.oss.dsbulk.executor.api.retry.WriteRetryStrategy;
 
 /** A builder for {@link BulkExecutor} instances. */
 public interface BulkExecutorBuilder<T extends BulkExecutor> {
@@ -83,6 +85,34 @@ public interface BulkExecutorBuilder<T extends BulkExecutor> {
   @SuppressWarnings("UnusedReturnValue")
   BulkExecutorBuilder<T> withMaxRequestsPerSecond(int maxRequestsPerSecond);
 
+  /**
+   * Sets an optional {@link AdaptiveConcurrencyLimiter} to regulate the number of in-flight
+   * requests. When set, the limiter replaces the fixed limit set with {@link
+   * #withMaxInFlightRequests(int)}, and is automatically notified of request completions, along
+   * with the {@linkplain #withExecutionListener(ExecutionListener) execution listener}, if any.
+   *
+   * <p>Like the fixed limit, the limiter blocks the executor when its limit is reached. <em>This
+   * feature should not be used in a fully non-blocking application</em>.
+   *
+   * @param concurrencyLimiter the {@link AdaptiveConcurrencyLimiter} to use.
+   * @return this builder (for method chaining).
+   */
+  @SuppressWarnings("UnusedReturnValue")
+  BulkExecutorBuilder<T> withConcurrencyLimiter(AdaptiveConcurrencyLimiter concurrencyLimiter);
+
+  /**
+   * Sets an optional {@link WriteRetryStrategy} to retry failed writes after a delay.
+   *
+   * <p>Each failed attempt is reported to the {@linkplain #withExecutionListener(ExecutionListener)
+   * execution listener} as a failed request; the statement execution only fails once the strategy
+   * decides not to retry it anymore.
+   *
+   * @param retryStrategy the {@link WriteRetryStrategy} to use.
+   * @return this builder (for method chaining).
+   */
+  @SuppressWarnings("UnusedReturnValue")
+  BulkExecutorBuilder<T> withWriteRetryStrategy(WriteRetryStrategy retryStrategy);
+
   /**
    * Sets an optional {@link ExecutionListener}.
    *
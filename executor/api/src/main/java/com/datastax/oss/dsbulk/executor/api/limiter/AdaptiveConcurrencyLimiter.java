@@ -0,0 +1,252 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.executor.api.limiter;
+
+import com.datastax.oss.driver.api.core.AllNodesFailedException;
+import com.datastax.oss.driver.api.core.DriverTimeoutException;
+import com.datastax.oss.driver.api.core.connection.BusyConnectionException;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.servererrors.OverloadedException;
+import com.datastax.oss.driver.api.core.servererrors.ReadTimeoutException;
+import com.datastax.oss.driver.api.core.servererrors.WriteTimeoutException;
+import com.datastax.oss.driver.shaded.guava.common.base.Preconditions;
+import com.datastax.oss.dsbulk.executor.api.listener.ExecutionContext;
+import com.datastax.oss.dsbulk.executor.api.listener.ExecutionListener;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link Semaphore} whose number of permits adapts to the latencies and errors observed for write
+ * requests, following an AIMD (additive increase, multiplicative decrease) scheme.
+ *
+ * <p>This limiter must be registered as an {@link ExecutionListener} with the executor that uses it
+ * to regulate in-flight requests, so that it gets notified of completed writes. Latencies are
+ * recorded in a histogram; at the end of each sampling window, the limit is re-evaluated as
+ * follows:
+ *
+ * <ol>
+ *   <li>If a write timed out or was rejected because the coordinator was overloaded, the limit is
+ *       halved.
+ *   <li>Otherwise, if the window's 99th percentile latency is greater than the baseline latency
+ *       multiplied by the latency tolerance, the limit is reduced by 10%.
+ *   <li>Otherwise, if at least half of the permits are in use, the limit is increased by the square
+ *       root of its current value.
+ * </ol>
+ *
+ * The baseline latency is the lowest 99th percentile latency observed so far; it slowly decays
+ * towards the latest observations, so that a lasting change in the cluster's behavior eventually
+ * becomes the new norm. The limit always stays between the minimum and maximum limits given at
+ * construction time.
+ *
+ * <p>Reducing the limit never interrupts in-flight requests: new requests are simply blocked until
+ * enough requests complete.
+ */
+public class AdaptiveConcurrencyLimiter extends Semaphore implements ExecutionListener {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+  private static final long serialVersionUID = 1L;
+
+  /** The minimum number of samples in a window to consider its latencies meaningful. */
+  private static final int MIN_SAMPLES = 10;
+
+  private static final double BACKOFF_RATIO = 0.5;
+
+  private static final double LATENCY_BACKOFF_RATIO = 0.9;
+
+  /** How fast the baseline latency moves towards higher observed latencies. */
+  private static final double BASELINE_DECAY = 0.05;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final double latencyTolerance;
+  private final long windowNanos;
+  private final LongSupplier clock;
+
+  private final Recorder recorder = new Recorder(2);
+  private final AtomicBoolean overloaded = new AtomicBoolean(false);
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private volatile int limit;
+  private volatile long windowStart;
+
+  // guarded by lock
+  private Histogram interval;
+  private long baselineMicros;
+
+  /**
+   * Creates a new limiter.
+   *
+   * @param initialLimit the initial limit.
+   * @param minLimit the minimum limit; must be strictly positive.
+   * @param maxLimit the maximum limit; must be greater than or equal to the minimum limit.
+   * @param latencyTolerance how much the 99th percentile latency can exceed the baseline latency
+   *     before the limit is reduced; must be greater than 1.
+   * @param window the duration of each sampling window.
+   */
+  public AdaptiveConcurrencyLimiter(
+      int initialLimit,
+      int minLimit,
+      int maxLimit,
+      double latencyTolerance,
+      @NonNull Duration window) {
+    this(initialLimit, minLimit, maxLimit, latencyTolerance, window, System::nanoTime);
+  }
+
+  AdaptiveConcurrencyLimiter(
+      int initialLimit,
+      int minLimit,
+      int maxLimit,
+      double latencyTolerance,
+      @NonNull Duration window,
+      @NonNull LongSupplier clock) {
+    super(clamp(initialLimit, minLimit, maxLimit));
+    Preconditions.checkArgument(minLimit > 0, "minLimit must be > 0, got %s", minLimit);
+    Preconditions.checkArgument(
+        maxLimit >= minLimit, "maxLimit must be >= minLimit, got %s < %s", maxLimit, minLimit);
+    Preconditions.checkArgument(
+        latencyTolerance > 1, "latencyTolerance must be > 1, got %s", latencyTolerance);
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.latencyTolerance = latencyTolerance;
+    this.windowNanos = window.toNanos();
+    this.clock = clock;
+    this.limit = clamp(initialLimit, minLimit, maxLimit);
+    this.windowStart = clock.getAsLong();
+    this.interval = recorder.getIntervalHistogram();
+  }
+
+  /** @return the current limit, that is, the current maximum number of in-flight requests. */
+  public int getLimit() {
+    return limit;
+  }
+
+  /** @return the minimum limit. */
+  public int getMinLimit() {
+    return minLimit;
+  }
+
+  /** @return the maximum limit. */
+  public int getMaxLimit() {
+    return maxLimit;
+  }
+
+  @Override
+  public void onWriteRequestSuccessful(Statement<?> statement, ExecutionContext context) {
+    recorder.recordValue(TimeUnit.NANOSECONDS.toMicros(context.elapsedTimeNanos()));
+    maybeUpdateLimit();
+  }
+
+  @Override
+  public void onWriteRequestFailed(
+      Statement<?> statement, Throwable error, ExecutionContext context) {
+    if (isOverloaded(error)) {
+      overloaded.set(true);
+    } else {
+      recorder.recordValue(TimeUnit.NANOSECONDS.toMicros(context.elapsedTimeNanos()));
+    }
+    maybeUpdateLimit();
+  }
+
+  @Override
+  public void onWriteRequestRetried(
+      Statement<?> statement, Throwable error, ExecutionContext context) {
+    // a failed attempt is as much a sign of overload as a failed write
+    onWriteRequestFailed(statement, error, context);
+  }
+
+  private void maybeUpdateLimit() {
+    if (clock.getAsLong() - windowStart >= windowNanos && lock.tryLock()) {
+      try {
+        long now = clock.getAsLong();
+        if (now - windowStart >= windowNanos) {
+          windowStart = now;
+          updateLimit();
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  private void updateLimit() {
+    interval = recorder.getIntervalHistogram(interval);
+    int current = limit;
+    int next = current;
+    if (overloaded.getAndSet(false)) {
+      next = (int) (current * BACKOFF_RATIO);
+    } else if (interval.getTotalCount() >= MIN_SAMPLES) {
+      long p99 = interval.getValueAtPercentile(99);
+      if (baselineMicros == 0 || p99 < baselineMicros) {
+        baselineMicros = p99;
+      } else {
+        baselineMicros += (long) ((p99 - baselineMicros) * BASELINE_DECAY);
+      }
+      if (p99 > baselineMicros * latencyTolerance) {
+        next = (int) (current * LATENCY_BACKOFF_RATIO);
+      } else if (current - availablePermits() >= current / 2) {
+        next = current + Math.max(1, (int) Math.sqrt(current));
+      }
+    }
+    next = clamp(next, minLimit, maxLimit);
+    if (next != current) {
+      LOGGER.debug("Adjusting concurrency limit: {} -> {}", current, next);
+      limit = next;
+      if (next > current) {
+        release(next - current);
+      } else {
+        reducePermits(current - next);
+      }
+    }
+  }
+
+  private static boolean isOverloaded(Throwable error) {
+    while (error != null) {
+      if (error instanceof OverloadedException
+          || error instanceof WriteTimeoutException
+          || error instanceof ReadTimeoutException
+          || error instanceof DriverTimeoutException
+          || error instanceof BusyConnectionException) {
+        return true;
+      }
+      if (error instanceof AllNodesFailedException) {
+        for (List<Throwable> errors : ((AllNodesFailedException) error).getAllErrors().values()) {
+          for (Throwable e : errors) {
+            if (isOverloaded(e)) {
+              return true;
+            }
+          }
+        }
+      }
+      error = error.getCause() == error ? null : error.getCause();
+    }
+    return false;
+  }
+
+  private static int clamp(int value, int min, int max) {
+    return Math.max(min, Math.min(max, value));
+  }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.executor.api.limiter;
+
+import com.datastax.oss.driver.shaded.guava.common.base.Preconditions;
+import com.datastax.oss.driver.shaded.guava.common.util.concurrent.Uninterruptibles;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * A lock-free rate limiter, designed to be shared by many threads.
+ *
+ * <p>Permits are distributed from a token bucket whose state is a single timestamp, the instant at
+ * which the next permit becomes available; acquiring permits only requires a compare-and-set on
+ * that timestamp. Like Guava's {@code RateLimiter}, the bucket can store up to one second worth of
+ * unused permits, and a permit acquisition that exceeds the available permits is paid for by
+ * waiting until the bucket has been refilled.
+ *
+ * <p>To avoid contention on the bucket, each thread acquires permits from it in bulk and keeps the
+ * surplus in a thread-local stripe; subsequent acquisitions on the same thread are then served from
+ * the stripe, without touching any shared state. Bulk acquisitions never exceed one millisecond
+ * worth of permits, so that the rate observed over any meaningful period of time remains accurate.
+ *
+ * <p>Besides the usual blocking {@link #acquire(int)} method, this limiter exposes a non-blocking
+ * {@link #acquireAsync(int)} method that is more suitable for asynchronous callers.
+ */
+public class StripedRateLimiter {
+
+  /** The maximum number of permits that a thread can acquire in bulk. */
+  private static final int MAX_BATCH_SIZE = 32;
+
+  private static final CompletionStage<Void> ACQUIRED = CompletableFuture.completedFuture(null);
+
+  private final double permitsPerSecond;
+  private final double nanosPerPermit;
+  private final long maxBurstNanos;
+  private final int batchSize;
+  private final LongSupplier clock;
+
+  /** The instant at which the next permit becomes available, as given by the clock. */
+  private final AtomicLong nextFreeNanos;
+
+  /** The permits already paid for by each thread, but not consumed yet. */
+  private final ThreadLocal<int[]> stripes = ThreadLocal.withInitial(() -> new int[1]);
+
+  /**
+   * Creates a new rate limiter.
+   *
+   * @param permitsPerSecond the rate of the limiter; must be strictly positive.
+   */
+  public StripedRateLimiter(double permitsPerSecond) {
+    this(permitsPerSecond, System::nanoTime);
+  }
+
+  StripedRateLimiter(double permitsPerSecond, @NonNull LongSupplier clock) {
+    Preconditions.checkArgument(
+        permitsPerSecond > 0, "permitsPerSecond must be > 0, got %s", permitsPerSecond);
+    this.permitsPerSecond = permitsPerSecond;
+    this.nanosPerPermit = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+    this.maxBurstNanos = TimeUnit.SECONDS.toNanos(1);
+    this.batchSize = (int) Math.max(1, Math.min(MAX_BATCH_SIZE, permitsPerSecond / 1000));
+    this.clock = clock;
+    this.nextFreeNanos = new AtomicLong(clock.getAsLong());
+  }
+
+  /** @return the rate of this limiter, in permits per second. */
+  public double getRate() {
+    return permitsPerSecond;
+  }
+
+  /** Acquires one permit, blocking until it is available. */
+  public void acquire() {
+    acquire(1);
+  }
+
+  /**
+   * Acquires the given number of permits, blocking until they are available.
+   *
+   * @param permits the number of permits to acquire.
+   */
+  public void acquire(int permits) {
+    long waitNanos = reserve(permits);
+    if (waitNanos > 0) {
+      Uninterruptibles.sleepUninterruptibly(waitNanos, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * Acquires the given number of permits, without blocking.
+   *
+   * <p>The permits are reserved immediately; the returned stage completes when they become
+   * available. If they are available right away, which is the common case when the limiter's rate
+   * is far from being reached, the returned stage is already completed and no allocation occurs.
+   * Otherwise, the stage is completed by an internal timer thread, so callers should avoid running
+   * expensive actions directly on it.
+   *
+   * @param permits the number of permits to acquire.
+   * @return a stage that completes when the permits are available.
+   */
+  @NonNull
+  public CompletionStage<Void> acquireAsync(int permits) {
+    long waitNanos = reserve(permits);
+    if (waitNanos <= 0) {
+      return ACQUIRED;
+    }
+    CompletableFuture<Void> acquired = new CompletableFuture<>();
+    Timer.INSTANCE.schedule(() -> acquired.complete(null), waitNanos, TimeUnit.NANOSECONDS);
+    return acquired;
+  }
+
+  /**
+   * Reserves the given number of permits and returns how long the caller must wait before using
+   * them.
+   *
+   * @param permits the number of permits to reserve.
+   * @return the time to wait, in nanoseconds; zero or negative if the permits can be used
+   *     immediately.
+   */
+  long reserve(int permits) {
+    Preconditions.checkArgument(permits > 0, "permits must be > 0, got %s", permits);
+    int[] stripe = stripes.get();
+    if (stripe[0] >= permits) {
+      stripe[0] -= permits;
+      return 0;
+    }
+    int missing = permits - stripe[0];
+    int reserved = Math.max(missing, batchSize);
+    stripe[0] = reserved - missing;
+    return reserveFromBucket(reserved);
+  }
+
+  private long reserveFromBucket(int permits) {
+    long cost = (long) (permits * nanosPerPermit);
+    while (true) {
+      long now = clock.getAsLong();
+      long next = nextFreeNanos.get();
+      // unused permits accumulate while next is in the past, up to the max burst
+      long start = Math.max(next, now - maxBurstNanos);
+      if (nextFreeNanos.compareAndSet(next, start + cost)) {
+        return start - now;
+      }
+    }
+  }
+
+  private static final class Timer {
+
+    private static final ScheduledExecutorService INSTANCE = newTimer();
+
+    private static ScheduledExecutorService newTimer() {
+      ScheduledThreadPoolExecutor timer =
+          new ScheduledThreadPoolExecutor(
+              1,
+              r -> {
+                Thread thread = new Thread(r, "rate-limiter-timer");
+                thread.setDaemon(true);
+                return thread;
+              });
+      timer.setRemoveOnCancelPolicy(true);
+      return timer;
+    }
+  }
+}
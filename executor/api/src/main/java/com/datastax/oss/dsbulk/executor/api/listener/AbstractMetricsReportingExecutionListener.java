@@ -83,6 +83,12 @@ public abstract class AbstractMetricsReportingExecutionListener extends Schedule
     delegate.onWriteRequestFailed(statement, error, context);
   }
 
+  @Override
+  public void onWriteRequestRetried(
+      Statement<?> statement, Throwable error, ExecutionContext context) {
+    delegate.onWriteRequestRetried(statement, error, context);
+  }
+
   @Override
   public void onReadRequestSuccessful(Statement<?> statement, ExecutionContext context) {
     delegate.onReadRequestSuccessful(statement, context);
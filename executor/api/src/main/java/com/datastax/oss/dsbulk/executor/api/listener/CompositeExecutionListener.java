@@ -68,6 +68,12 @@ public class CompositeExecutionListener implements ExecutionListener {
     listeners.forEach(l -> l.onWriteRequestFailed(statement, error, context));
   }
 
+  @Override
+  public void onWriteRequestRetried(
+      Statement<?> statement, Throwable error, ExecutionContext context) {
+    listeners.forEach(l -> l.onWriteRequestRetried(statement, error, context));
+  }
+
   @Override
   public void onReadRequestStarted(Statement<?> statement, ExecutionContext context) {
     listeners.forEach(l -> l.onReadRequestStarted(statement, context));
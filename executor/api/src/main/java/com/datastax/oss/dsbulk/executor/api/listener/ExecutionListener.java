@@ -61,6 +61,21 @@ public interface ExecutionListener {
   default void onWriteRequestFailed(
       Statement<?> statement, Throwable error, ExecutionContext context) {}
 
+  /**
+   * Called when a write request has failed and is going to be sent again after a delay.
+   *
+   * <p>A retried request does not trigger {@link #onWriteRequestStarted(Statement,
+   * ExecutionContext)} again; only its final outcome is reported, with either {@link
+   * #onWriteRequestSuccessful(Statement, ExecutionContext)} or {@link
+   * #onWriteRequestFailed(Statement, Throwable, ExecutionContext)}.
+   *
+   * @param statement the statement to execute.
+   * @param error the request execution error.
+   * @param context the local request execution context.
+   */
+  default void onWriteRequestRetried(
+      Statement<?> statement, Throwable error, ExecutionContext context) {}
+
   /**
    * Called when a read request is about to be sent.
    *
@@ -296,6 +296,7 @@ public class MetricsCollectingExecutionListener implements ExecutionListener {
   @Override
   public void onWriteRequestStarted(Statement<?> statement, ExecutionContext context) {
     if (bytesSentMeter != null) {
+      // statements implementing SizedStatement report the size computed when they were bound
       long size = DataSizes.getDataSize(statement, protocolVersion, codecRegistry);
       bytesSentMeter.mark(size);
     }
@@ -17,8 +17,8 @@ package com.datastax.oss.dsbulk.executor.api.publisher;
 
 import com.datastax.dse.driver.api.core.cql.continuous.ContinuousSession;
 import com.datastax.oss.driver.api.core.cql.Statement;
-import com.datastax.oss.driver.shaded.guava.common.util.concurrent.RateLimiter;
 import com.datastax.oss.dsbulk.executor.api.AbstractBulkExecutor;
+import com.datastax.oss.dsbulk.executor.api.limiter.StripedRateLimiter;
 import com.datastax.oss.dsbulk.executor.api.listener.ExecutionListener;
 import com.datastax.oss.dsbulk.executor.api.result.ReadResult;
 import com.datastax.oss.dsbulk.executor.api.subscription.ContinuousReadResultSubscription;
@@ -41,7 +41,7 @@ public class ContinuousReadResultPublisher implements Publisher<ReadResult> {
   private final @NonNull ContinuousSession session;
   private final @Nullable ExecutionListener listener;
   private final @Nullable Semaphore maxConcurrentRequests;
-  private final @Nullable RateLimiter rateLimiter;
+  private final @Nullable StripedRateLimiter rateLimiter;
   private final boolean failFast;
 
   /**
@@ -66,7 +66,7 @@ public class ContinuousReadResultPublisher implements Publisher<ReadResult> {
    * @param listener The {@link ExecutionListener} to use.
    * @param maxConcurrentRequests The {@link Semaphore} to use to regulate the amount of in-flight
    *     requests.
-   * @param rateLimiter The {@link RateLimiter} to use to regulate throughput.
+   * @param rateLimiter The {@link StripedRateLimiter} to use to regulate throughput.
    */
   public ContinuousReadResultPublisher(
       @NonNull Statement<?> statement,
@@ -74,7 +74,7 @@ public class ContinuousReadResultPublisher implements Publisher<ReadResult> {
       boolean failFast,
       @Nullable ExecutionListener listener,
       @Nullable Semaphore maxConcurrentRequests,
-      @Nullable RateLimiter rateLimiter) {
+      @Nullable StripedRateLimiter rateLimiter) {
     this.statement = statement;
     this.session = session;
     this.listener = listener;
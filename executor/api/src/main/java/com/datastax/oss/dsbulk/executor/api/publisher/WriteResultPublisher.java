@@ -17,10 +17,11 @@ package com.datastax.oss.dsbulk.executor.api.publisher;
 
 import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.cql.Statement;
-import com.datastax.oss.driver.shaded.guava.common.util.concurrent.RateLimiter;
 import com.datastax.oss.dsbulk.executor.api.AbstractBulkExecutor;
+import com.datastax.oss.dsbulk.executor.api.limiter.StripedRateLimiter;
 import com.datastax.oss.dsbulk.executor.api.listener.ExecutionListener;
 import com.datastax.oss.dsbulk.executor.api.result.WriteResult;
+import com.datastax.oss.dsbulk.executor.api.retry.WriteRetryStrategy;
 import com.datastax.oss.dsbulk.executor.api.subscription.WriteResultSubscription;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
@@ -41,8 +42,9 @@ public class WriteResultPublisher implements Publisher<WriteResult> {
   private final CqlSession session;
   private final @Nullable ExecutionListener listener;
   private final @Nullable Semaphore maxConcurrentRequests;
-  private final @Nullable RateLimiter rateLimiter;
+  private final @Nullable StripedRateLimiter rateLimiter;
   private final boolean failFast;
+  private final @Nullable WriteRetryStrategy retryStrategy;
 
   /**
    * Creates a new {@link WriteResultPublisher} without {@link ExecutionListener} and without
@@ -66,7 +68,7 @@ public class WriteResultPublisher implements Publisher<WriteResult> {
    * @param listener The {@link ExecutionListener} to use.
    * @param maxConcurrentRequests The {@link Semaphore} to use to regulate the amount of in-flight
    *     requests.
-   * @param rateLimiter The {@link RateLimiter} to use to regulate throughput.
+   * @param rateLimiter The {@link StripedRateLimiter} to use to regulate throughput.
    */
   public WriteResultPublisher(
       @NonNull Statement<?> statement,
@@ -74,13 +76,37 @@ public class WriteResultPublisher implements Publisher<WriteResult> {
       boolean failFast,
       @Nullable ExecutionListener listener,
       @Nullable Semaphore maxConcurrentRequests,
-      @Nullable RateLimiter rateLimiter) {
+      @Nullable StripedRateLimiter rateLimiter) {
+    this(statement, session, failFast, listener, maxConcurrentRequests, rateLimiter, null);
+  }
+
+  /**
+   * Creates a new {@link WriteResultPublisher} that retries failed writes after a delay.
+   *
+   * @param statement The {@link Statement} to execute.
+   * @param session The {@link CqlSession} to use.
+   * @param failFast whether to fail-fast in case of error.
+   * @param listener The {@link ExecutionListener} to use.
+   * @param maxConcurrentRequests The {@link Semaphore} to use to regulate the amount of in-flight
+   *     requests.
+   * @param rateLimiter The {@link StripedRateLimiter} to use to regulate throughput.
+   * @param retryStrategy The {@link WriteRetryStrategy} to retry failed writes with.
+   */
+  public WriteResultPublisher(
+      @NonNull Statement<?> statement,
+      @NonNull CqlSession session,
+      boolean failFast,
+      @Nullable ExecutionListener listener,
+      @Nullable Semaphore maxConcurrentRequests,
+      @Nullable StripedRateLimiter rateLimiter,
+      @Nullable WriteRetryStrategy retryStrategy) {
     this.statement = statement;
     this.session = session;
     this.listener = listener;
     this.maxConcurrentRequests = maxConcurrentRequests;
     this.rateLimiter = rateLimiter;
     this.failFast = failFast;
+    this.retryStrategy = retryStrategy;
   }
 
   @Override
@@ -92,7 +118,14 @@ public class WriteResultPublisher implements Publisher<WriteResult> {
     // of the results.
     WriteResultSubscription subscription =
         new WriteResultSubscription(
-            subscriber, statement, listener, maxConcurrentRequests, rateLimiter, failFast);
+            subscriber,
+            statement,
+            listener,
+            maxConcurrentRequests,
+            rateLimiter,
+            failFast,
+            session,
+            retryStrategy);
     try {
       subscriber.onSubscribe(subscription);
       // must be called after onSubscribe
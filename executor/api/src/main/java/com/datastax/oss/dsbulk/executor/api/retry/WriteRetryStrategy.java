@@ -0,0 +1,56 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.executor.api.retry;
+
+import com.datastax.oss.driver.api.core.cql.Statement;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * A strategy to retry failed writes after a delay.
+ *
+ * <p>The driver's retry policies can only retry a request immediately. When a write fails because
+ * the cluster is overloaded, retrying immediately usually makes things worse; executors configured
+ * with this strategy instead send the write again after the delay it returns, without blocking any
+ * thread in the meanwhile.
+ *
+ * <p>Implementations must be thread-safe.
+ */
+public interface WriteRetryStrategy {
+
+  /**
+   * Decides whether a failed write should be retried, and when.
+   *
+   * @param statement The statement that failed.
+   * @param error The error returned by the driver.
+   * @param retryCount The number of times the statement was already retried by the executor.
+   * @return The delay in nanoseconds after which the statement should be sent again, or a negative
+   *     value if it should not be retried.
+   */
+  long onWriteFailed(@NonNull Statement<?> statement, @NonNull Throwable error, int retryCount);
+
+  /**
+   * Returns the statement to send when retrying a failed write; for example, the statement could be
+   * directed to another coordinator. The default implementation returns the statement unchanged.
+   *
+   * @param statement The statement that failed.
+   * @param error The error returned by the driver.
+   * @return The statement to send again.
+   */
+  @NonNull
+  default Statement<?> prepareRetry(@NonNull Statement<?> statement, @NonNull Throwable error) {
+    return statement;
+  }
+}
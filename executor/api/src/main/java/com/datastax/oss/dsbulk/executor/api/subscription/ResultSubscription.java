@@ -20,8 +20,8 @@ import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.cql.BatchStatement;
 import com.datastax.oss.driver.api.core.cql.Row;
 import com.datastax.oss.driver.api.core.cql.Statement;
-import com.datastax.oss.driver.shaded.guava.common.util.concurrent.RateLimiter;
 import com.datastax.oss.dsbulk.executor.api.exception.BulkExecutionException;
+import com.datastax.oss.dsbulk.executor.api.limiter.StripedRateLimiter;
 import com.datastax.oss.dsbulk.executor.api.listener.DefaultExecutionContext;
 import com.datastax.oss.dsbulk.executor.api.listener.ExecutionContext;
 import com.datastax.oss.dsbulk.executor.api.listener.ExecutionListener;
@@ -37,7 +37,10 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import org.jctools.queues.SpscArrayQueue;
@@ -77,12 +80,21 @@ public abstract class ResultSubscription<R extends Result, P extends AsyncPaging
 
   final @Nullable ExecutionListener listener;
   private final @Nullable Semaphore maxConcurrentRequests;
-  final @Nullable RateLimiter rateLimiter;
+  final @Nullable StripedRateLimiter rateLimiter;
   private final boolean failFast;
 
   /** The number of writes in the batch. 1 for other types of statement. */
   final int batchSize;
 
+  /** The number of times the first request was retried; only accessed when it fails. */
+  private int retries = 0;
+
+  /**
+   * The delay before sending again the request whose response just arrived, or -1 if it should not
+   * be sent again; set when the response arrives, and read when creating the corresponding page.
+   */
+  private long retryDelay = -1;
+
   /** Tracks the number of items requested by the subscriber. */
   private final AtomicLong requested = new AtomicLong(0);
 
@@ -146,7 +158,7 @@ public abstract class ResultSubscription<R extends Result, P extends AsyncPaging
       @NonNull Statement<?> statement,
       @Nullable ExecutionListener listener,
       @Nullable Semaphore maxConcurrentRequests,
-      @Nullable RateLimiter rateLimiter,
+      @Nullable StripedRateLimiter rateLimiter,
       boolean failFast) {
     this.statement = statement;
     this.subscriber = subscriber;
@@ -337,25 +349,94 @@ public abstract class ResultSubscription<R extends Result, P extends AsyncPaging
    * the fact that one can only fetch the next page when the current one is arrived and enqueued.
    */
   private void fetchNextPage(Page current) {
+    onBeforeRequestStarted();
+    sendRequestWhenAllowed(current);
+  }
+
+  /**
+   * Sends the request as soon as the rate limiter allows it. The permit to send a concurrent
+   * request must have been acquired already.
+   */
+  private void sendRequestWhenAllowed(Page current) {
+    int permits = rateLimiter == null ? 0 : permitsPerRequest();
+    if (permits == 0) {
+      sendRequest(current);
+    } else {
+      // Most of the time, permits are available right away and the request is sent synchronously;
+      // otherwise, it is sent by the rate limiter's timer thread, without blocking this thread.
+      rateLimiter
+          .acquireAsync(permits)
+          .whenComplete(
+              (v, error) -> {
+                if (error == null) {
+                  try {
+                    sendRequest(current);
+                  } catch (Throwable t) {
+                    abortRequest(current, t);
+                  }
+                } else {
+                  abortRequest(current, error);
+                }
+              });
+    }
+  }
+
+  /**
+   * Called when a request could not be sent, e.g. because the thread sending it failed; emits the
+   * error as the request's result, so that the subscriber is always notified.
+   */
+  private void abortRequest(Page current, Throwable error) {
+    if (maxConcurrentRequests != null) {
+      maxConcurrentRequests.release();
+    }
+    error = unwrap(error);
+    if (current.retry) {
+      // the listener was told that the request would be retried: report its final outcome
+      onRequestFailed(error, newEmptyContext());
+    }
+    Page page = toErrorPage(error);
+    current.fullyConsumed.thenRun(
+        () -> {
+          enqueue(page);
+          drain();
+        });
+  }
+
+  private void sendRequest(Page current) {
     // A local execution context to record metrics for this specific request-response cycle.
     DefaultExecutionContext local = new DefaultExecutionContext();
-    onBeforeRequestStarted();
     local.start();
-    onRequestStarted(local);
+    if (!current.retry) {
+      // retries are reported as a single request, see onRequestRetried
+      onRequestStarted(local);
+    }
     current
         .nextPage()
-        // as soon as the response arrives, notify our listener and
-        // update maxConcurrentRequests.
+        // as soon as the response arrives, decide whether the request should be retried, notify
+        // our listener and update maxConcurrentRequests.
         .whenComplete(
             (rs, t) -> {
-              if (maxConcurrentRequests != null) {
-                maxConcurrentRequests.release();
-              }
               local.stop();
-              if (t == null) {
-                onRequestSuccessful(rs, local);
-              } else {
-                onRequestFailed(t, local);
+              retryDelay = -1;
+              try {
+                if (t == null) {
+                  onRequestSuccessful(rs, local);
+                } else {
+                  Throwable error = unwrap(t);
+                  if (current.fullyConsumed == initial && !cancelled) {
+                    retryDelay = retryDelayNanos(error, retries);
+                  }
+                  if (retryDelay >= 0) {
+                    onRequestRetried(error, local);
+                  } else {
+                    onRequestFailed(error, local);
+                  }
+                }
+              } finally {
+                // a retried request keeps its permit, see scheduleRetry
+                if (retryDelay < 0 && maxConcurrentRequests != null) {
+                  maxConcurrentRequests.release();
+                }
               }
             })
         // create the new page
@@ -365,9 +446,11 @@ public abstract class ResultSubscription<R extends Result, P extends AsyncPaging
               if (t == null) {
                 page = toPage(rs, local);
               } else {
-                // Unwrap CompletionExceptions created by combined futures
-                if (t instanceof CompletionException) {
-                  t = t.getCause();
+                t = unwrap(t);
+                if (retryDelay >= 0) {
+                  scheduleRetry(current, t, retryDelay);
+                  // nothing to enqueue until the retry completes
+                  return null;
                 }
                 page = toErrorPage(t);
               }
@@ -379,6 +462,9 @@ public abstract class ResultSubscription<R extends Result, P extends AsyncPaging
         // enqueue the new page
         .thenAccept(
             page -> {
+              if (page == null) {
+                return;
+              }
               enqueue(page);
               if (page.hasMorePages() && !cancelled) {
                 // preemptively fetch the next page, if available
@@ -388,12 +474,87 @@ public abstract class ResultSubscription<R extends Result, P extends AsyncPaging
             });
   }
 
+  /**
+   * Sends the first request again after the given delay, without blocking the current thread, which
+   * is usually a driver IO thread.
+   *
+   * <p>The retry is sent with the permit of the failed request, which is only released when the
+   * retry completes: the timer thread thus never waits for a permit, and the number of writes in
+   * flight, including the ones waiting to be retried, remains bounded.
+   */
+  private void scheduleRetry(Page failed, Throwable error, long delayNanos) {
+    retries++;
+    Page retry = new Page(failed, retryRequest(error, failed.nextPage));
+    RetryTimer.INSTANCE.schedule(
+        () -> {
+          if (cancelled) {
+            if (maxConcurrentRequests != null) {
+              maxConcurrentRequests.release();
+            }
+            // the retry is abandoned: the last failure is the request's final outcome
+            onRequestFailed(error, newEmptyContext());
+          } else {
+            try {
+              sendRequestWhenAllowed(retry);
+            } catch (Throwable t) {
+              abortRequest(retry, t);
+            }
+          }
+        },
+        delayNanos,
+        TimeUnit.NANOSECONDS);
+  }
+
+  /** @return a context to report the outcome of a request that was not sent. */
+  private static ExecutionContext newEmptyContext() {
+    DefaultExecutionContext context = new DefaultExecutionContext();
+    context.start();
+    context.stop();
+    return context;
+  }
+
+  /** Unwraps CompletionExceptions created by combined futures. */
+  private static Throwable unwrap(Throwable error) {
+    return error instanceof CompletionException ? error.getCause() : error;
+  }
+
+  /**
+   * Decides whether the first request should be retried after the given error. Subsequent pages are
+   * never retried.
+   *
+   * @param error the error returned by the driver.
+   * @param retryCount the number of times the request was already retried.
+   * @return the delay in nanoseconds after which the request should be sent again, or a negative
+   *     value if it should not be retried; the default implementation never retries.
+   */
+  long retryDelayNanos(Throwable error, int retryCount) {
+    return -1;
+  }
+
+  /**
+   * @param error the error returned by the driver.
+   * @param failed the request that failed.
+   * @return the request to send when retrying; the default implementation returns the failed one.
+   */
+  Callable<CompletionStage<? extends P>> retryRequest(
+      Throwable error, Callable<CompletionStage<? extends P>> failed) {
+    return failed;
+  }
+
   void onBeforeRequestStarted() {
     if (maxConcurrentRequests != null) {
       maxConcurrentRequests.acquireUninterruptibly();
     }
   }
 
+  /**
+   * @return the number of permits to acquire from the rate limiter before each request; zero if
+   *     permits are acquired otherwise, e.g. before each result is emitted.
+   */
+  int permitsPerRequest() {
+    return 0;
+  }
+
   /*
   The 3 methods below should trigger notifications to our listener,
   using the "local" execution context that records metrics for a single
@@ -408,6 +569,13 @@ public abstract class ResultSubscription<R extends Result, P extends AsyncPaging
 
   abstract void onRequestFailed(Throwable t, ExecutionContext local);
 
+  /**
+   * Called instead of {@link #onRequestFailed(Throwable, ExecutionContext)} when the failed request
+   * is going to be retried; the retry does not trigger {@link #onRequestStarted(ExecutionContext)}
+   * again. Does nothing by default.
+   */
+  void onRequestRetried(Throwable t, ExecutionContext local) {}
+
   /*
   Note: two executions of enqueue() or dequeue()
   cannot happen concurrently, but one execution
@@ -556,17 +724,30 @@ public abstract class ResultSubscription<R extends Result, P extends AsyncPaging
     final Callable<CompletionStage<? extends P>> nextPage;
     final CompletableFuture<Void> fullyConsumed;
 
+    /** Whether the request for the next page is a retry of a failed request. */
+    final boolean retry;
+
     /** called only from start() */
     private Page(Callable<CompletionStage<? extends P>> nextPage) {
       this.nextPage = nextPage;
       this.rows = Collections.emptyIterator();
       fullyConsumed = initial;
+      retry = false;
+    }
+
+    /** called only when retrying the given failed page */
+    private Page(Page failed, Callable<CompletionStage<? extends P>> nextPage) {
+      this.nextPage = nextPage;
+      this.rows = failed.rows;
+      fullyConsumed = failed.fullyConsumed;
+      retry = true;
     }
 
     Page(Iterator<R> rows, Callable<CompletionStage<? extends P>> nextPage) {
       this.nextPage = nextPage;
       this.rows = rows;
       fullyConsumed = new CompletableFuture<>();
+      retry = false;
     }
 
     boolean hasMorePages() {
@@ -593,4 +774,24 @@ public abstract class ResultSubscription<R extends Result, P extends AsyncPaging
       return rows.next();
     }
   }
+
+  private static final class RetryTimer {
+
+    private static final ScheduledExecutorService INSTANCE = newTimer();
+
+    private static ScheduledExecutorService newTimer() {
+      // Retried requests are sent from this thread without blocking: they keep the concurrency
+      // permit of the failed request, and acquire rate limiter permits asynchronously.
+      ScheduledThreadPoolExecutor timer =
+          new ScheduledThreadPoolExecutor(
+              1,
+              r -> {
+                Thread thread = new Thread(r, "retry-timer");
+                thread.setDaemon(true);
+                return thread;
+              });
+      timer.setRemoveOnCancelPolicy(true);
+      return timer;
+    }
+  }
 }
@@ -15,31 +15,59 @@
  */
 package com.datastax.oss.dsbulk.executor.api.subscription;
 
+import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
 import com.datastax.oss.driver.api.core.cql.Statement;
-import com.datastax.oss.driver.shaded.guava.common.util.concurrent.RateLimiter;
 import com.datastax.oss.dsbulk.executor.api.exception.BulkExecutionException;
+import com.datastax.oss.dsbulk.executor.api.limiter.StripedRateLimiter;
 import com.datastax.oss.dsbulk.executor.api.listener.ExecutionContext;
 import com.datastax.oss.dsbulk.executor.api.listener.ExecutionListener;
 import com.datastax.oss.dsbulk.executor.api.result.DefaultWriteResult;
 import com.datastax.oss.dsbulk.executor.api.result.WriteResult;
+import com.datastax.oss.dsbulk.executor.api.retry.WriteRetryStrategy;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Semaphore;
 import org.reactivestreams.Subscriber;
 
 public class WriteResultSubscription extends ResultSubscription<WriteResult, AsyncResultSet> {
 
+  private final @Nullable CqlSession session;
+  private final @Nullable WriteRetryStrategy retryStrategy;
+
   public WriteResultSubscription(
       @NonNull Subscriber<? super WriteResult> subscriber,
       @NonNull Statement<?> statement,
       @Nullable ExecutionListener listener,
       @Nullable Semaphore maxConcurrentRequests,
-      @Nullable RateLimiter rateLimiter,
+      @Nullable StripedRateLimiter rateLimiter,
       boolean failFast) {
+    this(subscriber, statement, listener, maxConcurrentRequests, rateLimiter, failFast, null, null);
+  }
+
+  /**
+   * Creates a subscription that retries failed writes after a delay, according to the given
+   * strategy.
+   *
+   * @param session the session to send retries with; required when a retry strategy is provided.
+   * @param retryStrategy the strategy to retry failed writes with, or {@code null} to not retry.
+   */
+  public WriteResultSubscription(
+      @NonNull Subscriber<? super WriteResult> subscriber,
+      @NonNull Statement<?> statement,
+      @Nullable ExecutionListener listener,
+      @Nullable Semaphore maxConcurrentRequests,
+      @Nullable StripedRateLimiter rateLimiter,
+      boolean failFast,
+      @Nullable CqlSession session,
+      @Nullable WriteRetryStrategy retryStrategy) {
     super(subscriber, statement, listener, maxConcurrentRequests, rateLimiter, failFast);
+    this.session = session;
+    this.retryStrategy = session == null ? null : retryStrategy;
   }
 
   @Override
@@ -55,11 +83,21 @@ public class WriteResultSubscription extends ResultSubscription<WriteResult, Asy
   }
 
   @Override
-  void onBeforeRequestStarted() {
-    if (rateLimiter != null) {
-      rateLimiter.acquire(batchSize);
-    }
-    super.onBeforeRequestStarted();
+  long retryDelayNanos(Throwable error, int retryCount) {
+    return retryStrategy == null ? -1 : retryStrategy.onWriteFailed(statement, error, retryCount);
+  }
+
+  @Override
+  Callable<CompletionStage<? extends AsyncResultSet>> retryRequest(
+      Throwable error, Callable<CompletionStage<? extends AsyncResultSet>> failed) {
+    assert session != null && retryStrategy != null;
+    Statement<?> retried = retryStrategy.prepareRetry(statement, error);
+    return () -> session.executeAsync(retried);
+  }
+
+  @Override
+  int permitsPerRequest() {
+    return batchSize;
   }
 
   @Override
@@ -82,4 +120,11 @@ public class WriteResultSubscription extends ResultSubscription<WriteResult, Asy
       listener.onWriteRequestFailed(statement, t, local);
     }
   }
+
+  @Override
+  void onRequestRetried(Throwable t, ExecutionContext local) {
+    if (listener != null) {
+      listener.onWriteRequestRetried(statement, t, local);
+    }
+  }
 }
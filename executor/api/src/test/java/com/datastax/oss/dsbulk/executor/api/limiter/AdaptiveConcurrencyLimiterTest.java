@@ -0,0 +1,174 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.executor.api.limiter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.datastax.oss.driver.api.core.DriverTimeoutException;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.api.core.servererrors.OverloadedException;
+import com.datastax.oss.driver.api.core.servererrors.SyntaxError;
+import com.datastax.oss.dsbulk.executor.api.listener.ExecutionContext;
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+  private static final Duration WINDOW = Duration.ofSeconds(1);
+
+  private final Statement<?> statement = SimpleStatement.newInstance("irrelevant");
+
+  private final AtomicLong clock = new AtomicLong();
+
+  @Test
+  void should_increase_limit_when_latencies_are_stable_and_permits_in_use() {
+    AdaptiveConcurrencyLimiter limiter = newLimiter(16, 4, 64);
+    limiter.acquireUninterruptibly(10);
+    window(limiter, 1);
+    assertThat(limiter.getLimit()).isEqualTo(20);
+    assertThat(limiter.availablePermits()).isEqualTo(10);
+    window(limiter, 1);
+    assertThat(limiter.getLimit()).isEqualTo(24);
+    assertThat(limiter.availablePermits()).isEqualTo(14);
+  }
+
+  @Test
+  void should_not_increase_limit_when_permits_not_in_use() {
+    AdaptiveConcurrencyLimiter limiter = newLimiter(16, 4, 64);
+    limiter.acquireUninterruptibly(2);
+    window(limiter, 1);
+    assertThat(limiter.getLimit()).isEqualTo(16);
+    assertThat(limiter.availablePermits()).isEqualTo(14);
+  }
+
+  @Test
+  void should_not_change_limit_when_window_not_elapsed() {
+    AdaptiveConcurrencyLimiter limiter = newLimiter(16, 4, 64);
+    limiter.acquireUninterruptibly(16);
+    for (int i = 0; i < 100; i++) {
+      limiter.onWriteRequestSuccessful(statement, context(1));
+    }
+    assertThat(limiter.getLimit()).isEqualTo(16);
+  }
+
+  @Test
+  void should_reduce_limit_when_latency_exceeds_tolerance() {
+    AdaptiveConcurrencyLimiter limiter = newLimiter(100, 4, 200);
+    // establish the baseline latency without using permits
+    window(limiter, 10);
+    assertThat(limiter.getLimit()).isEqualTo(100);
+    window(limiter, 50);
+    assertThat(limiter.getLimit()).isEqualTo(90);
+    assertThat(limiter.availablePermits()).isEqualTo(90);
+  }
+
+  @Test
+  void should_halve_limit_when_coordinator_overloaded() {
+    AdaptiveConcurrencyLimiter limiter = newLimiter(100, 4, 200);
+    limiter.acquireUninterruptibly(80);
+    limiter.onWriteRequestFailed(statement, new OverloadedException(mock(Node.class)), context(1));
+    window(limiter, 1);
+    assertThat(limiter.getLimit()).isEqualTo(50);
+    // in-flight requests are not interrupted, the remaining ones must complete first
+    assertThat(limiter.availablePermits()).isEqualTo(-30);
+  }
+
+  @Test
+  void should_halve_limit_when_request_timed_out() {
+    AdaptiveConcurrencyLimiter limiter = newLimiter(100, 4, 200);
+    limiter.onWriteRequestFailed(
+        statement,
+        new CompletionException(new DriverTimeoutException("Query timed out")),
+        context(1000));
+    window(limiter, 1);
+    assertThat(limiter.getLimit()).isEqualTo(50);
+  }
+
+  @Test
+  void should_not_reduce_limit_when_other_error() {
+    AdaptiveConcurrencyLimiter limiter = newLimiter(100, 4, 200);
+    limiter.onWriteRequestFailed(
+        statement, new SyntaxError(mock(Node.class), "irrelevant"), context(1));
+    window(limiter, 1);
+    assertThat(limiter.getLimit()).isEqualTo(100);
+  }
+
+  @Test
+  void should_stay_within_bounds() {
+    AdaptiveConcurrencyLimiter limiter = newLimiter(16, 4, 20);
+    for (int i = 0; i < 5; i++) {
+      limiter.onWriteRequestFailed(
+          statement, new OverloadedException(mock(Node.class)), context(1));
+      window(limiter, 1);
+    }
+    assertThat(limiter.getLimit()).isEqualTo(4);
+    assertThat(limiter.availablePermits()).isEqualTo(4);
+    for (int i = 0; i < 10; i++) {
+      limiter.drainPermits();
+      window(limiter, 1);
+    }
+    assertThat(limiter.getLimit()).isEqualTo(20);
+  }
+
+  @Test
+  void should_clamp_initial_limit() {
+    assertThat(newLimiter(1000, 4, 20).getLimit()).isEqualTo(20);
+    assertThat(newLimiter(1, 4, 20).getLimit()).isEqualTo(4);
+  }
+
+  @Test
+  void should_reject_invalid_arguments() {
+    assertThatThrownBy(() -> newLimiter(16, 0, 20))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("minLimit must be > 0, got 0");
+    assertThatThrownBy(() -> newLimiter(16, 20, 4))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maxLimit must be >= minLimit, got 4 < 20");
+    assertThatThrownBy(() -> new AdaptiveConcurrencyLimiter(16, 4, 20, 1, WINDOW, clock::get))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("latencyTolerance must be > 1, got 1.0");
+  }
+
+  private AdaptiveConcurrencyLimiter newLimiter(int initial, int min, int max) {
+    return new AdaptiveConcurrencyLimiter(initial, min, max, 2, WINDOW, clock::get);
+  }
+
+  /**
+   * Records enough writes with the given latency to fill a window, then moves to the next window
+   * and records one last write to trigger the limit evaluation.
+   */
+  private void window(AdaptiveConcurrencyLimiter limiter, long latencyMillis) {
+    for (int i = 0; i < 20; i++) {
+      limiter.onWriteRequestSuccessful(statement, context(latencyMillis));
+    }
+    clock.addAndGet(WINDOW.toNanos());
+    limiter.onWriteRequestSuccessful(statement, context(latencyMillis));
+  }
+
+  private static ExecutionContext context(long latencyMillis) {
+    ExecutionContext context = mock(ExecutionContext.class);
+    when(context.elapsedTimeNanos()).thenReturn(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+    return context;
+  }
+}
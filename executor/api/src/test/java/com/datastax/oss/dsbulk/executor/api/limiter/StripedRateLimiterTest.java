@@ -0,0 +1,98 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.executor.api.limiter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class StripedRateLimiterTest {
+
+  private final AtomicLong clock = new AtomicLong();
+
+  @Test
+  void should_make_callers_wait_when_rate_exceeded() {
+    // 10 permits per second: one permit every 100 milliseconds
+    StripedRateLimiter limiter = new StripedRateLimiter(10, clock::get);
+    assertThat(limiter.reserve(1)).isZero();
+    assertThat(limiter.reserve(1)).isEqualTo(millis(100));
+    assertThat(limiter.reserve(2)).isEqualTo(millis(200));
+    assertThat(limiter.reserve(1)).isEqualTo(millis(400));
+    clock.addAndGet(millis(500));
+    assertThat(limiter.reserve(1)).isZero();
+  }
+
+  @Test
+  void should_store_up_to_one_second_of_unused_permits() {
+    StripedRateLimiter limiter = new StripedRateLimiter(10, clock::get);
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+    // 10 stored permits, plus the permit that becomes available now
+    for (int i = 0; i < 11; i++) {
+      assertThat(limiter.reserve(1)).isNotPositive();
+    }
+    assertThat(limiter.reserve(1)).isEqualTo(millis(100));
+  }
+
+  @Test
+  void should_serve_permits_from_thread_local_stripe() throws Exception {
+    // 100,000 permits per second: one permit every 10 microseconds, acquired by batches of 32
+    StripedRateLimiter limiter = new StripedRateLimiter(100_000, clock::get);
+    for (int i = 0; i < 32; i++) {
+      assertThat(limiter.reserve(1)).isZero();
+    }
+    // the stripe of this thread is now empty, a new batch must be reserved
+    assertThat(limiter.reserve(1)).isEqualTo(micros(320));
+    // another thread cannot use the permits reserved by this thread
+    CompletableFuture<Long> other = new CompletableFuture<>();
+    Thread thread = new Thread(() -> other.complete(limiter.reserve(1)));
+    thread.start();
+    thread.join();
+    assertThat(other.get()).isEqualTo(micros(640));
+  }
+
+  @Test
+  void should_acquire_asynchronously() {
+    StripedRateLimiter limiter = new StripedRateLimiter(10, clock::get);
+    assertThat(limiter.acquireAsync(1).toCompletableFuture()).isDone();
+    CompletableFuture<Void> second = limiter.acquireAsync(1).toCompletableFuture();
+    assertThat(second).isNotDone();
+    // completed by the timer thread after about 100 milliseconds
+    assertThat(second).succeedsWithin(Duration.ofSeconds(5));
+  }
+
+  @Test
+  void should_reject_invalid_arguments() {
+    assertThatThrownBy(() -> new StripedRateLimiter(0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("permitsPerSecond must be > 0, got 0.0");
+    assertThatThrownBy(() -> new StripedRateLimiter(10).acquire(0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("permits must be > 0, got 0");
+  }
+
+  private static long millis(long millis) {
+    return TimeUnit.MILLISECONDS.toNanos(millis);
+  }
+
+  private static long micros(long micros) {
+    return TimeUnit.MICROSECONDS.toNanos(micros);
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.executor.api.subscription;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.dsbulk.executor.api.limiter.StripedRateLimiter;
+import com.datastax.oss.dsbulk.executor.api.listener.ExecutionListener;
+import com.datastax.oss.dsbulk.executor.api.publisher.WriteResultPublisher;
+import com.datastax.oss.dsbulk.executor.api.result.WriteResult;
+import com.datastax.oss.dsbulk.executor.api.retry.WriteRetryStrategy;
+import com.datastax.oss.dsbulk.tests.driver.MockAsyncResultSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+class WriteResultSubscriptionTest {
+
+  private final Statement<?> statement = SimpleStatement.newInstance("irrelevant");
+
+  @Test
+  void should_emit_error_when_rate_limiter_fails() {
+    CqlSession session = mock(CqlSession.class);
+    when(session.executeAsync(any(Statement.class))).thenReturn(success());
+    StripedRateLimiter rateLimiter = mock(StripedRateLimiter.class);
+    CompletableFuture<Void> failed = new CompletableFuture<>();
+    IllegalStateException error = new IllegalStateException("boom");
+    failed.completeExceptionally(error);
+    when(rateLimiter.acquireAsync(anyInt())).thenReturn(failed);
+    Semaphore maxConcurrentRequests = new Semaphore(1);
+    List<WriteResult> results =
+        Flux.from(
+                new WriteResultPublisher(
+                    statement, session, false, null, maxConcurrentRequests, rateLimiter))
+            .collectList()
+            .block();
+    assertThat(results).hasSize(1);
+    assertThat(results.get(0).isSuccess()).isFalse();
+    assertThat(results.get(0).getError()).hasValueSatisfying(e -> assertThat(e).hasCause(error));
+    assertThat(maxConcurrentRequests.availablePermits()).isOne();
+  }
+
+  @Test
+  void should_report_only_final_outcome_of_retried_writes() {
+    CqlSession session = mock(CqlSession.class);
+    when(session.executeAsync(any(Statement.class)))
+        .thenReturn(failure(new IllegalStateException("boom")), success());
+    ExecutionListener listener = mock(ExecutionListener.class);
+    Semaphore maxConcurrentRequests = new Semaphore(1);
+    AtomicInteger permitsWhenRetried = new AtomicInteger(-1);
+    doAnswer(
+            invocation -> {
+              permitsWhenRetried.set(maxConcurrentRequests.availablePermits());
+              return null;
+            })
+        .when(listener)
+        .onWriteRequestRetried(any(), any(), any());
+    WriteRetryStrategy retryStrategy = (statement, error, retryCount) -> retryCount == 0 ? 0 : -1;
+    List<WriteResult> results =
+        Flux.from(
+                new WriteResultPublisher(
+                    statement,
+                    session,
+                    false,
+                    listener,
+                    maxConcurrentRequests,
+                    null,
+                    retryStrategy))
+            .collectList()
+            .block();
+    assertThat(results).hasSize(1);
+    assertThat(results.get(0).isSuccess()).isTrue();
+    verify(listener).onWriteRequestStarted(eq(statement), any());
+    verify(listener).onWriteRequestRetried(eq(statement), any(IllegalStateException.class), any());
+    verify(listener).onWriteRequestSuccessful(eq(statement), any());
+    verify(listener, never()).onWriteRequestFailed(any(), any(), any());
+    // the retry is sent with the permit of the failed request, so the timer never waits for one
+    assertThat(permitsWhenRetried).hasValue(0);
+    assertThat(maxConcurrentRequests.availablePermits()).isOne();
+  }
+
+  @Test
+  void should_report_failure_when_retries_are_exhausted() {
+    CqlSession session = mock(CqlSession.class);
+    IllegalStateException error = new IllegalStateException("boom");
+    when(session.executeAsync(any(Statement.class))).thenReturn(failure(error));
+    ExecutionListener listener = mock(ExecutionListener.class);
+    Semaphore maxConcurrentRequests = new Semaphore(1);
+    WriteRetryStrategy retryStrategy = (statement, e, retryCount) -> retryCount < 2 ? 0 : -1;
+    List<WriteResult> results =
+        Flux.from(
+                new WriteResultPublisher(
+                    statement,
+                    session,
+                    false,
+                    listener,
+                    maxConcurrentRequests,
+                    null,
+                    retryStrategy))
+            .collectList()
+            .block();
+    assertThat(results).hasSize(1);
+    assertThat(results.get(0).isSuccess()).isFalse();
+    verify(listener).onWriteRequestStarted(eq(statement), any());
+    verify(listener, times(2)).onWriteRequestRetried(eq(statement), eq(error), any());
+    verify(listener).onWriteRequestFailed(eq(statement), eq(error), any());
+    verify(listener, never()).onWriteRequestSuccessful(any(), any());
+    assertThat(maxConcurrentRequests.availablePermits()).isOne();
+  }
+
+  private static CompletableFuture<AsyncResultSet> failure(Throwable error) {
+    CompletableFuture<AsyncResultSet> failed = new CompletableFuture<>();
+    failed.completeExceptionally(error);
+    return failed;
+  }
+
+  private static CompletableFuture<AsyncResultSet> success() {
+    return CompletableFuture.completedFuture(
+        new MockAsyncResultSet(0, mock(ExecutionInfo.class), null));
+  }
+}
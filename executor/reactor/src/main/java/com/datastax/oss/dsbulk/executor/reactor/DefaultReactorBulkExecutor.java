@@ -123,7 +123,13 @@ public class DefaultReactorBulkExecutor extends AbstractBulkExecutor
     Objects.requireNonNull(statement);
     return Mono.from(
         new WriteResultPublisher(
-            statement, session, failFast, listener, maxConcurrentRequests, rateLimiter));
+            statement,
+            session,
+            failFast,
+            listener,
+            maxConcurrentRequests,
+            rateLimiter,
+            writeRetryStrategy));
   }
 
   @Override
@@ -16,6 +16,8 @@
 package com.datastax.oss.dsbulk.io;
 
 import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableMap;
+import com.datastax.oss.driver.shaded.guava.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.IOException;
@@ -27,9 +29,10 @@ import java.net.URL;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.apache.commons.compress.compressors.CompressorException;
 import org.apache.commons.compress.compressors.CompressorInputStream;
-import org.apache.commons.compress.compressors.CompressorOutputStream;
 import org.apache.commons.compress.compressors.CompressorStreamFactory;
 
 public final class CompressedIOUtils {
@@ -77,6 +80,11 @@ public final class CompressedIOUtils {
           .put(Z_COMPRESSION, CompressorStreamFactory.Z)
           .build();
 
+  private static final int COMPRESSION_PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+  private static final int READ_AHEAD_BUFFERS = 8;
+  private static final int READ_AHEAD_BUFFER_SIZE = 64 * 1024;
+
   private static final ImmutableMap<String, String> COMPRESSION_EXTENSIONS =
       ImmutableMap.<String, String>builder()
           .put(XZ_COMPRESSION, ".xz")
@@ -101,9 +109,14 @@ public final class CompressedIOUtils {
       }
       InputStream in = IOUtils.newBufferedInputStream(url);
       try {
+        // read all members of concatenated gzip, bzip2 and xz streams, like their CLI tools do
         CompressorInputStream cin =
-            new CompressorStreamFactory().createCompressorInputStream(compressor, in);
-        reader = new BufferedReader(new InputStreamReader(cin, charset), BUFFER_SIZE);
+            new CompressorStreamFactory(true).createCompressorInputStream(compressor, in);
+        // decompress on another thread while the caller parses the data already decompressed
+        InputStream readAhead =
+            new ReadAheadInputStream(
+                cin, DecompressorPool.EXECUTOR, READ_AHEAD_BUFFERS, READ_AHEAD_BUFFER_SIZE);
+        reader = new BufferedReader(new InputStreamReader(readAhead, charset), BUFFER_SIZE);
       } catch (CompressorException ex) {
         throw new IOException("Can't instantiate class for compression: " + compression, ex);
       }
@@ -113,24 +126,53 @@ public final class CompressedIOUtils {
 
   public static BufferedWriter newBufferedWriter(
       final URL url, final Charset charset, final String compression) throws IOException {
-    final BufferedWriter writer;
-    if (compression == null || compression.equalsIgnoreCase(NONE_COMPRESSION))
-      writer = IOUtils.newBufferedWriter(url, charset);
-    else {
-      String compressor = OUTPUT_COMPRESSORS.get(compression.toLowerCase());
-      if (compressor == null) {
-        throw new IOException("Unsupported compression format: " + compression);
-      }
-      OutputStream os = IOUtils.newBufferedOutputStream(url);
-      try {
-        CompressorOutputStream cos =
-            new CompressorStreamFactory().createCompressorOutputStream(compressor, os);
-        writer = new BufferedWriter(new OutputStreamWriter(cos, charset), BUFFER_SIZE);
-      } catch (CompressorException ex) {
-        throw new IOException("Can't instantiate class for compression: " + compression, ex);
-      }
+    if (compression == null || compression.equalsIgnoreCase(NONE_COMPRESSION)) {
+      return IOUtils.newBufferedWriter(url, charset);
+    }
+    return new BufferedWriter(
+        new OutputStreamWriter(newCompressorOutputStream(url, compression), charset), BUFFER_SIZE);
+  }
+
+  /**
+   * Opens a buffered byte stream to the given URL, compressing the bytes written with the given
+   * compression format.
+   *
+   * @param url The URL to write to.
+   * @param compression The compression format to use, or {@code null} or {@value #NONE_COMPRESSION}
+   *     to disable compression.
+   * @return A buffered output stream.
+   * @throws IOException If the stream cannot be opened, or if the compression format is not
+   *     supported.
+   */
+  public static OutputStream newBufferedOutputStream(final URL url, final String compression)
+      throws IOException {
+    if (compression == null || compression.equalsIgnoreCase(NONE_COMPRESSION)) {
+      return IOUtils.newBufferedOutputStream(url);
+    }
+    return new BufferedOutputStream(newCompressorOutputStream(url, compression), BUFFER_SIZE);
+  }
+
+  private static OutputStream newCompressorOutputStream(final URL url, final String compression)
+      throws IOException {
+    String compressor = OUTPUT_COMPRESSORS.get(compression.toLowerCase());
+    if (compressor == null) {
+      throw new IOException("Unsupported compression format: " + compression);
+    }
+    OutputStream os = IOUtils.newBufferedOutputStream(url);
+    // gzip and zstd blocks are compressed in parallel, in a format that all readers can decompress
+    if (compressor.equals(CompressorStreamFactory.GZIP)) {
+      return ParallelCompressorOutputStream.gzip(
+          os, CompressorPool.EXECUTOR, CompressorPool.BLOCKS, COMPRESSION_PARALLELISM * 2);
+    }
+    if (compressor.equals(CompressorStreamFactory.ZSTANDARD)) {
+      return ParallelCompressorOutputStream.zstd(
+          os, CompressorPool.EXECUTOR, CompressorPool.BLOCKS, COMPRESSION_PARALLELISM * 2);
+    }
+    try {
+      return new CompressorStreamFactory().createCompressorOutputStream(compressor, os);
+    } catch (CompressorException ex) {
+      throw new IOException("Can't instantiate class for compression: " + compression, ex);
     }
-    return writer;
   }
 
   public static String getCompressionSuffix(final String compression) {
@@ -155,4 +197,31 @@ public final class CompressedIOUtils {
   public static boolean isNoneCompression(final String compression) {
     return NONE_COMPRESSION.equalsIgnoreCase(compression);
   }
+
+  /**
+   * Lazily creates the pool shared by all streams compressing blocks in parallel, and the blocks
+   * they compress; there are only enough blocks to keep the pool busy, whatever the number of
+   * streams.
+   */
+  private static final class CompressorPool {
+
+    private static final ExecutorService EXECUTOR =
+        Executors.newFixedThreadPool(
+            COMPRESSION_PARALLELISM,
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("compressor-%d").build());
+
+    private static final ParallelCompressorOutputStream.BlockPool BLOCKS =
+        new ParallelCompressorOutputStream.BlockPool(COMPRESSION_PARALLELISM * 2);
+  }
+
+  /**
+   * Lazily creates the pool shared by all streams decompressing ahead of their readers; each
+   * stream occupies one thread until it is entirely read or closed.
+   */
+  private static final class DecompressorPool {
+
+    private static final ExecutorService EXECUTOR =
+        Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("decompressor-%d").build());
+  }
 }
@@ -22,6 +22,7 @@ import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -30,11 +31,14 @@ import java.io.OutputStreamWriter;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.stream.Stream;
 
 public final class IOUtils {
@@ -86,6 +90,34 @@ public final class IOUtils {
         new InputStreamReader(newBufferedInputStream(url), charset), BUFFER_SIZE);
   }
 
+  /**
+   * Opens a reader for a byte range of a local file.
+   *
+   * <p>The returned reader starts reading at byte offset {@code start} and reports end-of-stream
+   * when byte offset {@code end} (exclusive) is reached. It is the caller's responsibility to make
+   * sure that both offsets fall on character boundaries for the given charset.
+   *
+   * @param file The file to read; must be a regular file on a known filesystem.
+   * @param start The offset of the first byte to read, inclusive.
+   * @param end The offset of the last byte to read, exclusive.
+   * @param charset The charset to use.
+   * @return A reader for the given byte range.
+   * @throws IOException If the file cannot be opened or positioned.
+   */
+  public static BufferedReader newBufferedReader(Path file, long start, long end, Charset charset)
+      throws IOException {
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+    try {
+      channel.position(start);
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+    InputStream in = new BoundedInputStream(Channels.newInputStream(channel), end - start);
+    return new BufferedReader(
+        new InputStreamReader(new BufferedInputStream(in, BUFFER_SIZE), charset), BUFFER_SIZE);
+  }
+
   public static BufferedWriter newBufferedWriter(URL url, Charset charset) throws IOException {
     return new BufferedWriter(
         new OutputStreamWriter(newBufferedOutputStream(url), charset), BUFFER_SIZE);
@@ -131,4 +163,56 @@ public final class IOUtils {
   public static boolean isStandardStream(@NonNull URL url) {
     return url.getProtocol().equalsIgnoreCase(STANDARD_STREAM_PROTOCOL);
   }
+
+  /** An input stream that reports end-of-stream after a fixed number of bytes. */
+  private static class BoundedInputStream extends FilterInputStream {
+
+    private long remaining;
+
+    private BoundedInputStream(InputStream in, long length) {
+      super(in);
+      remaining = length;
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (remaining <= 0) {
+        return -1;
+      }
+      int b = in.read();
+      if (b != -1) {
+        remaining--;
+      }
+      return b;
+    }
+
+    @Override
+    public int read(@NonNull byte[] b, int off, int len) throws IOException {
+      if (remaining <= 0) {
+        return -1;
+      }
+      int read = in.read(b, off, (int) Math.min(len, remaining));
+      if (read != -1) {
+        remaining -= read;
+      }
+      return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      long skipped = in.skip(Math.min(n, remaining));
+      remaining -= skipped;
+      return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+      return (int) Math.min(in.available(), remaining);
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+  }
 }
@@ -0,0 +1,416 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.io;
+
+import com.github.luben.zstd.Zstd;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * An output stream that compresses fixed-size blocks of data in parallel, and writes the compressed
+ * blocks in order to the underlying stream.
+ *
+ * <p>Blocks are compressed by a shared executor. The blocks being compressed come from a {@link
+ * BlockPool} shared by all streams, which bounds their number across streams, and reuses them once
+ * compressed; each stream only holds one block of its own, the one being filled. The number of
+ * compressed blocks waiting to be written is bounded per stream, so that a slow destination
+ * applies backpressure to the writer. The memory used is therefore about {@link #BLOCK_SIZE} per
+ * open stream, plus {@link #BLOCK_SIZE} per block in the pool, plus the compressed blocks not
+ * written yet.
+ *
+ * <p>{@link #flush()} compresses the block being filled even if it is not complete, then waits
+ * until all blocks are compressed and written, so that all the data written so far can be
+ * decompressed from the underlying stream; as with pigz, a gzip block is then ended with a sync
+ * flush. Flushing often therefore degrades the compression ratio.
+ *
+ * <p>This class is not thread-safe.
+ */
+final class ParallelCompressorOutputStream extends OutputStream {
+
+  static final int BLOCK_SIZE = 1024 * 1024;
+
+  private final OutputStream out;
+  private final BlockCompressor compressor;
+  private final ExecutorService executor;
+  private final BlockPool pool;
+  private final int maxPendingBlocks;
+  private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+
+  private byte[] block;
+  private int count;
+  @Nullable private byte[] dictionary;
+  private boolean closed;
+
+  /**
+   * Creates a stream writing a single gzip member, compatible with all gzip readers.
+   *
+   * <p>Each block is compressed as a sequence of raw deflate blocks ending on a byte boundary, and
+   * primed with the end of the previous block as dictionary, as pigz does; the concatenation of all
+   * blocks is therefore a valid deflate stream. The checksum is computed sequentially.
+   */
+  static ParallelCompressorOutputStream gzip(
+      @NonNull OutputStream out,
+      @NonNull ExecutorService executor,
+      @NonNull BlockPool pool,
+      int maxPendingBlocks)
+      throws IOException {
+    BlockCompressor compressor = new GzipBlockCompressor(Deflater.DEFAULT_COMPRESSION);
+    return new ParallelCompressorOutputStream(out, compressor, executor, pool, maxPendingBlocks);
+  }
+
+  /**
+   * Creates a stream writing one Zstandard frame per block; Zstandard readers decompress
+   * concatenated frames as a single stream.
+   */
+  static ParallelCompressorOutputStream zstd(
+      @NonNull OutputStream out,
+      @NonNull ExecutorService executor,
+      @NonNull BlockPool pool,
+      int maxPendingBlocks)
+      throws IOException {
+    BlockCompressor compressor = new ZstdBlockCompressor(ZstdBlockCompressor.DEFAULT_LEVEL);
+    return new ParallelCompressorOutputStream(out, compressor, executor, pool, maxPendingBlocks);
+  }
+
+  private ParallelCompressorOutputStream(
+      OutputStream out,
+      BlockCompressor compressor,
+      ExecutorService executor,
+      BlockPool pool,
+      int maxPendingBlocks)
+      throws IOException {
+    this.out = out;
+    this.compressor = compressor;
+    this.executor = executor;
+    this.pool = pool;
+    this.maxPendingBlocks = Math.max(1, maxPendingBlocks);
+    block = pool.take();
+    compressor.writeHeader(out);
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    ensureOpen();
+    if (count == BLOCK_SIZE) {
+      submit(false);
+    }
+    block[count++] = (byte) b;
+  }
+
+  @Override
+  public void write(@NonNull byte[] b, int off, int len) throws IOException {
+    ensureOpen();
+    while (len > 0) {
+      if (count == BLOCK_SIZE) {
+        submit(false);
+      }
+      int n = Math.min(len, BLOCK_SIZE - count);
+      System.arraycopy(b, off, block, count, n);
+      count += n;
+      off += n;
+      len -= n;
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    ensureOpen();
+    if (count > 0) {
+      submit(false);
+    }
+    writeCompleted(true);
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      submit(true);
+      writeCompleted(true);
+      compressor.writeTrailer(out);
+    } finally {
+      // pending tasks are not cancelled: they must run to give their blocks back to the pool
+      pending.clear();
+      out.close();
+    }
+  }
+
+  private void submit(boolean last) throws IOException {
+    byte[] data = block;
+    int length = count;
+    pool.acquire();
+    compressor.update(data, length);
+    Callable<byte[]> task = compressor.compress(data, length, dictionary, last);
+    // the block is given back to the pool, and can be overwritten, as soon as it is compressed: the
+    // dictionary of the next block, if any, must be copied beforehand.
+    dictionary = last ? null : compressor.dictionary(data, length);
+    try {
+      pending.add(
+          executor.submit(
+              () -> {
+                try {
+                  return task.call();
+                } finally {
+                  pool.release(data);
+                }
+              }));
+    } catch (RuntimeException e) {
+      pool.release(data);
+      throw e;
+    }
+    block = last ? null : pool.take();
+    count = 0;
+    while (pending.size() >= maxPendingBlocks) {
+      writeNext();
+    }
+    writeCompleted(false);
+  }
+
+  private void writeCompleted(boolean all) throws IOException {
+    while (!pending.isEmpty() && (all || pending.peek().isDone())) {
+      writeNext();
+    }
+  }
+
+  private void writeNext() throws IOException {
+    Future<byte[]> future = pending.remove();
+    try {
+      out.write(future.get());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while compressing", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      throw new IOException("Could not compress block", cause);
+    }
+  }
+
+  private void ensureOpen() throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+  }
+
+  private interface BlockCompressor {
+
+    void writeHeader(OutputStream out) throws IOException;
+
+    /** Called sequentially, in order, for each block before it is compressed. */
+    void update(byte[] data, int length);
+
+    Callable<byte[]> compress(byte[] data, int length, @Nullable byte[] dictionary, boolean last);
+
+    /** @return The dictionary to compress the block following the given one with, if any. */
+    @Nullable
+    byte[] dictionary(byte[] data, int length);
+
+    void writeTrailer(OutputStream out) throws IOException;
+  }
+
+  private static final class GzipBlockCompressor implements BlockCompressor {
+
+    private static final int MAX_DICTIONARY_SIZE = 32 * 1024;
+
+    private static final byte[] HEADER = {
+      (byte) 0x1f, (byte) 0x8b, // magic
+      Deflater.DEFLATED, // compression method
+      0, // flags
+      0, 0, 0, 0, // modification time: none
+      0, // extra flags
+      (byte) 0xff // operating system: unknown
+    };
+
+    private final int level;
+    private final CRC32 crc = new CRC32();
+    private long size;
+
+    private GzipBlockCompressor(int level) {
+      this.level = level;
+    }
+
+    @Override
+    public void writeHeader(OutputStream out) throws IOException {
+      out.write(HEADER);
+    }
+
+    @Override
+    public void update(byte[] data, int length) {
+      crc.update(data, 0, length);
+      size += length;
+    }
+
+    @Override
+    public Callable<byte[]> compress(
+        byte[] data, int length, @Nullable byte[] dictionary, boolean last) {
+      return () -> {
+        Deflater deflater = new Deflater(level, true);
+        try {
+          if (dictionary != null) {
+            deflater.setDictionary(dictionary);
+          }
+          deflater.setInput(data, 0, length);
+          ByteArrayOutputStream compressed = new ByteArrayOutputStream(length / 2 + 64);
+          byte[] buffer = new byte[64 * 1024];
+          if (last) {
+            deflater.finish();
+            while (!deflater.finished()) {
+              int n = deflater.deflate(buffer);
+              compressed.write(buffer, 0, n);
+            }
+          } else {
+            // a sync flush ends the block on a byte boundary, without marking it as final
+            int n;
+            do {
+              n = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+              compressed.write(buffer, 0, n);
+            } while (n == buffer.length);
+          }
+          return compressed.toByteArray();
+        } finally {
+          deflater.end();
+        }
+      };
+    }
+
+    @Override
+    public byte[] dictionary(byte[] data, int length) {
+      return Arrays.copyOfRange(data, Math.max(0, length - MAX_DICTIONARY_SIZE), length);
+    }
+
+    @Override
+    public void writeTrailer(OutputStream out) throws IOException {
+      writeIntLE(out, crc.getValue());
+      writeIntLE(out, size);
+    }
+
+    private static void writeIntLE(OutputStream out, long value) throws IOException {
+      out.write((int) (value & 0xff));
+      out.write((int) ((value >>> 8) & 0xff));
+      out.write((int) ((value >>> 16) & 0xff));
+      out.write((int) ((value >>> 24) & 0xff));
+    }
+  }
+
+  private static final class ZstdBlockCompressor implements BlockCompressor {
+
+    private static final int DEFAULT_LEVEL = 3;
+
+    private final int level;
+    private boolean written;
+
+    private ZstdBlockCompressor(int level) {
+      this.level = level;
+    }
+
+    @Override
+    public void writeHeader(OutputStream out) {}
+
+    @Override
+    public void update(byte[] data, int length) {}
+
+    @Override
+    public Callable<byte[]> compress(
+        byte[] data, int length, @Nullable byte[] dictionary, boolean last) {
+      if (last && length == 0 && written) {
+        return () -> new byte[0];
+      }
+      written = true;
+      return () ->
+          Zstd.compress(length == data.length ? data : Arrays.copyOf(data, length), level);
+    }
+
+    @Nullable
+    @Override
+    public byte[] dictionary(byte[] data, int length) {
+      return null;
+    }
+
+    @Override
+    public void writeTrailer(OutputStream out) {}
+  }
+
+  /**
+   * A pool of blocks shared by streams compressing on the same executor.
+   *
+   * <p>The pool bounds the number of blocks being compressed across all streams: a stream waits
+   * until a block is given back before submitting another one. Blocks are given back as soon as
+   * they are compressed, never by the streams themselves, so a stream that is not written to does
+   * not prevent other streams from making progress. The pool keeps the blocks given back to reuse
+   * them, up to its maximum number of blocks.
+   *
+   * <p>This class is thread-safe.
+   */
+  static final class BlockPool {
+
+    private final Semaphore permits;
+    private final Queue<byte[]> free = new ConcurrentLinkedQueue<>();
+
+    /** @param maxBlocks The maximum number of blocks being compressed at the same time. */
+    BlockPool(int maxBlocks) {
+      permits = new Semaphore(Math.max(1, maxBlocks));
+    }
+
+    /** @return The number of blocks that can be submitted without waiting. */
+    int available() {
+      return permits.availablePermits();
+    }
+
+    /** Waits until a block can be submitted for compression. */
+    private void acquire() throws IOException {
+      try {
+        permits.acquire();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for a block to compress");
+      }
+    }
+
+    /** @return A free block, or a new one if no block is free. */
+    private byte[] take() {
+      byte[] block = free.poll();
+      return block == null ? new byte[BLOCK_SIZE] : block;
+    }
+
+    /** Gives back a block that was submitted for compression. */
+    private void release(byte[] block) {
+      free.offer(block);
+      permits.release();
+    }
+  }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.io;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An input stream that reads its underlying stream ahead of time on another thread.
+ *
+ * <p>The underlying stream is read into a fixed number of reusable buffers: the reading thread
+ * fills free buffers and hands them over to the consumer, which gives them back once consumed. The
+ * reading thread therefore never gets more than the number of buffers ahead of the consumer.
+ *
+ * <p>This is typically used to decompress a stream while the consumer parses the data already
+ * decompressed.
+ *
+ * <p>This class is not thread-safe: it must be consumed by one thread at a time.
+ */
+final class ReadAheadInputStream extends InputStream {
+
+  private static final Chunk EOF = new Chunk(new byte[0], -1, null);
+
+  private final InputStream in;
+  private final BlockingQueue<byte[]> free;
+  private final BlockingQueue<Chunk> filled;
+  private final AtomicBoolean started = new AtomicBoolean(false);
+  private final CountDownLatch done = new CountDownLatch(1);
+  private final Future<?> reader;
+
+  @Nullable private Chunk current;
+  @Nullable private Throwable failure;
+  private int position;
+  private boolean closed;
+
+  /**
+   * Creates a new stream and starts reading ahead.
+   *
+   * @param in The stream to read ahead; it is closed when this stream is closed.
+   * @param executor The executor to read ahead with; the task submitted runs until the stream is
+   *     entirely read, or until this stream is closed, so the executor should not be bounded.
+   * @param buffers The number of buffers to fill ahead of the consumer.
+   * @param bufferSize The size of each buffer.
+   */
+  ReadAheadInputStream(
+      @NonNull InputStream in, @NonNull ExecutorService executor, int buffers, int bufferSize) {
+    this.in = in;
+    free = new ArrayBlockingQueue<>(buffers);
+    // one more slot for the end-of-stream marker
+    filled = new ArrayBlockingQueue<>(buffers + 1);
+    for (int i = 0; i < buffers; i++) {
+      free.add(new byte[bufferSize]);
+    }
+    reader = executor.submit(this::readAhead);
+  }
+
+  @Override
+  public int read() throws IOException {
+    Chunk chunk = nextChunk();
+    if (chunk == EOF) {
+      return -1;
+    }
+    return chunk.buffer[position++] & 0xff;
+  }
+
+  @Override
+  public int read(@NonNull byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    Chunk chunk = nextChunk();
+    if (chunk == EOF) {
+      return -1;
+    }
+    int n = Math.min(len, chunk.length - position);
+    System.arraycopy(chunk.buffer, position, b, off, n);
+    position += n;
+    return n;
+  }
+
+  @Override
+  public int available() throws IOException {
+    ensureOpen();
+    return current == null || current == EOF ? 0 : current.length - position;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (started.compareAndSet(false, true)) {
+      // the reading task never started and won't start anymore
+      reader.cancel(false);
+      in.close();
+    } else {
+      reader.cancel(true);
+      try {
+        // wait until the reading task has closed the underlying stream
+        done.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while closing stream");
+      }
+    }
+  }
+
+  /**
+   * Returns the chunk to read from, waiting for the reading thread if the current chunk was
+   * entirely consumed.
+   */
+  private Chunk nextChunk() throws IOException {
+    ensureOpen();
+    if (failure != null) {
+      throw failure();
+    }
+    while (current == null || (current != EOF && position == current.length)) {
+      if (current != null) {
+        free.add(current.buffer);
+      }
+      try {
+        current = filled.take();
+      } catch (InterruptedException e) {
+        current = null;
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for data");
+      }
+      position = 0;
+      if (current.error != null) {
+        failure = current.error;
+        current = null;
+        throw failure();
+      }
+    }
+    return current;
+  }
+
+  private void readAhead() {
+    if (!started.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      while (true) {
+        byte[] buffer = free.take();
+        int length = 0;
+        int n = 0;
+        while (length < buffer.length) {
+          n = in.read(buffer, length, buffer.length - length);
+          if (n == -1) {
+            break;
+          }
+          length += n;
+        }
+        if (length > 0) {
+          filled.put(new Chunk(buffer, length, null));
+        }
+        if (n == -1) {
+          filled.put(EOF);
+          break;
+        }
+      }
+    } catch (InterruptedException ignored) {
+      // the stream was closed
+    } catch (Throwable t) {
+      filled.offer(new Chunk(EOF.buffer, 0, t));
+    } finally {
+      try {
+        in.close();
+      } catch (IOException ignored) {
+        // nothing to do
+      }
+      done.countDown();
+    }
+  }
+
+  private IOException failure() {
+    if (failure instanceof IOException) {
+      return (IOException) failure;
+    }
+    return new IOException("Could not read stream", failure);
+  }
+
+  private void ensureOpen() throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+  }
+
+  private static final class Chunk {
+
+    private final byte[] buffer;
+    private final int length;
+    @Nullable private final Throwable error;
+
+    private Chunk(byte[] buffer, int length, @Nullable Throwable error) {
+      this.buffer = buffer;
+      this.length = length;
+      this.error = error;
+    }
+  }
+}
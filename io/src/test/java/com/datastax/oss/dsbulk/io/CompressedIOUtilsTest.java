@@ -21,19 +21,26 @@ import static org.junit.jupiter.params.provider.Arguments.arguments;
 
 import com.datastax.oss.driver.shaded.guava.common.base.Charsets;
 import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.LineNumberReader;
+import java.io.OutputStream;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 class CompressedIOUtilsTest {
 
@@ -136,6 +143,19 @@ class CompressedIOUtilsTest {
         arguments("test.zstd", CompressedIOUtils.ZSTD_COMPRESSION));
   }
 
+  @Test
+  void should_read_concatenated_gzip_members() throws IOException {
+    Path path = Files.createTempFile("dsbulk-", "-compress.gz");
+    try (OutputStream out = Files.newOutputStream(path)) {
+      for (String member : new String[] {"this is\n", "a\n", "test file\n"}) {
+        GZIPOutputStream gzip = new GZIPOutputStream(out);
+        gzip.write(member.getBytes(Charsets.UTF_8));
+        gzip.finish();
+      }
+    }
+    assertCanReadCompressed(path.toUri().toURL(), CompressedIOUtils.GZIP_COMPRESSION);
+  }
+
   @ParameterizedTest(
       name = "[{index}] Should throw exception when reading {0} with compression {1}")
   @MethodSource
@@ -176,6 +196,67 @@ class CompressedIOUtilsTest {
         arguments("deflate"));
   }
 
+  @ParameterizedTest(name = "[{index}] Should write bytes with compression {0}")
+  @MethodSource("should_write_compressed_file")
+  @DisplayName("Should be able to write compressed bytes")
+  void should_write_compressed_bytes(String compression) throws IOException {
+    Path path =
+        Files.createTempFile(
+            "dsbulk-", "-compress" + CompressedIOUtils.getCompressionSuffix(compression));
+    Files.delete(path);
+    URL url = path.toUri().toURL();
+    try (OutputStream out = CompressedIOUtils.newBufferedOutputStream(url, compression)) {
+      out.write("this is\na\ntest file\n".getBytes(Charsets.UTF_8));
+    }
+    assertCanReadCompressed(url, compression);
+  }
+
+  @ParameterizedTest(name = "[{index}] Should write many blocks with compression {0}")
+  @ValueSource(strings = {"gzip", "zstd"})
+  @DisplayName("Should be able to write compressed file spanning many blocks")
+  void should_write_compressed_file_with_many_blocks(String compression) throws IOException {
+    Path path =
+        Files.createTempFile(
+            "dsbulk-", "-compress" + CompressedIOUtils.getCompressionSuffix(compression));
+    Files.delete(path);
+    URL url = path.toUri().toURL();
+    List<String> expected = new ArrayList<>();
+    for (int i = 0; i < 200_000; i++) {
+      expected.add("line " + i + "," + Integer.toHexString(i * 31));
+    }
+    try (BufferedWriter writer =
+        CompressedIOUtils.newBufferedWriter(url, Charsets.UTF_8, compression)) {
+      for (String line : expected) {
+        writer.write(line);
+        writer.newLine();
+      }
+    }
+    assertThat(readCompressed(url, compression)).isEqualTo(expected);
+  }
+
+  @Test
+  void should_write_gzip_file_readable_by_standard_readers() throws IOException {
+    Path path = Files.createTempFile("dsbulk-", "-compress.gz");
+    Files.delete(path);
+    URL url = path.toUri().toURL();
+    byte[] data = new byte[3 * ParallelCompressorOutputStream.BLOCK_SIZE + 17];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) (i % 7 == 0 ? i * 13 : 'a' + (i / 11) % 26);
+    }
+    try (OutputStream out = CompressedIOUtils.newBufferedOutputStream(url, "gzip")) {
+      out.write(data);
+    }
+    try (InputStream in = new GZIPInputStream(Files.newInputStream(path))) {
+      ByteArrayOutputStream actual = new ByteArrayOutputStream();
+      byte[] buffer = new byte[8192];
+      int n;
+      while ((n = in.read(buffer)) != -1) {
+        actual.write(buffer, 0, n);
+      }
+      assertThat(actual.toByteArray()).isEqualTo(data);
+    }
+  }
+
   @ParameterizedTest(
       name = "[{index}] Should throw exception when writing {0} with compression {1}")
   @MethodSource
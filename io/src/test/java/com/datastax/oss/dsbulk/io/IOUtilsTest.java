@@ -15,11 +15,17 @@
  */
 package com.datastax.oss.dsbulk.io;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.datastax.oss.dsbulk.url.BulkLoaderURLStreamHandlerFactory;
+import java.io.BufferedReader;
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.Test;
 
 class IOUtilsTest {
@@ -33,4 +39,20 @@ class IOUtilsTest {
     assertThat(IOUtils.isStandardStream(new URL("http://acme.com"))).isFalse();
     assertThat(IOUtils.isStandardStream(new URL("std:/"))).isTrue();
   }
+
+  @Test
+  void should_read_byte_range() throws IOException {
+    Path file = Files.createTempFile("range", ".txt");
+    try {
+      Files.write(file, "line1\nline2\nline3\n".getBytes(UTF_8));
+      try (BufferedReader reader = IOUtils.newBufferedReader(file, 6, 18, UTF_8)) {
+        assertThat(reader.lines().collect(Collectors.toList())).containsExactly("line2", "line3");
+      }
+      try (BufferedReader reader = IOUtils.newBufferedReader(file, 0, 6, UTF_8)) {
+        assertThat(reader.lines().collect(Collectors.toList())).containsExactly("line1");
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.io;
+
+import static com.datastax.oss.dsbulk.io.ParallelCompressorOutputStream.BLOCK_SIZE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.datastax.oss.dsbulk.io.ParallelCompressorOutputStream.BlockPool;
+import com.github.luben.zstd.ZstdInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ParallelCompressorOutputStreamTest {
+
+  private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(2);
+
+  @AfterAll
+  static void shutdownExecutor() {
+    EXECUTOR.shutdownNow();
+  }
+
+  @ParameterizedTest(name = "[{index}] Should share blocks between streams with compression {0}")
+  @ValueSource(strings = {"gzip", "zstd"})
+  void should_share_bounded_block_pool_between_streams(String compression) throws IOException {
+    // a single block for two streams: each stream must wait until the other's block is compressed
+    BlockPool pool = new BlockPool(1);
+    byte[] data1 = data(3 * BLOCK_SIZE + 17, 7);
+    byte[] data2 = data(2 * BLOCK_SIZE + 42, 11);
+    ByteArrayOutputStream out1 = new ByteArrayOutputStream();
+    ByteArrayOutputStream out2 = new ByteArrayOutputStream();
+    try (OutputStream stream1 = newStream(compression, out1, pool);
+        OutputStream stream2 = newStream(compression, out2, pool)) {
+      int chunk = BLOCK_SIZE / 3;
+      for (int off = 0; off < Math.max(data1.length, data2.length); off += chunk) {
+        if (off < data1.length) {
+          stream1.write(data1, off, Math.min(chunk, data1.length - off));
+        }
+        if (off < data2.length) {
+          stream2.write(data2, off, Math.min(chunk, data2.length - off));
+        }
+      }
+    }
+    assertThat(decompress(compression, out1.toByteArray())).isEqualTo(data1);
+    assertThat(decompress(compression, out2.toByteArray())).isEqualTo(data2);
+    assertThat(pool.available()).isOne();
+  }
+
+  @ParameterizedTest(name = "[{index}] Should flush partial blocks with compression {0}")
+  @ValueSource(strings = {"gzip", "zstd"})
+  void should_flush_partial_block(String compression) throws IOException {
+    BlockPool pool = new BlockPool(2);
+    byte[] data1 = data(BLOCK_SIZE + 100, 7);
+    byte[] data2 = data(50, 11);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (OutputStream stream = newStream(compression, out, pool)) {
+      stream.write(data1);
+      stream.flush();
+      // everything written so far can be decompressed before the stream is closed
+      assertThat(decompressPrefix(compression, out.toByteArray(), data1.length)).isEqualTo(data1);
+      stream.write(data2);
+      stream.flush();
+      byte[] expected = concat(data1, data2);
+      assertThat(decompressPrefix(compression, out.toByteArray(), expected.length))
+          .isEqualTo(expected);
+    }
+    assertThat(decompress(compression, out.toByteArray())).isEqualTo(concat(data1, data2));
+    assertThat(pool.available()).isEqualTo(2);
+  }
+
+  private static OutputStream newStream(String compression, OutputStream out, BlockPool pool)
+      throws IOException {
+    return compression.equals("gzip")
+        ? ParallelCompressorOutputStream.gzip(out, EXECUTOR, pool, 4)
+        : ParallelCompressorOutputStream.zstd(out, EXECUTOR, pool, 4);
+  }
+
+  private static byte[] decompress(String compression, byte[] compressed) throws IOException {
+    InputStream in = new ByteArrayInputStream(compressed);
+    try (InputStream decompressed =
+        compression.equals("gzip") ? new GZIPInputStream(in) : new ZstdInputStream(in)) {
+      ByteArrayOutputStream actual = new ByteArrayOutputStream();
+      byte[] buffer = new byte[8192];
+      int n;
+      while ((n = decompressed.read(buffer)) != -1) {
+        actual.write(buffer, 0, n);
+      }
+      return actual.toByteArray();
+    }
+  }
+
+  /** Decompresses the given number of bytes from a stream that is not complete yet. */
+  private static byte[] decompressPrefix(String compression, byte[] compressed, int length)
+      throws IOException {
+    InputStream in;
+    if (compression.equals("gzip")) {
+      // the trailer is not written yet: skip the header and read the raw deflate stream
+      in =
+          new InflaterInputStream(
+              new ByteArrayInputStream(compressed, 10, compressed.length - 10),
+              new Inflater(true));
+    } else {
+      in = new ZstdInputStream(new ByteArrayInputStream(compressed));
+    }
+    try (DataInputStream decompressed = new DataInputStream(in)) {
+      byte[] actual = new byte[length];
+      decompressed.readFully(actual);
+      return actual;
+    }
+  }
+
+  private static byte[] concat(byte[] data1, byte[] data2) {
+    byte[] data = Arrays.copyOf(data1, data1.length + data2.length);
+    System.arraycopy(data2, 0, data, data1.length, data2.length);
+    return data;
+  }
+
+  private static byte[] data(int length, int seed) {
+    byte[] data = new byte[length];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) (i % seed == 0 ? i * 13 : 'a' + (i / seed) % 26);
+    }
+    return data;
+  }
+}
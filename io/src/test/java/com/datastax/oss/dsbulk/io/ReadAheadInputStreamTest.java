@@ -0,0 +1,114 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ReadAheadInputStreamTest {
+
+  private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool();
+
+  @AfterAll
+  static void shutdownExecutor() {
+    EXECUTOR.shutdownNow();
+  }
+
+  @ParameterizedTest(name = "[{index}] Should read {0} bytes")
+  @ValueSource(ints = {0, 1, 1023, 1024, 1025, 100_000})
+  void should_read_whole_stream(int size) throws IOException {
+    byte[] data = new byte[size];
+    new Random(size).nextBytes(data);
+    ByteArrayOutputStream actual = new ByteArrayOutputStream();
+    try (InputStream in =
+        new ReadAheadInputStream(new ByteArrayInputStream(data), EXECUTOR, 3, 1024)) {
+      byte[] buffer = new byte[700];
+      int n;
+      while ((n = in.read(buffer)) != -1) {
+        actual.write(buffer, 0, n);
+        int b = in.read();
+        if (b != -1) {
+          actual.write(b);
+        }
+      }
+      assertThat(in.read()).isEqualTo(-1);
+    }
+    assertThat(actual.toByteArray()).isEqualTo(data);
+  }
+
+  @Test
+  void should_rethrow_read_errors() throws IOException {
+    InputStream failing =
+        new InputStream() {
+          private int read;
+
+          @Override
+          public int read() throws IOException {
+            if (read++ == 5000) {
+              throw new IOException("boom");
+            }
+            return 1;
+          }
+        };
+    try (InputStream in = new ReadAheadInputStream(failing, EXECUTOR, 2, 1024)) {
+      byte[] buffer = new byte[100];
+      assertThatThrownBy(
+              () -> {
+                while (in.read(buffer) != -1) {
+                  // keep reading
+                }
+              })
+          .isInstanceOf(IOException.class)
+          .hasMessage("boom");
+      assertThatThrownBy(in::read).isInstanceOf(IOException.class).hasMessage("boom");
+    }
+  }
+
+  @Test
+  void should_close_underlying_stream_when_closed_before_end() throws IOException {
+    AtomicBoolean closed = new AtomicBoolean(false);
+    InputStream endless =
+        new InputStream() {
+          @Override
+          public int read() {
+            return 1;
+          }
+
+          @Override
+          public void close() {
+            closed.set(true);
+          }
+        };
+    InputStream in = new ReadAheadInputStream(endless, EXECUTOR, 2, 1024);
+    assertThat(in.read()).isOne();
+    in.close();
+    assertThat(closed).isTrue();
+    assertThatThrownBy(in::read).isInstanceOf(IOException.class).hasMessage("Stream closed");
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.partitioner;
+
+import static com.datastax.oss.simulacron.common.stubbing.PrimeDsl.noRows;
+import static com.datastax.oss.simulacron.common.stubbing.PrimeDsl.rows;
+import static com.datastax.oss.simulacron.common.stubbing.PrimeDsl.serverError;
+import static com.datastax.oss.simulacron.common.stubbing.PrimeDsl.when;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
+import com.datastax.oss.driver.internal.core.metadata.token.Murmur3Token;
+import com.datastax.oss.dsbulk.partitioner.murmur3.Murmur3BulkTokenFactory;
+import com.datastax.oss.dsbulk.tests.simulacron.SimulacronExtension;
+import com.datastax.oss.dsbulk.tests.simulacron.SimulacronUtils;
+import com.datastax.oss.dsbulk.tests.simulacron.annotations.SimulacronConfig;
+import com.datastax.oss.simulacron.common.cluster.QueryLog;
+import com.datastax.oss.simulacron.common.stubbing.PrimeDsl.RowBuilder;
+import com.datastax.oss.simulacron.server.BoundCluster;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(SimulacronExtension.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SimulacronConfig(numberOfNodes = {3})
+class TokenRangeSizeEstimatesSimulacronIT {
+
+  private static final String SELECT_SIZE_ESTIMATES =
+      "SELECT range_start, range_end, partitions_count, mean_partition_size "
+          + "FROM system.size_estimates WHERE keyspace_name = 'ks' AND table_name = 't'";
+
+  private static final CqlIdentifier KS = CqlIdentifier.fromInternal("ks");
+  private static final CqlIdentifier TABLE = CqlIdentifier.fromInternal("t");
+
+  private final Murmur3BulkTokenFactory tokenFactory = new Murmur3BulkTokenFactory();
+
+  // A ring with 3 ranges, the last one wraps around the ring
+  private final List<BulkTokenRange> ring =
+      Arrays.asList(
+          range(-6148914691236517206L, -3074457345618258603L),
+          range(-3074457345618258603L, 3074457345618258602L),
+          range(3074457345618258602L, -6148914691236517206L));
+
+  private final BoundCluster simulacron;
+  private final CqlSession session;
+
+  TokenRangeSizeEstimatesSimulacronIT(BoundCluster simulacron, CqlSession session) {
+    this.simulacron = simulacron;
+    this.session = session;
+  }
+
+  @BeforeEach
+  void primeQueries() {
+    SimulacronUtils.primeSystemLocal(simulacron, Collections.emptyMap());
+    SimulacronUtils.primeSystemPeers(simulacron);
+    SimulacronUtils.primeSystemPeersV2(simulacron);
+  }
+
+  @Test
+  void should_fetch_size_estimates_from_all_nodes() {
+    // each range contains 10 times more data than the previous one
+    RowBuilder rows = rows();
+    long partitions = 1000;
+    for (BulkTokenRange range : ring) {
+      List<TokenRange> unwrapped = range.unwrap();
+      for (TokenRange r : unwrapped) {
+        rows.row(
+                "range_start",
+                tokenFactory.format(r.getStart()),
+                "range_end",
+                tokenFactory.format(r.getEnd()),
+                "partitions_count",
+                partitions / unwrapped.size(),
+                "mean_partition_size",
+                100L)
+            .columnTypes(
+                "range_start",
+                "varchar",
+                "range_end",
+                "varchar",
+                "partitions_count",
+                "bigint",
+                "mean_partition_size",
+                "bigint");
+      }
+      partitions *= 10;
+    }
+    simulacron.prime(when(SELECT_SIZE_ESTIMATES).then(rows));
+
+    TokenRangeSizeEstimates sizeEstimates =
+        TokenRangeSizeEstimates.fetch(session, KS, TABLE, tokenFactory);
+
+    assertThat(sizeEstimates.isEmpty()).isFalse();
+    // every node should have been queried once
+    assertThat(
+            simulacron.getLogs().getQueryLogs().stream()
+                .filter(log -> log.getQuery().equals(SELECT_SIZE_ESTIMATES))
+                .map(QueryLog::getConnection)
+                .distinct())
+        .hasSize(session.getMetadata().getNodes().size());
+    ToDoubleFunction<BulkTokenRange> weigher = sizeEstimates.weigher(ring);
+    assertThat(weigher).isNotNull();
+    assertThat(weigher.applyAsDouble(ring.get(0))).isEqualTo(1d / 111d, offset(.000001d));
+    assertThat(weigher.applyAsDouble(ring.get(1))).isEqualTo(10d / 111d, offset(.000001d));
+    assertThat(weigher.applyAsDouble(ring.get(2))).isEqualTo(100d / 111d, offset(.000001d));
+  }
+
+  @Test
+  void should_ignore_nodes_failing_to_report_size_estimates() {
+    simulacron.node(0).prime(when(SELECT_SIZE_ESTIMATES).then(serverError("boom")));
+    simulacron.node(1).prime(when(SELECT_SIZE_ESTIMATES).then(noRows()));
+    simulacron
+        .node(2)
+        .prime(
+            when(SELECT_SIZE_ESTIMATES)
+                .then(
+                    rows()
+                        .row(
+                            "range_start",
+                            tokenFactory.format(ring.get(1).getStart()),
+                            "range_end",
+                            tokenFactory.format(ring.get(1).getEnd()),
+                            "partitions_count",
+                            1000L,
+                            "mean_partition_size",
+                            100L)
+                        .columnTypes(
+                            "range_start",
+                            "varchar",
+                            "range_end",
+                            "varchar",
+                            "partitions_count",
+                            "bigint",
+                            "mean_partition_size",
+                            "bigint")));
+
+    TokenRangeSizeEstimates sizeEstimates =
+        TokenRangeSizeEstimates.fetch(session, KS, TABLE, tokenFactory);
+
+    assertThat(sizeEstimates.isEmpty()).isFalse();
+    // missing ranges are assumed to have the same density as range 2
+    ToDoubleFunction<BulkTokenRange> weigher = sizeEstimates.weigher(ring);
+    assertThat(weigher).isNotNull();
+    for (BulkTokenRange range : ring) {
+      assertThat(weigher.applyAsDouble(range)).isEqualTo(range.fraction(), offset(.000001d));
+    }
+  }
+
+  private BulkTokenRange range(long start, long end) {
+    return tokenFactory.range(
+        new Murmur3Token(start), new Murmur3Token(end), Collections.emptySet());
+  }
+}
@@ -21,22 +21,42 @@ import com.datastax.oss.driver.api.core.metadata.Node;
 import com.datastax.oss.driver.api.core.metadata.TokenMap;
 import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class PartitionGenerator {
 
+  private static final Logger LOGGER = LoggerFactory.getLogger(PartitionGenerator.class);
+
   private final CqlIdentifier keyspace;
   private final BulkTokenFactory tokenFactory;
   private final TokenMap tokenMap;
+  private final TokenRangeSizeEstimates sizeEstimates;
 
   public PartitionGenerator(
       CqlIdentifier keyspace, TokenMap tokenMap, BulkTokenFactory tokenFactory) {
+    this(keyspace, tokenMap, tokenFactory, null);
+  }
+
+  /**
+   * Creates a partition generator that uses the given size estimates, if any, to produce splits
+   * containing roughly the same amount of data, rather than the same number of tokens.
+   */
+  public PartitionGenerator(
+      CqlIdentifier keyspace,
+      TokenMap tokenMap,
+      BulkTokenFactory tokenFactory,
+      @Nullable TokenRangeSizeEstimates sizeEstimates) {
     this.keyspace = keyspace;
     this.tokenMap = tokenMap;
     this.tokenFactory = tokenFactory;
+    this.sizeEstimates = sizeEstimates;
   }
 
   /**
@@ -49,11 +69,12 @@ public class PartitionGenerator {
     List<BulkTokenRange> tokenRanges = describeRing(splitCount);
     int endpointCount = (int) tokenRanges.stream().map(BulkTokenRange::replicas).distinct().count();
     int maxGroupSize = tokenRanges.size() / endpointCount;
+    ToDoubleFunction<BulkTokenRange> weigher = weigher(tokenRanges, splitCount);
     TokenRangeSplitter splitter = tokenFactory.splitter();
-    List<BulkTokenRange> splits = splitter.split(tokenRanges, splitCount);
+    List<BulkTokenRange> splits = splitter.split(tokenRanges, splitCount, weigher);
     checkRing(splits);
     TokenRangeClusterer clusterer = tokenFactory.clusterer();
-    List<BulkTokenRange> groups = clusterer.group(splits, splitCount, maxGroupSize);
+    List<BulkTokenRange> groups = clusterer.group(splits, splitCount, maxGroupSize, weigher);
     checkRing(groups);
     return groups;
   }
@@ -70,6 +91,20 @@ public class PartitionGenerator {
     }
   }
 
+  private ToDoubleFunction<BulkTokenRange> weigher(
+      List<BulkTokenRange> tokenRanges, int splitCount) {
+    if (sizeEstimates != null && splitCount > 1) {
+      ToDoubleFunction<BulkTokenRange> weigher = sizeEstimates.weigher(tokenRanges);
+      if (weigher != null) {
+        return weigher;
+      }
+      LOGGER.warn(
+          "Size estimates are not available for the table being read, "
+              + "token ranges will be split by token count instead.");
+    }
+    return BulkTokenRange::fraction;
+  }
+
   private BulkTokenRange toBulkRange(TokenRange range) {
     Set<EndPoint> replicas =
         tokenMap.getReplicas(keyspace, range).stream()
@@ -26,6 +26,7 @@ import com.datastax.oss.driver.api.core.metadata.schema.RelationMetadata;
 import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
 import com.datastax.oss.driver.internal.core.metadata.token.DefaultTokenMap;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
@@ -36,6 +37,8 @@ public class TokenRangeReadStatementGenerator {
 
   private final RelationMetadata table;
   private final TokenMap tokenMap;
+  private final BulkTokenFactory tokenFactory;
+  private final TokenRangeSizeEstimates sizeEstimates;
 
   /**
    * @param table The table (or materialized view) to scan.
@@ -43,11 +46,35 @@ public class TokenRangeReadStatementGenerator {
    */
   public TokenRangeReadStatementGenerator(
       @NonNull RelationMetadata table, @NonNull Metadata metadata) {
+    this(table, metadata, null);
+  }
+
+  /**
+   * @param table The table (or materialized view) to scan.
+   * @param metadata The cluster metadata to use.
+   * @param sizeEstimates The table's size estimates, if token ranges should be split so that each
+   *     split contains roughly the same amount of data; or {@code null}, if token ranges should be
+   *     split so that each split contains roughly the same number of tokens.
+   */
+  public TokenRangeReadStatementGenerator(
+      @NonNull RelationMetadata table,
+      @NonNull Metadata metadata,
+      @Nullable TokenRangeSizeEstimates sizeEstimates) {
     this.table = table;
+    this.sizeEstimates = sizeEstimates;
     tokenMap =
         metadata
             .getTokenMap()
             .orElseThrow(() -> new IllegalStateException("Token metadata not present"));
+    tokenFactory =
+        BulkTokenFactory.forPartitioner(
+            ((DefaultTokenMap) tokenMap).getTokenFactory().getPartitionerName());
+  }
+
+  /** @return The token factory for the cluster's partitioner. */
+  @NonNull
+  public BulkTokenFactory getTokenFactory() {
+    return tokenFactory;
   }
 
   /**
@@ -95,31 +122,58 @@ public class TokenRangeReadStatementGenerator {
   @NonNull
   public List<Statement<?>> generate(
       int splitCount, @NonNull Function<TokenRange, Statement<?>> statementFactory) {
-    BulkTokenFactory tokenFactory =
-        BulkTokenFactory.forPartitioner(
-            ((DefaultTokenMap) tokenMap).getTokenFactory().getPartitionerName());
-    PartitionGenerator generator =
-        new PartitionGenerator(table.getKeyspace(), tokenMap, tokenFactory);
-    List<BulkTokenRange> partitions = generator.partition(splitCount);
     List<Statement<?>> statements = new ArrayList<>();
-    for (TokenRange range : partitions) {
-      Statement<?> stmt = statementFactory.apply(range);
-      if (stmt.getKeyspace() != null) {
-        if (!stmt.getKeyspace().equals(table.getKeyspace())) {
-          throw new IllegalStateException(
-              String.format(
-                  "Statement has different keyspace, expecting %s but got %s",
-                  table.getKeyspace(), stmt.getKeyspace()));
-        }
-      } else {
-        stmt = stmt.setRoutingKeyspace(table.getKeyspace());
-      }
-      stmt = stmt.setRoutingToken(range.getEnd());
-      statements.add(stmt);
+    for (TokenRange range : generateRanges(splitCount)) {
+      statements.add(generate(range, statementFactory));
     }
     return statements;
   }
 
+  /**
+   * Generates the token ranges to read in order to read the entire table, with a minimum of {@code
+   * splitCount} ranges.
+   *
+   * <p>This method is the counterpart of {@link #generate(int, Function)} for callers that need to
+   * know the token range covered by each statement; statements can then be generated with {@link
+   * #generate(TokenRange, Function)}.
+   *
+   * @param splitCount The minimum desired number of ranges to generate (on a best-effort basis).
+   * @return A list of token ranges covering the entire ring.
+   */
+  @NonNull
+  public List<BulkTokenRange> generateRanges(int splitCount) {
+    PartitionGenerator generator =
+        new PartitionGenerator(table.getKeyspace(), tokenMap, tokenFactory, sizeEstimates);
+    return generator.partition(splitCount);
+  }
+
+  /**
+   * Generates a SELECT statement to read the given token range, using the given factory to generate
+   * the statement.
+   *
+   * <p>The generated statement is routed to the replicas of the given range.
+   *
+   * @param range The token range to read.
+   * @param statementFactory The factory to use to generate the statement.
+   * @return A SELECT statement to read the given range.
+   */
+  @NonNull
+  public Statement<?> generate(
+      @NonNull TokenRange range, @NonNull Function<TokenRange, Statement<?>> statementFactory) {
+    Statement<?> stmt = statementFactory.apply(range);
+    if (stmt.getKeyspace() != null) {
+      if (!stmt.getKeyspace().equals(table.getKeyspace())) {
+        throw new IllegalStateException(
+            String.format(
+                "Statement has different keyspace, expecting %s but got %s",
+                table.getKeyspace(), stmt.getKeyspace()));
+      }
+    } else {
+      stmt = stmt.setRoutingKeyspace(table.getKeyspace());
+    }
+    return stmt.setRoutingToken(range.getEnd());
+  }
+
   private Statement<?> generateSimpleStatement(TokenRange range) {
     String all =
         table.getColumns().keySet().stream()
@@ -0,0 +1,198 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.partitioner;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.api.core.metadata.NodeState;
+import com.datastax.oss.driver.api.core.metadata.token.Token;
+import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToDoubleFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Estimates of the amount of data contained in each token range of a table, as reported by the
+ * {@code system.size_estimates} table.
+ *
+ * <p>Each node periodically computes estimates for the primary token ranges it owns; estimates are
+ * thus approximate, and may be stale or missing, e.g. for newly-created tables. Wrapping ranges are
+ * reported as two separate rows, one on each side of the ring's minimum token.
+ */
+public class TokenRangeSizeEstimates {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TokenRangeSizeEstimates.class);
+
+  private static final String SELECT_SIZE_ESTIMATES =
+      "SELECT range_start, range_end, partitions_count, mean_partition_size "
+          + "FROM system.size_estimates WHERE keyspace_name = '%s' AND table_name = '%s'";
+
+  /** Estimated sizes in bytes, keyed by range end token. */
+  private final Map<Token, SizeEstimate> estimates = new HashMap<>();
+
+  /**
+   * Fetches the size estimates of the given table from all the nodes that are currently up.
+   *
+   * <p>Nodes that fail to report their estimates are ignored.
+   *
+   * @param session The session to use.
+   * @param keyspace The keyspace of the table.
+   * @param table The table whose estimates should be fetched.
+   * @param tokenFactory The token factory to use to parse tokens.
+   * @return The size estimates of the given table; may be empty, but never {@code null}.
+   */
+  @NonNull
+  public static TokenRangeSizeEstimates fetch(
+      @NonNull CqlSession session,
+      @NonNull CqlIdentifier keyspace,
+      @NonNull CqlIdentifier table,
+      @NonNull BulkTokenFactory tokenFactory) {
+    TokenRangeSizeEstimates sizeEstimates = new TokenRangeSizeEstimates();
+    SimpleStatement statement =
+        SimpleStatement.newInstance(
+            String.format(
+                SELECT_SIZE_ESTIMATES,
+                keyspace.asInternal().replace("'", "''"),
+                table.asInternal().replace("'", "''")));
+    for (Node node : session.getMetadata().getNodes().values()) {
+      if (node.getState() != NodeState.UP) {
+        continue;
+      }
+      try {
+        ResultSet rs = session.execute(statement.setNode(node));
+        for (Row row : rs) {
+          sizeEstimates.add(
+              tokenFactory.parse(row.getString("range_start")),
+              tokenFactory.parse(row.getString("range_end")),
+              row.getLong("partitions_count"),
+              row.getLong("mean_partition_size"));
+        }
+      } catch (RuntimeException e) {
+        LOGGER.debug(
+            String.format("Could not fetch size estimates from %s", node.getEndPoint()), e);
+      }
+    }
+    LOGGER.debug(
+        "Fetched {} size estimates for table {}.{}",
+        sizeEstimates.estimates.size(),
+        keyspace.asCql(true),
+        table.asCql(true));
+    return sizeEstimates;
+  }
+
+  TokenRangeSizeEstimates() {}
+
+  void add(@NonNull Token start, @NonNull Token end, long partitionsCount, long meanPartitionSize) {
+    long size = Math.max(0, partitionsCount) * Math.max(0, meanPartitionSize);
+    SizeEstimate existing = estimates.get(end);
+    // replicas may report the same range; keep the highest estimate
+    if (existing == null || !existing.start.equals(start) || existing.size < size) {
+      estimates.put(end, new SizeEstimate(start, size));
+    }
+  }
+
+  /** @return true if no estimates are available. */
+  public boolean isEmpty() {
+    return estimates.isEmpty();
+  }
+
+  /**
+   * Creates a function that computes the weight of any range of the given ring, or of any sub-range
+   * thereof, as the fraction of the table's data that it is estimated to contain.
+   *
+   * <p>Data is assumed to be evenly distributed inside each range of the ring. Ranges of the ring
+   * that have no estimates are assumed to contain data with the average density of the ranges that
+   * have estimates.
+   *
+   * @param ring The ranges of the entire ring.
+   * @return a function computing range weights, whose sum for the entire ring is 1; or {@code
+   *     null}, if the estimates do not allow to weigh ranges, e.g. because they are all empty.
+   */
+  @Nullable
+  ToDoubleFunction<BulkTokenRange> weigher(@NonNull List<BulkTokenRange> ring) {
+    // estimated bytes per ring fraction, keyed by range end token
+    TreeMap<Token, Double> densities = new TreeMap<>();
+    List<BulkTokenRange> missing = new ArrayList<>();
+    double coveredSize = 0;
+    double coveredFraction = 0;
+    for (BulkTokenRange range : ring) {
+      long size = 0;
+      boolean found = true;
+      for (TokenRange unwrapped : range.unwrap()) {
+        SizeEstimate estimate = estimates.get(unwrapped.getEnd());
+        if (estimate == null || !estimate.start.equals(unwrapped.getStart())) {
+          found = false;
+          break;
+        }
+        size += estimate.size;
+      }
+      if (found) {
+        densities.put(range.getEnd(), size / range.fraction());
+        coveredSize += size;
+        coveredFraction += range.fraction();
+      } else {
+        missing.add(range);
+      }
+    }
+    if (coveredSize <= 0) {
+      return null;
+    }
+    if (!missing.isEmpty()) {
+      LOGGER.debug(
+          "Size estimates missing for {} token ranges out of {}, assuming average data density",
+          missing.size(),
+          ring.size());
+    }
+    double averageDensity = coveredSize / coveredFraction;
+    for (BulkTokenRange range : missing) {
+      densities.put(range.getEnd(), averageDensity);
+    }
+    // the estimated size of the whole ring is coveredSize + (1 - coveredFraction) *
+    // averageDensity, which simplifies to averageDensity.
+    double totalSize = averageDensity;
+    return range -> {
+      // the range containing the given range is the first range ending at or after its end;
+      // if there is none, it is the range that wraps around the ring.
+      Map.Entry<Token, Double> entry = densities.ceilingEntry(range.getEnd());
+      if (entry == null) {
+        entry = densities.firstEntry();
+      }
+      return range.fraction() * entry.getValue() / totalSize;
+    };
+  }
+
+  private static class SizeEstimate {
+
+    private final Token start;
+    private final long size;
+
+    private SizeEstimate(Token start, long size) {
+      this.start = start;
+      this.size = size;
+    }
+  }
+}
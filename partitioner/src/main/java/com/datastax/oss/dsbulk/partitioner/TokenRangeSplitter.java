@@ -18,6 +18,7 @@ package com.datastax.oss.dsbulk.partitioner;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -36,11 +37,32 @@ public interface TokenRangeSplitter {
   @NonNull
   default List<BulkTokenRange> split(
       @NonNull Iterable<BulkTokenRange> tokenRanges, int splitCount) {
-    double ringFractionPerSplit = 1.0 / (double) splitCount;
+    return split(tokenRanges, splitCount, BulkTokenRange::fraction);
+  }
+
+  /**
+   * Splits the given ranges into (smaller) {@code splitCount} chunks of approximately equal weight.
+   *
+   * <p>Each range is split uniformly into a number of chunks proportional to its weight. Note that
+   * the algorithm doesn't guarantee exact split count.
+   *
+   * @param tokenRanges The ranges to split.
+   * @param splitCount The desired number of resulting chunks.
+   * @param weigher The function computing the weight of each range; the weights of all the given
+   *     ranges should sum up to 1.
+   * @return A list of ranges of approximately {@code splitCount} chunks.
+   */
+  @NonNull
+  default List<BulkTokenRange> split(
+      @NonNull Iterable<BulkTokenRange> tokenRanges,
+      int splitCount,
+      @NonNull ToDoubleFunction<BulkTokenRange> weigher) {
+    double weightPerSplit = 1.0 / (double) splitCount;
     return StreamSupport.stream(tokenRanges.spliterator(), false)
         .flatMap(
             range -> {
-              int splits = (int) Math.max(1, Math.rint(range.fraction() / ringFractionPerSplit));
+              int splits =
+                  (int) Math.max(1, Math.rint(weigher.applyAsDouble(range) / weightPerSplit));
               List<BulkTokenRange> split =
                   splits == 1 ? Collections.singletonList(range) : split(range, splits);
               return split.stream();
@@ -281,6 +281,84 @@ class PartitionGeneratorTest {
         .isEqualTo(1d, offset(.000000001));
   }
 
+  @Test
+  void should_split_single_dc_by_size_estimates() {
+
+    given(tokenMap.getTokenRanges()).willReturn(singleDCRanges);
+
+    TokenRangeSizeEstimates sizeEstimates = new TokenRangeSizeEstimates();
+    sizeEstimates.add(rangeS1.getStart(), rangeS1.getEnd(), 800, 1000);
+    sizeEstimates.add(rangeS2.getStart(), rangeS2.getEnd(), 100, 1000);
+    sizeEstimates.add(rangeS3.getStart(), rangeS3.getEnd(), 100, 1000);
+    PartitionGenerator generator =
+        new PartitionGenerator(keyspace.getName(), tokenMap, tokenFactory, sizeEstimates);
+    List<BulkTokenRange> splits = generator.partition(10);
+
+    assertThat(splits.size()).isEqualTo(10);
+
+    // range S1 holds 80% of the data -> 8 splits
+    for (int i = 0; i < 8; i++) {
+      assertThat(splits.get(i))
+          .hasReplicas(host1)
+          .hasFraction(0.3333333333333333d / 8, offset(.000000001d));
+    }
+    // ranges S2 and S3 hold 10% of the data each -> 1 split each
+    assertThat(splits.get(8))
+        .startsWith(rangeS2.getStart())
+        .endsWith(rangeS2.getEnd())
+        .hasReplicas(host2);
+    assertThat(splits.get(9))
+        .startsWith(rangeS3.getStart())
+        .endsWith(rangeS3.getEnd())
+        .hasReplicas(host3);
+
+    assertThat(splits.stream().map(BulkTokenRange::fraction).reduce(0d, Double::sum))
+        .isEqualTo(1d, offset(.000000001));
+  }
+
+  @Test
+  void should_assume_average_density_when_size_estimates_missing() {
+
+    given(tokenMap.getTokenRanges()).willReturn(singleDCRanges);
+
+    TokenRangeSizeEstimates sizeEstimates = new TokenRangeSizeEstimates();
+    sizeEstimates.add(rangeS1.getStart(), rangeS1.getEnd(), 100, 1000);
+    sizeEstimates.add(rangeS2.getStart(), rangeS2.getEnd(), 500, 1000);
+    PartitionGenerator generator =
+        new PartitionGenerator(keyspace.getName(), tokenMap, tokenFactory, sizeEstimates);
+    List<BulkTokenRange> splits = generator.partition(9);
+
+    // S1: 100k, S2: 500k, S3: unknown -> 300k; total 900k
+    assertThat(splits.size()).isEqualTo(9);
+    assertThat(splits.get(0))
+        .startsWith(rangeS1.getStart())
+        .endsWith(rangeS1.getEnd())
+        .hasReplicas(host1);
+    for (int i = 1; i < 6; i++) {
+      assertThat(splits.get(i)).hasReplicas(host2);
+    }
+    for (int i = 6; i < 9; i++) {
+      assertThat(splits.get(i)).hasReplicas(host3);
+    }
+  }
+
+  @Test
+  void should_split_by_token_count_when_size_estimates_empty() {
+
+    given(tokenMap.getTokenRanges()).willReturn(singleDCRanges);
+
+    TokenRangeSizeEstimates sizeEstimates = new TokenRangeSizeEstimates();
+    sizeEstimates.add(rangeS1.getStart(), rangeS1.getEnd(), 0, 0);
+    PartitionGenerator generator =
+        new PartitionGenerator(keyspace.getName(), tokenMap, tokenFactory, sizeEstimates);
+    List<BulkTokenRange> splits = generator.partition(9);
+
+    assertThat(splits.size()).isEqualTo(9);
+    for (BulkTokenRange split : splits) {
+      assertThat(split).hasFraction(0.1111111111111111d, offset(.000000001d));
+    }
+  }
+
   private TokenRange range(long start, long end) {
     return newTokenRange(newToken(start), newToken(end));
   }
@@ -0,0 +1,93 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.partitioner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+import com.datastax.oss.driver.api.core.metadata.EndPoint;
+import com.datastax.oss.driver.internal.core.metadata.token.Murmur3Token;
+import com.datastax.oss.dsbulk.partitioner.murmur3.Murmur3BulkTokenFactory;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+import org.junit.jupiter.api.Test;
+
+class TokenRangeSizeEstimatesTest {
+
+  private final Murmur3BulkTokenFactory tokenFactory = new Murmur3BulkTokenFactory();
+
+  private final Set<EndPoint> replicas = Collections.emptySet();
+
+  // a ring with two ranges, the second one wraps around the ring
+  private final BulkTokenRange range1 = range(0L, 1000L);
+  private final BulkTokenRange range2 = range(1000L, 0L);
+
+  @Test
+  void should_weigh_ring_ranges_and_sub_ranges() {
+    TokenRangeSizeEstimates sizeEstimates = new TokenRangeSizeEstimates();
+    sizeEstimates.add(token(0), token(1000), 10, 10);
+    // wrapping ranges are reported unwrapped
+    sizeEstimates.add(token(1000), tokenFactory.minToken(), 10, 10);
+    sizeEstimates.add(tokenFactory.minToken(), token(0), 20, 10);
+    ToDoubleFunction<BulkTokenRange> weigher = sizeEstimates.weigher(Arrays.asList(range1, range2));
+    assertThat(weigher).isNotNull();
+    assertThat(weigher.applyAsDouble(range1)).isEqualTo(0.25d, offset(.000000001d));
+    assertThat(weigher.applyAsDouble(range2)).isEqualTo(0.75d, offset(.000000001d));
+    // sub-ranges of range1
+    assertThat(weigher.applyAsDouble(range(0L, 500L))).isEqualTo(0.125d, offset(.000000001d));
+    assertThat(weigher.applyAsDouble(range(500L, 1000L))).isEqualTo(0.125d, offset(.000000001d));
+    // sub-ranges of range2, on both sides of the minimum token
+    BulkTokenRange head = range(Long.MIN_VALUE, 0L);
+    BulkTokenRange tail = range(1000L, Long.MIN_VALUE);
+    assertThat(weigher.applyAsDouble(head) + weigher.applyAsDouble(tail))
+        .isEqualTo(0.75d, offset(.000000001d));
+    assertThat(weigher.applyAsDouble(head) / weigher.applyAsDouble(tail))
+        .isEqualTo(head.fraction() / tail.fraction(), offset(.000000001d));
+  }
+
+  @Test
+  void should_keep_highest_estimate_when_reported_by_many_replicas() {
+    TokenRangeSizeEstimates sizeEstimates = new TokenRangeSizeEstimates();
+    sizeEstimates.add(token(0), token(1000), 30, 10);
+    sizeEstimates.add(token(0), token(1000), 10, 10);
+    sizeEstimates.add(token(1000), tokenFactory.minToken(), 5, 10);
+    sizeEstimates.add(tokenFactory.minToken(), token(0), 5, 10);
+    ToDoubleFunction<BulkTokenRange> weigher = sizeEstimates.weigher(Arrays.asList(range1, range2));
+    assertThat(weigher).isNotNull();
+    assertThat(weigher.applyAsDouble(range1)).isEqualTo(0.75d, offset(.000000001d));
+  }
+
+  @Test
+  void should_not_weigh_ranges_when_estimates_empty() {
+    TokenRangeSizeEstimates sizeEstimates = new TokenRangeSizeEstimates();
+    assertThat(sizeEstimates.isEmpty()).isTrue();
+    assertThat(sizeEstimates.weigher(Arrays.asList(range1, range2))).isNull();
+    // estimates not matching the ring are ignored
+    sizeEstimates.add(token(0), token(500), 10, 10);
+    assertThat(sizeEstimates.isEmpty()).isFalse();
+    assertThat(sizeEstimates.weigher(Arrays.asList(range1, range2))).isNull();
+  }
+
+  private BulkTokenRange range(long start, long end) {
+    return tokenFactory.range(token(start), token(end), replicas);
+  }
+
+  private static Murmur3Token token(long value) {
+    return new Murmur3Token(value);
+  }
+}
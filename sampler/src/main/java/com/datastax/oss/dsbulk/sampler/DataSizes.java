@@ -51,6 +51,9 @@ public class DataSizes {
    * the mutation size server-side, whereas the latter attempts to guess the size of the encoded
    * statement, protocol-wise. These can be very different, especially for batch statements.
    *
+   * <p>The size of a {@link SizedStatement} is not computed: the size it reports is returned
+   * instead, and the size of a batch is the sum of the sizes of its children.
+   *
    * @param stmt The statement to inspect; cannot be {@code null}.
    * @param version The protocol version to use; cannot be {@code null}.
    * @param registry The codec registry to use; cannot be {@code null}.
@@ -61,7 +64,9 @@ public class DataSizes {
       @NonNull ProtocolVersion version,
       @NonNull CodecRegistry registry) {
     long dataSize = 0;
-    if (stmt instanceof BoundStatement) {
+    if (stmt instanceof SizedStatement) {
+      dataSize = ((SizedStatement) stmt).getDataSize();
+    } else if (stmt instanceof BoundStatement) {
       BoundStatement bs = (BoundStatement) stmt;
       dataSize = getDataSize(bs, bs.getPreparedStatement().getVariableDefinitions());
     } else if (stmt instanceof SimpleStatement) {
@@ -101,6 +106,24 @@ public class DataSizes {
     return getDataSize(row, row.getColumnDefinitions());
   }
 
+  /**
+   * Evaluates the data size of the given values, for example the values of a statement being
+   * bound. The data size is the total number of bytes of all the values that are set.
+   *
+   * @param values The values to inspect; cannot be {@code null}.
+   * @return The total size in bytes of all the encoded values.
+   */
+  public static long getDataSize(@NonNull GettableByIndex values) {
+    long dataSize = 0L;
+    for (int i = 0; i < values.size(); i++) {
+      ByteBuffer bb = values.getBytesUnsafe(i);
+      if (bb != null) {
+        dataSize += bb.remaining();
+      }
+    }
+    return dataSize;
+  }
+
   private static long getDataSize(GettableByIndex container, ColumnDefinitions metadata) {
     long dataSize = 0L;
     if (metadata.size() > 0) {
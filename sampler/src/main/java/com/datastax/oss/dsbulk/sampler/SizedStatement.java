@@ -0,0 +1,34 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.sampler;
+
+/**
+ * A statement that knows its own data size, typically because it was computed when its values
+ * were bound. {@link DataSizes} returns that size instead of inspecting the statement's values
+ * again.
+ *
+ * <p>Implementations must keep the size up to date if their values can change.
+ */
+public interface SizedStatement {
+
+  /**
+   * @return The approximate size of the data contained in this statement, as defined by {@link
+   *     DataSizes#getDataSize(com.datastax.oss.driver.api.core.cql.Statement,
+   *     com.datastax.oss.driver.api.core.ProtocolVersion,
+   *     com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry)}.
+   */
+  long getDataSize();
+}
@@ -19,6 +19,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
 import com.datastax.dse.driver.api.core.DseProtocolVersion;
 import com.datastax.oss.driver.api.core.cql.BatchStatement;
@@ -142,6 +143,29 @@ class DataSizesTest {
     verify(stmt3, never()).getCustomPayload();
   }
 
+  @Test
+  void should_use_size_of_sized_statements() {
+    BoundStatement stmt1 = mockSizedStatement(42);
+    BoundStatement stmt2 = mockSizedStatement(8);
+    assertThat(
+            DataSizes.getDataSize(stmt1, DseProtocolVersion.DSE_V2, DefaultCodecRegistry.DEFAULT))
+        .isEqualTo(42);
+    BatchStatement batch = mockBatchStatement(stmt1, stmt2);
+    assertThat(
+            DataSizes.getDataSize(batch, DseProtocolVersion.DSE_V2, DefaultCodecRegistry.DEFAULT))
+        .isEqualTo(50);
+    verify(stmt1, never()).getPreparedStatement();
+    verify(stmt1, never()).getBytesUnsafe(0);
+    verify(stmt2, never()).getPreparedStatement();
+  }
+
+  @Test
+  void should_measure_size_of_values() {
+    BoundStatement bs = mockBoundStatement(0, "test");
+    when(bs.size()).thenReturn(2);
+    assertThat(DataSizes.getDataSize(bs)).isEqualTo(4 + "test".length());
+  }
+
   @Test
   void should_measure_size_of_row() {
     Row row = Mockito.mock(Row.class);
@@ -171,6 +195,13 @@ class DataSizesTest {
     return bs;
   }
 
+  private BoundStatement mockSizedStatement(long dataSize) {
+    BoundStatement bs =
+        Mockito.mock(BoundStatement.class, withSettings().extraInterfaces(SizedStatement.class));
+    when(((SizedStatement) bs).getDataSize()).thenReturn(dataSize);
+    return bs;
+  }
+
   private PreparedStatement mockPreparedStatement() {
     ColumnDefinitions columnDefinitions = mockColumnDefinitions();
     PreparedStatement ps = Mockito.mock(PreparedStatement.class);
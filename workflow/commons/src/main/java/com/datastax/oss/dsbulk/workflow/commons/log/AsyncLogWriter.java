@@ -0,0 +1,334 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.workflow.commons.log;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import com.datastax.oss.driver.shaded.guava.common.base.Preconditions;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Appends text entries to log files asynchronously.
+ *
+ * <p>Entries are encoded by the calling thread and copied into a bounded ring buffer allocated
+ * off-heap; a dedicated writer thread drains the buffer and writes the entries to their respective
+ * files. The writer thread drains as many entries as are available at once, and only flushes the
+ * files once the buffer is empty, thus grouping many entries in a single flush when errors are
+ * produced at a high rate.
+ *
+ * <p>When the buffer is full, callers block until the writer thread makes room for their entries,
+ * so that memory usage remains bounded. Each entry is written contiguously to its file, even if it
+ * is larger than the buffer itself.
+ *
+ * <p>Files are created lazily when the first entry targeting them is written; {@link #close()}
+ * waits until all the entries written so far are flushed to their files, then closes them.
+ */
+public class AsyncLogWriter implements AutoCloseable {
+
+  private static final int HEADER_SIZE = 8;
+
+  private static final int MAX_CHUNK_SIZE = 64 * 1024;
+
+  private final ByteBuffer ring;
+  private final int capacity;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notEmpty = lock.newCondition();
+  private final Condition notFull = lock.newCondition();
+
+  /** Guarantees that entries are copied contiguously into the ring. */
+  private final Object producerMutex = new Object();
+
+  // guarded by lock; absolute positions, the ring index is obtained with a modulo
+  private long head;
+  private long tail;
+  private boolean closed;
+
+  private final Map<Path, Integer> fileIds = new ConcurrentHashMap<>();
+  private final List<Path> files = new ArrayList<>();
+
+  private final Thread writerThread;
+
+  private volatile IOException failure;
+
+  /**
+   * Creates a new writer and starts its writer thread.
+   *
+   * @param capacity the capacity of the ring buffer, in bytes; must be at least 16.
+   */
+  public AsyncLogWriter(int capacity) {
+    Preconditions.checkArgument(capacity >= 16, "capacity must be >= 16, got %s", capacity);
+    this.capacity = capacity;
+    ring = ByteBuffer.allocateDirect(capacity);
+    writerThread = new Thread(new Drainer(), "log-writer");
+    writerThread.setDaemon(true);
+    writerThread.start();
+  }
+
+  /** @return the files that this writer has written to so far. */
+  @NonNull
+  public Set<Path> getFiles() {
+    return fileIds.keySet();
+  }
+
+  /**
+   * Appends the given entry to the given file, blocking if the buffer is full.
+   *
+   * @param file the file to append to.
+   * @param entry the entry to append.
+   * @throws UncheckedIOException if a previous entry could not be written.
+   * @throws IllegalStateException if this writer is closed.
+   */
+  public void write(@NonNull Path file, @NonNull String entry) {
+    checkFailure();
+    int fileId = fileIds.computeIfAbsent(file, this::register);
+    byte[] bytes = entry.getBytes(UTF_8);
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(fileId).putInt(bytes.length);
+    synchronized (producerMutex) {
+      lock.lock();
+      try {
+        Preconditions.checkState(!closed, "Writer is closed");
+        put(header.array(), 0, HEADER_SIZE);
+        put(bytes, 0, bytes.length);
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    lock.lock();
+    try {
+      closed = true;
+      notEmpty.signal();
+    } finally {
+      lock.unlock();
+    }
+    boolean interrupted = false;
+    while (writerThread.isAlive()) {
+      try {
+        writerThread.join();
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private int register(Path file) {
+    synchronized (files) {
+      files.add(file);
+      return files.size() - 1;
+    }
+  }
+
+  private Path file(int fileId) {
+    synchronized (files) {
+      return files.get(fileId);
+    }
+  }
+
+  private void checkFailure() {
+    if (failure != null) {
+      throw new UncheckedIOException(failure);
+    }
+  }
+
+  /** Copies the given bytes into the ring, waiting for free space as needed. Guarded by lock. */
+  private void put(byte[] src, int offset, int length) {
+    while (length > 0) {
+      long free;
+      while ((free = capacity - (tail - head)) == 0) {
+        // the writer thread stops on failure, fail fast instead of waiting forever
+        checkFailure();
+        notFull.awaitUninterruptibly();
+      }
+      int n = (int) Math.min(free, length);
+      copy(src, offset, n, true);
+      tail += n;
+      offset += n;
+      length -= n;
+      notEmpty.signal();
+    }
+  }
+
+  /** Copies between the ring and the given array, starting at head or tail. Guarded by lock. */
+  private void copy(byte[] array, int offset, int length, boolean toRing) {
+    int index = (int) ((toRing ? tail : head) % capacity);
+    int first = Math.min(length, capacity - index);
+    ByteBuffer view = ring.duplicate();
+    view.position(index);
+    if (toRing) {
+      view.put(array, offset, first);
+    } else {
+      view.get(array, offset, first);
+    }
+    if (first < length) {
+      view.position(0);
+      if (toRing) {
+        view.put(array, offset + first, length - first);
+      } else {
+        view.get(array, offset + first, length - first);
+      }
+    }
+  }
+
+  private class Drainer implements Runnable {
+
+    private final Map<Integer, OutputStream> streams = new HashMap<>();
+    private final List<OutputStream> dirty = new ArrayList<>();
+
+    private final byte[] chunk = new byte[Math.min(capacity, MAX_CHUNK_SIZE)];
+
+    // the state of the entry being read, which can span several chunks
+    private final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    private OutputStream current;
+    private int remaining;
+
+    @Override
+    public void run() {
+      try {
+        int n;
+        while ((n = take()) != -1) {
+          process(n);
+          if (isEmpty()) {
+            // group commit: flush only when there is nothing left to write
+            flush();
+          }
+        }
+        flush();
+      } catch (IOException e) {
+        fail(e);
+      } finally {
+        for (OutputStream stream : streams.values()) {
+          try {
+            stream.close();
+          } catch (IOException e) {
+            if (failure == null) {
+              failure = e;
+            }
+          }
+        }
+      }
+    }
+
+    /** Takes the next chunk of bytes from the ring, or returns -1 if closed and fully drained. */
+    private int take() {
+      lock.lock();
+      try {
+        while (head == tail) {
+          if (closed) {
+            return -1;
+          }
+          notEmpty.awaitUninterruptibly();
+        }
+        int n = (int) Math.min(tail - head, chunk.length);
+        copy(chunk, 0, n, false);
+        head += n;
+        notFull.signalAll();
+        return n;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private boolean isEmpty() {
+      lock.lock();
+      try {
+        return head == tail;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void process(int length) throws IOException {
+      int offset = 0;
+      while (offset < length) {
+        if (remaining == 0) {
+          int n = Math.min(header.remaining(), length - offset);
+          header.put(chunk, offset, n);
+          offset += n;
+          if (header.hasRemaining()) {
+            return;
+          }
+          header.flip();
+          current = stream(header.getInt());
+          remaining = header.getInt();
+          header.clear();
+        } else {
+          int n = Math.min(remaining, length - offset);
+          current.write(chunk, offset, n);
+          offset += n;
+          remaining -= n;
+        }
+      }
+    }
+
+    private OutputStream stream(int fileId) throws IOException {
+      OutputStream stream = streams.get(fileId);
+      if (stream == null) {
+        stream = new BufferedOutputStream(Files.newOutputStream(file(fileId), CREATE_NEW, WRITE));
+        streams.put(fileId, stream);
+      }
+      if (!dirty.contains(stream)) {
+        dirty.add(stream);
+      }
+      return stream;
+    }
+
+    private void flush() throws IOException {
+      for (OutputStream stream : dirty) {
+        stream.flush();
+      }
+      dirty.clear();
+    }
+
+    private void fail(IOException e) {
+      lock.lock();
+      try {
+        failure = e;
+        // release blocked producers and discard pending entries
+        head = tail;
+        notFull.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+}
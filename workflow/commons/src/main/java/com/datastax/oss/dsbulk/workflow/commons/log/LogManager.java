@@ -55,23 +55,31 @@ import com.datastax.oss.dsbulk.workflow.commons.schema.RecordMapper;
 import com.datastax.oss.dsbulk.workflow.commons.settings.LogSettings;
 import com.datastax.oss.dsbulk.workflow.commons.statement.MappedStatement;
 import com.datastax.oss.dsbulk.workflow.commons.statement.UnmappableStatement;
-import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.LoadingCache;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import java.io.Flushable;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.net.URI;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
+import java.time.Duration;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
@@ -97,6 +105,13 @@ public class LogManager implements AutoCloseable {
   private static final String CAS_BAD_FILE = "paxos.bad";
 
   private static final String POSITIONS_FILE = "positions.txt";
+  /** The file where processed positions are periodically saved, when checkpoints are enabled. */
+  public static final String CHECKPOINT_FILE = "checkpoint.txt";
+  /** The file where token ranges left to read are periodically saved, when unloading or counting. */
+  public static final String TOKEN_RANGES_CHECKPOINT_FILE = "checkpoint-ranges.txt";
+
+  /** The size of the off-heap buffer holding the errors waiting to be written to disk. */
+  private static final int LOG_BUFFER_SIZE = 4 * 1024 * 1024;
 
   private final CqlSession session;
   private final Path operationDirectory;
@@ -106,6 +121,10 @@ public class LogManager implements AutoCloseable {
   private final StatementFormatter statementFormatter;
   private final StatementFormatVerbosity statementFormatVerbosity;
   private final RowFormatter rowFormatter;
+  private final Duration checkpointInterval;
+  @Nullable private final PositionsTracker resumedPositions;
+  @Nullable private final TokenRangesTracker tokenRangesTracker;
+  @Nullable private final Flushable recordsFlusher;
 
   private final AtomicInteger errors = new AtomicInteger(0);
   private final LongAdder totalItems = new LongAdder();
@@ -113,9 +132,7 @@ public class LogManager implements AutoCloseable {
   private final AtomicInteger queryWarnings = new AtomicInteger(0);
   private final AtomicBoolean queryWarningsEnabled = new AtomicBoolean(true);
 
-  private final LoadingCache<Path, PrintWriter> openFiles =
-      Caffeine.newBuilder()
-          .build(path -> new PrintWriter(Files.newBufferedWriter(path, UTF_8, CREATE_NEW, WRITE)));
+  private AsyncLogWriter logWriter;
 
   private CodecRegistry codecRegistry;
   private ProtocolVersion protocolVersion;
@@ -124,6 +141,7 @@ public class LogManager implements AutoCloseable {
 
   private PositionsTracker positionsTracker;
   private PrintWriter positionsPrinter;
+  private ScheduledExecutorService checkpointScheduler;
 
   private FluxSink<ErrorRecord> failedRecordSink;
   private FluxSink<ErrorRecord> unmappableRecordSink;
@@ -131,7 +149,6 @@ public class LogManager implements AutoCloseable {
   private FluxSink<WriteResult> failedWriteSink;
   private FluxSink<WriteResult> failedCASWriteSink;
   private FluxSink<ReadResult> failedReadSink;
-  private FluxSink<Record> positionsSink;
 
   private UnicastProcessor<Void> uncaughtExceptionProcessor;
   private FluxSink<Void> uncaughtExceptionSink;
@@ -147,6 +164,34 @@ public class LogManager implements AutoCloseable {
       StatementFormatter statementFormatter,
       StatementFormatVerbosity statementFormatVerbosity,
       RowFormatter rowFormatter) {
+    this(
+        session,
+        operationDirectory,
+        errorThreshold,
+        queryWarningsThreshold,
+        trackPositions,
+        statementFormatter,
+        statementFormatVerbosity,
+        rowFormatter,
+        Duration.ZERO,
+        null,
+        null,
+        null);
+  }
+
+  public LogManager(
+      CqlSession session,
+      Path operationDirectory,
+      ErrorThreshold errorThreshold,
+      ErrorThreshold queryWarningsThreshold,
+      boolean trackPositions,
+      StatementFormatter statementFormatter,
+      StatementFormatVerbosity statementFormatVerbosity,
+      RowFormatter rowFormatter,
+      Duration checkpointInterval,
+      @Nullable PositionsTracker resumedPositions,
+      @Nullable TokenRangesTracker tokenRangesTracker,
+      @Nullable Flushable recordsFlusher) {
     this.session = session;
     this.operationDirectory = operationDirectory;
     this.errorThreshold = errorThreshold;
@@ -155,6 +200,10 @@ public class LogManager implements AutoCloseable {
     this.statementFormatter = statementFormatter;
     this.statementFormatVerbosity = statementFormatVerbosity;
     this.rowFormatter = rowFormatter;
+    this.checkpointInterval = checkpointInterval;
+    this.resumedPositions = resumedPositions;
+    this.tokenRangesTracker = tokenRangesTracker;
+    this.recordsFlusher = recordsFlusher;
   }
 
   public void init() {
@@ -163,14 +212,32 @@ public class LogManager implements AutoCloseable {
     stackTracePrinter = new StackTracePrinter();
     stackTracePrinter.setOptionList(LogSettings.STACK_TRACE_PRINTER_OPTIONS);
     stackTracePrinter.start();
+    logWriter = new AsyncLogWriter(LOG_BUFFER_SIZE);
     positionsTracker = new PositionsTracker();
+    if (trackPositions && resumedPositions != null) {
+      // positions processed by the resumed operation are carried over, so that this operation
+      // can in turn be resumed
+      resumedPositions
+          .getPositions()
+          .forEach(
+              (resource, ranges) ->
+                  ranges.forEach(
+                      range ->
+                          positionsTracker.update(resource, range.getLower(), range.getUpper())));
+    }
+    if ((trackPositions || tokenRangesTracker != null) && !checkpointInterval.isZero()) {
+      checkpointScheduler =
+          Executors.newSingleThreadScheduledExecutor(new DefaultThreadFactory("checkpoint", true));
+      long interval = checkpointInterval.toMillis();
+      checkpointScheduler.scheduleWithFixedDelay(
+          this::checkpoint, interval, interval, TimeUnit.MILLISECONDS);
+    }
     failedRecordSink = newFailedRecordSink();
     unmappableRecordSink = newUnmappableRecordSink();
     unmappableStatementSink = newUnmappableStatementSink();
     failedWriteSink = newFailedWriteResultSink();
     failedCASWriteSink = newFailedCASWriteSink();
     failedReadSink = newFailedReadResultSink();
-    positionsSink = newPositionsSink();
     uncaughtExceptionProcessor = UnicastProcessor.create();
     uncaughtExceptionSink = uncaughtExceptionProcessor.sink();
     invalidMappingWarningDone = new AtomicBoolean(false);
@@ -191,6 +258,20 @@ public class LogManager implements AutoCloseable {
     return errors.get();
   }
 
+  /**
+   * Returns, for each resource, the number of leading records that were already processed by the
+   * operation being resumed, if any.
+   *
+   * @return the number of leading records already processed, keyed by resource; empty if this
+   *     operation is not resuming a previous one.
+   */
+  @NonNull
+  public Map<URI, Long> getResumedPositions() {
+    return resumedPositions == null
+        ? Collections.emptyMap()
+        : resumedPositions.getContiguousPositions();
+  }
+
   @Override
   public void close() throws IOException {
     failedRecordSink.complete();
@@ -201,18 +282,15 @@ public class LogManager implements AutoCloseable {
     failedReadSink.complete();
     uncaughtExceptionSink.complete();
     stackTracePrinter.stop();
-    // Forcibly close all open files on the thread that invokes close()
-    // Using a cache removal listener is not an option because cache listeners
-    // are invoked on the common ForkJoinPool, which uses daemon threads.
-    openFiles
-        .asMap()
-        .values()
-        .forEach(
-            pw -> {
-              pw.flush();
-              pw.close();
-            });
-    positionsSink.complete();
+    if (checkpointScheduler != null) {
+      checkpointScheduler.shutdown();
+    }
+    // Wait until all pending errors are written, then close all open files
+    logWriter.close();
+    if (checkpointScheduler != null) {
+      // final checkpoint, with all the positions processed or ranges read
+      checkpoint();
+    }
     if (trackPositions && !positionsTracker.isEmpty()) {
       positionsPrinter =
           new PrintWriter(
@@ -228,7 +306,7 @@ public class LogManager implements AutoCloseable {
 
   public void reportLastLocations() {
     PathMatcher badFileMatcher = FileSystems.getDefault().getPathMatcher("glob:*.bad");
-    Set<Path> files = openFiles.asMap().keySet();
+    Set<Path> files = logWriter.getFiles();
     List<Path> badFiles =
         files.stream().map(Path::getFileName).filter(badFileMatcher::matches).collect(toList());
     if (!badFiles.isEmpty()) {
@@ -250,6 +328,33 @@ public class LogManager implements AutoCloseable {
     }
   }
 
+  /**
+   * Writes the positions processed so far, or the token ranges left to read, to the checkpoint
+   * file. Invoked periodically, so that the operation can be resumed even if it is abruptly
+   * interrupted.
+   *
+   * <p>When unloading, the ranges whose records were all emitted by the connector are only
+   * checkpointed once the connector has flushed them: the snapshot of the ranges left to read must
+   * therefore be taken before flushing, and nothing is checkpointed if flushing fails.
+   */
+  private synchronized void checkpoint() {
+    try {
+      if (tokenRangesTracker != null) {
+        TokenRangesTracker snapshot = tokenRangesTracker.snapshot();
+        if (recordsFlusher != null) {
+          recordsFlusher.flush();
+        }
+        LogManagerUtils.writeTokenRangesCheckpoint(
+            operationDirectory.resolve(TOKEN_RANGES_CHECKPOINT_FILE), snapshot);
+      } else if (!positionsTracker.isEmpty()) {
+        LogManagerUtils.writeCheckpoint(
+            operationDirectory.resolve(CHECKPOINT_FILE), positionsTracker);
+      }
+    } catch (Exception e) {
+      LOGGER.warn("Could not write checkpoint file: " + e.getMessage(), e);
+    }
+  }
+
   /**
    * Handler that is meant to be executed at the very end of the main workflow.
    *
@@ -309,6 +414,27 @@ public class LogManager implements AutoCloseable {
             1);
   }
 
+  /**
+   * Filter for records that were already processed by the operation being resumed, if any.
+   *
+   * <p>Used only in the load workflow.
+   *
+   * <p>Connectors are expected to skip the leading records of each resource that were already
+   * processed; this filter discards the remaining ones, that is, the records that were processed
+   * out of order.
+   *
+   * @return a filter for records already processed.
+   */
+  @NonNull
+  public Function<Flux<Record>, Flux<Record>> newProcessedRecordsFilter() {
+    if (resumedPositions == null) {
+      return Function.identity();
+    }
+    return upstream ->
+        upstream.filter(
+            record -> !resumedPositions.contains(record.getResource(), record.getPosition()));
+  }
+
   /**
    * Handler for failed records. A failed record is a record that the connector could not read or
    * write.
@@ -470,7 +596,7 @@ public class LogManager implements AutoCloseable {
         upstream
             .map(Result::getStatement)
             .transform(newStatementToRecordMapper())
-            .doOnNext(record -> positionsSink.next(record))
+            .doOnNext(this::trackPosition)
             .then()
             .flux();
   }
@@ -522,7 +648,7 @@ public class LogManager implements AutoCloseable {
     Flux<ErrorRecord> flux = processor.doOnNext(this::appendFailedRecordToDebugFile);
     if (trackPositions) {
       flux.doOnNext(record -> appendToBadFile(record, CONNECTOR_BAD_FILE))
-          .doOnNext(record -> positionsSink.next(record))
+          .doOnNext(this::trackPosition)
           .subscribe();
     } else {
       flux.subscribe();
@@ -564,7 +690,7 @@ public class LogManager implements AutoCloseable {
         .doOnNext(this::appendUnmappableStatementToDebugFile)
         .transform(newStatementToRecordMapper())
         .doOnNext(record -> appendToBadFile(record, MAPPING_BAD_FILE))
-        .doOnNext(record -> positionsSink.next(record))
+        .doOnNext(this::trackPosition)
         .subscribe();
     return processor.sink();
   }
@@ -588,7 +714,7 @@ public class LogManager implements AutoCloseable {
         .map(Result::getStatement)
         .transform(newStatementToRecordMapper())
         .doOnNext(record -> appendToBadFile(record, LOAD_BAD_FILE))
-        .doOnNext(record -> positionsSink.next(record))
+        .doOnNext(this::trackPosition)
         .subscribe();
     return processor.sink();
   }
@@ -612,7 +738,7 @@ public class LogManager implements AutoCloseable {
         .map(Result::getStatement)
         .transform(newStatementToRecordMapper())
         .doOnNext(record -> appendToBadFile(record, CAS_BAD_FILE))
-        .doOnNext(record -> positionsSink.next(record))
+        .doOnNext(this::trackPosition)
         .subscribe();
     return processor.sink();
   }
@@ -634,23 +760,15 @@ public class LogManager implements AutoCloseable {
   }
 
   /**
-   * A processor for record positions.
+   * Updates the position tracker for the given record.
    *
-   * <p>Used only in the load workflow.
+   * <p>Used only in the load workflow. The tracker is thread-safe, so this method is called
+   * directly from the threads processing the records.
    *
-   * <p>Updates the position tracker for every record received.
-   *
-   * @return A processor for record positions.
+   * @param record The record whose position was processed.
    */
-  @NonNull
-  private FluxSink<Record> newPositionsSink() {
-    UnicastProcessor<Record> processor = UnicastProcessor.create();
-    processor
-        // do not need to be published on the dedicated log scheduler, the computation is fairly
-        // cheap
-        .doOnNext(record -> positionsTracker.update(record.getResource(), record.getPosition()))
-        .subscribe();
-    return processor.sink();
+  private void trackPosition(Record record) {
+    positionsTracker.update(record.getResource(), record.getPosition());
   }
 
   // Bad file management
@@ -658,11 +776,7 @@ public class LogManager implements AutoCloseable {
   private void appendToBadFile(Record record, String file) {
     Object source = record.getSource();
     if (source != null) {
-      Path logFile = operationDirectory.resolve(file);
-      PrintWriter writer = openFiles.get(logFile);
-      assert writer != null;
-      LogManagerUtils.printAndMaybeAddNewLine(source.toString(), writer);
-      writer.flush();
+      append(file, writer -> LogManagerUtils.printAndMaybeAddNewLine(source.toString(), writer));
     }
   }
 
@@ -670,23 +784,20 @@ public class LogManager implements AutoCloseable {
 
   // write query failed
   private void appendFailedWriteResultToDebugFile(WriteResult result) {
-    appendStatement(result, LOAD_ERRORS_FILE, true);
+    append(LOAD_ERRORS_FILE, writer -> appendStatement(result, writer, true));
   }
 
   // CAS write query failed
   private void appendFailedCASWriteResultToDebugFile(WriteResult result) {
-    appendStatement(result, CAS_ERRORS_FILE, true);
+    append(CAS_ERRORS_FILE, writer -> appendStatement(result, writer, true));
   }
 
   // read query failed
   private void appendFailedReadResultToDebugFile(ReadResult result) {
-    appendStatement(result, UNLOAD_ERRORS_FILE, true);
+    append(UNLOAD_ERRORS_FILE, writer -> appendStatement(result, writer, true));
   }
 
-  private void appendStatement(Result result, String logFileName, boolean appendNewLine) {
-    Path logFile = operationDirectory.resolve(logFileName);
-    PrintWriter writer = openFiles.get(logFile);
-    assert writer != null;
+  private void appendStatement(Result result, PrintWriter writer, boolean appendNewLine) {
     writer.print("Statement: ");
     String format =
         statementFormatter.format(
@@ -718,9 +829,10 @@ public class LogManager implements AutoCloseable {
 
   // record -> statement failed (load workflow)
   private void appendUnmappableStatementToDebugFile(UnmappableStatement statement) {
-    Path logFile = operationDirectory.resolve(MAPPING_ERRORS_FILE);
-    PrintWriter writer = openFiles.get(logFile);
-    assert writer != null;
+    append(MAPPING_ERRORS_FILE, writer -> printUnmappableStatement(statement, writer));
+  }
+
+  private void printUnmappableStatement(UnmappableStatement statement, PrintWriter writer) {
     Record record = statement.getRecord();
     writer.println("Resource: " + record.getResource());
     writer.println("Position: " + record.getPosition());
@@ -733,13 +845,14 @@ public class LogManager implements AutoCloseable {
 
   // row -> record failed (unload workflow)
   private void appendUnmappableReadResultToDebugFile(ErrorRecord record) {
-    Path logFile = operationDirectory.resolve(MAPPING_ERRORS_FILE);
-    PrintWriter writer = openFiles.get(logFile);
-    assert writer != null;
+    append(MAPPING_ERRORS_FILE, writer -> printUnmappableReadResult(record, writer));
+  }
+
+  private void printUnmappableReadResult(ErrorRecord record, PrintWriter writer) {
     // Don't print the resource since it will be just cql://keyspace/table
     if (record.getSource() instanceof ReadResult) {
       ReadResult source = (ReadResult) record.getSource();
-      appendStatement(source, MAPPING_ERRORS_FILE, false);
+      appendStatement(source, writer, false);
       source
           .getRow()
           .ifPresent(
@@ -756,9 +869,10 @@ public class LogManager implements AutoCloseable {
   // Connector errors
 
   private void appendFailedRecordToDebugFile(ErrorRecord record) {
-    Path logFile = operationDirectory.resolve(CONNECTOR_ERRORS_FILE);
-    PrintWriter writer = openFiles.get(logFile);
-    assert writer != null;
+    append(CONNECTOR_ERRORS_FILE, writer -> printFailedRecord(record, writer));
+  }
+
+  private void printFailedRecord(ErrorRecord record, PrintWriter writer) {
     writer.println("Resource: " + record.getResource());
     writer.println("Position: " + record.getPosition());
     if (record.getSource() != null) {
@@ -770,6 +884,18 @@ public class LogManager implements AutoCloseable {
 
   // Utility methods
 
+  /**
+   * Formats an entry with the given printer, then hands it over to the log writer; the entry is
+   * thus written to the file in one piece, and asynchronously.
+   */
+  private void append(String fileName, Consumer<PrintWriter> printer) {
+    StringWriter entry = new StringWriter();
+    try (PrintWriter writer = new PrintWriter(entry)) {
+      printer.accept(writer);
+    }
+    logWriter.write(operationDirectory.resolve(fileName), entry.toString());
+  }
+
   private static void appendToPositionsFile(
       URI resource, List<Range> positions, PrintWriter positionsPrinter) {
     positionsPrinter.print(resource);
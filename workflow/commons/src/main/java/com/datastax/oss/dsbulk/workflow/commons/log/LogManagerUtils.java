@@ -15,9 +15,28 @@
  */
 package com.datastax.oss.dsbulk.workflow.commons.log;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.datastax.oss.driver.api.core.metadata.EndPoint;
+import com.datastax.oss.driver.api.core.metadata.token.Token;
 import com.datastax.oss.dsbulk.connectors.api.Record;
+import com.datastax.oss.dsbulk.partitioner.BulkTokenFactory;
+import com.datastax.oss.dsbulk.partitioner.BulkTokenRange;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.PrintWriter;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -64,4 +83,151 @@ public class LogManagerUtils {
       }
     }
   }
+
+  /**
+   * Writes the given positions to a checkpoint file.
+   *
+   * <p>Each line of the file contains a resource URI, followed by a tab, followed by the
+   * comma-separated ranges of processed positions for that resource, e.g. {@code
+   * file:///data.csv<TAB>1-1000,1002-1500}.
+   *
+   * <p>The file is first written under a temporary name, then atomically moved to its final
+   * location, so that a crash while checkpointing never leaves a truncated checkpoint behind.
+   */
+  public static void writeCheckpoint(@NonNull Path file, @NonNull PositionsTracker positions)
+      throws IOException {
+    Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+    try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(tmp, UTF_8))) {
+      // sort positions by URI
+      for (Map.Entry<URI, List<Range>> entry : new TreeMap<>(positions.getPositions()).entrySet()) {
+        writer.print(entry.getKey());
+        writer.print('\t');
+        boolean first = true;
+        for (Range range : entry.getValue()) {
+          if (!first) {
+            writer.print(',');
+          }
+          writer.print(range.getLower());
+          writer.print('-');
+          writer.print(range.getUpper());
+          first = false;
+        }
+        writer.println();
+      }
+    }
+    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Reads a checkpoint file previously written by {@link #writeCheckpoint(Path, PositionsTracker)}.
+   *
+   * @throws IllegalArgumentException if the file is malformed.
+   */
+  @NonNull
+  public static PositionsTracker readCheckpoint(@NonNull Path file) throws IOException {
+    PositionsTracker positions = new PositionsTracker();
+    try (BufferedReader reader = Files.newBufferedReader(file, UTF_8)) {
+      String line;
+      int lineNumber = 0;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        if (line.trim().isEmpty()) {
+          continue;
+        }
+        try {
+          int tab = line.lastIndexOf('\t');
+          URI resource = URI.create(line.substring(0, tab));
+          for (String range : line.substring(tab + 1).split(",")) {
+            int dash = range.indexOf('-');
+            positions.update(
+                resource,
+                Long.parseLong(range.substring(0, dash).trim()),
+                Long.parseLong(range.substring(dash + 1).trim()));
+          }
+        } catch (RuntimeException e) {
+          throw new IllegalArgumentException(
+              String.format("Invalid checkpoint file %s at line %d: %s", file, lineNumber, line),
+              e);
+        }
+      }
+    }
+    return positions;
+  }
+
+  /**
+   * Writes the token ranges that remain to be read to a checkpoint file.
+   *
+   * <p>The first line of the file contains the word {@code rows}, followed by a tab, followed by
+   * the number of rows read in completed ranges; each subsequent line contains the start and end
+   * tokens of a remaining range, separated by a tab. Like {@link #writeCheckpoint(Path,
+   * PositionsTracker)}, the file is atomically moved to its final location once written.
+   */
+  public static void writeTokenRangesCheckpoint(
+      @NonNull Path file, @NonNull TokenRangesTracker tracker) throws IOException {
+    BulkTokenFactory tokenFactory = tracker.getTokenFactory();
+    List<BulkTokenRange> ranges = tracker.getRemainingRanges();
+    Collections.sort(ranges);
+    Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+    try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(tmp, UTF_8))) {
+      writer.print("rows\t");
+      writer.println(tracker.getRows());
+      for (BulkTokenRange range : ranges) {
+        writer.print(tokenFactory.format(range.getStart()));
+        writer.print('\t');
+        writer.println(tokenFactory.format(range.getEnd()));
+      }
+    }
+    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Reads a checkpoint file previously written by {@link #writeTokenRangesCheckpoint(Path,
+   * TokenRangesTracker)}.
+   *
+   * @param file The checkpoint file.
+   * @param tokenFactory The token factory for the cluster's partitioner.
+   * @param replicas The function computing the replicas of a range, given its end token.
+   * @return A tracker of the ranges that remain to be read.
+   * @throws IllegalArgumentException if the file is malformed.
+   */
+  @NonNull
+  public static TokenRangesTracker readTokenRangesCheckpoint(
+      @NonNull Path file,
+      @NonNull BulkTokenFactory tokenFactory,
+      @NonNull Function<Token, Set<EndPoint>> replicas)
+      throws IOException {
+    long rows = 0;
+    List<BulkTokenRange> ranges = new ArrayList<>();
+    try (BufferedReader reader = Files.newBufferedReader(file, UTF_8)) {
+      String line;
+      int lineNumber = 0;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        if (line.trim().isEmpty()) {
+          continue;
+        }
+        try {
+          String[] tokens = line.split("\t");
+          if (tokens.length != 2) {
+            throw new IllegalArgumentException("Expecting 2 fields, got: " + tokens.length);
+          }
+          if (lineNumber == 1) {
+            if (!tokens[0].equals("rows")) {
+              throw new IllegalArgumentException("Expecting rows count first");
+            }
+            rows = Long.parseLong(tokens[1].trim());
+          } else {
+            Token start = tokenFactory.parse(tokens[0].trim());
+            Token end = tokenFactory.parse(tokens[1].trim());
+            ranges.add(tokenFactory.range(start, end, replicas.apply(end)));
+          }
+        } catch (RuntimeException e) {
+          throw new IllegalArgumentException(
+              String.format("Invalid checkpoint file %s at line %d: %s", file, lineNumber, line),
+              e);
+        }
+      }
+    }
+    return new TokenRangesTracker(tokenFactory, ranges, rows);
+  }
 }
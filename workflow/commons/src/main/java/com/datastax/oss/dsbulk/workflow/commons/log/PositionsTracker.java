@@ -18,67 +18,180 @@ package com.datastax.oss.dsbulk.workflow.commons.log;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Tracks the positions of processed records, per resource, as sets of disjoint ranges.
+ *
+ * <p>Records usually complete out of order, so ranges of each resource are kept in a navigable set
+ * ordered by their lower bounds, which allows to locate, extend and merge ranges in logarithmic
+ * time, whatever the number of ranges. Positions arriving in order simply extend the last range,
+ * without lookup nor allocation.
+ *
+ * <p>This class is thread-safe; updates to different resources never contend with each other.
+ */
 public class PositionsTracker {
 
-  private final Map<URI, List<Range>> positions = new HashMap<>();
+  private static final Comparator<Range> BY_LOWER =
+      (r1, r2) -> Long.compare(r1.getLower(), r2.getLower());
 
+  private final ConcurrentMap<URI, Positions> positions = new ConcurrentHashMap<>();
+
+  /**
+   * Returns a snapshot of the positions tracked so far.
+   *
+   * @return the ranges of processed positions, sorted in ascending order, keyed by resource.
+   */
+  @NonNull
   public Map<URI, List<Range>> getPositions() {
-    return positions;
+    Map<URI, List<Range>> snapshot = new HashMap<>(positions.size());
+    positions.forEach((resource, ranges) -> snapshot.put(resource, ranges.snapshot()));
+    return snapshot;
+  }
+
+  /**
+   * Returns, for each resource, the last position of the range starting at the first position, that
+   * is, the number of leading records that were all processed. Resources whose first position was
+   * not processed yet are not included.
+   */
+  @NonNull
+  public Map<URI, Long> getContiguousPositions() {
+    Map<URI, Long> contiguous = new HashMap<>(positions.size());
+    positions.forEach(
+        (resource, ranges) -> {
+          long upper = ranges.contiguousUpper();
+          if (upper > 0) {
+            contiguous.put(resource, upper);
+          }
+        });
+    return contiguous;
   }
 
   public boolean isEmpty() {
     return positions.isEmpty();
   }
 
-  public void update(URI resource, long position) {
+  /** Returns whether the given position of the given resource was processed. */
+  public boolean contains(@NonNull URI resource, long position) {
+    Positions ranges = positions.get(resource);
+    return ranges != null && ranges.contains(position);
+  }
+
+  public void update(@NonNull URI resource, long position) {
     if (position > 0) {
-      positions.compute(
-          resource,
-          (res, positions) -> {
-            if (positions == null) {
-              positions = new ArrayList<>(100);
-              positions.add(new Range(position));
-              return positions;
-            } else {
-              return addPosition(positions, position);
-            }
-          });
+      getOrCreate(resource).add(position);
+    }
+  }
+
+  /** Marks all the positions in {@code [lower,upper]} of the given resource as processed. */
+  public void update(@NonNull URI resource, long lower, long upper) {
+    if (upper > 0 && lower <= upper) {
+      getOrCreate(resource).add(Math.max(1L, lower), upper);
     }
   }
 
   @NonNull
-  private static List<Range> addPosition(@NonNull List<Range> positions, long position) {
-    ListIterator<Range> iterator = positions.listIterator();
-    while (iterator.hasNext()) {
-      Range range = iterator.next();
-      if (range.contains(position)) {
-        return positions;
-      } else if (range.getUpper() + 1L == position) {
-        range.setUpper(position);
-        if (iterator.hasNext()) {
-          Range next = iterator.next();
-          if (range.getUpper() == next.getLower() - 1L) {
-            iterator.remove();
-            range = iterator.previous();
-            range.setUpper(next.getUpper());
-          }
+  private Positions getOrCreate(@NonNull URI resource) {
+    Positions ranges = positions.get(resource);
+    if (ranges == null) {
+      ranges = positions.computeIfAbsent(resource, res -> new Positions());
+    }
+    return ranges;
+  }
+
+  private static final class Positions {
+
+    // disjoint and non-adjacent ranges, ordered by their lower bounds; guarded by this. Bounds are
+    // updated in place: since ranges never overlap, this never changes their relative order.
+    private final TreeSet<Range> ranges = new TreeSet<>(BY_LOWER);
+
+    // a reusable search key; guarded by this
+    private final Range probe = new Range(0L);
+
+    // the range with the highest bounds; guarded by this
+    private Range last;
+
+    private synchronized void add(long position) {
+      if (last != null && last.getUpper() + 1L == position) {
+        // fast path: no other range can be adjacent to the last one
+        last.setUpper(position);
+        return;
+      }
+      probe.setLower(position);
+      Range floor = ranges.floor(probe);
+      if (floor != null && position <= floor.getUpper()) {
+        return;
+      }
+      Range next = ranges.higher(probe);
+      boolean joinsFloor = floor != null && floor.getUpper() + 1L == position;
+      boolean joinsNext = next != null && next.getLower() - 1L == position;
+      if (joinsFloor && joinsNext) {
+        ranges.remove(next);
+        floor.setUpper(next.getUpper());
+        if (next == last) {
+          last = floor;
         }
-        return positions;
-      } else if (range.getLower() - 1L == position) {
-        range.setLower(position);
-        return positions;
-      } else if (position < range.getLower()) {
-        iterator.previous();
-        iterator.add(new Range(position));
-        return positions;
+      } else if (joinsFloor) {
+        floor.setUpper(position);
+      } else if (joinsNext) {
+        next.setLower(position);
+      } else {
+        Range range = new Range(position);
+        ranges.add(range);
+        if (next == null) {
+          last = range;
+        }
+      }
+    }
+
+    private synchronized void add(long lower, long upper) {
+      probe.setLower(lower);
+      Range floor = ranges.floor(probe);
+      Range range;
+      if (floor != null && floor.getUpper() + 1L >= lower) {
+        range = floor;
+        range.setUpper(Math.max(range.getUpper(), upper));
+      } else {
+        range = new Range(lower, upper);
+        ranges.add(range);
+      }
+      // absorb the following ranges that are now overlapping or adjacent
+      Range next = ranges.higher(range);
+      while (next != null && next.getLower() <= range.getUpper() + 1L) {
+        ranges.remove(next);
+        range.setUpper(Math.max(range.getUpper(), next.getUpper()));
+        next = ranges.higher(range);
+      }
+      if (next == null) {
+        last = range;
+      }
+    }
+
+    private synchronized boolean contains(long position) {
+      probe.setLower(position);
+      Range floor = ranges.floor(probe);
+      return floor != null && position <= floor.getUpper();
+    }
+
+    private synchronized long contiguousUpper() {
+      if (ranges.isEmpty() || ranges.first().getLower() != 1L) {
+        return 0L;
+      }
+      return ranges.first().getUpper();
+    }
+
+    private synchronized List<Range> snapshot() {
+      List<Range> snapshot = new ArrayList<>(ranges.size());
+      for (Range range : ranges) {
+        snapshot.add(new Range(range.getLower(), range.getUpper()));
       }
+      return snapshot;
     }
-    iterator.add(new Range(position));
-    return positions;
   }
 }
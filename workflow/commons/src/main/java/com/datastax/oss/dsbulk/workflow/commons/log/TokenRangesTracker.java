@@ -0,0 +1,329 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.workflow.commons.log;
+
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.metadata.token.Token;
+import com.datastax.oss.dsbulk.connectors.api.Connector;
+import com.datastax.oss.dsbulk.connectors.api.Field;
+import com.datastax.oss.dsbulk.connectors.api.Record;
+import com.datastax.oss.dsbulk.executor.api.result.ReadResult;
+import com.datastax.oss.dsbulk.partitioner.BulkTokenFactory;
+import com.datastax.oss.dsbulk.partitioner.BulkTokenRange;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import reactor.core.publisher.Flux;
+
+/**
+ * Tracks the token ranges that remain to be read by an unload or count operation.
+ *
+ * <p>Ranges being read never overlap, so they are keyed by their end token, which is also the
+ * routing token of the statements reading them. A range is removed once all its rows have been read
+ * successfully or, when they are unloaded, once all its records have been emitted by the connector;
+ * ranges whose reads or writes failed, or were interrupted, remain to be read. Connectors may still
+ * buffer the records they emitted: a {@linkplain #snapshot() snapshot} must be taken before
+ * {@linkplain Connector#flush() flushing} the connector, and only then can it be checkpointed.
+ *
+ * <p>This class is thread-safe.
+ */
+public class TokenRangesTracker {
+
+  private final BulkTokenFactory tokenFactory;
+  private final ConcurrentMap<Token, BulkTokenRange> remaining = new ConcurrentHashMap<>();
+  private final LongAdder rows = new LongAdder();
+
+  /**
+   * Creates a new tracker.
+   *
+   * @param tokenFactory The token factory for the cluster's partitioner.
+   * @param ranges The ranges to read.
+   * @param rows The number of rows already read in other ranges, typically by the operation being
+   *     resumed.
+   */
+  public TokenRangesTracker(
+      @NonNull BulkTokenFactory tokenFactory, @NonNull List<BulkTokenRange> ranges, long rows) {
+    this.tokenFactory = tokenFactory;
+    for (BulkTokenRange range : ranges) {
+      remaining.put(range.getEnd(), range);
+    }
+    this.rows.add(rows);
+  }
+
+  @NonNull
+  public BulkTokenFactory getTokenFactory() {
+    return tokenFactory;
+  }
+
+  /** @return A snapshot of the ranges that remain to be read. */
+  @NonNull
+  public List<BulkTokenRange> getRemainingRanges() {
+    return new ArrayList<>(remaining.values());
+  }
+
+  /** @return The number of rows read in the ranges that were completely read. */
+  public long getRows() {
+    return rows.sum();
+  }
+
+  /** @return A copy of this tracker, with the ranges that remain to be read and the rows read. */
+  @NonNull
+  public synchronized TokenRangesTracker snapshot() {
+    return new TokenRangesTracker(tokenFactory, getRemainingRanges(), getRows());
+  }
+
+  /**
+   * Records that a range being read was split in two halves, that are now read separately.
+   *
+   * <p>The second half must end where the original range ended; it replaces the original range
+   * only after the first half was added, so that a concurrent snapshot never misses any part of
+   * the original range. If the original range was already read entirely, only the second half,
+   * which is going to be read again, is added.
+   */
+  public synchronized void split(@NonNull BulkTokenRange first, @NonNull BulkTokenRange second) {
+    if (remaining.containsKey(second.getEnd())) {
+      remaining.put(first.getEnd(), first);
+    }
+    remaining.put(second.getEnd(), second);
+  }
+
+  /**
+   * Handler that marks the range read by the given statement as read, once all its rows have been
+   * read successfully.
+   *
+   * @param statement The statement reading the range; its routing token must be the range's end.
+   * @return a handler for the results of the given statement.
+   */
+  @NonNull
+  public Function<Flux<ReadResult>, Flux<ReadResult>> newRangeCompletionHandler(
+      @NonNull Statement<?> statement) {
+    return newRangeCompletionHandler(statement::getRoutingToken);
+  }
+
+  /**
+   * Handler that marks a range as read, once all its rows have been read successfully.
+   *
+   * @param end The end token of the range; it is only evaluated when the range is read entirely,
+   *     since the range could be split in the meanwhile.
+   * @return a handler for the results of the range.
+   */
+  @NonNull
+  public Function<Flux<ReadResult>, Flux<ReadResult>> newRangeCompletionHandler(
+      @NonNull Supplier<Token> end) {
+    return upstream ->
+        Flux.defer(
+            () -> {
+              AtomicBoolean failed = new AtomicBoolean(false);
+              LongAdder read = new LongAdder();
+              return upstream
+                  .doOnNext(
+                      result -> {
+                        if (result.isSuccess()) {
+                          read.increment();
+                        } else {
+                          failed.set(true);
+                        }
+                      })
+                  .doOnComplete(
+                      () -> {
+                        if (!failed.get()) {
+                          completed(end.get(), read.sum());
+                        }
+                      });
+            });
+  }
+
+  /**
+   * Starts tracking a range whose rows are mapped to records and written to a connector. The range
+   * is marked as read once all its rows have been read successfully, and all the records mapped
+   * from them have been written.
+   *
+   * @param end The end token of the range; it is only evaluated when the range is written
+   *     entirely, since the range could be split in the meanwhile.
+   * @return the pending range.
+   */
+  @NonNull
+  public PendingRange newPendingRange(@NonNull Supplier<Token> end) {
+    return new PendingRange(end);
+  }
+
+  /**
+   * Handler for the records emitted by a connector after writing them. Must be placed immediately
+   * downstream of the connector's {@linkplain Connector#write() writer}.
+   *
+   * @return a handler for written records.
+   */
+  @NonNull
+  public Function<Flux<Record>, Flux<Record>> newWrittenRecordsHandler() {
+    return upstream ->
+        upstream.doOnNext(
+            record -> {
+              // records that could not be written are emitted as new error records, and never
+              // release their range
+              if (record instanceof PendingRecord) {
+                ((PendingRecord) record).range.release();
+              }
+            });
+  }
+
+  /**
+   * Marks a range as read.
+   *
+   * @param end The end token of the range.
+   * @param read The number of rows in the range.
+   */
+  public synchronized void completed(Token end, long read) {
+    if (end != null && remaining.remove(end) != null) {
+      rows.add(read);
+    }
+  }
+
+  /**
+   * A range whose records are being written.
+   *
+   * <p>The range holds one permit for each of its records being written, plus one permit released
+   * when all its rows have been read and mapped successfully; it is marked as read when all
+   * permits are released. Records being written carry a reference to their range, so that no
+   * per-record state is kept here.
+   */
+  public final class PendingRange {
+
+    private final Supplier<Token> end;
+    private final AtomicLong permits = new AtomicLong(1);
+    private final LongAdder read = new LongAdder();
+    private volatile boolean failed;
+
+    private PendingRange(Supplier<Token> end) {
+      this.end = end;
+    }
+
+    /**
+     * Handler for the results of the range, before they are mapped to records.
+     *
+     * @return a handler for the results of the range.
+     */
+    @NonNull
+    public Function<Flux<ReadResult>, Flux<ReadResult>> newReadResultsHandler() {
+      return upstream ->
+          upstream.doOnNext(
+              result -> {
+                if (result.isSuccess()) {
+                  read.increment();
+                } else {
+                  failed = true;
+                }
+              });
+    }
+
+    /**
+     * Handler for the records of the range, before they are written. Must be placed upstream of the
+     * connector's {@linkplain Connector#write() writer}; the records it emits are views of the
+     * original records that carry a reference to this range.
+     *
+     * @return a handler for the records of the range.
+     */
+    @NonNull
+    public Function<Flux<Record>, Flux<Record>> newRecordsHandler() {
+      return upstream ->
+          upstream
+              .<Record>map(
+                  record -> {
+                    permits.incrementAndGet();
+                    return new PendingRecord(record, this);
+                  })
+              .doOnComplete(
+                  () -> {
+                    if (!failed) {
+                      release();
+                    }
+                  });
+    }
+
+    private void release() {
+      if (permits.decrementAndGet() == 0) {
+        completed(end.get(), read.sum());
+      }
+    }
+  }
+
+  /** A record being written, and the range it was read from. */
+  private static final class PendingRecord implements Record {
+
+    private final Record record;
+    private final PendingRange range;
+
+    private PendingRecord(Record record, PendingRange range) {
+      this.record = record;
+      this.range = range;
+    }
+
+    @Nullable
+    @Override
+    public Object getSource() {
+      return record.getSource();
+    }
+
+    @NonNull
+    @Override
+    public URI getResource() {
+      return record.getResource();
+    }
+
+    @Override
+    public long getPosition() {
+      return record.getPosition();
+    }
+
+    @NonNull
+    @Override
+    public Set<Field> fields() {
+      return record.fields();
+    }
+
+    @NonNull
+    @Override
+    public Collection<Object> values() {
+      return record.values();
+    }
+
+    @Nullable
+    @Override
+    public Object getFieldValue(@NonNull Field field) {
+      return record.getFieldValue(field);
+    }
+
+    @Override
+    public void clear() {
+      record.clear();
+    }
+
+    @Override
+    public String toString() {
+      return record.toString();
+    }
+  }
+}
@@ -30,19 +30,23 @@ import com.datastax.oss.driver.api.core.cql.BatchStatement;
 import com.datastax.oss.driver.api.core.cql.Statement;
 import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
 import com.datastax.oss.driver.shaded.guava.common.util.concurrent.MoreExecutors;
+import com.datastax.oss.dsbulk.codecs.api.util.TemporalCache;
 import com.datastax.oss.dsbulk.connectors.api.ErrorRecord;
+import com.datastax.oss.dsbulk.executor.api.limiter.AdaptiveConcurrencyLimiter;
 import com.datastax.oss.dsbulk.executor.api.listener.AbstractMetricsReportingExecutionListenerBuilder;
 import com.datastax.oss.dsbulk.executor.api.listener.LogSink;
 import com.datastax.oss.dsbulk.executor.api.listener.MetricsCollectingExecutionListener;
 import com.datastax.oss.dsbulk.executor.api.listener.ReadsReportingExecutionListener;
 import com.datastax.oss.dsbulk.executor.api.listener.WritesReportingExecutionListener;
 import com.datastax.oss.dsbulk.executor.api.result.Result;
+import com.datastax.oss.dsbulk.workflow.commons.policies.retry.BackoffRetryPolicy;
 import com.datastax.oss.dsbulk.workflow.commons.settings.LogSettings.Verbosity;
 import com.datastax.oss.dsbulk.workflow.commons.settings.RowType;
 import com.datastax.oss.dsbulk.workflow.commons.statement.UnmappableStatement;
 import com.datastax.oss.dsbulk.workflow.commons.utils.JMXUtils;
 import java.lang.management.GarbageCollectorMXBean;
 import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.util.StringTokenizer;
@@ -77,6 +81,8 @@ public class MetricsManager implements AutoCloseable {
   private final boolean jmx;
   private final boolean csv;
   private final boolean console;
+  private final String prometheusHost;
+  private final int prometheusPort;
   private final Path operationDirectory;
   private final Duration reportInterval;
   private final boolean batchingEnabled;
@@ -94,6 +100,7 @@ public class MetricsManager implements AutoCloseable {
   private JmxReporter jmxReporter;
   private CsvReporter csvReporter;
   private ConsoleReporter consoleReporter;
+  private PrometheusReporter prometheusReporter;
   private LogSink logSink;
 
   private final AtomicBoolean running = new AtomicBoolean(false);
@@ -111,6 +118,8 @@ public class MetricsManager implements AutoCloseable {
       boolean jmx,
       boolean csv,
       boolean console,
+      String prometheusHost,
+      int prometheusPort,
       Path operationDirectory,
       Verbosity verbosity,
       Duration reportInterval,
@@ -135,6 +144,8 @@ public class MetricsManager implements AutoCloseable {
     this.jmx = jmx;
     this.csv = csv;
     this.console = console;
+    this.prometheusHost = prometheusHost;
+    this.prometheusPort = prometheusPort;
     this.operationDirectory = operationDirectory;
     this.verbosity = verbosity;
     this.reportInterval = reportInterval;
@@ -174,6 +185,9 @@ public class MetricsManager implements AutoCloseable {
     if (csv) {
       startCSVReporter();
     }
+    if (prometheusPort >= 0) {
+      startPrometheusReporter();
+    }
     if (verbosity.compareTo(Verbosity.quiet) > 0) {
       if (console) {
         startConsoleReporter();
@@ -304,6 +318,17 @@ public class MetricsManager implements AutoCloseable {
     csvReporter.start(reportInterval.getSeconds(), SECONDS);
   }
 
+  private void startPrometheusReporter() {
+    prometheusReporter =
+        new PrometheusReporter(registry, executionId, prometheusHost, prometheusPort);
+    prometheusReporter.start();
+    InetSocketAddress address = prometheusReporter.getAddress();
+    LOGGER.info(
+        "Prometheus metrics available at http://{}:{}/metrics",
+        address.getHostString(),
+        address.getPort());
+  }
+
   private void startRecordReporter() {
     recordReporter = new RecordReporter(registry, logSink, rateUnit, scheduler, expectedWrites);
     // periodic reporting is only enabled in verbose mode
@@ -423,6 +448,9 @@ public class MetricsManager implements AutoCloseable {
     if (csvReporter != null) {
       csvReporter.close();
     }
+    if (prometheusReporter != null) {
+      prometheusReporter.close();
+    }
     if (recordReporter != null) {
       recordReporter.close();
     }
@@ -497,4 +525,38 @@ public class MetricsManager implements AutoCloseable {
   public MetricsCollectingExecutionListener getExecutionListener() {
     return listener;
   }
+
+  /**
+   * Exposes the current limit of the given concurrency limiter as the gauge {@code
+   * executor/concurrency-limit}.
+   *
+   * @param limiter the limiter to monitor.
+   */
+  public void monitorConcurrencyLimiter(AdaptiveConcurrencyLimiter limiter) {
+    registry.gauge("executor/concurrency-limit", () -> limiter::getLimit);
+  }
+
+  /**
+   * Exposes the retries decided by the given retry policy as gauges under {@code retries/}: the
+   * number of immediate, delayed and rejected retries, the total backoff time in milliseconds, and
+   * the number of nodes currently considered overloaded.
+   *
+   * @param policy the policy to monitor.
+   */
+  public void monitorRetryPolicy(BackoffRetryPolicy policy) {
+    registry.gauge("retries/immediate", () -> policy::getImmediateRetries);
+    registry.gauge("retries/delayed", () -> policy::getDelayedRetries);
+    registry.gauge("retries/rejected", () -> policy::getRejectedRetries);
+    registry.gauge("retries/backoff-time", () -> () -> policy.getBackoffTime(MILLISECONDS));
+    registry.gauge("retries/overloaded-nodes", () -> policy::getOverloadedNodes);
+  }
+
+  /**
+   * Exposes the hit ratio of temporal caches as the gauge {@code codec/temporal-cache/hit-ratio}.
+   *
+   * @param statistics the statistics shared by the caches to monitor.
+   */
+  public void monitorTemporalCache(TemporalCache.Statistics statistics) {
+    registry.gauge("codec/temporal-cache/hit-ratio", () -> statistics::getHitRatio);
+  }
 }
@@ -0,0 +1,248 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.workflow.commons.metrics;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Metered;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+import com.datastax.oss.driver.shaded.guava.common.util.concurrent.ThreadFactoryBuilder;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exposes the metrics of a registry over HTTP, in the Prometheus text exposition format, at {@code
+ * /metrics}.
+ *
+ * <p>Counters and numeric gauges are exposed as is; meters and timers are exposed as a counter
+ * suffixed with {@code _total} and a one-minute rate per second suffixed with {@code _rate};
+ * histograms and timers are also exposed as summaries, with timer durations in seconds suffixed
+ * with {@code _seconds}. A trailing {@code _total} in a meter or timer name is dropped before
+ * adding these suffixes, so that the timer {@code executor/writes/total} is exposed as {@code
+ * dsbulk_executor_writes_total}, {@code dsbulk_executor_writes_rate} and {@code
+ * dsbulk_executor_writes_seconds}. All metric names are prefixed with {@code dsbulk_}, and all
+ * samples carry the execution id as a label.
+ *
+ * <p>Scrapes are served by a dedicated daemon thread: the metrics are only read when a scrape
+ * request comes in, and the threads updating them are never blocked nor involved in the rendering.
+ */
+public class PrometheusReporter implements AutoCloseable {
+
+  static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  private static final double[] QUANTILES = {0.5, 0.75, 0.95, 0.99, 0.999};
+  private static final double NO_QUANTILE = -1;
+  private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+  private static final String TOTAL_SUFFIX = "_total";
+
+  private final MetricRegistry registry;
+  private final String labels;
+  private final HttpServer server;
+  private final ExecutorService executor;
+
+  // only accessed by the HTTP thread
+  private final StringBuilder buffer = new StringBuilder(16 * 1024);
+  private final Map<String, String> names = new HashMap<>();
+  private final Set<String> rendered = new HashSet<>();
+
+  PrometheusReporter(MetricRegistry registry, String executionId, String host, int port) {
+    this.registry = registry;
+    this.labels = "executionId=\"" + escapeLabelValue(executionId) + '"';
+    try {
+      server = HttpServer.create(new InetSocketAddress(host, port), 0);
+    } catch (IOException e) {
+      throw new UncheckedIOException(
+          "Could not bind Prometheus endpoint to " + host + ":" + port, e);
+    }
+    executor =
+        Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("prometheus-reporter-%d")
+                .setPriority(Thread.MIN_PRIORITY)
+                .build());
+    server.setExecutor(executor);
+    server.createContext("/metrics", this::handle);
+  }
+
+  public void start() {
+    server.start();
+  }
+
+  /** @return The address the endpoint is bound to. */
+  public InetSocketAddress getAddress() {
+    return server.getAddress();
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try {
+      if (!exchange.getRequestMethod().equals("GET")) {
+        exchange.sendResponseHeaders(405, -1);
+        return;
+      }
+      byte[] body = render().getBytes(UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    } finally {
+      exchange.close();
+    }
+  }
+
+  /**
+   * Renders all the metrics of the registry. Not thread-safe: must only be called by the HTTP
+   * thread, or by tests.
+   */
+  String render() {
+    buffer.setLength(0);
+    rendered.clear();
+    for (Map.Entry<String, Metric> entry : registry.getMetrics().entrySet()) {
+      String name = names.computeIfAbsent(entry.getKey(), PrometheusReporter::sanitize);
+      // two metrics could have the same sanitized name; only expose the first one
+      if (!rendered.add(name)) {
+        continue;
+      }
+      Metric metric = entry.getValue();
+      if (metric instanceof Gauge) {
+        renderGauge(name, (Gauge<?>) metric);
+      } else if (metric instanceof Counter) {
+        renderType(name, "counter");
+        renderSample(name, NO_QUANTILE, ((Counter) metric).getCount());
+      } else if (metric instanceof Meter) {
+        renderMeter(stripTotal(name), (Meter) metric);
+      } else if (metric instanceof Timer) {
+        Timer timer = (Timer) metric;
+        String base = stripTotal(name);
+        renderMeter(base, timer);
+        renderSummary(base + "_seconds", timer.getSnapshot(), timer.getCount(), NANOS_PER_SECOND);
+      } else if (metric instanceof Histogram) {
+        Histogram histogram = (Histogram) metric;
+        renderSummary(name, histogram.getSnapshot(), histogram.getCount(), 1);
+      }
+    }
+    return buffer.toString();
+  }
+
+  private void renderGauge(String name, Gauge<?> gauge) {
+    Object value = gauge.getValue();
+    if (value instanceof Number) {
+      renderType(name, "gauge");
+      renderSample(name, NO_QUANTILE, ((Number) value).doubleValue());
+    } else if (value instanceof Boolean) {
+      renderType(name, "gauge");
+      renderSample(name, NO_QUANTILE, (Boolean) value ? 1 : 0);
+    }
+  }
+
+  private void renderMeter(String name, Metered meter) {
+    renderType(name + TOTAL_SUFFIX, "counter");
+    renderSample(name + TOTAL_SUFFIX, NO_QUANTILE, meter.getCount());
+    renderType(name + "_rate", "gauge");
+    renderSample(name + "_rate", NO_QUANTILE, meter.getOneMinuteRate());
+  }
+
+  private void renderSummary(String name, Snapshot snapshot, long count, double factor) {
+    renderType(name, "summary");
+    for (double quantile : QUANTILES) {
+      renderSample(name, quantile, snapshot.getValue(quantile) / factor);
+    }
+    renderSample(name + "_count", NO_QUANTILE, count);
+  }
+
+  private void renderType(String name, String type) {
+    buffer.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+  }
+
+  private void renderSample(String name, double quantile, double value) {
+    appendSampleName(name, quantile);
+    if (Double.isNaN(value)) {
+      buffer.append("NaN");
+    } else if (Double.isInfinite(value)) {
+      buffer.append(value > 0 ? "+Inf" : "-Inf");
+    } else if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+      buffer.append((long) value);
+    } else {
+      buffer.append(value);
+    }
+    buffer.append('\n');
+  }
+
+  private void renderSample(String name, double quantile, long value) {
+    appendSampleName(name, quantile);
+    buffer.append(value).append('\n');
+  }
+
+  private void appendSampleName(String name, double quantile) {
+    buffer.append(name).append('{').append(labels);
+    if (quantile != NO_QUANTILE) {
+      buffer.append(",quantile=\"").append(quantile).append('"');
+    }
+    buffer.append("} ");
+  }
+
+  /**
+   * Converts a registry name such as {@code executor/writes/total} into a valid Prometheus metric
+   * name, such as {@code dsbulk_executor_writes_total}.
+   */
+  static String sanitize(String name) {
+    StringBuilder sb = new StringBuilder("dsbulk_");
+    for (int i = 0; i < name.length(); i++) {
+      char c = name.charAt(i);
+      if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+        sb.append(c);
+      } else {
+        sb.append('_');
+      }
+    }
+    return sb.toString();
+  }
+
+  private static String stripTotal(String name) {
+    return name.endsWith(TOTAL_SUFFIX)
+        ? name.substring(0, name.length() - TOTAL_SUFFIX.length())
+        : name;
+  }
+
+  private static String escapeLabelValue(String value) {
+    return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+}
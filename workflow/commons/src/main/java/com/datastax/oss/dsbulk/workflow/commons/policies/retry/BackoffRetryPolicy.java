@@ -0,0 +1,464 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.workflow.commons.policies.retry;
+
+import com.datastax.oss.driver.api.core.AllNodesFailedException;
+import com.datastax.oss.driver.api.core.ConsistencyLevel;
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.DriverTimeoutException;
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.config.DriverExecutionProfile;
+import com.datastax.oss.driver.api.core.connection.BusyConnectionException;
+import com.datastax.oss.driver.api.core.connection.ClosedConnectionException;
+import com.datastax.oss.driver.api.core.connection.HeartbeatException;
+import com.datastax.oss.driver.api.core.context.DriverContext;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.metadata.Metadata;
+import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.api.core.metadata.NodeState;
+import com.datastax.oss.driver.api.core.metadata.TokenMap;
+import com.datastax.oss.driver.api.core.metadata.token.Token;
+import com.datastax.oss.driver.api.core.retry.RetryDecision;
+import com.datastax.oss.driver.api.core.retry.RetryPolicy;
+import com.datastax.oss.driver.api.core.servererrors.CoordinatorException;
+import com.datastax.oss.driver.api.core.servererrors.OverloadedException;
+import com.datastax.oss.driver.api.core.servererrors.ReadFailureException;
+import com.datastax.oss.driver.api.core.servererrors.ReadTimeoutException;
+import com.datastax.oss.driver.api.core.servererrors.UnavailableException;
+import com.datastax.oss.driver.api.core.servererrors.WriteFailureException;
+import com.datastax.oss.driver.api.core.servererrors.WriteTimeoutException;
+import com.datastax.oss.driver.api.core.servererrors.WriteType;
+import com.datastax.oss.driver.api.core.session.Request;
+import com.datastax.oss.driver.internal.core.context.InternalDriverContext;
+import com.datastax.oss.dsbulk.executor.api.retry.WriteRetryStrategy;
+import com.datastax.oss.dsbulk.workflow.commons.settings.BulkDriverOption;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * A retry policy that backs off when the cluster is overloaded.
+ *
+ * <p>The driver can only retry requests immediately; this policy therefore only retries
+ * immediately the errors that another coordinator is likely to handle: read timeouts, unavailable
+ * replicas on the first attempt, overloaded coordinators on the first attempt, and connection
+ * errors. Other timeouts and overloaded errors are rethrown, so that the bulk executor, which uses
+ * this policy as its {@link WriteRetryStrategy}, sends the write again after a delay:
+ *
+ * <ol>
+ *   <li>The delay grows exponentially with the number of retries, from {@code base-delay} up to
+ *       {@code max-delay}, and is drawn at random below that bound ("full jitter"), so that writes
+ *       that failed together are not retried together.
+ *   <li>All retries share a global budget of {@code max-retries-per-second}; when the budget is
+ *       exhausted, immediate retries are rejected, and delayed retries are postponed until the
+ *       budget allows them.
+ *   <li>A node that returned {@code overload-threshold} timeouts or overloaded errors within {@code
+ *       overload-window} is considered overloaded for the next window; retried writes that failed
+ *       on an overloaded node are directed to another replica in the same datacenter, if one is
+ *       available.
+ * </ol>
+ *
+ * Statements are retried at most {@code max-retries} times by the driver, and as many times by the
+ * executor. Like the driver, the executor never retries non-idempotent statements: their first
+ * attempt may have been applied even if it failed.
+ */
+public class BackoffRetryPolicy implements RetryPolicy, WriteRetryStrategy {
+
+  private final int maxRetryCount;
+  private final long baseDelayNanos;
+  private final long maxDelayNanos;
+  private final long overloadWindowNanos;
+  private final int overloadThreshold;
+  private final boolean defaultIdempotence;
+  private final Supplier<Metadata> metadata;
+  private final LongSupplier clock;
+  private final RetryBudget budget;
+
+  private final ConcurrentMap<Node, NodeLoad> nodes = new ConcurrentHashMap<>();
+
+  private final LongAdder immediateRetries = new LongAdder();
+  private final LongAdder delayedRetries = new LongAdder();
+  private final LongAdder rejectedRetries = new LongAdder();
+  private final LongAdder backoffNanos = new LongAdder();
+
+  public BackoffRetryPolicy(DriverContext context, String profileName) {
+    this(
+        context.getConfig().getProfile(profileName),
+        () -> ((InternalDriverContext) context).getMetadataManager().getMetadata(),
+        System::nanoTime);
+  }
+
+  private BackoffRetryPolicy(
+      DriverExecutionProfile profile, Supplier<Metadata> metadata, LongSupplier clock) {
+    this(
+        profile.getInt(BulkDriverOption.RETRY_POLICY_MAX_RETRIES, 10),
+        profile.getDuration(BulkDriverOption.RETRY_POLICY_BASE_DELAY, Duration.ofMillis(100)),
+        profile.getDuration(BulkDriverOption.RETRY_POLICY_MAX_DELAY, Duration.ofSeconds(10)),
+        profile.getInt(BulkDriverOption.RETRY_POLICY_MAX_RETRIES_PER_SECOND, 500),
+        profile.getInt(BulkDriverOption.RETRY_POLICY_OVERLOAD_THRESHOLD, 10),
+        profile.getDuration(BulkDriverOption.RETRY_POLICY_OVERLOAD_WINDOW, Duration.ofSeconds(1)),
+        profile.getBoolean(DefaultDriverOption.REQUEST_DEFAULT_IDEMPOTENCE, false),
+        metadata,
+        clock);
+  }
+
+  BackoffRetryPolicy(
+      int maxRetryCount,
+      Duration baseDelay,
+      Duration maxDelay,
+      int maxRetriesPerSecond,
+      int overloadThreshold,
+      Duration overloadWindow,
+      boolean defaultIdempotence,
+      Supplier<Metadata> metadata,
+      LongSupplier clock) {
+    if (maxRetriesPerSecond <= 0) {
+      throw new IllegalArgumentException(
+          "Invalid value for "
+              + BulkDriverOption.RETRY_POLICY_MAX_RETRIES_PER_SECOND.getPath()
+              + ": expecting positive integer, got: "
+              + maxRetriesPerSecond);
+    }
+    this.maxRetryCount = maxRetryCount;
+    this.baseDelayNanos = Math.max(1, baseDelay.toNanos());
+    this.maxDelayNanos = Math.max(baseDelayNanos, maxDelay.toNanos());
+    this.overloadThreshold = Math.max(1, overloadThreshold);
+    this.overloadWindowNanos = overloadWindow.toNanos();
+    this.defaultIdempotence = defaultIdempotence;
+    this.metadata = metadata;
+    this.clock = clock;
+    this.budget = new RetryBudget(maxRetriesPerSecond, clock.getAsLong());
+  }
+
+  @Override
+  public RetryDecision onReadTimeout(
+      @NonNull Request request,
+      @NonNull ConsistencyLevel cl,
+      int blockFor,
+      int received,
+      boolean dataPresent,
+      int retryCount) {
+    return retryImmediately(retryCount < maxRetryCount, RetryDecision.RETRY_NEXT);
+  }
+
+  @Override
+  public RetryDecision onWriteTimeout(
+      @NonNull Request request,
+      @NonNull ConsistencyLevel cl,
+      @NonNull WriteType writeType,
+      int blockFor,
+      int received,
+      int retryCount) {
+    // the replicas are slow, not the coordinator: retrying immediately would only add to their
+    // load; the executor will retry later.
+    return RetryDecision.RETHROW;
+  }
+
+  @Override
+  public RetryDecision onUnavailable(
+      @NonNull Request request,
+      @NonNull ConsistencyLevel cl,
+      int required,
+      int alive,
+      int retryCount) {
+    // the coordinator may have a wrong view of the cluster, try another one
+    return retryImmediately(retryCount == 0, RetryDecision.RETRY_NEXT);
+  }
+
+  @Override
+  public RetryDecision onRequestAborted(
+      @NonNull Request request, @NonNull Throwable error, int retryCount) {
+    boolean retry =
+        retryCount < maxRetryCount
+            && (error instanceof ClosedConnectionException || error instanceof HeartbeatException);
+    return retryImmediately(retry, RetryDecision.RETRY_NEXT);
+  }
+
+  @Override
+  public RetryDecision onErrorResponse(
+      @NonNull Request request, @NonNull CoordinatorException error, int retryCount) {
+    if (error instanceof ReadFailureException || error instanceof WriteFailureException) {
+      return RetryDecision.RETHROW;
+    }
+    if (error instanceof OverloadedException) {
+      recordOverload(error.getCoordinator(), clock.getAsLong());
+      return retryImmediately(retryCount == 0, RetryDecision.RETRY_NEXT);
+    }
+    return retryImmediately(retryCount < maxRetryCount, RetryDecision.RETRY_NEXT);
+  }
+
+  @Override
+  public long onWriteFailed(
+      @NonNull Statement<?> statement, @NonNull Throwable error, int retryCount) {
+    long now = clock.getAsLong();
+    recordOverloads(error, now);
+    if (retryCount >= maxRetryCount || !isIdempotent(statement) || !isRetryable(error)) {
+      return -1;
+    }
+    long delay = Math.max(backoff(retryCount), budget.reserve(now));
+    delayedRetries.increment();
+    backoffNanos.add(delay);
+    return delay;
+  }
+
+  @NonNull
+  @Override
+  public Statement<?> prepareRetry(@NonNull Statement<?> statement, @NonNull Throwable error) {
+    if (error instanceof CoordinatorException) {
+      Node coordinator = ((CoordinatorException) error).getCoordinator();
+      long now = clock.getAsLong();
+      if (isOverloaded(coordinator, now)) {
+        Node replica = findReplica(statement, coordinator, now);
+        if (replica != null) {
+          return statement.setNode(replica);
+        }
+      }
+    }
+    return statement;
+  }
+
+  /** @return The number of requests retried immediately by the driver. */
+  public long getImmediateRetries() {
+    return immediateRetries.sum();
+  }
+
+  /** @return The number of writes retried after a delay by the executor. */
+  public long getDelayedRetries() {
+    return delayedRetries.sum();
+  }
+
+  /** @return The number of immediate retries rejected because the budget was exhausted. */
+  public long getRejectedRetries() {
+    return rejectedRetries.sum();
+  }
+
+  /** @return The total time waited before retrying writes, in the given unit. */
+  public long getBackoffTime(TimeUnit unit) {
+    return unit.convert(backoffNanos.sum(), TimeUnit.NANOSECONDS);
+  }
+
+  /** @return The number of nodes currently considered overloaded. */
+  public int getOverloadedNodes() {
+    long now = clock.getAsLong();
+    int count = 0;
+    for (NodeLoad load : nodes.values()) {
+      if (load.isOverloaded(now)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public void close() {}
+
+  private RetryDecision retryImmediately(boolean retry, RetryDecision decision) {
+    if (!retry) {
+      return RetryDecision.RETHROW;
+    }
+    if (!budget.tryAcquire(clock.getAsLong())) {
+      rejectedRetries.increment();
+      return RetryDecision.RETHROW;
+    }
+    immediateRetries.increment();
+    return decision;
+  }
+
+  private long backoff(int retryCount) {
+    long bound =
+        retryCount >= Long.numberOfLeadingZeros(baseDelayNanos) - 1
+            ? maxDelayNanos
+            : Math.min(maxDelayNanos, baseDelayNanos << retryCount);
+    return ThreadLocalRandom.current().nextLong(bound + 1);
+  }
+
+  private boolean isIdempotent(Statement<?> statement) {
+    Boolean idempotent = statement.isIdempotent();
+    return idempotent == null ? defaultIdempotence : idempotent;
+  }
+
+  private static boolean isRetryable(Throwable error) {
+    if (error instanceof AllNodesFailedException) {
+      // also covers NoNodeAvailableException, which has no errors
+      for (List<Throwable> errors : ((AllNodesFailedException) error).getAllErrors().values()) {
+        for (Throwable e : errors) {
+          if (!isRetryable(e)) {
+            return false;
+          }
+        }
+      }
+      return true;
+    }
+    return error instanceof WriteTimeoutException
+        || error instanceof ReadTimeoutException
+        || error instanceof UnavailableException
+        || error instanceof OverloadedException
+        || error instanceof DriverTimeoutException
+        || error instanceof BusyConnectionException
+        || error instanceof ClosedConnectionException
+        || error instanceof HeartbeatException;
+  }
+
+  private void recordOverloads(Throwable error, long now) {
+    if (error instanceof AllNodesFailedException) {
+      for (Map.Entry<Node, List<Throwable>> entry :
+          ((AllNodesFailedException) error).getAllErrors().entrySet()) {
+        for (Throwable e : entry.getValue()) {
+          if (isOverloadSignal(e)) {
+            recordOverload(entry.getKey(), now);
+          }
+        }
+      }
+    } else if (isOverloadSignal(error)) {
+      recordOverload(((CoordinatorException) error).getCoordinator(), now);
+    }
+  }
+
+  private static boolean isOverloadSignal(Throwable error) {
+    return error instanceof WriteTimeoutException
+        || error instanceof ReadTimeoutException
+        || error instanceof OverloadedException;
+  }
+
+  private void recordOverload(@Nullable Node node, long now) {
+    if (node != null) {
+      nodes.computeIfAbsent(node, n -> new NodeLoad(now)).recordError(now);
+    }
+  }
+
+  private boolean isOverloaded(@Nullable Node node, long now) {
+    if (node == null) {
+      return false;
+    }
+    NodeLoad load = nodes.get(node);
+    return load != null && load.isOverloaded(now);
+  }
+
+  @Nullable
+  private Node findReplica(Statement<?> statement, Node overloaded, long now) {
+    Metadata metadata = this.metadata.get();
+    Optional<TokenMap> tokenMap = metadata == null ? Optional.empty() : metadata.getTokenMap();
+    CqlIdentifier keyspace =
+        statement.getKeyspace() != null ? statement.getKeyspace() : statement.getRoutingKeyspace();
+    if (!tokenMap.isPresent() || keyspace == null) {
+      return null;
+    }
+    Set<Node> replicas;
+    Token token = statement.getRoutingToken();
+    ByteBuffer key = statement.getRoutingKey();
+    if (token != null) {
+      replicas = tokenMap.get().getReplicas(keyspace, token);
+    } else if (key != null) {
+      replicas = tokenMap.get().getReplicas(keyspace, key);
+    } else {
+      return null;
+    }
+    List<Node> candidates = new ArrayList<>(replicas.size());
+    for (Node replica : replicas) {
+      if (!replica.equals(overloaded)
+          && replica.getState() == NodeState.UP
+          && Objects.equals(replica.getDatacenter(), overloaded.getDatacenter())
+          && !isOverloaded(replica, now)) {
+        candidates.add(replica);
+      }
+    }
+    if (candidates.isEmpty()) {
+      return null;
+    }
+    return candidates.get(ThreadLocalRandom.current().nextInt(candidates.size()));
+  }
+
+  /** Counts the overload signals returned by a node in fixed windows. */
+  private final class NodeLoad {
+
+    private long windowStart;
+    private int errors;
+    private volatile long overloadedUntil;
+
+    private NodeLoad(long now) {
+      windowStart = now;
+      overloadedUntil = now;
+    }
+
+    private synchronized void recordError(long now) {
+      if (now - windowStart >= overloadWindowNanos) {
+        windowStart = now;
+        errors = 0;
+      }
+      if (++errors >= overloadThreshold) {
+        overloadedUntil = now + overloadWindowNanos;
+      }
+    }
+
+    private boolean isOverloaded(long now) {
+      return now - overloadedUntil < 0;
+    }
+  }
+
+  /**
+   * Spaces retries evenly, allowing bursts of up to one second worth of retries.
+   *
+   * <p>Each retry reserves the next free slot; a retry that can wait is told how long to wait for
+   * its slot, while a retry that cannot wait is rejected if no slot is free now.
+   */
+  private static final class RetryBudget {
+
+    private static final long BURST_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final long intervalNanos;
+    private long nextFree;
+
+    private RetryBudget(int retriesPerSecond, long now) {
+      intervalNanos = Math.max(1, BURST_NANOS / retriesPerSecond);
+      nextFree = now - BURST_NANOS;
+    }
+
+    private synchronized boolean tryAcquire(long now) {
+      long slot = nextSlot(now);
+      if (slot - now > 0) {
+        return false;
+      }
+      nextFree = slot + intervalNanos;
+      return true;
+    }
+
+    private synchronized long reserve(long now) {
+      long slot = nextSlot(now);
+      nextFree = slot + intervalNanos;
+      return Math.max(0, slot - now);
+    }
+
+    private long nextSlot(long now) {
+      long earliest = now - BURST_NANOS;
+      // compare differences, as nanoTime values may overflow
+      return nextFree - earliest < 0 ? earliest : nextFree;
+    }
+  }
+}
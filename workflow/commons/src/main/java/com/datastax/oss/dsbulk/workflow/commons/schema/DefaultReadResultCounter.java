@@ -46,26 +46,32 @@ import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.function.BiFunction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class DefaultReadResultCounter implements ReadResultCounter {
 
-  private static final BiFunction<Long, Long, Long> SUM = Long::sum;
+  private static final Logger LOGGER = LoggerFactory.getLogger(DefaultReadResultCounter.class);
 
   private final int numPartitions;
   private final ProtocolVersion protocolVersion;
   private final ConvertingCodecFactory codecFactory;
 
   private final TokenMap tokenMap;
-  private final Set<TokenRange> allTokenRanges;
-  private final Set<EndPoint> allAddresses;
   private final Token[] ring;
   private final ReplicaSet[] replicaSets;
+  // The nodes, sorted by address, and the range ordinals sorted by range; they determine the
+  // order in which totals are printed.
+  private final EndPoint[] nodes;
+  private final int[] sortedRanges;
 
   private final CopyOnWriteArrayList<DefaultCountingUnit> units = new CopyOnWriteArrayList<>();
+  private final LongAdder countedRows = new LongAdder();
 
   private final boolean countGlobal;
   private final boolean countNodes;
@@ -74,8 +80,12 @@ public class DefaultReadResultCounter implements ReadResultCounter {
   private final boolean multiCount;
 
   @VisibleForTesting long totalRows;
-  @VisibleForTesting Map<TokenRange, Long> totalsByRange;
-  @VisibleForTesting Map<EndPoint, Long> totalsByNode;
+  private long resumedRows;
+  // Consolidated totals, indexed by range ordinal (same index as in 'ring') and node ordinal
+  // (same index as in 'nodes'); allocated once and reused by each consolidation.
+  private final long[] totalsByRange;
+  private final long[] totalsByNode;
+  private final PriorityQueue<PartitionKeyCount> biggestPartitions;
   @VisibleForTesting List<PartitionKeyCount> totalsByPartitionKey;
 
   public DefaultReadResultCounter(
@@ -98,6 +108,17 @@ public class DefaultReadResultCounter implements ReadResultCounter {
     countPartitions = modes.contains(StatisticsMode.partitions);
     multiCount = modes.size() > 1;
     if (countNodes || countRanges) {
+      // Nodes are identified by their ordinal in 'nodes', so that counting units and totals can
+      // store their counts in arrays instead of maps.
+      nodes =
+          metadata.getNodes().values().stream()
+              .map(Node::getEndPoint)
+              .sorted(Comparator.comparing(EndPoint::toString))
+              .toArray(EndPoint[]::new);
+      Map<EndPoint, Integer> nodeOrdinals = new HashMap<>();
+      for (int i = 0; i < nodes.length; i++) {
+        nodeOrdinals.put(nodes[i], i);
+      }
       // Store required metadata in two data structures that will speed up lookups by token:
       // 1) 'ring' stores the range start tokens of all ranges, contents are identical to
       // metadata.tokenMap.ring and are designed to allow binary searches by token.
@@ -105,6 +126,7 @@ public class DefaultReadResultCounter implements ReadResultCounter {
       // contents are identical to metadata.tokenMap.tokenToNodesByKeyspace.
       // Both arrays are filled so that ring[i] == replicaSets[i].range.end,
       // thus allowing to easily locate the range and replicas of a given token.
+      // The index of a range in these arrays is its ordinal.
       Set<TokenRange> ranges =
           metadata.getTokenMap().map(TokenMap::getTokenRanges).orElse(Collections.emptySet());
       ring = new Token[ranges.size()];
@@ -115,28 +137,27 @@ public class DefaultReadResultCounter implements ReadResultCounter {
       for (TokenRange r1 : ranges) {
         ring[i] = r1.getStart();
         TokenRange r2 = rangesByEndingToken.get(r1.getStart());
-        replicaSets[i] = new ReplicaSet(r2, tokenMap.getReplicas(keyspace, r2));
+        replicaSets[i] = new ReplicaSet(r2, tokenMap.getReplicas(keyspace, r2), nodeOrdinals);
         i++;
       }
-      // 'allTokenRanges' and 'allAddresses' are sorted structures that will only serve when
-      // printing final totals.
-      if (countRanges) {
-        allTokenRanges = new TreeSet<>(ranges);
-      } else {
-        allTokenRanges = null;
-      }
-      if (countNodes) {
-        allAddresses = new TreeSet<>(Comparator.comparing(EndPoint::toString));
-        metadata.getNodes().values().stream().map(Node::getEndPoint).forEach(allAddresses::add);
-      } else {
-        allAddresses = null;
-      }
+      sortedRanges =
+          IntStream.range(0, replicaSets.length)
+              .boxed()
+              .sorted(Comparator.comparing(ordinal -> replicaSets[ordinal].range))
+              .mapToInt(Integer::intValue)
+              .toArray();
+      totalsByRange = new long[ring.length];
+      totalsByNode = new long[nodes.length];
     } else {
       ring = null;
       replicaSets = null;
-      allTokenRanges = null;
-      allAddresses = null;
+      nodes = null;
+      sortedRanges = null;
+      totalsByRange = null;
+      totalsByNode = null;
     }
+    biggestPartitions = countPartitions ? new PriorityQueue<>(numPartitions + 1) : null;
+    totalsByPartitionKey = Collections.emptyList();
   }
 
   @Override
@@ -146,6 +167,16 @@ public class DefaultReadResultCounter implements ReadResultCounter {
     return unit;
   }
 
+  @Override
+  public void addResumedRows(long rows) {
+    resumedRows += rows;
+  }
+
+  @Override
+  public void addCountedRows(long rows) {
+    countedRows.add(rows);
+  }
+
   @Override
   public void close() {
     consolidateUnitCounts();
@@ -153,22 +184,75 @@ public class DefaultReadResultCounter implements ReadResultCounter {
 
   @VisibleForTesting
   void consolidateUnitCounts() {
-    totalRows = 0;
-    totalsByRange = new HashMap<>();
-    totalsByNode = new HashMap<>();
-    totalsByPartitionKey = new ArrayList<>();
+    totalRows = resumedRows + countedRows.sum();
+    if (totalsByRange != null) {
+      Arrays.fill(totalsByRange, 0);
+    }
     for (DefaultCountingUnit unit : units) {
       unit.close();
       totalRows += unit.total;
-      unit.totalsByNode.forEach((key, value) -> totalsByNode.merge(key, value, SUM));
-      unit.totalsByRange.forEach((key, value) -> totalsByRange.merge(key, value, SUM));
-      totalsByPartitionKey.addAll(unit.totalsByPartitionKey);
+      if (totalsByRange != null) {
+        for (int i = 0; i < totalsByRange.length; i++) {
+          totalsByRange[i] += unit.totalsByRange[i];
+        }
+      }
+      if (countPartitions) {
+        for (PartitionKeyCount count : unit.totalsByPartitionKey) {
+          addBiggestPartition(count);
+        }
+      }
+    }
+    if (totalsByNode != null) {
+      sumByNode(totalsByRange, totalsByNode);
+    }
+    if (countPartitions) {
+      List<PartitionKeyCount> biggest = new ArrayList<>(biggestPartitions);
+      biggest.sort(Collections.reverseOrder());
+      biggestPartitions.clear();
+      totalsByPartitionKey = biggest;
+    }
+  }
+
+  /**
+   * Logs the totals counted so far. This method can be called while counting units are being
+   * updated; the totals it logs may then be slightly behind the actual counts. Partition counts
+   * are not included since they are only known when each unit completes.
+   */
+  @Override
+  public void reportSnapshot() {
+    long rows = resumedRows + countedRows.sum();
+    long[] rangeCounts = totalsByRange == null ? null : new long[totalsByRange.length];
+    for (DefaultCountingUnit unit : units) {
+      rows += unit.total;
+      if (rangeCounts != null) {
+        for (int i = 0; i < rangeCounts.length; i++) {
+          rangeCounts[i] += unit.totalsByRange[i];
+        }
+      }
+    }
+    LOGGER.info("Rows counted so far: {}", rows);
+    if (countNodes) {
+      long[] nodeCounts = new long[nodes.length];
+      sumByNode(rangeCounts, nodeCounts);
+      StringBuilder sb = new StringBuilder();
+      for (int i = 0; i < nodes.length; i++) {
+        if (i > 0) {
+          sb.append(", ");
+        }
+        sb.append(nodes[i]).append(' ').append(nodeCounts[i]);
+      }
+      LOGGER.info("Rows counted so far per node: {}", sb);
+    }
+    if (countRanges && LOGGER.isDebugEnabled()) {
+      for (int ordinal : sortedRanges) {
+        TokenRange range = replicaSets[ordinal].range;
+        LOGGER.debug(
+            "Rows counted so far in range {} {}: {}",
+            TokenUtils.getTokenValue(range.getStart()),
+            TokenUtils.getTokenValue(range.getEnd()),
+            rangeCounts[ordinal]);
+      }
     }
-    totalsByPartitionKey.sort(Collections.reverseOrder());
-    totalsByPartitionKey =
-        totalsByPartitionKey.size() > numPartitions
-            ? totalsByPartitionKey.subList(0, numPartitions)
-            : totalsByPartitionKey;
   }
 
   @Override
@@ -184,28 +268,27 @@ public class DefaultReadResultCounter implements ReadResultCounter {
       if (multiCount) {
         out.println("Total rows per node:");
       }
-      allAddresses.forEach(
-          node -> {
-            long totalPerNode = totalsByNode.containsKey(node) ? totalsByNode.get(node) : 0;
-            float percentage = (float) totalPerNode / (float) totalRows * 100f;
-            out.printf("%s %d %.2f%n", node, totalPerNode, percentage);
-          });
+      for (int i = 0; i < nodes.length; i++) {
+        long totalPerNode = totalsByNode[i];
+        float percentage = (float) totalPerNode / (float) totalRows * 100f;
+        out.printf("%s %d %.2f%n", nodes[i], totalPerNode, percentage);
+      }
     }
     if (countRanges) {
       if (multiCount) {
         out.println("Total rows per token range:");
       }
-      allTokenRanges.forEach(
-          range -> {
-            long totalPerRange = totalsByRange.containsKey(range) ? totalsByRange.get(range) : 0;
-            float percentage = (float) totalPerRange / (float) totalRows * 100f;
-            out.printf(
-                "%s %s %d %.2f%n",
-                TokenUtils.getTokenValue(range.getStart()),
-                TokenUtils.getTokenValue(range.getEnd()),
-                totalPerRange,
-                percentage);
-          });
+      for (int ordinal : sortedRanges) {
+        TokenRange range = replicaSets[ordinal].range;
+        long totalPerRange = totalsByRange[ordinal];
+        float percentage = (float) totalPerRange / (float) totalRows * 100f;
+        out.printf(
+            "%s %s %d %.2f%n",
+            TokenUtils.getTokenValue(range.getStart()),
+            TokenUtils.getTokenValue(range.getEnd()),
+            totalPerRange,
+            percentage);
+      }
     }
     if (countPartitions) {
       if (multiCount) {
@@ -219,6 +302,56 @@ public class DefaultReadResultCounter implements ReadResultCounter {
     }
   }
 
+  /** @return The non-zero consolidated totals per range. */
+  @VisibleForTesting
+  Map<TokenRange, Long> getTotalsByRange() {
+    Map<TokenRange, Long> totals = new HashMap<>();
+    for (int i = 0; i < totalsByRange.length; i++) {
+      if (totalsByRange[i] > 0) {
+        totals.put(replicaSets[i].range, totalsByRange[i]);
+      }
+    }
+    return totals;
+  }
+
+  /** @return The non-zero consolidated totals per node. */
+  @VisibleForTesting
+  Map<EndPoint, Long> getTotalsByNode() {
+    Map<EndPoint, Long> totals = new HashMap<>();
+    for (int i = 0; i < totalsByNode.length; i++) {
+      if (totalsByNode[i] > 0) {
+        totals.put(nodes[i], totalsByNode[i]);
+      }
+    }
+    return totals;
+  }
+
+  /**
+   * Adds the counts of each range to the counts of each of its replicas; nodes are thus counted
+   * once per range when consolidating, instead of once per row.
+   */
+  private void sumByNode(long[] rangeCounts, long[] nodeCounts) {
+    Arrays.fill(nodeCounts, 0);
+    for (int i = 0; i < rangeCounts.length; i++) {
+      for (int node : replicaSets[i].nodes) {
+        nodeCounts[node] += rangeCounts[i];
+      }
+    }
+  }
+
+  /**
+   * Adds the given partition count to the heap of biggest partitions, evicting the smallest one if
+   * the heap grows past {@code numPartitions}.
+   */
+  private void addBiggestPartition(PartitionKeyCount count) {
+    if (biggestPartitions.size() < numPartitions) {
+      biggestPartitions.add(count);
+    } else if (numPartitions > 0 && count.count > biggestPartitions.peek().count) {
+      biggestPartitions.poll();
+      biggestPartitions.add(count);
+    }
+  }
+
   /**
    * A counting unit.
    *
@@ -232,8 +365,8 @@ public class DefaultReadResultCounter implements ReadResultCounter {
   class DefaultCountingUnit implements CountingUnit {
 
     long total = 0;
-    final Map<TokenRange, Long> totalsByRange = new HashMap<>();
-    final Map<EndPoint, Long> totalsByNode = new HashMap<>();
+    // Indexed by range ordinal; node counts are derived from range counts when consolidating.
+    final long[] totalsByRange = ring == null ? null : new long[ring.length];
     final List<PartitionKeyCount> totalsByPartitionKey = new ArrayList<>(numPartitions + 1);
     long currentPkCount = 0;
     PartitionKey currentPk;
@@ -268,15 +401,7 @@ public class DefaultReadResultCounter implements ReadResultCounter {
       // percentages for other stats.
       total++;
       if (countRanges || countNodes) {
-        ReplicaSet replicaSet = getReplicaSet(token);
-        if (countRanges) {
-          totalsByRange.merge(replicaSet.range, 1L, SUM);
-        }
-        if (countNodes) {
-          for (EndPoint address : replicaSet.addresses) {
-            totalsByNode.merge(address, 1L, SUM);
-          }
-        }
+        totalsByRange[getRangeOrdinal(token)]++;
       }
       if (countPartitions) {
         if (currentPk == null) {
@@ -302,12 +427,12 @@ public class DefaultReadResultCounter implements ReadResultCounter {
     }
 
     /**
-     * Locate the end token of the range containing the given token then use it to lookup the entire
-     * range and its replicas. This search is identical to the search performed by
+     * Locate the end token of the range containing the given token then return the ordinal of the
+     * range. This search is identical to the search performed by
      * Metadata.TokenMap.getReplicas(String keyspace, Token token). Only used when counting ranges
      * or nodes.
      */
-    private ReplicaSet getReplicaSet(Token token) {
+    private int getRangeOrdinal(Token token) {
       assert ring != null;
       assert replicaSets != null;
       int i = Arrays.binarySearch(ring, token);
@@ -317,7 +442,7 @@ public class DefaultReadResultCounter implements ReadResultCounter {
           i = 0;
         }
       }
-      return replicaSets[i];
+      return i;
     }
 
     /**
@@ -419,11 +544,16 @@ public class DefaultReadResultCounter implements ReadResultCounter {
   private static class ReplicaSet {
 
     final TokenRange range;
-    final EndPoint[] addresses;
+    final int[] nodes;
 
-    ReplicaSet(TokenRange range, Set<Node> addresses) {
+    ReplicaSet(TokenRange range, Set<Node> replicas, Map<EndPoint, Integer> nodeOrdinals) {
       this.range = range;
-      this.addresses = addresses.stream().map(Node::getEndPoint).toArray(EndPoint[]::new);
+      this.nodes =
+          replicas.stream()
+              .map(Node::getEndPoint)
+              .filter(nodeOrdinals::containsKey)
+              .mapToInt(nodeOrdinals::get)
+              .toArray();
     }
   }
 }
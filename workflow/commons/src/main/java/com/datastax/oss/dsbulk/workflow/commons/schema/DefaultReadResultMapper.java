@@ -22,31 +22,68 @@ import com.datastax.oss.driver.api.core.cql.Row;
 import com.datastax.oss.driver.api.core.type.DataType;
 import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
 import com.datastax.oss.driver.api.core.type.reflect.GenericType;
+import com.datastax.oss.dsbulk.codecs.text.string.StringConvertingCodec;
+import com.datastax.oss.dsbulk.codecs.text.string.Utf8Formatter;
+import com.datastax.oss.dsbulk.connectors.api.ArrayBackedRecord;
 import com.datastax.oss.dsbulk.connectors.api.DefaultErrorRecord;
-import com.datastax.oss.dsbulk.connectors.api.DefaultRecord;
 import com.datastax.oss.dsbulk.connectors.api.Field;
 import com.datastax.oss.dsbulk.connectors.api.Record;
+import com.datastax.oss.dsbulk.connectors.api.RecordLayout;
 import com.datastax.oss.dsbulk.connectors.api.RecordMetadata;
+import com.datastax.oss.dsbulk.connectors.api.Utf8Value;
 import com.datastax.oss.dsbulk.executor.api.result.ReadResult;
 import com.datastax.oss.dsbulk.mapping.CQLWord;
 import com.datastax.oss.dsbulk.mapping.Mapping;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.netty.util.concurrent.FastThreadLocal;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 public class DefaultReadResultMapper implements ReadResultMapper {
 
+  /** Buffers bigger than this are not retained between values. */
+  private static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+
+  private static final FastThreadLocal<ByteBuffer> UTF8_BUFFER =
+      new FastThreadLocal<ByteBuffer>() {
+        @Override
+        protected ByteBuffer initialValue() {
+          return ByteBuffer.allocate(1024);
+        }
+      };
+
   private final Mapping mapping;
   private final RecordMetadata recordMetadata;
   private final URI resource;
   private final boolean retainRecordSources;
+  private final boolean utf8Values;
 
+  /**
+   * The layout of the last emitted record, and the column definitions it was computed for. Rows of
+   * a same result set usually share the same column definitions, in which case their records can
+   * share the same layout.
+   */
+  private volatile CachedLayout cachedLayout;
+
+  /**
+   * @param utf8Values Whether to emit {@link Utf8Value}s for the columns whose codecs have a {@link
+   *     Utf8Formatter}; this should only be enabled if the connector supports such values.
+   */
   public DefaultReadResultMapper(
-      Mapping mapping, RecordMetadata recordMetadata, URI resource, boolean retainRecordSources) {
+      Mapping mapping,
+      RecordMetadata recordMetadata,
+      URI resource,
+      boolean retainRecordSources,
+      boolean utf8Values) {
     this.mapping = mapping;
     this.recordMetadata = recordMetadata;
     this.resource = resource;
     this.retainRecordSources = retainRecordSources;
+    this.utf8Values = utf8Values;
   }
 
   @NonNull
@@ -56,7 +93,8 @@ public class DefaultReadResultMapper implements ReadResultMapper {
     try {
       Row row = result.getRow().orElseThrow(IllegalStateException::new);
       ColumnDefinitions columnDefinitions = row.getColumnDefinitions();
-      DefaultRecord record = new DefaultRecord(source, resource, -1);
+      ArrayBackedRecord record =
+          new ArrayBackedRecord(source, resource, -1, getLayout(columnDefinitions));
       for (ColumnDefinition def : columnDefinitions) {
         CQLWord variable = CQLWord.fromInternal(def.getName().asInternal());
         CqlIdentifier name = variable.asIdentifier();
@@ -67,7 +105,15 @@ public class DefaultReadResultMapper implements ReadResultMapper {
           try {
             fieldType = recordMetadata.getFieldType(field, cqlType);
             TypeCodec<?> codec = mapping.codec(variable, cqlType, fieldType);
-            Object value = row.get(name, codec);
+            Object value = null;
+            if (utf8Values && codec instanceof StringConvertingCodec) {
+              // bypass the deserialization to a Java object and its conversion to a string
+              Utf8Formatter formatter = ((StringConvertingCodec<?>) codec).getUtf8Formatter();
+              value = formatUtf8(row.getBytesUnsafe(name), formatter);
+            }
+            if (value == null) {
+              value = row.get(name, codec);
+            }
             record.setFieldValue(field, value);
           } catch (Exception e) {
             String msg =
@@ -83,4 +129,54 @@ public class DefaultReadResultMapper implements ReadResultMapper {
       return new DefaultErrorRecord(source, resource, -1, e);
     }
   }
+
+  /**
+   * Formats the given serialized value with the given formatter, or returns null if there is no
+   * formatter or the value is null or empty, in which case the codec should be used instead.
+   */
+  @Nullable
+  private static Utf8Value formatUtf8(@Nullable ByteBuffer raw, @Nullable Utf8Formatter formatter) {
+    if (formatter == null || raw == null || !raw.hasRemaining()) {
+      return null;
+    }
+    ByteBuffer out = UTF8_BUFFER.get();
+    out.clear();
+    while (!formatter.format(raw, out)) {
+      out = ByteBuffer.allocate(out.capacity() * 2);
+      if (out.capacity() <= MAX_RETAINED_BUFFER_SIZE) {
+        UTF8_BUFFER.set(out);
+      }
+    }
+    byte[] bytes = new byte[out.position()];
+    out.flip();
+    out.get(bytes);
+    return new Utf8Value(bytes);
+  }
+
+  @NonNull
+  private RecordLayout getLayout(@NonNull ColumnDefinitions columnDefinitions) {
+    CachedLayout cachedLayout = this.cachedLayout;
+    if (cachedLayout == null || cachedLayout.columnDefinitions != columnDefinitions) {
+      List<Field> fields = new ArrayList<>();
+      for (ColumnDefinition def : columnDefinitions) {
+        CQLWord variable = CQLWord.fromInternal(def.getName().asInternal());
+        fields.addAll(mapping.variableToFields(variable));
+      }
+      RecordLayout layout = RecordLayout.mapped(fields.toArray(new Field[0]));
+      cachedLayout = new CachedLayout(columnDefinitions, layout);
+      this.cachedLayout = cachedLayout;
+    }
+    return cachedLayout.layout;
+  }
+
+  private static class CachedLayout {
+
+    private final ColumnDefinitions columnDefinitions;
+    private final RecordLayout layout;
+
+    private CachedLayout(ColumnDefinitions columnDefinitions, RecordLayout layout) {
+      this.columnDefinitions = columnDefinitions;
+      this.layout = layout;
+    }
+  }
 }
@@ -31,25 +31,30 @@ import com.datastax.oss.driver.api.core.type.DataType;
 import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
 import com.datastax.oss.driver.api.core.type.reflect.GenericType;
 import com.datastax.oss.driver.shaded.guava.common.annotations.VisibleForTesting;
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableList;
 import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableMap;
 import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableSet;
+import com.datastax.oss.driver.shaded.guava.common.collect.Iterables;
+import com.datastax.oss.driver.shaded.guava.common.primitives.Ints;
 import com.datastax.oss.dsbulk.connectors.api.Field;
 import com.datastax.oss.dsbulk.connectors.api.Record;
 import com.datastax.oss.dsbulk.connectors.api.RecordMetadata;
 import com.datastax.oss.dsbulk.mapping.CQLWord;
 import com.datastax.oss.dsbulk.mapping.InvalidMappingException;
 import com.datastax.oss.dsbulk.mapping.Mapping;
+import com.datastax.oss.dsbulk.sampler.DataSizes;
 import com.datastax.oss.dsbulk.workflow.commons.statement.MappedBoundStatement;
 import com.datastax.oss.dsbulk.workflow.commons.statement.UnmappableStatement;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
 
 public class DefaultRecordMapper implements RecordMapper {
@@ -65,6 +70,22 @@ public class DefaultRecordMapper implements RecordMapper {
   private final boolean allowMissingFields;
   private final Function<PreparedStatement, BoundStatementBuilder> boundStatementBuilderFactory;
   private final ImmutableMap<CQLWord, List<Integer>> variablesToIndices;
+  private final int[] primaryKeyIndices;
+  private final CQLWord[] primaryKeyVariables;
+  private final Field[] requiredFields;
+  private final CQLWord[] requiredVariables;
+
+  /**
+   * The bindings of mapped fields. Unmapped fields are not cached: when extra fields are allowed,
+   * records may contain an unbounded number of distinct unmapped fields.
+   */
+  private final ConcurrentMap<Field, FieldBinding> fieldBindings = new ConcurrentHashMap<>();
+
+  /**
+   * The binding plan for the last mapped record. Records emitted by a same connector resource
+   * usually share the same fields, in which case they can share the same plan.
+   */
+  private volatile BindingPlan lastPlan;
 
   public DefaultRecordMapper(
       PreparedStatement insertStatement,
@@ -112,26 +133,48 @@ public class DefaultRecordMapper implements RecordMapper {
     this.allowMissingFields = allowMissingFields;
     this.boundStatementBuilderFactory = boundStatementBuilderFactory;
     this.variablesToIndices = buildVariablesToIndices();
+    List<Integer> primaryKeyIndices = new ArrayList<>();
+    List<CQLWord> primaryKeyVariables = new ArrayList<>();
+    for (CQLWord variable : Iterables.concat(partitionKeyVariables, clusteringColumnVariables)) {
+      for (int index : variablesToIndices.getOrDefault(variable, ImmutableList.of())) {
+        primaryKeyIndices.add(index);
+        primaryKeyVariables.add(variable);
+      }
+    }
+    this.primaryKeyIndices = Ints.toArray(primaryKeyIndices);
+    this.primaryKeyVariables = primaryKeyVariables.toArray(new CQLWord[0]);
+    List<Field> requiredFields = new ArrayList<>();
+    List<CQLWord> requiredVariables = new ArrayList<>();
+    ColumnDefinitions variables = insertStatement.getVariableDefinitions();
+    for (int i = 0; i < variables.size(); i++) {
+      CQLWord variable = CQLWord.fromCqlIdentifier(variables.get(i).getName());
+      // Note: in practice, there can be only one field mapped to a given variable when loading
+      for (Field field : mapping.variableToFields(variable)) {
+        requiredFields.add(field);
+        requiredVariables.add(variable);
+      }
+    }
+    this.requiredFields = requiredFields.toArray(new Field[0]);
+    this.requiredVariables = requiredVariables.toArray(new CQLWord[0]);
   }
 
   @NonNull
   @Override
   public BatchableStatement<?> map(@NonNull Record record) {
     try {
-      if (!allowMissingFields) {
-        ensureAllFieldsPresent(record.fields());
+      Set<Field> fields = record.fields();
+      BindingPlan plan = getBindingPlan(fields);
+      if (!allowMissingFields && plan.missingField != null) {
+        throw InvalidMappingException.missingField(plan.missingField, plan.missingVariable);
       }
       BoundStatementBuilder builder = boundStatementBuilderFactory.apply(insertStatement);
-      ColumnDefinitions variableDefinitions = insertStatement.getVariableDefinitions();
-      for (Field field : record.fields()) {
-        Set<CQLWord> variables = mapping.fieldToVariables(field);
-        if (!variables.isEmpty()) {
-          for (CQLWord variable : variables) {
-            CqlIdentifier name = variable.asIdentifier();
-            DataType cqlType = variableDefinitions.get(name).getType();
-            GenericType<?> fieldType = recordMetadata.getFieldType(field, cqlType);
-            Object raw = record.getFieldValue(field);
-            builder = bindColumn(builder, variable, raw, cqlType, fieldType);
+      int i = 0;
+      for (Field field : fields) {
+        FieldBinding binding = plan.getFieldBinding(i++, field);
+        if (binding.variables.length > 0) {
+          Object raw = record.getFieldValue(field);
+          for (VariableBinding variable : binding.variables) {
+            builder = bindColumn(builder, variable, raw);
           }
         } else if (!allowExtraFields) {
           // the field wasn't mapped to any known variable
@@ -143,47 +186,42 @@ public class DefaultRecordMapper implements RecordMapper {
         ensureAllVariablesSet(builder);
       }
       record.clear();
+      // compute the data size once, while the values are at hand, so that the batcher and the
+      // executor's metrics do not need to inspect them again.
+      long dataSize = DataSizes.getDataSize(builder);
       BoundStatement bs = builder.build();
-      return new MappedBoundStatement(record, bs);
+      return new MappedBoundStatement(record, bs, dataSize);
     } catch (Exception e) {
       return new UnmappableStatement(record, e);
     }
   }
 
-  private <T> BoundStatementBuilder bindColumn(
-      BoundStatementBuilder builder,
-      CQLWord variable,
-      @Nullable T raw,
-      DataType cqlType,
-      GenericType<? extends T> javaType) {
-    TypeCodec<T> codec = mapping.codec(variable, cqlType, javaType);
-    ByteBuffer bb = codec.encode(raw, builder.protocolVersion());
-    boolean isNull = isNull(bb, cqlType);
+  private BoundStatementBuilder bindColumn(
+      BoundStatementBuilder builder, VariableBinding variable, @Nullable Object raw) {
+    ByteBuffer bb = variable.codec.encode(raw, builder.protocolVersion());
+    boolean isNull = bb == null || (!bb.hasRemaining() && variable.emptyIsNull);
     if (isNull || isEmpty(bb)) {
-      if (partitionKeyVariables.contains(variable)) {
+      if (variable.partitionKey) {
         throw isNull
-            ? InvalidMappingException.nullPrimaryKey(variable)
-            : InvalidMappingException.emptyPrimaryKey(variable);
+            ? InvalidMappingException.nullPrimaryKey(variable.variable)
+            : InvalidMappingException.emptyPrimaryKey(variable.variable);
       }
     }
     if (isNull) {
-      if (clusteringColumnVariables.contains(variable)) {
-        throw InvalidMappingException.nullPrimaryKey(variable);
+      if (variable.clusteringColumn) {
+        throw InvalidMappingException.nullPrimaryKey(variable.variable);
       }
       if (nullToUnset) {
         return builder;
       }
     }
-    for (int index : variablesToIndices.get(variable)) {
+    for (int index : variable.indices) {
       builder = builder.setBytesUnsafe(index, bb);
     }
     return builder;
   }
 
-  private boolean isNull(ByteBuffer bb, DataType cqlType) {
-    if (bb == null) {
-      return true;
-    }
+  private static boolean emptyIsNull(DataType cqlType) {
     switch (cqlType.getProtocolCode()) {
       case VARCHAR:
       case ASCII:
@@ -192,7 +230,7 @@ public class DefaultRecordMapper implements RecordMapper {
         // these CQL types.
         return false;
       default:
-        return !bb.hasRemaining();
+        return true;
     }
   }
 
@@ -200,33 +238,10 @@ public class DefaultRecordMapper implements RecordMapper {
     return bb == null || !bb.hasRemaining();
   }
 
-  private void ensureAllFieldsPresent(Set<Field> recordFields) {
-    ColumnDefinitions variables = insertStatement.getVariableDefinitions();
-    for (int i = 0; i < variables.size(); i++) {
-      CQLWord variable = CQLWord.fromCqlIdentifier(variables.get(i).getName());
-      Collection<Field> fields = mapping.variableToFields(variable);
-      // Note: in practice, there can be only one field mapped to a given variable when loading
-      for (Field field : fields) {
-        if (!recordFields.contains(field)) {
-          throw InvalidMappingException.missingField(field, variable);
-        }
-      }
-    }
-  }
-
   private void ensurePrimaryKeySet(BoundStatementBuilder bs) {
-    for (CQLWord variable : partitionKeyVariables) {
-      for (int index : variablesToIndices.get(variable)) {
-        if (!bs.isSet(index)) {
-          throw InvalidMappingException.unsetPrimaryKey(variable);
-        }
-      }
-    }
-    for (CQLWord variable : clusteringColumnVariables) {
-      for (int index : variablesToIndices.get(variable)) {
-        if (!bs.isSet(index)) {
-          throw InvalidMappingException.unsetPrimaryKey(variable);
-        }
+    for (int i = 0; i < primaryKeyIndices.length; i++) {
+      if (!bs.isSet(primaryKeyIndices[i])) {
+        throw InvalidMappingException.unsetPrimaryKey(primaryKeyVariables[i]);
       }
     }
   }
@@ -240,6 +255,56 @@ public class DefaultRecordMapper implements RecordMapper {
     }
   }
 
+  @NonNull
+  private BindingPlan getBindingPlan(@NonNull Set<Field> fields) {
+    BindingPlan plan = lastPlan;
+    if (plan == null || plan.fields != fields || plan.bindings.length != fields.size()) {
+      plan = new BindingPlan(fields);
+      lastPlan = plan;
+    }
+    return plan;
+  }
+
+  @NonNull
+  private FieldBinding getFieldBinding(@NonNull Field field) {
+    FieldBinding binding = fieldBindings.get(field);
+    if (binding == null) {
+      // do not use computeIfAbsent: compiling a binding is idempotent, and can be done
+      // concurrently
+      binding = compileFieldBinding(field);
+      if (binding != FieldBinding.UNMAPPED) {
+        fieldBindings.putIfAbsent(field, binding);
+      }
+    }
+    return binding;
+  }
+
+  @NonNull
+  private FieldBinding compileFieldBinding(@NonNull Field field) {
+    ColumnDefinitions variableDefinitions = insertStatement.getVariableDefinitions();
+    Set<CQLWord> variables = mapping.fieldToVariables(field);
+    if (variables.isEmpty()) {
+      return FieldBinding.UNMAPPED;
+    }
+    VariableBinding[] bindings = new VariableBinding[variables.size()];
+    int i = 0;
+    for (CQLWord variable : variables) {
+      CqlIdentifier name = variable.asIdentifier();
+      DataType cqlType = variableDefinitions.get(name).getType();
+      GenericType<?> fieldType = recordMetadata.getFieldType(field, cqlType);
+      TypeCodec<?> codec = mapping.codec(variable, cqlType, fieldType);
+      bindings[i++] =
+          new VariableBinding(
+              variable,
+              codec,
+              Ints.toArray(variablesToIndices.get(variable)),
+              partitionKeyVariables.contains(variable),
+              clusteringColumnVariables.contains(variable),
+              emptyIsNull(cqlType));
+    }
+    return new FieldBinding(bindings);
+  }
+
   private ImmutableMap<CQLWord, List<Integer>> buildVariablesToIndices() {
     Map<CQLWord, List<Integer>> variablesToIndices = new HashMap<>();
     ColumnDefinitions variables = insertStatement.getVariableDefinitions();
@@ -250,4 +315,82 @@ public class DefaultRecordMapper implements RecordMapper {
     }
     return ImmutableMap.copyOf(variablesToIndices);
   }
+
+  /**
+   * The bindings of all the fields of a record, in the iteration order of its fields. Bindings are
+   * resolved lazily, so that errors are raised in the same order as if each field was bound
+   * individually.
+   */
+  private class BindingPlan {
+
+    private final Set<Field> fields;
+    private final FieldBinding[] bindings;
+    private final Field missingField;
+    private final CQLWord missingVariable;
+
+    private BindingPlan(Set<Field> fields) {
+      this.fields = fields;
+      bindings = new FieldBinding[fields.size()];
+      Field missingField = null;
+      CQLWord missingVariable = null;
+      for (int i = 0; i < requiredFields.length; i++) {
+        if (!fields.contains(requiredFields[i])) {
+          missingField = requiredFields[i];
+          missingVariable = requiredVariables[i];
+          break;
+        }
+      }
+      this.missingField = missingField;
+      this.missingVariable = missingVariable;
+    }
+
+    @NonNull
+    private FieldBinding getFieldBinding(int index, @NonNull Field field) {
+      FieldBinding binding = bindings[index];
+      if (binding == null) {
+        binding = DefaultRecordMapper.this.getFieldBinding(field);
+        bindings[index] = binding;
+      }
+      return binding;
+    }
+  }
+
+  /** The variables a field is mapped to; empty if the field is not mapped. */
+  private static class FieldBinding {
+
+    private static final FieldBinding UNMAPPED = new FieldBinding(new VariableBinding[0]);
+
+    private final VariableBinding[] variables;
+
+    private FieldBinding(VariableBinding[] variables) {
+      this.variables = variables;
+    }
+  }
+
+  /** Everything needed to bind a field value to a variable, resolved once and for all. */
+  private static class VariableBinding {
+
+    private final CQLWord variable;
+    private final TypeCodec<Object> codec;
+    private final int[] indices;
+    private final boolean partitionKey;
+    private final boolean clusteringColumn;
+    private final boolean emptyIsNull;
+
+    @SuppressWarnings("unchecked")
+    private VariableBinding(
+        CQLWord variable,
+        TypeCodec<?> codec,
+        int[] indices,
+        boolean partitionKey,
+        boolean clusteringColumn,
+        boolean emptyIsNull) {
+      this.variable = variable;
+      this.codec = (TypeCodec<Object>) codec;
+      this.indices = indices;
+      this.partitionKey = partitionKey;
+      this.clusteringColumn = clusteringColumn;
+      this.emptyIsNull = emptyIsNull;
+    }
+  }
 }
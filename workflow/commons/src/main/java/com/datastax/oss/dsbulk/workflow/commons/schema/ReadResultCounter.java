@@ -22,6 +22,24 @@ public interface ReadResultCounter extends AutoCloseable {
 
   CountingUnit newCountingUnit();
 
+  /**
+   * Adds rows that were counted by a previous operation, typically because the current operation
+   * is resuming an interrupted one. Only global totals are affected.
+   */
+  void addResumedRows(long rows);
+
+  /**
+   * Adds rows that were counted without being read, typically because they were counted
+   * server-side. Only global totals are affected. This method is thread-safe.
+   */
+  void addCountedRows(long rows);
+
+  /**
+   * Reports the totals counted so far, while the operation is still in progress. This method is
+   * thread-safe and can be called concurrently with counting units being updated.
+   */
+  void reportSnapshot();
+
   void reportTotals() throws IOException;
 
   interface CountingUnit extends AutoCloseable {
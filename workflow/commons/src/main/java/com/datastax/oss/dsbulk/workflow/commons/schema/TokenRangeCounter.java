@@ -0,0 +1,178 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.workflow.commons.schema;
+
+import com.datastax.oss.driver.api.core.AllNodesFailedException;
+import com.datastax.oss.driver.api.core.DriverTimeoutException;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.servererrors.ReadTimeoutException;
+import com.datastax.oss.driver.shaded.guava.common.base.Preconditions;
+import com.datastax.oss.dsbulk.executor.api.exception.BulkExecutionException;
+import com.datastax.oss.dsbulk.executor.api.result.ReadResult;
+import com.datastax.oss.dsbulk.partitioner.BulkTokenFactory;
+import com.datastax.oss.dsbulk.partitioner.BulkTokenRange;
+import com.datastax.oss.dsbulk.workflow.commons.log.TokenRangesTracker;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+
+/**
+ * Counts the rows of a set of token ranges server-side, with one {@code SELECT count(*)} query per
+ * range, instead of reading every row.
+ *
+ * <p>The replicas must scan an entire range within the read timeout to count it; a range whose
+ * count times out is therefore split in two halves, that are counted one after the other, until
+ * the ranges are small enough to be counted in time, or cannot be split anymore.
+ *
+ * <p>If a {@link TokenRangesTracker} is provided, it is notified of each split, and of each range
+ * counted entirely, along with its number of rows.
+ */
+public class TokenRangeCounter {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TokenRangeCounter.class);
+
+  /** The maximum number of times an initial range can be split in two halves. */
+  private static final int MAX_SPLIT_DEPTH = 10;
+
+  private final List<BulkTokenRange> ranges;
+  private final Function<BulkTokenRange, Statement<?>> statementFactory;
+  private final BulkTokenFactory tokenFactory;
+  @Nullable private final TokenRangesTracker tracker;
+  private final int maxSplitDepth;
+
+  /**
+   * Creates a new counter.
+   *
+   * @param ranges The ranges to count; together, they should cover the entire ring.
+   * @param statementFactory The factory to use to create a statement counting the rows of a given
+   *     range; the statement must return one row containing the count in its first column.
+   * @param tokenFactory The token factory for the cluster's partitioner.
+   * @param tracker The tracker of the ranges left to count, or null if progress is not tracked.
+   */
+  public TokenRangeCounter(
+      @NonNull List<BulkTokenRange> ranges,
+      @NonNull Function<BulkTokenRange, Statement<?>> statementFactory,
+      @NonNull BulkTokenFactory tokenFactory,
+      @Nullable TokenRangesTracker tracker) {
+    this(ranges, statementFactory, tokenFactory, tracker, MAX_SPLIT_DEPTH);
+  }
+
+  TokenRangeCounter(
+      @NonNull List<BulkTokenRange> ranges,
+      @NonNull Function<BulkTokenRange, Statement<?>> statementFactory,
+      @NonNull BulkTokenFactory tokenFactory,
+      @Nullable TokenRangesTracker tracker,
+      int maxSplitDepth) {
+    Preconditions.checkArgument(!ranges.isEmpty(), "ranges cannot be empty");
+    this.ranges = ranges;
+    this.statementFactory = statementFactory;
+    this.tokenFactory = tokenFactory;
+    this.tracker = tracker;
+    this.maxSplitDepth = maxSplitDepth;
+  }
+
+  /** @return The number of ranges to count initially. */
+  public int getRangeCount() {
+    return ranges.size();
+  }
+
+  /**
+   * Counts all the ranges with the given concurrency.
+   *
+   * @param reader The function to use to execute a count statement.
+   * @param mapper The function to apply to the results of each initial range: one successful
+   *     result per range or part of range counted, see {@link #getCount(ReadResult)}, and one failed
+   *     result per part of range that could not be counted. The publishers it returns are merged
+   *     with the given concurrency.
+   * @param concurrency The maximum number of initial ranges to count concurrently; the parts of a
+   *     split range are counted sequentially.
+   * @param <T> The type of elements emitted by the publishers returned by {@code mapper}.
+   * @return A {@link Flux} of all the elements emitted by the publishers returned by {@code
+   *     mapper}.
+   */
+  @NonNull
+  public <T> Flux<T> count(
+      @NonNull Function<Statement<?>, Publisher<ReadResult>> reader,
+      @NonNull Function<Flux<ReadResult>, Publisher<T>> mapper,
+      int concurrency) {
+    return Flux.defer(
+        () -> {
+          List<BulkTokenRange> shuffled = new ArrayList<>(ranges);
+          // Shuffle the ranges to avoid hitting the same replicas sequentially.
+          Collections.shuffle(shuffled);
+          return Flux.fromIterable(shuffled)
+              .flatMap(range -> mapper.apply(countRange(range, reader, 0)), concurrency);
+        });
+  }
+
+  /**
+   * @param result A successful result emitted by {@link #count(Function, Function, int)}.
+   * @return The number of rows counted in the range.
+   */
+  public static long getCount(@NonNull ReadResult result) {
+    return result.getRow().map(row -> row.getLong(0)).orElseThrow(IllegalStateException::new);
+  }
+
+  private Flux<ReadResult> countRange(
+      BulkTokenRange range, Function<Statement<?>, Publisher<ReadResult>> reader, int depth) {
+    return Flux.from(reader.apply(statementFactory.apply(range)))
+        .concatMap(
+            result -> {
+              if (result.isSuccess()) {
+                if (tracker != null) {
+                  tracker.completed(range.getEnd(), getCount(result));
+                }
+                return Flux.just(result);
+              }
+              if (depth < maxSplitDepth && isTimeout(result)) {
+                List<BulkTokenRange> halves = tokenFactory.splitter().split(range, 2);
+                if (halves.size() == 2) {
+                  LOGGER.debug("Counting {} timed out, splitting it in two halves", range);
+                  if (tracker != null) {
+                    tracker.split(halves.get(0), halves.get(1));
+                  }
+                  return Flux.fromIterable(halves)
+                      .concatMap(half -> countRange(half, reader, depth + 1));
+                }
+              }
+              return Flux.just(result);
+            });
+  }
+
+  private static boolean isTimeout(ReadResult result) {
+    return result
+        .getError()
+        .map(BulkExecutionException::getCause)
+        .map(TokenRangeCounter::isTimeoutError)
+        .orElse(false);
+  }
+
+  private static boolean isTimeoutError(Throwable error) {
+    if (error instanceof AllNodesFailedException) {
+      List<Throwable> errors = new ArrayList<>();
+      ((AllNodesFailedException) error).getAllErrors().values().forEach(errors::addAll);
+      return !errors.isEmpty() && errors.stream().allMatch(TokenRangeCounter::isTimeoutError);
+    }
+    return error instanceof ReadTimeoutException || error instanceof DriverTimeoutException;
+  }
+}
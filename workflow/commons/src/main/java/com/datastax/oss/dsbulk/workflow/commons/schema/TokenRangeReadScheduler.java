@@ -0,0 +1,374 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.workflow.commons.schema;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.metadata.token.Token;
+import com.datastax.oss.driver.shaded.guava.common.base.Preconditions;
+import com.datastax.oss.dsbulk.executor.api.result.ReadResult;
+import com.datastax.oss.dsbulk.partitioner.BulkTokenFactory;
+import com.datastax.oss.dsbulk.partitioner.BulkTokenRange;
+import com.datastax.oss.dsbulk.workflow.commons.log.TokenRangesTracker;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+/**
+ * Schedules the reads of a set of token ranges, splitting the ranges that are still being read when
+ * there is no other range left to read.
+ *
+ * <p>Ranges are read with a fixed concurrency. As long as some ranges have not been read yet, each
+ * free slot is given the next range. Once all ranges have been started, each free slot is given a
+ * part of the range with the most tokens left to read instead: that range is split in two halves at
+ * a point located after the last token read so far; the read in progress stops as soon as it
+ * reaches the split point, and the remaining half is read in a new request. Thanks to this, all
+ * slots remain busy until the very end, instead of letting a few large or slow ranges finish the
+ * operation alone.
+ *
+ * <p>Progress is tracked by computing the token of each row read; no row is ever read twice, since
+ * a range is only split after the last token it returned, and rows of a same partition always share
+ * the same token. Ranges are not split beyond a minimum fraction of the ring.
+ *
+ * <p>If a {@link TokenRangesTracker} is provided, it is notified of each split. Marking ranges as
+ * read is left to the caller, which is given the end token of each range, see {@link
+ * #read(Function, BiFunction, int, int)}: only the caller knows when the rows of a range have been
+ * entirely processed.
+ */
+public class TokenRangeReadScheduler {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TokenRangeReadScheduler.class);
+
+  /**
+   * The smallest fraction of the initial ranges' average size that a range can be split into. Below
+   * that, the cost of issuing new requests outweighs the benefit of splitting.
+   */
+  private static final double MIN_SPLIT_RATIO = 1 / 64d;
+
+  private final List<BulkTokenRange> ranges;
+  private final Function<BulkTokenRange, Statement<?>> statementFactory;
+  private final Function<Row, Token> tokenFunction;
+  private final BulkTokenFactory tokenFactory;
+  @Nullable private final TokenRangesTracker tracker;
+  private final double minSplitFraction;
+
+  /**
+   * Creates a new scheduler.
+   *
+   * @param ranges The ranges to read; together, they should cover the entire ring.
+   * @param statementFactory The factory to use to create a statement reading a given range.
+   * @param tokenFunction The function computing the token of each row read.
+   * @param tokenFactory The token factory for the cluster's partitioner.
+   */
+  public TokenRangeReadScheduler(
+      @NonNull List<BulkTokenRange> ranges,
+      @NonNull Function<BulkTokenRange, Statement<?>> statementFactory,
+      @NonNull Function<Row, Token> tokenFunction,
+      @NonNull BulkTokenFactory tokenFactory) {
+    this(ranges, statementFactory, tokenFunction, tokenFactory, null);
+  }
+
+  /**
+   * Creates a new scheduler that reports its progress to the given tracker.
+   *
+   * @param ranges The ranges to read.
+   * @param statementFactory The factory to use to create a statement reading a given range.
+   * @param tokenFunction The function computing the token of each row read.
+   * @param tokenFactory The token factory for the cluster's partitioner.
+   * @param tracker The tracker of the ranges left to read, or null if progress is not tracked.
+   */
+  public TokenRangeReadScheduler(
+      @NonNull List<BulkTokenRange> ranges,
+      @NonNull Function<BulkTokenRange, Statement<?>> statementFactory,
+      @NonNull Function<Row, Token> tokenFunction,
+      @NonNull BulkTokenFactory tokenFactory,
+      @Nullable TokenRangesTracker tracker) {
+    this(
+        ranges,
+        statementFactory,
+        tokenFunction,
+        tokenFactory,
+        tracker,
+        MIN_SPLIT_RATIO / Math.max(1, ranges.size()));
+  }
+
+  TokenRangeReadScheduler(
+      @NonNull List<BulkTokenRange> ranges,
+      @NonNull Function<BulkTokenRange, Statement<?>> statementFactory,
+      @NonNull Function<Row, Token> tokenFunction,
+      @NonNull BulkTokenFactory tokenFactory,
+      @Nullable TokenRangesTracker tracker,
+      double minSplitFraction) {
+    Preconditions.checkArgument(!ranges.isEmpty(), "ranges cannot be empty");
+    this.ranges = ranges;
+    this.statementFactory = statementFactory;
+    this.tokenFunction = tokenFunction;
+    this.tokenFactory = tokenFactory;
+    this.tracker = tracker;
+    this.minSplitFraction = minSplitFraction;
+  }
+
+  /**
+   * Reads all the ranges with the given concurrency.
+   *
+   * @param reader The function to use to execute a read statement.
+   * @param mapper The function to apply to the results of each range; the publishers it returns are
+   *     merged with the given concurrency, like with {@link Flux#flatMap(Function, int, int)}.
+   * @param concurrency The maximum number of ranges to read concurrently.
+   * @param prefetch The number of elements to prefetch from each publisher returned by {@code
+   *     mapper}.
+   * @param <T> The type of elements emitted by the publishers returned by {@code mapper}.
+   * @return A {@link Flux} of all the elements emitted by the publishers returned by {@code
+   *     mapper}.
+   */
+  @NonNull
+  public <T> Flux<T> read(
+      @NonNull Function<Statement<?>, Publisher<ReadResult>> reader,
+      @NonNull Function<Flux<ReadResult>, Publisher<T>> mapper,
+      int concurrency,
+      int prefetch) {
+    return read(reader, (results, end) -> mapper.apply(results), concurrency, prefetch);
+  }
+
+  /**
+   * Reads all the ranges with the given concurrency.
+   *
+   * @param reader The function to use to execute a read statement.
+   * @param mapper The function to apply to the results of each range, and to the end token of the
+   *     range; the end token must only be evaluated once the range has been read entirely, since
+   *     the range could be split in the meanwhile. The publishers it returns are merged with the
+   *     given concurrency, like with {@link Flux#flatMap(Function, int, int)}.
+   * @param concurrency The maximum number of ranges to read concurrently.
+   * @param prefetch The number of elements to prefetch from each publisher returned by {@code
+   *     mapper}.
+   * @param <T> The type of elements emitted by the publishers returned by {@code mapper}.
+   * @return A {@link Flux} of all the elements emitted by the publishers returned by {@code
+   *     mapper}.
+   */
+  @NonNull
+  public <T> Flux<T> read(
+      @NonNull Function<Statement<?>, Publisher<ReadResult>> reader,
+      @NonNull BiFunction<Flux<ReadResult>, Supplier<Token>, Publisher<T>> mapper,
+      int concurrency,
+      int prefetch) {
+    return Flux.defer(
+        () -> {
+          Schedule schedule = new Schedule();
+          return Flux.<Task>create(schedule::start)
+              .flatMap(
+                  task -> mapper.apply(schedule.read(task, reader), () -> task.getRange().getEnd()),
+                  concurrency,
+                  prefetch);
+        });
+  }
+
+  /** The state of one execution of {@link #read(Function, BiFunction, int, int)}. */
+  private class Schedule {
+
+    private final AtomicInteger wip = new AtomicInteger();
+
+    // guarded by this
+    private final Deque<Task> pending = new ArrayDeque<>();
+    private final Set<Task> active = new LinkedHashSet<>();
+    private int splitCount;
+
+    private volatile FluxSink<Task> sink;
+
+    private Schedule() {
+      List<BulkTokenRange> shuffled = new ArrayList<>(ranges);
+      // Shuffle the ranges to avoid hitting the same replicas sequentially.
+      Collections.shuffle(shuffled);
+      for (BulkTokenRange range : shuffled) {
+        pending.add(new Task(range));
+      }
+    }
+
+    private void start(FluxSink<Task> sink) {
+      this.sink = sink;
+      sink.onRequest(n -> drain());
+      drain();
+    }
+
+    private Flux<ReadResult> read(Task task, Function<Statement<?>, Publisher<ReadResult>> reader) {
+      return Flux.from(reader.apply(statementFactory.apply(task.getRange())))
+          .takeWhile(task::accept)
+          .doFinally(signal -> terminated(task));
+    }
+
+    private void terminated(Task task) {
+      synchronized (this) {
+        active.remove(task);
+      }
+      drain();
+    }
+
+    private void drain() {
+      if (sink == null || wip.getAndIncrement() != 0) {
+        return;
+      }
+      int missed = 1;
+      do {
+        while (!sink.isCancelled() && sink.requestedFromDownstream() > 0) {
+          Task task = next();
+          if (task == null) {
+            break;
+          }
+          sink.next(task);
+        }
+        if (isDone()) {
+          sink.complete();
+        }
+        missed = wip.addAndGet(-missed);
+      } while (missed != 0);
+    }
+
+    private synchronized boolean isDone() {
+      return pending.isEmpty() && active.isEmpty();
+    }
+
+    @Nullable
+    private synchronized Task next() {
+      Task task = pending.poll();
+      if (task == null) {
+        task = steal();
+      }
+      if (task != null) {
+        active.add(task);
+      }
+      return task;
+    }
+
+    /**
+     * Splits the active range with the most tokens left to read, and returns a task for its second
+     * half; or returns null if no range can be split.
+     */
+    @Nullable
+    private Task steal() {
+      Task largest = null;
+      double largestFraction = minSplitFraction;
+      for (Task task : active) {
+        double fraction = task.remainingFraction();
+        if (fraction >= largestFraction) {
+          largest = task;
+          largestFraction = fraction;
+        }
+      }
+      if (largest == null) {
+        return null;
+      }
+      return largest.split().map(this::stolen).orElse(null);
+    }
+
+    private Task stolen(BulkTokenRange range) {
+      splitCount++;
+      LOGGER.debug(
+          "Splitting slow token range, new range to read: {} (split #{})", range, splitCount);
+      return new Task(range);
+    }
+  }
+
+  /** A token range being read. */
+  private class Task {
+
+    // guarded by this
+    private BulkTokenRange range;
+    private Token lastToken;
+
+    private Task(BulkTokenRange range) {
+      this.range = range;
+    }
+
+    private synchronized BulkTokenRange getRange() {
+      return range;
+    }
+
+    /**
+     * Checks whether the given result belongs to this task's range and, if so, records its token as
+     * the last token read.
+     */
+    private boolean accept(ReadResult result) {
+      Optional<Row> row = result.getRow();
+      if (!row.isPresent()) {
+        // failed reads do not advance the range, but must be emitted
+        return true;
+      }
+      Token token = tokenFunction.apply(row.get());
+      synchronized (this) {
+        if (range.contains(token)) {
+          lastToken = token;
+          return true;
+        }
+        // the range was split and the remaining rows belong to another task
+        return false;
+      }
+    }
+
+    private synchronized double remainingFraction() {
+      BulkTokenRange remaining = remaining();
+      return remaining == null ? 0 : remaining.fraction();
+    }
+
+    /**
+     * Splits the part of this task's range that is left to read in two halves, and keeps only the
+     * first half.
+     *
+     * @return The second half, or empty if this task's range cannot be split.
+     */
+    private synchronized Optional<BulkTokenRange> split() {
+      BulkTokenRange remaining = remaining();
+      if (remaining == null) {
+        return Optional.empty();
+      }
+      List<BulkTokenRange> halves = tokenFactory.splitter().split(remaining, 2);
+      if (halves.size() != 2) {
+        return Optional.empty();
+      }
+      range = tokenFactory.range(range.getStart(), halves.get(0).getEnd(), range.replicas());
+      if (tracker != null) {
+        tracker.split(range, halves.get(1));
+      }
+      return Optional.of(halves.get(1));
+    }
+
+    /** @return The part of this task's range that is left to read, or null if there is none. */
+    @Nullable
+    private BulkTokenRange remaining() {
+      if (lastToken == null) {
+        return range;
+      }
+      if (lastToken.equals(range.getEnd())) {
+        return null;
+      }
+      return tokenFactory.range(lastToken, range.getEnd(), range.replicas());
+    }
+  }
+}
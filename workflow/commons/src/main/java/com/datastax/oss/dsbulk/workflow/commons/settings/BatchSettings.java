@@ -23,6 +23,7 @@ import com.datastax.oss.dsbulk.batcher.api.ReactiveStatementBatcherFactory;
 import com.datastax.oss.dsbulk.config.ConfigUtils;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigException;
+import java.time.Duration;
 import java.util.ServiceLoader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -59,6 +60,14 @@ public class BatchSettings {
   private static final String MAX_SIZE_IN_BYTES = "maxSizeInBytes";
   private static final String MAX_BATCH_STATEMENTS = "maxBatchStatements";
   private static final String BUFFER_SIZE = "bufferSize";
+  private static final String CONTINUOUS = "continuous";
+  private static final String MAX_DELAY = "maxDelay";
+
+  /**
+   * In continuous mode, the default buffer size is a multiple of the maximum number of statements
+   * per batch, large enough to let many groups accumulate at the same time.
+   */
+  private static final int CONTINUOUS_BUFFER_SIZE_FACTOR = 256;
 
   private final Config config;
 
@@ -66,6 +75,8 @@ public class BatchSettings {
   private long maxSizeInBytes;
   private int maxBatchStatements;
   private int bufferSize;
+  private boolean continuous;
+  private Duration maxDelay;
 
   public BatchSettings(Config config) {
     this.config = config;
@@ -101,8 +112,14 @@ public class BatchSettings {
                 + "See settings.md for more information.");
       }
 
+      continuous = config.getBoolean(CONTINUOUS);
+      maxDelay = config.getDuration(MAX_DELAY);
+
       int bufferConfig = config.getInt(BUFFER_SIZE);
-      bufferSize = bufferConfig > 0 ? bufferConfig : 4 * maxBatchStatements;
+      bufferSize =
+          bufferConfig > 0
+              ? bufferConfig
+              : (continuous ? CONTINUOUS_BUFFER_SIZE_FACTOR : 4) * maxBatchStatements;
 
       if (maxBatchStatements <= 0 && bufferSize <= 0) {
         throw new IllegalArgumentException(
@@ -134,6 +151,21 @@ public class BatchSettings {
     return bufferSize;
   }
 
+  /**
+   * @return true if statements should be accumulated per grouping key for the whole operation,
+   *     instead of being grouped within each buffer of {@link #getBufferSize()} statements.
+   */
+  public boolean isContinuous() {
+    return continuous;
+  }
+
+  /**
+   * @return the maximum time a statement can wait for its batch to be flushed in continuous mode.
+   */
+  public Duration getMaxDelay() {
+    return maxDelay;
+  }
+
   public ReactiveStatementBatcher newStatementBatcher(CqlSession session) {
     ServiceLoader<ReactiveStatementBatcherFactory> loader =
         ServiceLoader.load(ReactiveStatementBatcherFactory.class);
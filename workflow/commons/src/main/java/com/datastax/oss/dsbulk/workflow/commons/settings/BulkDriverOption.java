@@ -18,6 +18,7 @@ package com.datastax.oss.dsbulk.workflow.commons.settings;
 import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
 import com.datastax.oss.driver.api.core.config.DriverOption;
 import com.datastax.oss.dsbulk.workflow.commons.policies.lbp.SimpleNodeFilter;
+import com.datastax.oss.dsbulk.workflow.commons.policies.retry.BackoffRetryPolicy;
 import com.datastax.oss.dsbulk.workflow.commons.policies.retry.MultipleRetryPolicy;
 import edu.umd.cs.findbugs.annotations.NonNull;
 
@@ -33,12 +34,51 @@ public enum BulkDriverOption implements DriverOption {
   DEFAULT_PORT("basic.default-port"),
 
   /**
-   * The maximum number of attempts to retry, when using {@link MultipleRetryPolicy}.
+   * The maximum number of attempts to retry, when using {@link MultipleRetryPolicy} or {@link
+   * BackoffRetryPolicy}.
    *
    * <p>Expected type: int.
    */
   RETRY_POLICY_MAX_RETRIES("advanced.retry-policy.max-retries"),
 
+  /**
+   * The delay before the first delayed retry, when using {@link BackoffRetryPolicy}.
+   *
+   * <p>Expected type: duration.
+   */
+  RETRY_POLICY_BASE_DELAY("advanced.retry-policy.base-delay"),
+
+  /**
+   * The maximum delay before a delayed retry, when using {@link BackoffRetryPolicy}.
+   *
+   * <p>Expected type: duration.
+   */
+  RETRY_POLICY_MAX_DELAY("advanced.retry-policy.max-delay"),
+
+  /**
+   * The maximum number of retries per second, for all requests, when using {@link
+   * BackoffRetryPolicy}.
+   *
+   * <p>Expected type: int.
+   */
+  RETRY_POLICY_MAX_RETRIES_PER_SECOND("advanced.retry-policy.max-retries-per-second"),
+
+  /**
+   * The number of timeouts or overloaded errors within {@link #RETRY_POLICY_OVERLOAD_WINDOW} after
+   * which a node is considered overloaded, when using {@link BackoffRetryPolicy}.
+   *
+   * <p>Expected type: int.
+   */
+  RETRY_POLICY_OVERLOAD_THRESHOLD("advanced.retry-policy.overload-threshold"),
+
+  /**
+   * The window in which overload signals are counted, and for which a node remains overloaded, when
+   * using {@link BackoffRetryPolicy}.
+   *
+   * <p>Expected type: duration.
+   */
+  RETRY_POLICY_OVERLOAD_WINDOW("advanced.retry-policy.overload-window"),
+
   /**
    * The list of allowed nodes, for use when {@link SimpleNodeFilter} is used.
    *
@@ -56,6 +56,7 @@ public class CodecSettings {
   private static final String TIME_ZONE = "timeZone";
   private static final String DATE = "date";
   private static final String TIMESTAMP = "timestamp";
+  private static final String TEMPORAL_CACHE_SIZE = "temporalCacheSize";
   private static final String NUMERIC_TIMESTAMP_UNIT = "unit";
   private static final String NUMERIC_TIMESTAMP_EPOCH = "epoch";
   private static final String TIME_UUID_GENERATOR = "uuidStrategy";
@@ -73,6 +74,7 @@ public class CodecSettings {
   private String dateFormat;
   private String timeFormat;
   private String timestampFormat;
+  private int temporalCacheSize;
   private ObjectMapper objectMapper;
   private ZoneId timeZone;
   private TimeUnit timeUnit;
@@ -115,6 +117,13 @@ public class CodecSettings {
       dateFormat = config.getString(DATE);
       timeFormat = config.getString(TIME);
       timestampFormat = config.getString(TIMESTAMP);
+      temporalCacheSize = config.getInt(TEMPORAL_CACHE_SIZE);
+      if (temporalCacheSize < 0) {
+        throw new IllegalArgumentException(
+            String.format(
+                "Invalid value for dsbulk.codec.%s, expecting integer >= 0, got '%s'",
+                TEMPORAL_CACHE_SIZE, temporalCacheSize));
+      }
 
       // boolean
       booleanNumbers = getBooleanNumbers(config.getStringList(BOOLEAN_NUMBERS));
@@ -185,6 +194,7 @@ public class CodecSettings {
             .setDateFormat(dateFormat)
             .setTimeFormat(timeFormat)
             .setTimestampFormat(timestampFormat)
+            .setTemporalCacheSize(temporalCacheSize)
             .setTimeZone(timeZone)
             .setTimeUnit(timeUnit)
             .setEpoch(epoch)
@@ -195,6 +205,10 @@ public class CodecSettings {
     return new ConvertingCodecFactory(context);
   }
 
+  public int getTemporalCacheSize() {
+    return temporalCacheSize;
+  }
+
   public static Map<String, Boolean> getBooleanInputWords(List<String> list) {
     ImmutableMap.Builder<String, Boolean> builder = ImmutableMap.builder();
     list.stream()
@@ -26,13 +26,17 @@ import com.datastax.oss.dsbulk.config.ConfigUtils;
 import com.datastax.oss.dsbulk.executor.api.BulkExecutor;
 import com.datastax.oss.dsbulk.executor.api.BulkExecutorBuilder;
 import com.datastax.oss.dsbulk.executor.api.BulkExecutorBuilderFactory;
+import com.datastax.oss.dsbulk.executor.api.limiter.AdaptiveConcurrencyLimiter;
 import com.datastax.oss.dsbulk.executor.api.listener.ExecutionListener;
 import com.datastax.oss.dsbulk.executor.api.listener.MetricsCollectingExecutionListener;
 import com.datastax.oss.dsbulk.executor.api.reader.BulkReader;
+import com.datastax.oss.dsbulk.executor.api.retry.WriteRetryStrategy;
 import com.datastax.oss.dsbulk.executor.api.writer.BulkWriter;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigException;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.time.Duration;
 import java.util.ServiceLoader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,6 +50,9 @@ public class ExecutorSettings {
   private int maxPerSecond;
   private int maxInFlight;
   private boolean continuousPagingEnabled;
+  private boolean adaptiveConcurrencyEnabled;
+  private double latencyTolerance;
+  private Duration adaptiveConcurrencyWindow;
 
   ExecutorSettings(Config config) {
     this.config = config;
@@ -58,6 +65,21 @@ public class ExecutorSettings {
     } catch (ConfigException e) {
       throw ConfigUtils.convertConfigException(e, "dsbulk.executor");
     }
+    try {
+      Config adaptiveConcurrencyConfig = config.getConfig("adaptiveConcurrency");
+      adaptiveConcurrencyEnabled = adaptiveConcurrencyConfig.getBoolean("enabled");
+      latencyTolerance = adaptiveConcurrencyConfig.getDouble("latencyTolerance");
+      adaptiveConcurrencyWindow = adaptiveConcurrencyConfig.getDuration("window");
+      if (latencyTolerance <= 1) {
+        throw new IllegalArgumentException(
+            String.format(
+                "Invalid value for dsbulk.executor.adaptiveConcurrency.latencyTolerance: "
+                    + "expecting number greater than 1, got: %s",
+                latencyTolerance));
+      }
+    } catch (ConfigException e) {
+      throw ConfigUtils.convertConfigException(e, "dsbulk.executor.adaptiveConcurrency");
+    }
     Config continuousPagingConfig = config.getConfig("continuousPaging");
     try {
       continuousPagingEnabled = continuousPagingConfig.getBoolean("enabled");
@@ -76,10 +98,43 @@ public class ExecutorSettings {
     }
   }
 
+  /**
+   * Whether write concurrency should be adjusted dynamically. This is never the case when the
+   * maximum number of in-flight requests was set explicitly.
+   */
+  public boolean isAdaptiveConcurrencyEnabled() {
+    return adaptiveConcurrencyEnabled && maxInFlight <= 0;
+  }
+
+  @NonNull
+  public AdaptiveConcurrencyLimiter newConcurrencyLimiter(
+      int initialLimit, int minLimit, int maxLimit) {
+    return new AdaptiveConcurrencyLimiter(
+        initialLimit, minLimit, maxLimit, latencyTolerance, adaptiveConcurrencyWindow);
+  }
+
   @NonNull
   public BulkWriter newWriteExecutor(
       @NonNull CqlSession session, @NonNull ExecutionListener executionListener) {
-    return newBulkExecutor(session, executionListener, false, false);
+    return newWriteExecutor(session, executionListener, null);
+  }
+
+  @NonNull
+  public BulkWriter newWriteExecutor(
+      @NonNull CqlSession session,
+      @NonNull ExecutionListener executionListener,
+      @Nullable AdaptiveConcurrencyLimiter concurrencyLimiter) {
+    return newWriteExecutor(session, executionListener, concurrencyLimiter, null);
+  }
+
+  @NonNull
+  public BulkWriter newWriteExecutor(
+      @NonNull CqlSession session,
+      @NonNull ExecutionListener executionListener,
+      @Nullable AdaptiveConcurrencyLimiter concurrencyLimiter,
+      @Nullable WriteRetryStrategy retryStrategy) {
+    return newBulkExecutor(
+        session, executionListener, concurrencyLimiter, retryStrategy, false, false);
   }
 
   @NonNull
@@ -87,13 +142,15 @@ public class ExecutorSettings {
       @NonNull CqlSession session,
       @NonNull MetricsCollectingExecutionListener executionListener,
       boolean searchQuery) {
-    return newBulkExecutor(session, executionListener, true, searchQuery);
+    return newBulkExecutor(session, executionListener, null, null, true, searchQuery);
   }
 
   @NonNull
   protected BulkExecutor newBulkExecutor(
       @NonNull CqlSession session,
       @NonNull ExecutionListener executionListener,
+      @Nullable AdaptiveConcurrencyLimiter concurrencyLimiter,
+      @Nullable WriteRetryStrategy retryStrategy,
       boolean read,
       boolean searchQuery) {
     boolean useContinuousPagingForReads = read && checkContinuousPaging(session, searchQuery);
@@ -105,6 +162,8 @@ public class ExecutorSettings {
         .withExecutionListener(executionListener)
         .withMaxInFlightRequests(maxInFlight)
         .withMaxRequestsPerSecond(maxPerSecond)
+        .withConcurrencyLimiter(concurrencyLimiter)
+        .withWriteRetryStrategy(retryStrategy)
         .failSafe();
     return builder.build();
   }
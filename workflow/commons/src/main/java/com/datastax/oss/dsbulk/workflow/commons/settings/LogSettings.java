@@ -39,13 +39,21 @@ import com.datastax.oss.dsbulk.workflow.api.log.OperationDirectoryResolver;
 import com.datastax.oss.dsbulk.workflow.api.utils.WorkflowUtils;
 import com.datastax.oss.dsbulk.workflow.commons.format.statement.MappedBoundStatementPrinter;
 import com.datastax.oss.dsbulk.workflow.commons.log.LogManager;
+import com.datastax.oss.dsbulk.workflow.commons.log.LogManagerUtils;
+import com.datastax.oss.dsbulk.workflow.commons.log.PositionsTracker;
+import com.datastax.oss.dsbulk.workflow.commons.log.TokenRangesTracker;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigException;
 import com.typesafe.config.ConfigRenderOptions;
 import com.typesafe.config.ConfigValue;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.Flushable;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map.Entry;
@@ -124,6 +132,8 @@ public class LogSettings {
   private static final String MAX_QUERY_WARNINGS = "maxQueryWarnings";
   private static final String VERBOSITY = "verbosity";
   private static final String SOURCES = "sources";
+  private static final String CHECKPOINT_INTERVAL = "checkpointInterval";
+  private static final String RESUME = "resume";
 
   private final Config config;
   private final String executionId;
@@ -140,6 +150,9 @@ public class LogSettings {
   @VisibleForTesting ErrorThreshold queryWarningsThreshold;
   private Verbosity verbosity;
   private boolean sources;
+  private Duration checkpointInterval;
+  private PositionsTracker resumedPositions;
+  private Path resumedTokenRanges;
 
   public LogSettings(Config config, String executionId) {
     this.config = config;
@@ -195,6 +208,22 @@ public class LogSettings {
       }
       this.verbosity = Verbosity.values()[verbosity];
       sources = config.getBoolean(SOURCES);
+      checkpointInterval = config.getDuration(CHECKPOINT_INTERVAL);
+      if (checkpointInterval.isNegative()) {
+        throw new IllegalArgumentException(
+            String.format(
+                "Invalid value for log.%s: Expecting a positive duration or zero, got: '%s'",
+                CHECKPOINT_INTERVAL, config.getString(CHECKPOINT_INTERVAL)));
+      }
+      if (ConfigUtils.isPathPresentAndNotEmpty(config, RESUME)) {
+        Path directory = ConfigUtils.getPath(config, RESUME);
+        if (Files.isRegularFile(directory.resolve(LogManager.TOKEN_RANGES_CHECKPOINT_FILE))) {
+          resumedTokenRanges = directory.resolve(LogManager.TOKEN_RANGES_CHECKPOINT_FILE);
+          LOGGER.info("Resuming operation from {}", directory);
+        } else {
+          resumedPositions = readResumedPositions(directory);
+        }
+      }
     } catch (ConfigException e) {
       throw ConfigUtils.convertConfigException(e, "dsbulk.log");
     }
@@ -231,6 +260,38 @@ public class LogSettings {
   }
 
   public LogManager newLogManager(CqlSession session, boolean trackPositions) {
+    return newLogManager(session, trackPositions, null);
+  }
+
+  public LogManager newLogManager(
+      CqlSession session,
+      boolean trackPositions,
+      @Nullable TokenRangesTracker tokenRangesTracker) {
+    return newLogManager(session, trackPositions, tokenRangesTracker, null);
+  }
+
+  /**
+   * Creates the log manager of an operation.
+   *
+   * @param session The session.
+   * @param trackPositions Whether to track the positions of the records processed, when loading.
+   * @param tokenRangesTracker The tracker of the token ranges to read, when unloading or counting.
+   * @param recordsFlusher Flushes the records written so far before each checkpoint, when
+   *     unloading; may be null.
+   * @return the log manager.
+   */
+  public LogManager newLogManager(
+      CqlSession session,
+      boolean trackPositions,
+      @Nullable TokenRangesTracker tokenRangesTracker,
+      @Nullable Flushable recordsFlusher) {
+    if (trackPositions && resumedTokenRanges != null) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Invalid value for log.%s: %s is the operation directory of an unload or count "
+                  + "operation, it cannot be used to resume a load operation.",
+              RESUME, resumedTokenRanges.getParent()));
+    }
     StatementFormatter statementFormatter =
         StatementFormatter.builder()
             .withMaxQueryStringLength(maxQueryStringLength)
@@ -248,7 +309,11 @@ public class LogSettings {
         trackPositions,
         statementFormatter,
         level,
-        rowFormatter);
+        rowFormatter,
+        checkpointInterval,
+        trackPositions ? resumedPositions : null,
+        tokenRangesTracker,
+        recordsFlusher);
   }
 
   public Verbosity getVerbosity() {
@@ -265,6 +330,52 @@ public class LogSettings {
     return sources;
   }
 
+  /** Whether the progress of this operation is periodically saved to a checkpoint file. */
+  public boolean isCheckpoint() {
+    return !checkpointInterval.isZero();
+  }
+
+  /** Whether this operation resumes a previous, interrupted operation. */
+  public boolean isResume() {
+    return resumedPositions != null || resumedTokenRanges != null;
+  }
+
+  /**
+   * Returns the checkpoint file containing the token ranges left to read by the unload or count
+   * operation being resumed, if any.
+   *
+   * @return the checkpoint file, or null if this operation is not resuming a previous one.
+   */
+  @Nullable
+  public Path getResumedTokenRanges() {
+    if (resumedPositions != null) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Invalid value for log.%s: the operation directory contains the checkpoint of a load "
+                  + "operation, it cannot be used to resume an unload or count operation.",
+              RESUME));
+    }
+    return resumedTokenRanges;
+  }
+
+  @NonNull
+  private static PositionsTracker readResumedPositions(@NonNull Path directory) throws IOException {
+    Path checkpoint = directory.resolve(LogManager.CHECKPOINT_FILE);
+    if (!Files.isRegularFile(checkpoint)) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Invalid value for log.%s: %s is not the operation directory of an operation "
+                  + "with checkpoints enabled, neither %s nor %s was found.",
+              RESUME,
+              directory,
+              LogManager.CHECKPOINT_FILE,
+              LogManager.TOKEN_RANGES_CHECKPOINT_FILE));
+    }
+    PositionsTracker positions = LogManagerUtils.readCheckpoint(checkpoint);
+    LOGGER.info("Resuming operation from {}", directory);
+    return positions;
+  }
+
   @VisibleForTesting
   public static void createMainLogFileAppender(Path mainLogFile) {
     ch.qos.logback.classic.Logger root =
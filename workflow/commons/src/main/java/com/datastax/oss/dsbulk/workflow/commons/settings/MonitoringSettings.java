@@ -45,6 +45,8 @@ public class MonitoringSettings {
   private static final String JMX = "jmx";
   private static final String CSV = "csv";
   private static final String CONSOLE = "console";
+  private static final String PROMETHEUS_HOST = "prometheusHost";
+  private static final String PROMETHEUS_PORT = "prometheusPort";
 
   private final Config config;
   private final String executionId;
@@ -58,6 +60,8 @@ public class MonitoringSettings {
   private boolean jmx;
   private boolean csv;
   private boolean console;
+  private String prometheusHost;
+  private int prometheusPort;
 
   public MonitoringSettings(Config config, String executionId) {
     this.config = config;
@@ -82,6 +86,14 @@ public class MonitoringSettings {
       jmx = config.getBoolean(JMX);
       csv = config.getBoolean(CSV);
       console = config.getBoolean(CONSOLE);
+      prometheusHost = config.getString(PROMETHEUS_HOST);
+      prometheusPort = config.getInt(PROMETHEUS_PORT);
+      if (prometheusPort < -1 || prometheusPort > 65535) {
+        throw new IllegalArgumentException(
+            String.format(
+                "Invalid value for dsbulk.monitoring.%s, expecting -1 or a port number between 0 and 65535, got '%s'",
+                PROMETHEUS_PORT, prometheusPort));
+      }
     } catch (ConfigException e) {
       throw ConfigUtils.convertConfigException(e, "dsbulk.monitoring");
     }
@@ -116,6 +128,8 @@ public class MonitoringSettings {
         jmx,
         csv,
         console,
+        prometheusHost,
+        prometheusPort,
         operationDirectory,
         verbosity,
         reportRate,
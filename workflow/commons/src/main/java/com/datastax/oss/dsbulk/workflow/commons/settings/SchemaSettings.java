@@ -39,15 +39,23 @@ import com.datastax.oss.driver.api.core.DefaultProtocolVersion;
 import com.datastax.oss.driver.api.core.ProtocolVersion;
 import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
 import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
 import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.metadata.EndPoint;
 import com.datastax.oss.driver.api.core.metadata.Metadata;
+import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.api.core.metadata.TokenMap;
 import com.datastax.oss.driver.api.core.metadata.schema.ColumnMetadata;
 import com.datastax.oss.driver.api.core.metadata.schema.IndexMetadata;
 import com.datastax.oss.driver.api.core.metadata.schema.KeyspaceMetadata;
 import com.datastax.oss.driver.api.core.metadata.schema.RelationMetadata;
 import com.datastax.oss.driver.api.core.metadata.schema.TableMetadata;
 import com.datastax.oss.driver.api.core.metadata.schema.ViewMetadata;
+import com.datastax.oss.driver.api.core.metadata.token.Token;
+import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
 import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.internal.core.metadata.token.DefaultTokenMap;
+import com.datastax.oss.driver.internal.core.util.RoutingKey;
 import com.datastax.oss.driver.shaded.guava.common.annotations.VisibleForTesting;
 import com.datastax.oss.driver.shaded.guava.common.base.Preconditions;
 import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableMultimap;
@@ -56,6 +64,7 @@ import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableSetMultimap;
 import com.datastax.oss.driver.shaded.guava.common.collect.Multimap;
 import com.datastax.oss.dsbulk.codecs.api.ConvertingCodecFactory;
 import com.datastax.oss.dsbulk.config.ConfigUtils;
+import com.datastax.oss.dsbulk.connectors.api.CommonConnectorFeature;
 import com.datastax.oss.dsbulk.connectors.api.Field;
 import com.datastax.oss.dsbulk.connectors.api.Record;
 import com.datastax.oss.dsbulk.connectors.api.RecordMetadata;
@@ -70,7 +79,12 @@ import com.datastax.oss.dsbulk.mapping.Mapping;
 import com.datastax.oss.dsbulk.mapping.MappingField;
 import com.datastax.oss.dsbulk.mapping.MappingInspector;
 import com.datastax.oss.dsbulk.mapping.MappingPreference;
+import com.datastax.oss.dsbulk.partitioner.BulkTokenFactory;
+import com.datastax.oss.dsbulk.partitioner.BulkTokenRange;
 import com.datastax.oss.dsbulk.partitioner.TokenRangeReadStatementGenerator;
+import com.datastax.oss.dsbulk.partitioner.TokenRangeSizeEstimates;
+import com.datastax.oss.dsbulk.workflow.commons.log.LogManagerUtils;
+import com.datastax.oss.dsbulk.workflow.commons.log.TokenRangesTracker;
 import com.datastax.oss.dsbulk.workflow.commons.schema.DefaultReadResultCounter;
 import com.datastax.oss.dsbulk.workflow.commons.schema.DefaultReadResultMapper;
 import com.datastax.oss.dsbulk.workflow.commons.schema.DefaultRecordMapper;
@@ -78,14 +92,21 @@ import com.datastax.oss.dsbulk.workflow.commons.schema.QueryInspector;
 import com.datastax.oss.dsbulk.workflow.commons.schema.ReadResultCounter;
 import com.datastax.oss.dsbulk.workflow.commons.schema.ReadResultMapper;
 import com.datastax.oss.dsbulk.workflow.commons.schema.RecordMapper;
+import com.datastax.oss.dsbulk.workflow.commons.schema.TokenRangeCounter;
+import com.datastax.oss.dsbulk.workflow.commons.schema.TokenRangeReadScheduler;
 import com.datastax.oss.dsbulk.workflow.commons.settings.StatsSettings.StatisticsMode;
 import com.datastax.oss.dsbulk.workflow.commons.utils.GraphUtils;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigException;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.IOException;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
@@ -124,6 +145,13 @@ public class SchemaSettings {
   private static final String QUERY_TIMESTAMP = "queryTimestamp";
   private static final String CORE = "Core";
   private static final String SPLITS = "splits";
+  private static final String SPLIT_STRATEGY = "splitStrategy";
+  private static final String DYNAMIC_SPLITTING = "dynamicSplitting";
+
+  private enum SplitStrategy {
+    TOKENS,
+    SIZE_ESTIMATES
+  }
 
   private final Config config;
 
@@ -131,6 +159,8 @@ public class SchemaSettings {
   private boolean allowExtraFields;
   private boolean allowMissingFields;
   private int splits;
+  private SplitStrategy splitStrategy;
+  private boolean dynamicSplitting;
   private MappingInspector mapping;
   private int ttlSeconds;
   private long timestampMicros;
@@ -392,6 +422,8 @@ public class SchemaSettings {
       allowExtraFields = config.getBoolean(ALLOW_EXTRA_FIELDS);
       allowMissingFields = config.getBoolean(ALLOW_MISSING_FIELDS);
       splits = ConfigUtils.getThreads(config, SPLITS);
+      splitStrategy = config.getEnum(SplitStrategy.class, SPLIT_STRATEGY);
+      dynamicSplitting = config.getBoolean(DYNAMIC_SPLITTING);
 
       // Final checks related to graph operations
 
@@ -475,12 +507,16 @@ public class SchemaSettings {
    * @param retainRecordSources Whether the mapper should retain record sources; if {@code true},
    *     all emitted records will contain the original row as {@linkplain Record#getSource() their
    *     sources}.
+   * @param utf8Values Whether the mapper should emit values formatted directly as UTF-8 bytes when
+   *     possible; this should only be enabled if the connector supports {@link
+   *     CommonConnectorFeature#UTF8_VALUES}.
    */
   public ReadResultMapper createReadResultMapper(
       CqlSession session,
       RecordMetadata recordMetadata,
       ConvertingCodecFactory codecFactory,
-      boolean retainRecordSources) {
+      boolean retainRecordSources,
+      boolean utf8Values) {
     // we don't check that mapping records are supported when unloading, the only thing that matters
     // is the order in which fields appear in the record.
     Mapping mapping =
@@ -490,7 +526,7 @@ public class SchemaSettings {
             SchemaGenerationType.READ_AND_MAP,
             EnumSet.noneOf(StatisticsMode.class));
     return new DefaultReadResultMapper(
-        mapping, recordMetadata, getTargetTableURI(), retainRecordSources);
+        mapping, recordMetadata, getTargetTableURI(), retainRecordSources, utf8Values);
   }
 
   public ReadResultCounter createReadResultCounter(
@@ -512,9 +548,197 @@ public class SchemaSettings {
   }
 
   public List<Statement<?>> createReadStatements(CqlSession session) {
+    return createReadStatements(session, null);
+  }
+
+  /**
+   * Creates the statements to read, by token ranges if possible.
+   *
+   * @param session The session.
+   * @param tracker The tracker of the token ranges to read, or null to read the entire table.
+   * @return the statements to read; if a tracker is provided, there is one statement per range
+   *     that remains to be read.
+   */
+  public List<Statement<?>> createReadStatements(
+      CqlSession session, @Nullable TokenRangesTracker tracker) {
+    if (!isTokenRangeQuery()) {
+      return Collections.singletonList(preparedStatement.bind());
+    }
+    TokenRangeReadStatementGenerator generator =
+        createReadStatementGenerator(session, tracker == null);
+    List<Statement<?>> statements;
+    if (tracker == null) {
+      statements = generator.generate(splits, this::bindTokenRange);
+    } else {
+      statements = new ArrayList<>();
+      for (BulkTokenRange range : tracker.getRemainingRanges()) {
+        statements.add(generator.generate(range, this::bindTokenRange));
+      }
+    }
+    LOGGER.debug("Generated {} bound statements", statements.size());
+    // Shuffle the statements to avoid hitting the same replicas sequentially when
+    // the statements will be executed.
+    Collections.shuffle(statements);
+    return statements;
+  }
+
+  /**
+   * Creates a scheduler that reads the table by token ranges and splits slow ranges dynamically.
+   *
+   * @return the scheduler, or empty if dynamic splitting is disabled, or if the read query cannot
+   *     be split by token ranges, or if it does not select all the partition key columns, which is
+   *     required to track the progress of each read.
+   */
+  public Optional<TokenRangeReadScheduler> createReadScheduler(CqlSession session) {
+    return createReadScheduler(session, null);
+  }
+
+  /**
+   * Creates a scheduler that reads the table by token ranges and splits slow ranges dynamically.
+   *
+   * @param session The session.
+   * @param tracker The tracker of the token ranges to read, or null to read the entire table.
+   * @return the scheduler, or empty if dynamic splitting is not possible; see {@link
+   *     #createReadScheduler(CqlSession)}.
+   */
+  public Optional<TokenRangeReadScheduler> createReadScheduler(
+      CqlSession session, @Nullable TokenRangesTracker tracker) {
+    if (!dynamicSplitting || !isTokenRangeQuery()) {
+      return Optional.empty();
+    }
+    int[] partitionKeyIndices = getPartitionKeyIndices();
+    if (partitionKeyIndices == null) {
+      LOGGER.warn(
+          "Dynamic splitting is disabled: the read query does not select all the partition key "
+              + "columns of {}.",
+          tableName.render(VARIABLE));
+      return Optional.empty();
+    }
+    TokenRangeReadStatementGenerator generator =
+        createReadStatementGenerator(session, tracker == null);
+    BulkTokenFactory tokenFactory = generator.getTokenFactory();
+    List<BulkTokenRange> ranges;
+    if (tracker == null) {
+      ranges = generator.generateRanges(splits);
+      LOGGER.debug("Generated {} token ranges", ranges.size());
+    } else {
+      ranges = tracker.getRemainingRanges();
+    }
+    return Optional.of(
+        new TokenRangeReadScheduler(
+            ranges,
+            range -> generator.generate(range, this::bindTokenRange),
+            row -> tokenFactory.hash(routingKey(row, partitionKeyIndices)),
+            tokenFactory,
+            tracker));
+  }
+
+  /**
+   * Creates a tracker of the token ranges to read, that allows to checkpoint the progress of the
+   * operation.
+   *
+   * @param session The session.
+   * @param checkpoint The checkpoint file of the operation being resumed, or null to read the
+   *     entire table.
+   * @return the tracker, or empty if the read query cannot be split by token ranges.
+   */
+  public Optional<TokenRangesTracker> createTokenRangesTracker(
+      CqlSession session, @Nullable Path checkpoint) throws IOException {
+    if (!isTokenRangeQuery()) {
+      if (checkpoint != null) {
+        throw new IllegalArgumentException(
+            "Invalid value for log.resume: the read query cannot be split by token ranges, "
+                + "the operation cannot be resumed.");
+      }
+      return Optional.empty();
+    }
+    if (checkpoint == null) {
+      TokenRangeReadStatementGenerator generator = createReadStatementGenerator(session, true);
+      List<BulkTokenRange> ranges = generator.generateRanges(splits);
+      LOGGER.debug("Generated {} token ranges", ranges.size());
+      return Optional.of(new TokenRangesTracker(generator.getTokenFactory(), ranges, 0));
+    }
+    TokenMap tokenMap =
+        session
+            .getMetadata()
+            .getTokenMap()
+            .orElseThrow(() -> new IllegalStateException("Token metadata not present"));
+    BulkTokenFactory tokenFactory =
+        BulkTokenFactory.forPartitioner(
+            ((DefaultTokenMap) tokenMap).getTokenFactory().getPartitionerName());
+    TokenRangesTracker tracker =
+        LogManagerUtils.readTokenRangesCheckpoint(
+            checkpoint, tokenFactory, end -> replicas(tokenMap, end));
+    if (tracker.getRemainingRanges().isEmpty()) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Invalid value for log.resume: all token ranges were already read according to %s, "
+                  + "there is nothing left to resume.",
+              checkpoint));
+    }
+    LOGGER.debug("Resuming {} token ranges", tracker.getRemainingRanges().size());
+    return Optional.of(tracker);
+  }
+
+  /**
+   * Creates a counter that counts the rows of each token range server-side, with one {@code SELECT
+   * count(*)} query per range, instead of reading every row.
+   *
+   * <p>This method must be called after {@link #createReadResultCounter(CqlSession,
+   * ConvertingCodecFactory, EnumSet, int)}.
+   *
+   * @param session The session.
+   * @param tracker The tracker of the token ranges to count, or null to count the entire table.
+   * @return the counter, or empty if the read query was provided by the user, or cannot be split
+   *     by token ranges.
+   */
+  public Optional<TokenRangeCounter> createTokenRangeCounter(
+      CqlSession session, @Nullable TokenRangesTracker tracker) {
+    if (config.hasPath(QUERY) || !isTokenRangeQuery()) {
+      return Optional.empty();
+    }
+    StringBuilder sb =
+        new StringBuilder("SELECT count(*) FROM ")
+            .append(keyspaceName.render(VARIABLE))
+            .append('.')
+            .append(tableName.render(VARIABLE));
+    appendTokenRangeRestriction(sb);
+    String countQuery = sb.toString();
+    LOGGER.debug("Inferred server-side count query: {}", countQuery);
+    PreparedStatement countStatement = session.prepare(countQuery);
+    TokenRangeReadStatementGenerator generator =
+        createReadStatementGenerator(session, tracker == null);
+    List<BulkTokenRange> ranges;
+    if (tracker == null) {
+      ranges = generator.generateRanges(splits);
+      LOGGER.debug("Generated {} token ranges", ranges.size());
+    } else {
+      ranges = tracker.getRemainingRanges();
+    }
+    return Optional.of(
+        new TokenRangeCounter(
+            ranges,
+            range ->
+                generator.generate(
+                    range,
+                    r -> countStatement.bind().setToken(0, r.getStart()).setToken(1, r.getEnd())),
+            generator.getTokenFactory(),
+            tracker));
+  }
+
+  @NonNull
+  private Set<EndPoint> replicas(TokenMap tokenMap, Token token) {
+    Set<EndPoint> replicas = new HashSet<>();
+    for (Node node : tokenMap.getReplicas(keyspace.getName(), token)) {
+      replicas.add(node.getEndPoint());
+    }
+    return replicas;
+  }
+
+  private boolean isTokenRangeQuery() {
     ColumnDefinitions variables = preparedStatement.getVariableDefinitions();
     if (variables.size() == 0) {
-      return Collections.singletonList(preparedStatement.bind());
+      return false;
     }
     boolean ok = true;
     Optional<CQLWord> start = queryInspector.getTokenRangeRestrictionStartVariable();
@@ -537,26 +761,81 @@ public class SchemaSettings {
               + "the WHERE clause is only allowed to contain one token range restriction "
               + "of the form: WHERE token(...) > ? AND token(...) <= ?");
     }
+    return true;
+  }
+
+  /**
+   * @param withSizeEstimates Whether the generator will be used to generate ranges, in which case
+   *     size estimates are fetched if required by the split strategy.
+   */
+  @NonNull
+  private TokenRangeReadStatementGenerator createReadStatementGenerator(
+      CqlSession session, boolean withSizeEstimates) {
     Metadata metadata = session.getMetadata();
-    TokenRangeReadStatementGenerator generator =
-        new TokenRangeReadStatementGenerator(table, metadata);
-    List<Statement<?>> statements =
-        generator.generate(
-            splits,
-            range ->
-                preparedStatement
-                    .bind()
-                    .setToken(
-                        queryInspector.getTokenRangeRestrictionStartVariableIndex(),
-                        range.getStart())
-                    .setToken(
-                        queryInspector.getTokenRangeRestrictionEndVariableIndex(), range.getEnd()));
+    TokenRangeSizeEstimates sizeEstimates = null;
+    if (withSizeEstimates && splitStrategy == SplitStrategy.SIZE_ESTIMATES) {
+      sizeEstimates = fetchSizeEstimates(session, metadata);
+    }
+    return new TokenRangeReadStatementGenerator(table, metadata, sizeEstimates);
+  }
 
-    LOGGER.debug("Generated {} bound statements", statements.size());
-    // Shuffle the statements to avoid hitting the same replicas sequentially when
-    // the statements will be executed.
-    Collections.shuffle(statements);
-    return statements;
+  @NonNull
+  private Statement<?> bindTokenRange(TokenRange range) {
+    return preparedStatement
+        .bind()
+        .setToken(queryInspector.getTokenRangeRestrictionStartVariableIndex(), range.getStart())
+        .setToken(queryInspector.getTokenRangeRestrictionEndVariableIndex(), range.getEnd());
+  }
+
+  /**
+   * @return the indices of the partition key columns in the read query's result set, or null if the
+   *     query does not select all of them.
+   */
+  @Nullable
+  private int[] getPartitionKeyIndices() {
+    ColumnDefinitions resultSet = preparedStatement.getResultSetDefinitions();
+    List<ColumnMetadata> partitionKey = table.getPartitionKey();
+    int[] indices = new int[partitionKey.size()];
+    for (int i = 0; i < indices.length; i++) {
+      CQLFragment column = CQLWord.fromCqlIdentifier(partitionKey.get(i).getName());
+      CQLFragment alias =
+          queryInspector.isSelectStar()
+              ? column
+              : queryInspector.getResultSetVariables().get(column);
+      if (!(alias instanceof CQLWord)) {
+        return null;
+      }
+      indices[i] = resultSet.firstIndexOf(((CQLWord) alias).asIdentifier());
+      if (indices[i] == -1) {
+        return null;
+      }
+    }
+    return indices;
+  }
+
+  @NonNull
+  private static ByteBuffer routingKey(Row row, int[] partitionKeyIndices) {
+    if (partitionKeyIndices.length == 1) {
+      return Objects.requireNonNull(row.getBytesUnsafe(partitionKeyIndices[0])).duplicate();
+    }
+    ByteBuffer[] components = new ByteBuffer[partitionKeyIndices.length];
+    for (int i = 0; i < components.length; i++) {
+      components[i] = Objects.requireNonNull(row.getBytesUnsafe(partitionKeyIndices[i]));
+    }
+    return RoutingKey.compose(components);
+  }
+
+  @NonNull
+  private TokenRangeSizeEstimates fetchSizeEstimates(CqlSession session, Metadata metadata) {
+    TokenMap tokenMap =
+        metadata
+            .getTokenMap()
+            .orElseThrow(() -> new IllegalStateException("Token metadata not present"));
+    BulkTokenFactory tokenFactory =
+        BulkTokenFactory.forPartitioner(
+            ((DefaultTokenMap) tokenMap).getTokenFactory().getPartitionerName());
+    return TokenRangeSizeEstimates.fetch(
+        session, table.getKeyspace(), table.getName(), tokenFactory);
   }
 
   @NonNull
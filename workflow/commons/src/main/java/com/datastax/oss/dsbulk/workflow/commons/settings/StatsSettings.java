@@ -18,6 +18,7 @@ package com.datastax.oss.dsbulk.workflow.commons.settings;
 import com.datastax.oss.dsbulk.config.ConfigUtils;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigException;
+import java.time.Duration;
 import java.util.EnumSet;
 import java.util.List;
 
@@ -32,11 +33,15 @@ public class StatsSettings {
 
   private static final String MODES = "modes";
   private static final String NUM_PARTITIONS = "numPartitions";
+  private static final String SERVER_SIDE = "serverSide";
+  private static final String SNAPSHOT_INTERVAL = "snapshotInterval";
 
   private final Config config;
 
   private List<StatisticsMode> statisticsModes;
   private int numPartitions;
+  private boolean serverSide;
+  private Duration snapshotInterval;
 
   public StatsSettings(Config config) {
     this.config = config;
@@ -46,6 +51,14 @@ public class StatsSettings {
     try {
       statisticsModes = config.getEnumList(StatisticsMode.class, MODES);
       numPartitions = config.getInt(NUM_PARTITIONS);
+      serverSide = config.getBoolean(SERVER_SIDE);
+      snapshotInterval = config.getDuration(SNAPSHOT_INTERVAL);
+      if (snapshotInterval.isNegative()) {
+        throw new IllegalArgumentException(
+            String.format(
+                "Invalid value for stats.%s: Expecting a positive duration or zero, got: '%s'",
+                SNAPSHOT_INTERVAL, config.getString(SNAPSHOT_INTERVAL)));
+      }
     } catch (ConfigException e) {
       throw ConfigUtils.convertConfigException(e, "dsbulk.stats");
     }
@@ -58,4 +71,12 @@ public class StatsSettings {
   public int getNumPartitions() {
     return numPartitions;
   }
+
+  public boolean isServerSide() {
+    return serverSide;
+  }
+
+  public Duration getSnapshotInterval() {
+    return snapshotInterval;
+  }
 }
@@ -27,6 +27,8 @@ import com.datastax.oss.driver.api.core.metadata.token.Token;
 import com.datastax.oss.driver.api.core.type.DataType;
 import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
 import com.datastax.oss.dsbulk.connectors.api.Record;
+import com.datastax.oss.dsbulk.sampler.DataSizes;
+import com.datastax.oss.dsbulk.sampler.SizedStatement;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import java.nio.ByteBuffer;
@@ -34,14 +36,29 @@ import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
-public class MappedBoundStatement implements BoundStatement, MappedStatement {
+public class MappedBoundStatement implements BoundStatement, MappedStatement, SizedStatement {
 
   private final Record source;
   private BoundStatement delegate;
+  // the size of the bound values, or -1 if not computed yet
+  private long dataSize;
 
   public MappedBoundStatement(Record source, BoundStatement delegate) {
+    this(source, delegate, -1);
+  }
+
+  /**
+   * Creates a new statement whose data size is already known, typically because it was computed
+   * while binding its values.
+   *
+   * @param source The record the statement was mapped from.
+   * @param delegate The bound statement.
+   * @param dataSize The size in bytes of the bound values, as computed by {@link DataSizes}.
+   */
+  public MappedBoundStatement(Record source, BoundStatement delegate, long dataSize) {
     this.source = source;
     this.delegate = delegate;
+    this.dataSize = dataSize;
   }
 
   @Override
@@ -49,6 +66,14 @@ public class MappedBoundStatement implements BoundStatement, MappedStatement {
     return source;
   }
 
+  @Override
+  public long getDataSize() {
+    if (dataSize < 0) {
+      dataSize = DataSizes.getDataSize(delegate);
+    }
+    return dataSize;
+  }
+
   @NonNull
   @Override
   public PreparedStatement getPreparedStatement() {
@@ -253,6 +278,10 @@ public class MappedBoundStatement implements BoundStatement, MappedStatement {
   @NonNull
   @Override
   public BoundStatement setBytesUnsafe(int i, ByteBuffer v) {
+    if (dataSize >= 0) {
+      ByteBuffer old = delegate.getBytesUnsafe(i);
+      dataSize += (v == null ? 0 : v.remaining()) - (old == null ? 0 : old.remaining());
+    }
     delegate = delegate.setBytesUnsafe(i, v);
     return this;
   }
@@ -0,0 +1,119 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.workflow.commons.log;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.datastax.oss.dsbulk.tests.utils.FileUtils;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AsyncLogWriterTest {
+
+  private Path dir;
+
+  @BeforeEach
+  void createTempDirectory() throws IOException {
+    dir = Files.createTempDirectory("test");
+  }
+
+  @AfterEach
+  void deleteTempDirectory() {
+    FileUtils.deleteDirectory(dir);
+  }
+
+  @Test
+  void should_write_entries_to_their_files() throws Exception {
+    Path file1 = dir.resolve("file1.log");
+    Path file2 = dir.resolve("file2.log");
+    try (AsyncLogWriter writer = new AsyncLogWriter(1024)) {
+      writer.write(file1, "line 1\n");
+      writer.write(file2, "line 2\n");
+      writer.write(file1, "line 3\n");
+      assertThat(writer.getFiles()).containsOnly(file1, file2);
+    }
+    assertThat(Files.readAllLines(file1, UTF_8)).containsExactly("line 1", "line 3");
+    assertThat(Files.readAllLines(file2, UTF_8)).containsExactly("line 2");
+  }
+
+  @Test
+  void should_write_entries_larger_than_buffer_in_one_piece() throws Exception {
+    Path file = dir.resolve("file.log");
+    List<String> expected = new ArrayList<>();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try (AsyncLogWriter writer = new AsyncLogWriter(16)) {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        // multi-byte characters to exercise entries wrapping around the ring
+        String line = repeat((char) ('a' + i), 100) + "é€";
+        for (int j = 0; j < 50; j++) {
+          expected.add(line);
+        }
+        futures.add(
+            executor.submit(
+                () -> {
+                  for (int j = 0; j < 50; j++) {
+                    writer.write(file, line + '\n');
+                  }
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get(30, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertThat(Files.readAllLines(file, UTF_8)).containsExactlyInAnyOrderElementsOf(expected);
+  }
+
+  @Test
+  void should_report_failure_when_file_cannot_be_created() throws Exception {
+    Path file = Files.createFile(dir.resolve("file.log"));
+    AsyncLogWriter writer = new AsyncLogWriter(1024);
+    writer.write(file, "irrelevant\n");
+    assertThatThrownBy(writer::close).isInstanceOf(FileAlreadyExistsException.class);
+  }
+
+  @Test
+  void should_reject_entries_when_closed() throws Exception {
+    AsyncLogWriter writer = new AsyncLogWriter(1024);
+    writer.close();
+    assertThatThrownBy(() -> writer.write(dir.resolve("file.log"), "irrelevant\n"))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("Writer is closed");
+  }
+
+  private static String repeat(char c, int count) {
+    StringBuilder sb = new StringBuilder(count);
+    for (int i = 0; i < count; i++) {
+      sb.append(c);
+    }
+    return sb.toString();
+  }
+}
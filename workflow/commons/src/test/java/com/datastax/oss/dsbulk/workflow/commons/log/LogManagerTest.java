@@ -38,6 +38,7 @@ import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
 import com.datastax.oss.driver.api.core.cql.Row;
 import com.datastax.oss.driver.api.core.cql.SimpleStatement;
 import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.internal.core.metadata.token.Murmur3Token;
 import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableList;
 import com.datastax.oss.dsbulk.connectors.api.DefaultErrorRecord;
 import com.datastax.oss.dsbulk.connectors.api.DefaultRecord;
@@ -49,6 +50,8 @@ import com.datastax.oss.dsbulk.executor.api.result.ReadResult;
 import com.datastax.oss.dsbulk.executor.api.result.WriteResult;
 import com.datastax.oss.dsbulk.format.row.RowFormatter;
 import com.datastax.oss.dsbulk.format.statement.StatementFormatter;
+import com.datastax.oss.dsbulk.partitioner.BulkTokenRange;
+import com.datastax.oss.dsbulk.partitioner.murmur3.Murmur3BulkTokenFactory;
 import com.datastax.oss.dsbulk.tests.logging.LogCapture;
 import com.datastax.oss.dsbulk.tests.logging.LogInterceptingExtension;
 import com.datastax.oss.dsbulk.tests.logging.LogInterceptor;
@@ -58,12 +61,19 @@ import com.datastax.oss.dsbulk.workflow.api.error.ErrorThreshold;
 import com.datastax.oss.dsbulk.workflow.api.error.RatioErrorThreshold;
 import com.datastax.oss.dsbulk.workflow.api.error.TooManyErrorsException;
 import com.datastax.oss.dsbulk.workflow.commons.format.statement.MappedBoundStatementPrinter;
+import com.datastax.oss.dsbulk.workflow.commons.log.TokenRangesTracker.PendingRange;
 import com.datastax.oss.dsbulk.workflow.commons.statement.MappedBoundStatement;
 import com.datastax.oss.dsbulk.workflow.commons.statement.UnmappableStatement;
+import java.io.Flushable;
+import java.io.IOException;
 import java.net.URI;
 import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import org.assertj.core.api.Assertions;
 import org.assertj.core.util.Lists;
@@ -75,6 +85,8 @@ import reactor.core.publisher.Flux;
 @ExtendWith(LogInterceptingExtension.class)
 class LogManagerTest {
 
+  private static final Murmur3BulkTokenFactory TOKEN_FACTORY = new Murmur3BulkTokenFactory();
+
   private final URI tableResource = URI.create("cql://ks1/table1");
 
   private final String source1 = "line1\n";
@@ -1028,6 +1040,101 @@ class LogManagerTest {
     assertThat(positionLines).containsOnly("file:///file1.csv:1");
   }
 
+  @Test
+  void should_checkpoint_positions_and_skip_resumed_ones() throws Exception {
+    Path outputDir = Files.createTempDirectory("test");
+    PositionsTracker resumed = new PositionsTracker();
+    resumed.update(resource1, 1, 10);
+    resumed.update(resource2, 5, 5);
+    LogManager logManager =
+        new LogManager(
+            session,
+            outputDir,
+            ErrorThreshold.forAbsoluteValue(10),
+            ErrorThreshold.forAbsoluteValue(0),
+            true,
+            statementFormatter,
+            EXTENDED,
+            rowFormatter,
+            Duration.ofMinutes(1),
+            resumed,
+            null,
+            null);
+    logManager.init();
+    assertThat(logManager.getResumedPositions()).containsOnlyKeys(resource1).containsValue(10L);
+    List<Long> positions =
+        Flux.<Record>just(
+                DefaultRecord.indexed(null, resource1, 5, "foo"),
+                DefaultRecord.indexed(null, resource1, 11, "foo"),
+                DefaultRecord.indexed(null, resource2, 5, "foo"),
+                DefaultRecord.indexed(null, resource2, 6, "foo"))
+            .transform(logManager.newProcessedRecordsFilter())
+            .map(Record::getPosition)
+            .collectList()
+            .block();
+    assertThat(positions).containsExactly(11L, 6L);
+    Record record = new DefaultErrorRecord(null, resource1, 11, new RuntimeException("error 1"));
+    Flux.just(record).transform(logManager.newFailedRecordsHandler()).blockLast();
+    logManager.close();
+    Path checkpoint = logManager.getOperationDirectory().resolve("checkpoint.txt");
+    assertThat(checkpoint.toFile()).exists();
+    assertThat(Files.readAllLines(checkpoint, UTF_8))
+        .containsExactly("file:///file1.csv\t1-11", "file:///file2.csv\t5-5");
+    assertThat(LogManagerUtils.readCheckpoint(checkpoint).getPositions())
+        .containsOnlyKeys(resource1, resource2)
+        .containsEntry(resource1, Lists.newArrayList(new Range(1, 11)))
+        .containsEntry(resource2, Lists.newArrayList(new Range(5)));
+  }
+
+  @Test
+  void should_flush_written_records_before_checkpointing_token_ranges() throws Exception {
+    Path outputDir = Files.createTempDirectory("test");
+    BulkTokenRange range1 = range(Long.MIN_VALUE, 0);
+    BulkTokenRange range2 = range(0, Long.MIN_VALUE);
+    TokenRangesTracker tracker =
+        new TokenRangesTracker(TOKEN_FACTORY, Arrays.asList(range1, range2), 0);
+    List<Record> buffered = new ArrayList<>();
+    List<Record> flushed = new ArrayList<>();
+    Flushable connector =
+        () -> {
+          // range2 is entirely written while flushing, its records are not flushed yet
+          tracker.completed(range2.getEnd(), 1);
+          flushed.addAll(buffered);
+          buffered.clear();
+        };
+    LogManager logManager = newTokenRangesLogManager(outputDir, tracker, connector);
+    logManager.init();
+    writeRange(tracker, range1, buffered);
+    // the record of range1 was emitted by the connector, but is still buffered
+    assertThat(tracker.getRemainingRanges()).containsExactly(range2);
+    assertThat(flushed).isEmpty();
+    logManager.close();
+    assertThat(flushed).hasSize(1);
+    Path checkpoint = logManager.getOperationDirectory().resolve("checkpoint-ranges.txt");
+    assertThat(Files.readAllLines(checkpoint, UTF_8))
+        .containsExactly("rows\t0", "0\t-9223372036854775808");
+  }
+
+  @Test
+  void should_not_checkpoint_token_ranges_when_written_records_cannot_be_flushed()
+      throws Exception {
+    Path outputDir = Files.createTempDirectory("test");
+    BulkTokenRange range1 = range(Long.MIN_VALUE, 0);
+    BulkTokenRange range2 = range(0, Long.MIN_VALUE);
+    TokenRangesTracker tracker =
+        new TokenRangesTracker(TOKEN_FACTORY, Arrays.asList(range1, range2), 0);
+    Flushable connector =
+        () -> {
+          throw new IOException("disk full");
+        };
+    LogManager logManager = newTokenRangesLogManager(outputDir, tracker, connector);
+    logManager.init();
+    writeRange(tracker, range1, new ArrayList<>());
+    assertThat(tracker.getRemainingRanges()).containsExactly(range2);
+    logManager.close();
+    assertThat(logManager.getOperationDirectory().resolve("checkpoint-ranges.txt")).doesNotExist();
+  }
+
   @Test
   void should_handle_unmappable_statements_without_source() throws Exception {
     Path outputDir = Files.createTempDirectory("test");
@@ -1093,6 +1200,38 @@ class LogManagerTest {
         .contains("java.lang.RuntimeException: error 1");
   }
 
+  private LogManager newTokenRangesLogManager(
+      Path outputDir, TokenRangesTracker tracker, Flushable connector) {
+    return new LogManager(
+        session,
+        outputDir,
+        ErrorThreshold.forAbsoluteValue(10),
+        ErrorThreshold.forAbsoluteValue(0),
+        false,
+        statementFormatter,
+        EXTENDED,
+        rowFormatter,
+        Duration.ofMinutes(1),
+        null,
+        tracker,
+        connector);
+  }
+
+  /** Mimics the unload workflow: writes one record read from the given range to a connector. */
+  private void writeRange(TokenRangesTracker tracker, BulkTokenRange range, List<Record> buffer) {
+    PendingRange pendingRange = tracker.newPendingRange(range::getEnd);
+    Flux.<Record>just(DefaultRecord.indexed(null, tableResource, -1, "foo"))
+        .transform(pendingRange.newRecordsHandler())
+        .doOnNext(buffer::add)
+        .transform(tracker.newWrittenRecordsHandler())
+        .blockLast();
+  }
+
+  private static BulkTokenRange range(long start, long end) {
+    return TOKEN_FACTORY.range(
+        new Murmur3Token(start), new Murmur3Token(end), Collections.emptySet());
+  }
+
   private static MappedBoundStatement mockBulkBoundStatement(
       int value, Object source, URI resource) {
     BoundStatement bs = mockBoundStatement("INSERT INTO " + value, value);
@@ -18,10 +18,17 @@ package com.datastax.oss.dsbulk.workflow.commons.log;
 import static com.datastax.oss.driver.shaded.guava.common.collect.Lists.newArrayList;
 import static java.util.Collections.emptyList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.assertj.core.util.Lists;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -77,6 +84,82 @@ class PositionsTrackerTest {
     assertThat(positionsTracker.getPositions()).hasSize(1).containsEntry(RESOURCE, expected);
   }
 
+  @Test
+  void should_update_ranges() {
+    PositionsTracker tracker = new PositionsTracker();
+    tracker.update(RESOURCE, 10L, 12L);
+    tracker.update(RESOURCE, 3L, 5L);
+    assertThat(tracker.getPositions().get(RESOURCE))
+        .containsExactly(new Range(3L, 5L), new Range(10L, 12L));
+    assertThat(tracker.getContiguousPositions()).isEmpty();
+    tracker.update(RESOURCE, 14L);
+    tracker.update(RESOURCE, 0L, 2L);
+    assertThat(tracker.getPositions().get(RESOURCE))
+        .containsExactly(new Range(1L, 5L), new Range(10L, 12L), new Range(14L));
+    assertThat(tracker.getContiguousPositions()).containsOnly(entry(RESOURCE, 5L));
+    tracker.update(RESOURCE, 4L, 13L);
+    assertThat(tracker.getPositions().get(RESOURCE)).containsExactly(new Range(1L, 14L));
+    tracker.update(RESOURCE, 15L);
+    assertThat(tracker.getPositions().get(RESOURCE)).containsExactly(new Range(1L, 15L));
+    assertThat(tracker.contains(RESOURCE, 1L)).isTrue();
+    assertThat(tracker.contains(RESOURCE, 15L)).isTrue();
+    assertThat(tracker.contains(RESOURCE, 16L)).isFalse();
+    assertThat(tracker.contains(URI.create("file://other.csv"), 1L)).isFalse();
+  }
+
+  @Test
+  void should_update_random_positions() {
+    Random random = new Random();
+    for (int i = 0; i < 100; i++) {
+      PositionsTracker tracker = new PositionsTracker();
+      BitSet expected = new BitSet();
+      for (int j = 0; j < 200; j++) {
+        int position = 1 + random.nextInt(100);
+        tracker.update(RESOURCE, position);
+        expected.set(position);
+      }
+      List<Range> ranges = new ArrayList<>();
+      for (int lower = expected.nextSetBit(0);
+          lower >= 0;
+          lower = expected.nextSetBit(expected.nextClearBit(lower))) {
+        ranges.add(new Range(lower, expected.nextClearBit(lower) - 1));
+      }
+      assertThat(tracker.getPositions()).containsEntry(RESOURCE, ranges);
+    }
+  }
+
+  @Test
+  void should_update_positions_concurrently() throws Exception {
+    PositionsTracker tracker = new PositionsTracker();
+    URI other = URI.create("file://other.csv");
+    int threads = 4;
+    int positions = 10_000;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        int start = i;
+        futures.add(
+            executor.submit(
+                () -> {
+                  for (long position = 1 + start; position <= positions; position += threads) {
+                    tracker.update(RESOURCE, position);
+                    tracker.update(other, positions + 1 - position);
+                  }
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertThat(tracker.getPositions())
+        .hasSize(2)
+        .containsEntry(RESOURCE, ranges(new Range(1L, positions)))
+        .containsEntry(other, ranges(new Range(1L, positions)));
+  }
+
   static List<Range> ranges(Range... ranges) {
     return ranges == null ? emptyList() : newArrayList(ranges);
   }
@@ -0,0 +1,217 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.workflow.commons.log;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.internal.core.metadata.token.Murmur3Token;
+import com.datastax.oss.dsbulk.connectors.api.DefaultErrorRecord;
+import com.datastax.oss.dsbulk.connectors.api.DefaultRecord;
+import com.datastax.oss.dsbulk.connectors.api.Record;
+import com.datastax.oss.dsbulk.executor.api.exception.BulkExecutionException;
+import com.datastax.oss.dsbulk.executor.api.result.DefaultReadResult;
+import com.datastax.oss.dsbulk.executor.api.result.ReadResult;
+import com.datastax.oss.dsbulk.partitioner.BulkTokenRange;
+import com.datastax.oss.dsbulk.partitioner.murmur3.Murmur3BulkTokenFactory;
+import com.datastax.oss.dsbulk.workflow.commons.log.TokenRangesTracker.PendingRange;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+class TokenRangesTrackerTest {
+
+  private final Murmur3BulkTokenFactory tokenFactory = new Murmur3BulkTokenFactory();
+
+  private final BulkTokenRange range1 = range(Long.MIN_VALUE, 0);
+  private final BulkTokenRange range2 = range(0, Long.MIN_VALUE);
+
+  @Test
+  void should_remove_ranges_read_successfully() {
+    TokenRangesTracker tracker =
+        new TokenRangesTracker(tokenFactory, Arrays.asList(range1, range2), 10);
+    Statement<?> statement1 = statement(range1);
+    Statement<?> statement2 = statement(range2);
+    Flux.just(success(statement1), success(statement1))
+        .transform(tracker.newRangeCompletionHandler(statement1))
+        .blockLast();
+    Flux.just(success(statement2), failure(statement2))
+        .transform(tracker.newRangeCompletionHandler(statement2))
+        .blockLast();
+    assertThat(tracker.getRemainingRanges()).containsExactly(range2);
+    assertThat(tracker.getRows()).isEqualTo(12);
+  }
+
+  @Test
+  void should_track_split_ranges() {
+    TokenRangesTracker tracker =
+        new TokenRangesTracker(tokenFactory, Collections.singletonList(range1), 0);
+    BulkTokenRange first = range(Long.MIN_VALUE, -100);
+    BulkTokenRange second = range(-100, 0);
+    tracker.split(first, second);
+    assertThat(tracker.getRemainingRanges()).containsExactlyInAnyOrder(first, second);
+    Flux.just(success(statement(second)))
+        .transform(tracker.newRangeCompletionHandler(statement(second)))
+        .blockLast();
+    assertThat(tracker.getRemainingRanges()).containsExactly(first);
+    assertThat(tracker.getRows()).isOne();
+  }
+
+  @Test
+  void should_remove_ranges_once_their_records_are_written() {
+    TokenRangesTracker tracker =
+        new TokenRangesTracker(tokenFactory, Arrays.asList(range1, range2), 10);
+    Statement<?> statement1 = statement(range1);
+    Statement<?> statement2 = statement(range2);
+    AtomicInteger written = new AtomicInteger();
+    Function<Flux<Record>, Flux<Record>> writer =
+        records ->
+            records.doOnNext(
+                record -> {
+                  // the range is still being written
+                  assertThat(tracker.getRemainingRanges()).contains(range1);
+                  written.incrementAndGet();
+                });
+    unload(tracker, writer, statement1, success(statement1), success(statement1)).blockLast();
+    assertThat(written).hasValue(2);
+    unload(tracker, Function.identity(), statement2, success(statement2), failure(statement2))
+        .blockLast();
+    assertThat(tracker.getRemainingRanges()).containsExactly(range2);
+    assertThat(tracker.getRows()).isEqualTo(12);
+  }
+
+  @Test
+  void should_not_remove_ranges_whose_records_failed_to_be_written() {
+    TokenRangesTracker tracker =
+        new TokenRangesTracker(tokenFactory, Arrays.asList(range1, range2), 0);
+    Statement<?> statement1 = statement(range1);
+    Statement<?> statement2 = statement(range2);
+    // unrecoverable error on the second record of range1
+    AtomicInteger written = new AtomicInteger();
+    Function<Flux<Record>, Flux<Record>> failingWriter =
+        records ->
+            records.doOnNext(
+                record -> {
+                  if (written.incrementAndGet() == 2) {
+                    throw new IllegalStateException("disk full");
+                  }
+                });
+    assertThatThrownBy(
+            () ->
+                unload(
+                        tracker,
+                        failingWriter,
+                        statement1,
+                        success(statement1),
+                        success(statement1),
+                        success(statement1))
+                    .blockLast())
+        .isInstanceOf(IllegalStateException.class);
+    // recoverable error on the second record of range2
+    Function<Flux<Record>, Flux<Record>> erroneousWriter =
+        records ->
+            records
+                .index()
+                .map(
+                    tuple ->
+                        tuple.getT1() == 1
+                            ? new DefaultErrorRecord(
+                                tuple.getT2(),
+                                URI.create("test://"),
+                                -1,
+                                new IllegalStateException("cannot write"))
+                            : tuple.getT2());
+    unload(tracker, erroneousWriter, statement2, success(statement2), success(statement2))
+        .blockLast();
+    assertThat(tracker.getRemainingRanges()).containsExactlyInAnyOrder(range1, range2);
+    assertThat(tracker.getRows()).isZero();
+  }
+
+  @Test
+  void should_write_and_read_checkpoint() throws Exception {
+    Path dir = Files.createTempDirectory("test");
+    Path checkpoint = dir.resolve("checkpoint-ranges.txt");
+    TokenRangesTracker tracker =
+        new TokenRangesTracker(tokenFactory, Arrays.asList(range2, range1), 42);
+    LogManagerUtils.writeTokenRangesCheckpoint(checkpoint, tracker);
+    assertThat(Files.readAllLines(checkpoint, UTF_8))
+        .containsExactly("rows\t42", "-9223372036854775808\t0", "0\t-9223372036854775808");
+    TokenRangesTracker read =
+        LogManagerUtils.readTokenRangesCheckpoint(
+            checkpoint, tokenFactory, token -> Collections.emptySet());
+    assertThat(read.getRemainingRanges()).containsExactlyInAnyOrder(range1, range2);
+    assertThat(read.getRows()).isEqualTo(42);
+  }
+
+  @Test
+  void should_error_when_checkpoint_is_malformed() throws Exception {
+    Path dir = Files.createTempDirectory("test");
+    Path checkpoint = dir.resolve("checkpoint-ranges.txt");
+    Files.write(checkpoint, Arrays.asList("rows\t42", "not a range"), UTF_8);
+    assertThatThrownBy(
+            () ->
+                LogManagerUtils.readTokenRangesCheckpoint(
+                    checkpoint, tokenFactory, token -> Collections.emptySet()))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("at line 2: not a range");
+  }
+
+  /** Mimics the unload workflow: maps the given results to records, and writes them. */
+  private static Flux<Record> unload(
+      TokenRangesTracker tracker,
+      Function<Flux<Record>, Flux<Record>> writer,
+      Statement<?> statement,
+      ReadResult... results) {
+    PendingRange range = tracker.newPendingRange(statement::getRoutingToken);
+    return Flux.just(results)
+        .transform(range.newReadResultsHandler())
+        .filter(ReadResult::isSuccess)
+        .<Record>map(result -> DefaultRecord.indexed(result, URI.create("test://"), -1, "value"))
+        .transform(range.newRecordsHandler())
+        .transform(writer)
+        .transform(tracker.newWrittenRecordsHandler());
+  }
+
+  private BulkTokenRange range(long start, long end) {
+    return tokenFactory.range(
+        new Murmur3Token(start), new Murmur3Token(end), Collections.emptySet());
+  }
+
+  private static Statement<?> statement(BulkTokenRange range) {
+    return SimpleStatement.newInstance("irrelevant").setRoutingToken(range.getEnd());
+  }
+
+  private static ReadResult success(Statement<?> statement) {
+    return new DefaultReadResult(statement, mock(ExecutionInfo.class), mock(Row.class));
+  }
+
+  private static ReadResult failure(Statement<?> statement) {
+    return new DefaultReadResult(
+        new BulkExecutionException(new RuntimeException("boo"), statement));
+  }
+}
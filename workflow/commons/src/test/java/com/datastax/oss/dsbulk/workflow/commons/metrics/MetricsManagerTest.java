@@ -111,6 +111,8 @@ class MetricsManagerTest {
             false,
             false,
             true,
+            "localhost",
+            -1,
             null,
             LogSettings.Verbosity.normal,
             Duration.ofSeconds(5),
@@ -154,6 +156,8 @@ class MetricsManagerTest {
             false,
             false,
             true,
+            "localhost",
+            -1,
             null,
             LogSettings.Verbosity.normal,
             Duration.ofSeconds(5),
@@ -199,6 +203,8 @@ class MetricsManagerTest {
             false,
             false,
             true,
+            "localhost",
+            -1,
             executionDirectory,
             LogSettings.Verbosity.normal,
             Duration.ofSeconds(5),
@@ -255,6 +261,8 @@ class MetricsManagerTest {
             false,
             false,
             false,
+            "localhost",
+            -1,
             executionDirectory,
             LogSettings.Verbosity.quiet,
             Duration.ofSeconds(5),
@@ -300,6 +308,8 @@ class MetricsManagerTest {
             false,
             false,
             false,
+            "localhost",
+            -1,
             executionDirectory,
             LogSettings.Verbosity.verbose,
             Duration.ofSeconds(5),
@@ -344,6 +354,8 @@ class MetricsManagerTest {
             false,
             false,
             true,
+            "localhost",
+            -1,
             executionDirectory,
             LogSettings.Verbosity.verbose,
             Duration.ofSeconds(5),
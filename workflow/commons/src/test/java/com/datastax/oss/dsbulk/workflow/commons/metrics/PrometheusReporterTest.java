@@ -0,0 +1,119 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.workflow.commons.metrics;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class PrometheusReporterTest {
+
+  private final MetricRegistry registry = new MetricRegistry();
+
+  @Test
+  void should_sanitize_metric_names() {
+    assertThat(PrometheusReporter.sanitize("executor/writes/total"))
+        .isEqualTo("dsbulk_executor_writes_total");
+    assertThat(PrometheusReporter.sanitize("driver/s0.nodes.127_0_0_1:9042.cql-requests"))
+        .isEqualTo("dsbulk_driver_s0_nodes_127_0_0_1_9042_cql_requests");
+  }
+
+  @Test
+  void should_render_metrics() {
+    registry.counter("records/total").inc(42);
+    registry.gauge("memory/used", () -> () -> 128L);
+    registry.gauge("codec/temporal-cache/hit-ratio", () -> () -> 0.5d);
+    registry.gauge("driver/not-a-number", () -> () -> "foo");
+    registry.meter("executor/bytes/sent").mark(1024);
+    registry.histogram("batches/size").update(8);
+    Timer timer = registry.timer("executor/writes/total");
+    timer.update(10, MILLISECONDS);
+    try (PrometheusReporter reporter =
+        new PrometheusReporter(registry, "exec \"1\"", "localhost", 0)) {
+      String text = reporter.render();
+      assertThat(text)
+          .contains("# TYPE dsbulk_records_total counter\n")
+          .contains("dsbulk_records_total{executionId=\"exec \\\"1\\\"\"} 42\n")
+          .contains("# TYPE dsbulk_memory_used gauge\n")
+          .contains("dsbulk_memory_used{executionId=\"exec \\\"1\\\"\"} 128\n")
+          .contains("dsbulk_codec_temporal_cache_hit_ratio{executionId=\"exec \\\"1\\\"\"} 0.5\n")
+          .doesNotContain("dsbulk_driver_not_a_number")
+          .contains("dsbulk_executor_bytes_sent_total{executionId=\"exec \\\"1\\\"\"} 1024\n")
+          .contains("# TYPE dsbulk_executor_bytes_sent_rate gauge\n")
+          .contains("# TYPE dsbulk_batches_size summary\n")
+          .contains("dsbulk_batches_size{executionId=\"exec \\\"1\\\"\",quantile=\"0.99\"} 8\n")
+          .contains("dsbulk_batches_size_count{executionId=\"exec \\\"1\\\"\"} 1\n")
+          .contains("# TYPE dsbulk_executor_writes_total counter\n")
+          .contains("dsbulk_executor_writes_total{executionId=\"exec \\\"1\\\"\"} 1\n")
+          .contains("# TYPE dsbulk_executor_writes_rate gauge\n")
+          .contains("# TYPE dsbulk_executor_writes_seconds summary\n")
+          .contains(
+              "dsbulk_executor_writes_seconds{executionId=\"exec \\\"1\\\"\",quantile=\"0.5\"} 0.01\n")
+          .contains("dsbulk_executor_writes_seconds_count{executionId=\"exec \\\"1\\\"\"} 1\n")
+          .doesNotContain("_total_total")
+          .doesNotContain("_total_rate")
+          .doesNotContain("_total_seconds");
+      // the buffer is reused across scrapes
+      assertThat(reporter.render()).isEqualTo(text);
+    }
+  }
+
+  @Test
+  void should_not_repeat_total_suffix() {
+    registry.timer("executor/writes/total").update(1, MILLISECONDS);
+    registry.meter("executor/reads/total").mark();
+    try (PrometheusReporter reporter = new PrometheusReporter(registry, "test", "localhost", 0)) {
+      assertThat(reporter.render())
+          .contains("dsbulk_executor_writes_total{executionId=\"test\"} 1\n")
+          .contains("# TYPE dsbulk_executor_writes_rate gauge\n")
+          .contains("dsbulk_executor_writes_seconds_count{executionId=\"test\"} 1\n")
+          .contains("dsbulk_executor_reads_total{executionId=\"test\"} 1\n")
+          .contains("# TYPE dsbulk_executor_reads_rate gauge\n")
+          .doesNotContain("_total_");
+    }
+  }
+
+  @Test
+  void should_serve_metrics_over_http() throws Exception {
+    registry.counter("records/failed").inc(3);
+    try (PrometheusReporter reporter = new PrometheusReporter(registry, "test", "localhost", 0)) {
+      reporter.start();
+      assertThat(reporter.getAddress().getAddress().isLoopbackAddress()).isTrue();
+      URL url = new URL("http://localhost:" + reporter.getAddress().getPort() + "/metrics");
+      HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+      try {
+        assertThat(connection.getResponseCode()).isEqualTo(200);
+        assertThat(connection.getContentType()).isEqualTo(PrometheusReporter.CONTENT_TYPE);
+        try (BufferedReader reader =
+            new BufferedReader(new InputStreamReader(connection.getInputStream(), UTF_8))) {
+          assertThat(reader.lines().collect(Collectors.joining("\n")))
+              .contains("dsbulk_records_failed{executionId=\"test\"} 3");
+        }
+      } finally {
+        connection.disconnect();
+      }
+    }
+  }
+}
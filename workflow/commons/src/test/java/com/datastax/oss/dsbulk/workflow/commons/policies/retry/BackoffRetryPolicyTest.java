@@ -0,0 +1,230 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.workflow.commons.policies.retry;
+
+import static com.datastax.oss.driver.api.core.DefaultConsistencyLevel.ONE;
+import static com.datastax.oss.driver.api.core.retry.RetryDecision.RETHROW;
+import static com.datastax.oss.driver.api.core.retry.RetryDecision.RETRY_NEXT;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.DriverTimeoutException;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.metadata.Metadata;
+import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.api.core.metadata.NodeState;
+import com.datastax.oss.driver.api.core.metadata.TokenMap;
+import com.datastax.oss.driver.api.core.metadata.token.Token;
+import com.datastax.oss.driver.api.core.servererrors.DefaultWriteType;
+import com.datastax.oss.driver.api.core.servererrors.OverloadedException;
+import com.datastax.oss.driver.api.core.servererrors.SyntaxError;
+import com.datastax.oss.driver.api.core.servererrors.WriteFailureException;
+import com.datastax.oss.driver.api.core.servererrors.WriteTimeoutException;
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableSet;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BackoffRetryPolicyTest {
+
+  private final AtomicLong clock = new AtomicLong(42);
+
+  private final Statement<?> statement =
+      SimpleStatement.newInstance("INSERT INTO t1 (pk) VALUES (0)");
+
+  private Node node1;
+  private Node node2;
+  private Node node3;
+  private Metadata metadata;
+
+  @BeforeEach
+  void setUpMetadata() {
+    node1 = mockNode();
+    node2 = mockNode();
+    node3 = mockNode();
+    TokenMap tokenMap = mock(TokenMap.class);
+    when(tokenMap.getReplicas(eq(CqlIdentifier.fromInternal("ks")), any(Token.class)))
+        .thenReturn(ImmutableSet.of(node1, node2, node3));
+    metadata = mock(Metadata.class);
+    when(metadata.getTokenMap()).thenReturn(Optional.of(tokenMap));
+  }
+
+  @Test
+  void should_retry_immediately_only_errors_that_another_coordinator_can_handle() {
+    BackoffRetryPolicy policy = newPolicy(1000, 10);
+    assertThat(policy.onReadTimeout(statement, ONE, 1, 0, false, 0)).isEqualTo(RETRY_NEXT);
+    assertThat(policy.onReadTimeout(statement, ONE, 1, 0, false, 10)).isEqualTo(RETHROW);
+    assertThat(policy.onWriteTimeout(statement, ONE, DefaultWriteType.SIMPLE, 1, 0, 0))
+        .isEqualTo(RETHROW);
+    assertThat(policy.onUnavailable(statement, ONE, 1, 0, 0)).isEqualTo(RETRY_NEXT);
+    assertThat(policy.onUnavailable(statement, ONE, 1, 0, 1)).isEqualTo(RETHROW);
+    assertThat(policy.onErrorResponse(statement, new OverloadedException(node1), 0))
+        .isEqualTo(RETRY_NEXT);
+    assertThat(policy.onErrorResponse(statement, new OverloadedException(node1), 1))
+        .isEqualTo(RETHROW);
+    assertThat(policy.onErrorResponse(statement, mock(WriteFailureException.class), 0))
+        .isEqualTo(RETHROW);
+    assertThat(policy.getImmediateRetries()).isEqualTo(3);
+  }
+
+  @Test
+  void should_delay_retries_of_writes_within_bounds() {
+    BackoffRetryPolicy policy = newPolicy(1000, 10);
+    Throwable error = writeTimeout(node1);
+    for (int i = 0; i < 100; i++) {
+      assertThat(policy.onWriteFailed(statement, error, 0))
+          .isBetween(0L, MILLISECONDS.toNanos(100));
+      assertThat(policy.onWriteFailed(statement, error, 2))
+          .isBetween(0L, MILLISECONDS.toNanos(400));
+      assertThat(policy.onWriteFailed(statement, error, 9))
+          .isBetween(0L, TimeUnit.SECONDS.toNanos(10));
+    }
+    assertThat(policy.getDelayedRetries()).isEqualTo(300);
+  }
+
+  @Test
+  void should_not_delay_retries_of_writes_that_cannot_succeed() {
+    BackoffRetryPolicy policy = newPolicy(1000, 10);
+    assertThat(policy.onWriteFailed(statement, writeTimeout(node1), 10)).isNegative();
+    assertThat(policy.onWriteFailed(statement, new SyntaxError(node1, "boom"), 0)).isNegative();
+    assertThat(policy.onWriteFailed(statement, mock(WriteFailureException.class), 0))
+        .isNegative();
+    assertThat(policy.onWriteFailed(statement, new DriverTimeoutException("boom"), 0))
+        .isNotNegative();
+    assertThat(policy.getDelayedRetries()).isOne();
+  }
+
+  @Test
+  void should_not_delay_retries_of_non_idempotent_writes() {
+    BackoffRetryPolicy policy = newPolicy(1000, 10);
+    Statement<?> nonIdempotent = statement.setIdempotent(false);
+    assertThat(policy.onWriteFailed(nonIdempotent, writeTimeout(node1), 0)).isNegative();
+    assertThat(policy.onWriteFailed(nonIdempotent, new OverloadedException(node1), 0))
+        .isNegative();
+    assertThat(policy.onWriteFailed(nonIdempotent, new DriverTimeoutException("boom"), 0))
+        .isNegative();
+    // statements without explicit idempotence use the default of the execution profile
+    assertThat(policy.onWriteFailed(statement, writeTimeout(node1), 0)).isNotNegative();
+    assertThat(policy.getDelayedRetries()).isOne();
+  }
+
+  @Test
+  void should_reject_immediate_retries_when_budget_is_exhausted() {
+    BackoffRetryPolicy policy = newPolicy(10, 10);
+    int retried = 0;
+    for (int i = 0; i < 20; i++) {
+      if (policy.onReadTimeout(statement, ONE, 1, 0, false, 0) == RETRY_NEXT) {
+        retried++;
+      }
+    }
+    // one second worth of retries, plus the current one
+    assertThat(retried).isEqualTo(11);
+    assertThat(policy.getRejectedRetries()).isEqualTo(9);
+    clock.addAndGet(MILLISECONDS.toNanos(100));
+    assertThat(policy.onReadTimeout(statement, ONE, 1, 0, false, 0)).isEqualTo(RETRY_NEXT);
+    assertThat(policy.onReadTimeout(statement, ONE, 1, 0, false, 0)).isEqualTo(RETHROW);
+  }
+
+  @Test
+  void should_postpone_delayed_retries_when_budget_is_exhausted() {
+    BackoffRetryPolicy policy = newPolicy(10, 10);
+    Throwable error = new DriverTimeoutException("boom");
+    for (int i = 0; i < 11; i++) {
+      assertThat(policy.onWriteFailed(statement, error, 0))
+          .isLessThanOrEqualTo(MILLISECONDS.toNanos(100));
+    }
+    assertThat(policy.onWriteFailed(statement, error, 0))
+        .isGreaterThanOrEqualTo(MILLISECONDS.toNanos(100));
+    assertThat(policy.onWriteFailed(statement, error, 0))
+        .isGreaterThanOrEqualTo(MILLISECONDS.toNanos(200));
+  }
+
+  @Test
+  void should_steer_retries_away_from_overloaded_coordinator() {
+    BackoffRetryPolicy policy = newPolicy(1000, 2);
+    Statement<?> routed = routedStatement();
+    OverloadedException error = new OverloadedException(node1);
+    assertThat(policy.prepareRetry(routed, error)).isSameAs(routed);
+    policy.onWriteFailed(routed, error, 0);
+    assertThat(policy.getOverloadedNodes()).isZero();
+    assertThat(policy.prepareRetry(routed, error)).isSameAs(routed);
+    policy.onWriteFailed(routed, writeTimeout(node1), 0);
+    assertThat(policy.getOverloadedNodes()).isOne();
+    for (int i = 0; i < 20; i++) {
+      assertThat(policy.prepareRetry(routed, error).getNode()).isIn(node2, node3);
+    }
+    // overloaded replicas and replicas that are down are not candidates
+    policy.onWriteFailed(routed, new OverloadedException(node2), 0);
+    policy.onWriteFailed(routed, new OverloadedException(node2), 0);
+    for (int i = 0; i < 20; i++) {
+      assertThat(policy.prepareRetry(routed, error).getNode()).isSameAs(node3);
+    }
+    when(node3.getState()).thenReturn(NodeState.DOWN);
+    assertThat(policy.prepareRetry(routed, error)).isSameAs(routed);
+    // the node recovers after the overload window
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    assertThat(policy.getOverloadedNodes()).isZero();
+    assertThat(policy.prepareRetry(routed, error)).isSameAs(routed);
+  }
+
+  @Test
+  void should_not_steer_statements_without_routing_information() {
+    BackoffRetryPolicy policy = newPolicy(1000, 1);
+    OverloadedException error = new OverloadedException(node1);
+    policy.onWriteFailed(statement, error, 0);
+    assertThat(policy.getOverloadedNodes()).isOne();
+    assertThat(policy.prepareRetry(statement, error)).isSameAs(statement);
+  }
+
+  private BackoffRetryPolicy newPolicy(int maxRetriesPerSecond, int overloadThreshold) {
+    return new BackoffRetryPolicy(
+        10,
+        Duration.ofMillis(100),
+        Duration.ofSeconds(10),
+        maxRetriesPerSecond,
+        overloadThreshold,
+        Duration.ofSeconds(1),
+        true,
+        () -> metadata,
+        clock::get);
+  }
+
+  private static Statement<?> routedStatement() {
+    return SimpleStatement.newInstance("INSERT INTO t1 (pk) VALUES (0)")
+        .setRoutingKeyspace("ks")
+        .setRoutingToken(mock(Token.class));
+  }
+
+  private static WriteTimeoutException writeTimeout(Node coordinator) {
+    return new WriteTimeoutException(coordinator, ONE, 0, 1, DefaultWriteType.SIMPLE);
+  }
+
+  private static Node mockNode() {
+    Node node = mock(Node.class);
+    when(node.getState()).thenReturn(NodeState.UP);
+    when(node.getDatacenter()).thenReturn("dc1");
+    return node;
+  }
+}
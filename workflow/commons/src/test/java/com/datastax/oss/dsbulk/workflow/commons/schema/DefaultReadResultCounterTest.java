@@ -28,6 +28,7 @@ import static java.net.InetSocketAddress.createUnresolved;
 import static java.util.Collections.singleton;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
+import static org.slf4j.event.Level.INFO;
 
 import com.datastax.oss.driver.api.core.CqlIdentifier;
 import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
@@ -44,6 +45,9 @@ import com.datastax.oss.driver.shaded.guava.common.collect.Sets;
 import com.datastax.oss.dsbulk.codecs.api.ConvertingCodecFactory;
 import com.datastax.oss.dsbulk.executor.api.result.ReadResult;
 import com.datastax.oss.dsbulk.tests.driver.DriverUtils;
+import com.datastax.oss.dsbulk.tests.logging.LogCapture;
+import com.datastax.oss.dsbulk.tests.logging.LogInterceptingExtension;
+import com.datastax.oss.dsbulk.tests.logging.LogInterceptor;
 import com.datastax.oss.dsbulk.tests.logging.StreamInterceptingExtension;
 import com.datastax.oss.dsbulk.tests.logging.StreamInterceptor;
 import com.datastax.oss.dsbulk.tests.utils.TestConfigUtils;
@@ -64,6 +68,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
+@ExtendWith(LogInterceptingExtension.class)
 @ExtendWith(StreamInterceptingExtension.class)
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
@@ -233,7 +238,7 @@ class DefaultReadResultCounterTest {
     unit.update(result1);
     counter.consolidateUnitCounts();
     assertThat(counter.totalRows).isOne();
-    assertThat(counter.totalsByNode)
+    assertThat(counter.getTotalsByNode())
         .containsEntry(node1.getEndPoint(), 1L)
         .doesNotContainKey(node2.getEndPoint())
         .doesNotContainKey(node3.getEndPoint());
@@ -242,7 +247,7 @@ class DefaultReadResultCounterTest {
     unit.update(result2);
     counter.consolidateUnitCounts();
     assertThat(counter.totalRows).isEqualTo(2);
-    assertThat(counter.totalsByNode)
+    assertThat(counter.getTotalsByNode())
         .containsEntry(node1.getEndPoint(), 1L)
         .containsEntry(node2.getEndPoint(), 1L)
         .doesNotContainKey(node3.getEndPoint());
@@ -251,7 +256,7 @@ class DefaultReadResultCounterTest {
     unit.update(result3);
     counter.consolidateUnitCounts();
     assertThat(counter.totalRows).isEqualTo(3);
-    assertThat(counter.totalsByNode)
+    assertThat(counter.getTotalsByNode())
         .containsEntry(node1.getEndPoint(), 1L)
         .containsEntry(node2.getEndPoint(), 2L)
         .doesNotContainKey(node3.getEndPoint());
@@ -276,7 +281,7 @@ class DefaultReadResultCounterTest {
     unit.update(result1);
     counter.consolidateUnitCounts();
     assertThat(counter.totalRows).isOne();
-    assertThat(counter.totalsByRange)
+    assertThat(counter.getTotalsByRange())
         .containsEntry(range1, 1L)
         .doesNotContainKey(range2)
         .doesNotContainKey(range3);
@@ -285,7 +290,7 @@ class DefaultReadResultCounterTest {
     unit.update(result2);
     counter.consolidateUnitCounts();
     assertThat(counter.totalRows).isEqualTo(2);
-    assertThat(counter.totalsByRange)
+    assertThat(counter.getTotalsByRange())
         .containsEntry(range1, 1L)
         .containsEntry(range2, 1L)
         .doesNotContainKey(range3);
@@ -294,7 +299,7 @@ class DefaultReadResultCounterTest {
     unit.update(result3);
     counter.consolidateUnitCounts();
     assertThat(counter.totalRows).isEqualTo(3);
-    assertThat(counter.totalsByRange)
+    assertThat(counter.getTotalsByRange())
         .containsEntry(range1, 1L)
         .containsEntry(range2, 2L)
         .doesNotContainKey(range3);
@@ -312,6 +317,40 @@ class DefaultReadResultCounterTest {
                 "%s %s 0 0.00", getTokenValue(range3.getStart()), getTokenValue(range3.getEnd())));
   }
 
+  @Test
+  void should_report_snapshot(
+      @LogCapture(value = DefaultReadResultCounter.class, level = INFO) LogInterceptor logs,
+      StreamInterceptor stdout) {
+    DefaultReadResultCounter counter =
+        new DefaultReadResultCounter(
+            ks, metadata, EnumSet.of(global, hosts), 10, V4, codecFactory);
+
+    ReadResultCounter.CountingUnit unit1 = counter.newCountingUnit();
+    ReadResultCounter.CountingUnit unit2 = counter.newCountingUnit();
+    counter.addCountedRows(10);
+
+    // add token1a, belongs to range1/node1
+    unit1.update(result1);
+    // add token2a and token3, belong to range2/node2
+    unit2.update(result2);
+    unit2.update(result3);
+    counter.reportSnapshot();
+
+    assertThat(logs)
+        .hasMessageContaining("Rows counted so far: 13")
+        .hasMessageContaining(
+            String.format(
+                "Rows counted so far per node: %s 1, %s 2, %s 0",
+                node1.getEndPoint(), node2.getEndPoint(), node3.getEndPoint()));
+    // snapshots do not consolidate totals
+    assertThat(counter.totalRows).isZero();
+
+    counter.consolidateUnitCounts();
+    counter.reportTotals();
+    assertThat(stdout.getStreamLines())
+        .contains("13", String.format("%s 2 15.38", node2.getEndPoint()));
+  }
+
   @Test
   void should_count_biggest_partitions(StreamInterceptor stdout) {
     DefaultReadResultCounter counter =
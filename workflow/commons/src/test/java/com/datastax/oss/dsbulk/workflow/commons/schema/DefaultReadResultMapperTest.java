@@ -17,6 +17,7 @@ package com.datastax.oss.dsbulk.workflow.commons.schema;
 
 import static com.datastax.oss.dsbulk.tests.driver.DriverUtils.mockColumnDefinition;
 import static com.datastax.oss.dsbulk.tests.driver.DriverUtils.mockColumnDefinitions;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Collections.singleton;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.util.Sets.newLinkedHashSet;
@@ -24,6 +25,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.ProtocolVersion;
 import com.datastax.oss.driver.api.core.cql.BoundStatement;
 import com.datastax.oss.driver.api.core.cql.ColumnDefinition;
 import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
@@ -35,10 +37,13 @@ import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
 import com.datastax.oss.driver.api.core.type.reflect.GenericType;
 import com.datastax.oss.driver.internal.core.type.codec.registry.DefaultCodecRegistry;
 import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableMap;
+import com.datastax.oss.dsbulk.codecs.api.ConvertingCodecFactory;
+import com.datastax.oss.dsbulk.codecs.text.TextConversionContext;
 import com.datastax.oss.dsbulk.connectors.api.DefaultMappedField;
 import com.datastax.oss.dsbulk.connectors.api.ErrorRecord;
 import com.datastax.oss.dsbulk.connectors.api.Record;
 import com.datastax.oss.dsbulk.connectors.api.RecordMetadata;
+import com.datastax.oss.dsbulk.connectors.api.Utf8Value;
 import com.datastax.oss.dsbulk.executor.api.result.ReadResult;
 import com.datastax.oss.dsbulk.mapping.CQLWord;
 import com.datastax.oss.dsbulk.mapping.Mapping;
@@ -47,6 +52,7 @@ import java.nio.ByteBuffer;
 import java.util.Optional;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
@@ -126,7 +132,7 @@ class DefaultReadResultMapperTest {
   @ValueSource(booleans = {true, false})
   void should_map_result_to_mapped_record_when_mapping_succeeds(boolean retainRecordSources) {
     DefaultReadResultMapper mapper =
-        new DefaultReadResultMapper(mapping, recordMetadata, RESOURCE, retainRecordSources);
+        new DefaultReadResultMapper(mapping, recordMetadata, RESOURCE, retainRecordSources, false);
     Record record = mapper.map(result);
     Assertions.assertThat(record.fields()).containsOnly(F0, F1, F2);
     assertThat(record.getFieldValue(F0)).isEqualTo(42);
@@ -148,7 +154,7 @@ class DefaultReadResultMapperTest {
     IllegalArgumentException error = new IllegalArgumentException(msg);
     when(mapping.codec(C1, DataTypes.INT, GenericType.INTEGER)).thenThrow(error);
     DefaultReadResultMapper mapper =
-        new DefaultReadResultMapper(mapping, recordMetadata, RESOURCE, retainRecordSources);
+        new DefaultReadResultMapper(mapping, recordMetadata, RESOURCE, retainRecordSources, false);
     ErrorRecord record = (ErrorRecord) mapper.map(result);
     assertThat(record.getError())
         .isInstanceOf(IllegalArgumentException.class)
@@ -174,7 +180,7 @@ class DefaultReadResultMapperTest {
     byte[] array = {1, 2, 3, 4, 5};
     when(row.getBytesUnsafe(C1.asIdentifier())).thenReturn(ByteBuffer.wrap(array));
     DefaultReadResultMapper mapper =
-        new DefaultReadResultMapper(mapping, recordMetadata, RESOURCE, retainRecordSources);
+        new DefaultReadResultMapper(mapping, recordMetadata, RESOURCE, retainRecordSources, false);
     ErrorRecord record = (ErrorRecord) mapper.map(result);
     assertThat(record.getError())
         .isInstanceOf(IllegalArgumentException.class)
@@ -189,4 +195,54 @@ class DefaultReadResultMapperTest {
     }
     assertThat(record.getResource()).isEqualTo(URI.create("cql://ks1/table1"));
   }
+
+  @Test
+  void should_map_result_to_utf8_values_when_codecs_have_formatters() {
+    useStringCodecs();
+    when(row.getBytesUnsafe(C1.asIdentifier()))
+        .thenReturn(TypeCodecs.INT.encode(42, ProtocolVersion.DEFAULT));
+    when(row.getBytesUnsafe(C2.asIdentifier()))
+        .thenReturn(TypeCodecs.TEXT.encode("fóô", ProtocolVersion.DEFAULT));
+    // null values are converted by the codec
+    when(row.getBytesUnsafe(C3.asIdentifier())).thenReturn(null);
+    DefaultReadResultMapper mapper =
+        new DefaultReadResultMapper(mapping, recordMetadata, RESOURCE, false, true);
+    Record record = mapper.map(result);
+    assertThat(record.getFieldValue(F0)).isEqualTo(new Utf8Value("42".getBytes(UTF_8)));
+    assertThat(record.getFieldValue(F1)).isEqualTo(new Utf8Value("fóô".getBytes(UTF_8)));
+    assertThat(record.getFieldValue(F2)).isEqualTo("NULL");
+  }
+
+  @Test
+  void should_map_result_to_error_record_when_utf8_formatting_fails() {
+    useStringCodecs();
+    byte[] array = {1, 2, 3, 4, 5};
+    when(row.getBytesUnsafe(C1.asIdentifier())).thenReturn(ByteBuffer.wrap(array));
+    DefaultReadResultMapper mapper =
+        new DefaultReadResultMapper(mapping, recordMetadata, RESOURCE, false, true);
+    ErrorRecord record = (ErrorRecord) mapper.map(result);
+    assertThat(record.getError())
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Could not deserialize column col1 of type INT as java.lang.String")
+        .hasCauseInstanceOf(IllegalArgumentException.class);
+    assertThat(record.getError().getCause())
+        .hasMessage("Invalid 32-bits integer value, expecting 4 bytes but got 5");
+  }
+
+  private void useStringCodecs() {
+    recordMetadata =
+        new TestRecordMetadata(
+            ImmutableMap.of(
+                F0, GenericType.STRING, F1, GenericType.STRING, F2, GenericType.STRING));
+    ConvertingCodecFactory codecFactory =
+        new ConvertingCodecFactory(new TextConversionContext().setNullStrings("NULL"));
+    TypeCodec<String> intCodec =
+        codecFactory.createConvertingCodec(DataTypes.INT, GenericType.STRING, true);
+    TypeCodec<String> textCodec =
+        codecFactory.createConvertingCodec(DataTypes.TEXT, GenericType.STRING, true);
+    when(mapping.codec(C1, DataTypes.INT, GenericType.STRING)).thenReturn(intCodec);
+    when(mapping.codec(C2, DataTypes.TEXT, GenericType.STRING)).thenReturn(textCodec);
+    when(mapping.codec(C3, DataTypes.TEXT, GenericType.STRING)).thenReturn(textCodec);
+    when(row.get(C3.asIdentifier(), textCodec)).thenReturn("NULL");
+  }
 }
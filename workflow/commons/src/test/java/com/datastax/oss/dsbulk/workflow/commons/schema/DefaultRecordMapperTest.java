@@ -30,7 +30,10 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.MINUTES;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -63,6 +66,7 @@ import com.datastax.oss.dsbulk.connectors.api.RecordMetadata;
 import com.datastax.oss.dsbulk.mapping.CQLWord;
 import com.datastax.oss.dsbulk.mapping.InvalidMappingException;
 import com.datastax.oss.dsbulk.mapping.Mapping;
+import com.datastax.oss.dsbulk.sampler.SizedStatement;
 import com.datastax.oss.dsbulk.tests.utils.ReflectionUtils;
 import com.datastax.oss.dsbulk.workflow.commons.statement.MappedBoundStatement;
 import com.datastax.oss.dsbulk.workflow.commons.statement.UnmappableStatement;
@@ -73,6 +77,7 @@ import java.time.Instant;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import org.assertj.core.util.Sets;
 import org.junit.jupiter.api.BeforeEach;
@@ -237,6 +242,101 @@ class DefaultRecordMapperTest {
     assertParameter(2, 2, TypeCodecs.TEXT.encode("foo", V4));
   }
 
+  @Test
+  void should_compute_data_size_when_binding() {
+    when(record.fields()).thenReturn(set(F1, F2, F3));
+    when(boundStatementBuilder.size()).thenReturn(3);
+    when(boundStatementBuilder.getBytesUnsafe(0)).thenReturn(TypeCodecs.INT.encode(42, V4));
+    when(boundStatementBuilder.getBytesUnsafe(1)).thenReturn(TypeCodecs.BIGINT.encode(4242L, V4));
+    when(boundStatementBuilder.getBytesUnsafe(2)).thenReturn(TypeCodecs.TEXT.encode("foo", V4));
+    RecordMapper mapper =
+        new DefaultRecordMapper(
+            insertStatement,
+            set(C1),
+            set(C2, C3),
+            V4,
+            mapping,
+            recordMetadata,
+            true,
+            true,
+            false,
+            statement -> boundStatementBuilder);
+    Statement<?> result = mapper.map(record);
+    assertThat(result).isInstanceOf(MappedBoundStatement.class);
+    assertThat(((SizedStatement) result).getDataSize()).isEqualTo(4 + 8 + 3);
+    verify(boundStatement, never()).getBytesUnsafe(anyInt());
+  }
+
+  @Test
+  void should_resolve_field_bindings_only_once() {
+    Set<Field> fields = set(F1, F2, F3);
+    when(record.fields()).thenReturn(fields);
+    Record record2 = mock(Record.class);
+    when(record2.fields()).thenReturn(fields);
+    when(record2.getFieldValue(F1)).thenReturn("43");
+    when(record2.getFieldValue(F2)).thenReturn("4343");
+    when(record2.getFieldValue(F3)).thenReturn("bar");
+    Record record3 = mock(Record.class);
+    when(record3.fields()).thenReturn(set(F3, F1, F2));
+    when(record3.getFieldValue(F1)).thenReturn("44");
+    when(record3.getFieldValue(F2)).thenReturn("4444");
+    when(record3.getFieldValue(F3)).thenReturn("qix");
+    RecordMapper mapper =
+        new DefaultRecordMapper(
+            insertStatement,
+            set(C1),
+            set(C2, C3),
+            V4,
+            mapping,
+            recordMetadata,
+            true,
+            true,
+            false,
+            statement -> boundStatementBuilder);
+    assertThat(mapper.map(record)).isInstanceOf(MappedBoundStatement.class);
+    assertThat(mapper.map(record2)).isInstanceOf(MappedBoundStatement.class);
+    assertThat(mapper.map(record3)).isInstanceOf(MappedBoundStatement.class);
+    verify(boundStatementBuilder, times(9))
+        .setBytesUnsafe(variableCaptor.capture(), valueCaptor.capture());
+    assertParameter(0, 0, TypeCodecs.INT.encode(42, V4));
+    assertParameter(1, 1, TypeCodecs.BIGINT.encode(4242L, V4));
+    assertParameter(2, 2, TypeCodecs.TEXT.encode("foo", V4));
+    assertParameter(3, 0, TypeCodecs.INT.encode(43, V4));
+    assertParameter(4, 1, TypeCodecs.BIGINT.encode(4343L, V4));
+    assertParameter(5, 2, TypeCodecs.TEXT.encode("bar", V4));
+    assertParameter(6, 2, TypeCodecs.TEXT.encode("qix", V4));
+    assertParameter(7, 0, TypeCodecs.INT.encode(44, V4));
+    assertParameter(8, 1, TypeCodecs.BIGINT.encode(4444L, V4));
+    verify(mapping).fieldToVariables(F1);
+    verify(mapping).fieldToVariables(F2);
+    verify(mapping).fieldToVariables(F3);
+    verify(mapping).codec(C1, DataTypes.INT, GenericType.STRING);
+    verify(mapping).codec(C2, DataTypes.BIGINT, GenericType.STRING);
+    verify(mapping).codec(C3, DataTypes.TEXT, GenericType.STRING);
+  }
+
+  @Test
+  void should_not_cache_bindings_of_unmapped_fields() {
+    when(record.fields()).thenReturn(set(F1, F2, F3));
+    when(mapping.fieldToVariables(F3)).thenReturn(emptySet());
+    RecordMapper mapper =
+        new DefaultRecordMapper(
+            insertStatement,
+            set(C1),
+            set(C2, C3),
+            V4,
+            mapping,
+            recordMetadata,
+            true,
+            true,
+            true,
+            statement -> boundStatementBuilder);
+    assertThat(mapper.map(record)).isInstanceOf(MappedBoundStatement.class);
+    Map<?, ?> fieldBindings =
+        (Map<?, ?>) ReflectionUtils.getInternalState(mapper, "fieldBindings");
+    assertThat(fieldBindings).containsOnlyKeys(F1, F2);
+  }
+
   @Test
   void should_bind_mapped_numeric_timestamp() {
     when(record.fields()).thenReturn(set(F1));
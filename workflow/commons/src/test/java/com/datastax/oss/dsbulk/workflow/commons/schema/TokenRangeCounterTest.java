@@ -0,0 +1,175 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.workflow.commons.schema;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.datastax.oss.driver.api.core.DriverTimeoutException;
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.metadata.token.Token;
+import com.datastax.oss.driver.internal.core.metadata.token.Murmur3Token;
+import com.datastax.oss.dsbulk.executor.api.exception.BulkExecutionException;
+import com.datastax.oss.dsbulk.executor.api.result.DefaultReadResult;
+import com.datastax.oss.dsbulk.executor.api.result.ReadResult;
+import com.datastax.oss.dsbulk.partitioner.BulkTokenRange;
+import com.datastax.oss.dsbulk.partitioner.murmur3.Murmur3BulkTokenFactory;
+import com.datastax.oss.dsbulk.workflow.commons.log.TokenRangesTracker;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+class TokenRangeCounterTest {
+
+  private static final long BIG_START = Long.MIN_VALUE / 2;
+  private static final long BIG_END = 0;
+
+  /** Ranges containing more rows than this time out. */
+  private static final int MAX_ROWS = 100;
+
+  private final Murmur3BulkTokenFactory tokenFactory = new Murmur3BulkTokenFactory();
+
+  private final List<BulkTokenRange> ranges =
+      Arrays.asList(
+          range(Long.MIN_VALUE, BIG_START),
+          range(BIG_START, BIG_END),
+          range(BIG_END, Long.MAX_VALUE / 2),
+          range(Long.MAX_VALUE / 2, Long.MIN_VALUE));
+
+  private final List<Token> tokens = new ArrayList<>();
+  private final List<BulkTokenRange> executed = new CopyOnWriteArrayList<>();
+
+  TokenRangeCounterTest() {
+    // 20 rows in each small range, 300 rows in the big range; the minimum token is not contained
+    // in any range, so use the token just before the end of each split
+    for (BulkTokenRange range : ranges) {
+      boolean big = value(range.getEnd()) == BIG_END;
+      for (BulkTokenRange split : tokenFactory.splitter().split(range, big ? 300 : 20)) {
+        tokens.add(new Murmur3Token(value(split.getEnd()) - 1));
+      }
+    }
+  }
+
+  @Test
+  void should_count_each_range_once() {
+    TokenRangeCounter counter =
+        new TokenRangeCounter(ranges, this::statement, tokenFactory, null);
+    List<ReadResult> results =
+        counter.count(statement -> count(statement, true), flux -> flux, 2).collectList().block();
+    assertThat(results).hasSize(ranges.size()).allMatch(ReadResult::isSuccess);
+    assertThat(sum(results)).isEqualTo(tokens.size());
+    assertThat(executed).containsExactlyInAnyOrderElementsOf(ranges);
+  }
+
+  @Test
+  void should_split_ranges_whose_count_timed_out() {
+    TokenRangesTracker tracker = new TokenRangesTracker(tokenFactory, ranges, 0);
+    TokenRangeCounter counter =
+        new TokenRangeCounter(ranges, this::statement, tokenFactory, tracker);
+    List<ReadResult> results =
+        counter.count(statement -> count(statement, false), flux -> flux, 4).collectList().block();
+    assertThat(results).isNotNull().allMatch(ReadResult::isSuccess);
+    assertThat(sum(results)).isEqualTo(tokens.size());
+    assertThat(executed).hasSizeGreaterThan(ranges.size()).containsAll(ranges);
+    // all the additional counts target the big range
+    for (BulkTokenRange range : executed) {
+      if (!ranges.contains(range)) {
+        assertThat(value(range.getStart())).isGreaterThanOrEqualTo(BIG_START);
+        assertThat(value(range.getEnd())).isLessThanOrEqualTo(BIG_END);
+      }
+    }
+    assertThat(tracker.getRemainingRanges()).isEmpty();
+    assertThat(tracker.getRows()).isEqualTo(tokens.size());
+  }
+
+  @Test
+  void should_emit_timeouts_when_range_cannot_be_split_anymore() {
+    TokenRangesTracker tracker = new TokenRangesTracker(tokenFactory, ranges, 0);
+    TokenRangeCounter counter =
+        new TokenRangeCounter(ranges, this::statement, tokenFactory, tracker, 0);
+    List<ReadResult> results =
+        counter.count(statement -> count(statement, false), flux -> flux, 4).collectList().block();
+    assertThat(results).hasSize(ranges.size()).filteredOn(r -> !r.isSuccess()).hasSize(1);
+    assertThat(executed).containsExactlyInAnyOrderElementsOf(ranges);
+    assertThat(tracker.getRemainingRanges()).containsExactly(ranges.get(1));
+    assertThat(tracker.getRows()).isEqualTo(60);
+  }
+
+  @Test
+  void should_not_split_ranges_on_other_errors() {
+    TokenRangeCounter counter =
+        new TokenRangeCounter(ranges, this::statement, tokenFactory, null);
+    List<ReadResult> results =
+        counter
+            .count(
+                statement ->
+                    Flux.just(
+                        new DefaultReadResult(
+                            new BulkExecutionException(new RuntimeException("boo"), statement))),
+                flux -> flux,
+                2)
+            .collectList()
+            .block();
+    assertThat(results).hasSize(ranges.size()).allMatch(result -> !result.isSuccess());
+    assertThat(executed).containsExactlyInAnyOrderElementsOf(ranges);
+  }
+
+  private Statement<?> statement(BulkTokenRange range) {
+    executed.add(range);
+    return SimpleStatement.newInstance(
+        "irrelevant", value(range.getStart()), value(range.getEnd()));
+  }
+
+  private Publisher<ReadResult> count(Statement<?> statement, boolean unlimited) {
+    List<Object> values = ((SimpleStatement) statement).getPositionalValues();
+    BulkTokenRange range = range((Long) values.get(0), (Long) values.get(1));
+    long count = tokens.stream().filter(range::contains).count();
+    if (!unlimited && count > MAX_ROWS) {
+      return Flux.just(
+          new DefaultReadResult(
+              new BulkExecutionException(new DriverTimeoutException("timeout"), statement)));
+    }
+    Row row = mock(Row.class);
+    when(row.getLong(0)).thenReturn(count);
+    return Flux.just(new DefaultReadResult(statement, mock(ExecutionInfo.class), row));
+  }
+
+  private static long sum(List<ReadResult> results) {
+    long sum = 0;
+    for (ReadResult result : results) {
+      sum += TokenRangeCounter.getCount(result);
+    }
+    return sum;
+  }
+
+  private BulkTokenRange range(long start, long end) {
+    return tokenFactory.range(
+        new Murmur3Token(start), new Murmur3Token(end), Collections.emptySet());
+  }
+
+  private static long value(Token token) {
+    return ((Murmur3Token) token).getValue();
+  }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.workflow.commons.schema;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.metadata.token.Token;
+import com.datastax.oss.driver.internal.core.metadata.token.Murmur3Token;
+import com.datastax.oss.dsbulk.executor.api.exception.BulkExecutionException;
+import com.datastax.oss.dsbulk.executor.api.result.DefaultReadResult;
+import com.datastax.oss.dsbulk.executor.api.result.ReadResult;
+import com.datastax.oss.dsbulk.partitioner.BulkTokenRange;
+import com.datastax.oss.dsbulk.partitioner.murmur3.Murmur3BulkTokenFactory;
+import com.datastax.oss.dsbulk.workflow.commons.log.TokenRangesTracker;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class TokenRangeReadSchedulerTest {
+
+  private static final long SLOW_START = Long.MIN_VALUE / 2;
+  private static final long SLOW_END = 0;
+
+  private final Murmur3BulkTokenFactory tokenFactory = new Murmur3BulkTokenFactory();
+
+  private final List<BulkTokenRange> ranges =
+      Arrays.asList(
+          range(Long.MIN_VALUE, SLOW_START),
+          range(SLOW_START, SLOW_END),
+          range(SLOW_END, Long.MAX_VALUE / 2),
+          range(Long.MAX_VALUE / 2, Long.MIN_VALUE));
+
+  private final Map<Row, Token> tokens = new IdentityHashMap<>();
+  private final List<Row> rows = new ArrayList<>();
+  private final List<BulkTokenRange> executed = new CopyOnWriteArrayList<>();
+
+  TokenRangeReadSchedulerTest() {
+    // 20 rows in each fast range, 300 rows in the slow range
+    for (BulkTokenRange range : ranges) {
+      boolean slow = isSlow(value(range.getEnd()));
+      for (BulkTokenRange split : tokenFactory.splitter().split(range, slow ? 300 : 20)) {
+        Row row = mock(Row.class);
+        tokens.put(row, split.getEnd());
+        rows.add(row);
+      }
+    }
+  }
+
+  @Test
+  void should_split_slow_range_when_slots_idle() {
+    TokenRangeReadScheduler scheduler =
+        new TokenRangeReadScheduler(ranges, this::statement, tokens::get, tokenFactory);
+    List<ReadResult> results =
+        scheduler.read(this::read, flux -> flux, 4, 500).collectList().block();
+    assertThat(results).isNotNull();
+    assertThat(tokensOf(results)).containsExactlyInAnyOrderElementsOf(tokens.values());
+    assertThat(executed).hasSizeGreaterThan(ranges.size()).containsAll(ranges);
+    // all the additional reads target the slow range
+    for (BulkTokenRange range : executed.subList(ranges.size(), executed.size())) {
+      assertThat(value(range.getStart())).isGreaterThan(SLOW_START);
+      assertThat(value(range.getEnd())).isLessThanOrEqualTo(SLOW_END);
+    }
+  }
+
+  @Test
+  void should_not_split_range_below_minimum_fraction() {
+    TokenRangeReadScheduler scheduler =
+        new TokenRangeReadScheduler(ranges, this::statement, tokens::get, tokenFactory, null, 0.5);
+    List<ReadResult> results =
+        scheduler.read(this::read, flux -> flux, 4, 500).collectList().block();
+    assertThat(results).isNotNull();
+    assertThat(tokensOf(results)).containsExactlyInAnyOrderElementsOf(tokens.values());
+    assertThat(executed).containsExactlyInAnyOrderElementsOf(ranges);
+  }
+
+  @Test
+  void should_track_ranges_read() {
+    TokenRangesTracker tracker = new TokenRangesTracker(tokenFactory, ranges, 0);
+    TokenRangeReadScheduler scheduler =
+        new TokenRangeReadScheduler(ranges, this::statement, tokens::get, tokenFactory, tracker);
+    List<ReadResult> results =
+        scheduler
+            .read(
+                this::read,
+                (flux, end) -> flux.transform(tracker.newRangeCompletionHandler(end)),
+                4,
+                500)
+            .collectList()
+            .block();
+    assertThat(results).isNotNull();
+    assertThat(executed).hasSizeGreaterThan(ranges.size());
+    assertThat(tracker.getRemainingRanges()).isEmpty();
+    assertThat(tracker.getRows()).isEqualTo(rows.size());
+  }
+
+  @Test
+  void should_not_track_ranges_with_failed_reads() {
+    TokenRangesTracker tracker = new TokenRangesTracker(tokenFactory, ranges, 0);
+    TokenRangeReadScheduler scheduler =
+        new TokenRangeReadScheduler(ranges, this::statement, tokens::get, tokenFactory, tracker);
+    scheduler
+        .read(
+            statement ->
+                Flux.just(
+                    new DefaultReadResult(
+                        new BulkExecutionException(new RuntimeException("boo"), statement))),
+            (flux, end) -> flux.transform(tracker.newRangeCompletionHandler(end)),
+            2,
+            500)
+        .blockLast();
+    assertThat(tracker.getRemainingRanges()).containsExactlyInAnyOrderElementsOf(ranges);
+    assertThat(tracker.getRows()).isZero();
+  }
+
+  @Test
+  void should_emit_failed_reads() {
+    TokenRangeReadScheduler scheduler =
+        new TokenRangeReadScheduler(ranges, this::statement, tokens::get, tokenFactory);
+    List<ReadResult> results =
+        scheduler
+            .read(
+                statement ->
+                    Flux.just(
+                        new DefaultReadResult(
+                            new BulkExecutionException(new RuntimeException("boo"), statement))),
+                flux -> flux,
+                2,
+                500)
+            .collectList()
+            .block();
+    assertThat(results).hasSize(ranges.size()).allMatch(result -> !result.isSuccess());
+  }
+
+  private Statement<?> statement(BulkTokenRange range) {
+    executed.add(range);
+    return SimpleStatement.newInstance(
+        "irrelevant", value(range.getStart()), value(range.getEnd()));
+  }
+
+  private Publisher<ReadResult> read(Statement<?> statement) {
+    List<Object> values = ((SimpleStatement) statement).getPositionalValues();
+    BulkTokenRange range = range((Long) values.get(0), (Long) values.get(1));
+    List<Row> found =
+        rows.stream()
+            .filter(row -> range.contains(tokens.get(row)))
+            .sorted(Comparator.comparingLong(row -> value(tokens.get(row))))
+            .collect(Collectors.toList());
+    ExecutionInfo executionInfo = mock(ExecutionInfo.class);
+    return Flux.fromIterable(found)
+        .concatMap(
+            row -> {
+              Mono<Row> mono = Mono.just(row);
+              if (isSlow(value(tokens.get(row)))) {
+                mono = mono.delayElement(Duration.ofMillis(1));
+              }
+              return mono;
+            })
+        .map(row -> new DefaultReadResult(statement, executionInfo, row));
+  }
+
+  private List<Token> tokensOf(List<ReadResult> results) {
+    List<Token> found = new ArrayList<>();
+    for (ReadResult result : results) {
+      found.add(tokens.get(result.getRow().orElseThrow(IllegalStateException::new)));
+    }
+    return found;
+  }
+
+  private BulkTokenRange range(long start, long end) {
+    return tokenFactory.range(
+        new Murmur3Token(start), new Murmur3Token(end), Collections.emptySet());
+  }
+
+  private static long value(Token token) {
+    return ((Murmur3Token) token).getValue();
+  }
+
+  private static boolean isSlow(long token) {
+    return token > SLOW_START && token <= SLOW_END;
+  }
+}
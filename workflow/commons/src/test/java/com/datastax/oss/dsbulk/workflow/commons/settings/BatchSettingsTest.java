@@ -27,6 +27,7 @@ import com.datastax.oss.dsbulk.tests.driver.DriverUtils;
 import com.datastax.oss.dsbulk.tests.utils.ReflectionUtils;
 import com.datastax.oss.dsbulk.tests.utils.TestConfigUtils;
 import com.typesafe.config.Config;
+import java.time.Duration;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -45,12 +46,35 @@ class BatchSettingsTest {
     BatchSettings settings = new BatchSettings(config);
     settings.init();
     assertThat(settings.getBufferSize()).isEqualTo(128);
+    assertThat(settings.isContinuous()).isFalse();
+    assertThat(settings.getMaxDelay()).isEqualTo(Duration.ofMillis(100));
     ReactiveStatementBatcher batcher = settings.newStatementBatcher(session);
     assertThat(batcher).isInstanceOf(ReactorStatementBatcher.class);
     assertThat(ReflectionUtils.getInternalState(batcher, "batchMode")).isEqualTo(PARTITION_KEY);
     assertThat(ReflectionUtils.getInternalState(batcher, "maxBatchStatements")).isEqualTo(32);
   }
 
+  @Test
+  void should_use_larger_default_buffer_size_when_continuous() {
+    Config config =
+        TestConfigUtils.createTestConfig(
+            "dsbulk.batch", "continuous", true, "maxDelay", "1 second", "maxBatchStatements", 10);
+    BatchSettings settings = new BatchSettings(config);
+    settings.init();
+    assertThat(settings.isContinuous()).isTrue();
+    assertThat(settings.getMaxDelay()).isEqualTo(Duration.ofSeconds(1));
+    assertThat(settings.getBufferSize()).isEqualTo(2560);
+  }
+
+  @Test
+  void should_throw_exception_when_max_delay_invalid() {
+    Config config = TestConfigUtils.createTestConfig("dsbulk.batch", "maxDelay", "NotADuration");
+    BatchSettings settings = new BatchSettings(config);
+    assertThatThrownBy(settings::init)
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageStartingWith("Invalid value for dsbulk.batch.maxDelay");
+  }
+
   @Test
   void should_create_batcher_for_deprecated_maxBatchSize_and_treat_it_as_maxBatchStatements() {
     Config config =
@@ -236,6 +236,16 @@ class CodecSettingsTest {
             "Invalid value for dsbulk.codec.epoch, expecting temporal in ISO_ZONED_DATE_TIME format, got 'NotAValidTemporal'");
   }
 
+  @Test
+  void should_throw_exception_when_temporalCacheSize_negative() {
+    Config config = TestConfigUtils.createTestConfig("dsbulk.codec", "temporalCacheSize", -1);
+    CodecSettings settings = new CodecSettings(config);
+    assertThatThrownBy(settings::init)
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining(
+            "Invalid value for dsbulk.codec.temporalCacheSize, expecting integer >= 0, got '-1'");
+  }
+
   @Test
   void should_throw_exception_when_booleanNumbers_not_a_list_of_two_elements() {
     Config config = TestConfigUtils.createTestConfig("dsbulk.codec", "booleanNumbers", "[0,1,2]");
@@ -28,7 +28,8 @@ import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
 import com.datastax.oss.driver.api.core.config.DriverExecutionProfile;
 import com.datastax.oss.driver.api.core.metadata.Node;
 import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableMap;
-import com.datastax.oss.driver.shaded.guava.common.util.concurrent.RateLimiter;
+import com.datastax.oss.dsbulk.executor.api.limiter.AdaptiveConcurrencyLimiter;
+import com.datastax.oss.dsbulk.executor.api.limiter.StripedRateLimiter;
 import com.datastax.oss.dsbulk.executor.api.reader.ReactiveBulkReader;
 import com.datastax.oss.dsbulk.executor.api.writer.ReactiveBulkWriter;
 import com.datastax.oss.dsbulk.executor.reactor.ContinuousReactorBulkExecutor;
@@ -145,7 +146,8 @@ class ExecutorSettingsTest {
     when(profile.getString(DefaultDriverOption.REQUEST_CONSISTENCY)).thenReturn("ONE");
     settings.init();
     ReactiveBulkReader executor = settings.newReadExecutor(session, null, false);
-    assertThat(((RateLimiter) getInternalState(executor, "rateLimiter")).getRate()).isEqualTo(100);
+    assertThat(((StripedRateLimiter) getInternalState(executor, "rateLimiter")).getRate())
+        .isEqualTo(100);
   }
 
   @Test
@@ -207,6 +209,53 @@ class ExecutorSettingsTest {
             "Invalid value for dsbulk.executor.maxInFlight, expecting NUMBER, got STRING");
   }
 
+  @Test
+  void should_enable_adaptive_concurrency() {
+    Config config =
+        TestConfigUtils.createTestConfig("dsbulk.executor", "adaptiveConcurrency.enabled", true);
+    ExecutorSettings settings = new ExecutorSettings(config);
+    settings.init();
+    assertThat(settings.isAdaptiveConcurrencyEnabled()).isTrue();
+    AdaptiveConcurrencyLimiter limiter = settings.newConcurrencyLimiter(32, 8, 128);
+    assertThat(limiter.getLimit()).isEqualTo(32);
+    assertThat(limiter.getMinLimit()).isEqualTo(8);
+    assertThat(limiter.getMaxLimit()).isEqualTo(128);
+    ReactiveBulkWriter executor = settings.newWriteExecutor(session, null, limiter);
+    assertThat(getInternalState(executor, "maxConcurrentRequests")).isSameAs(limiter);
+    assertThat(getInternalState(executor, "listener")).isSameAs(limiter);
+  }
+
+  @Test
+  void should_disable_adaptive_concurrency_by_default() {
+    Config config = TestConfigUtils.createTestConfig("dsbulk.executor");
+    ExecutorSettings settings = new ExecutorSettings(config);
+    settings.init();
+    assertThat(settings.isAdaptiveConcurrencyEnabled()).isFalse();
+  }
+
+  @Test
+  void should_disable_adaptive_concurrency_when_maxInFlight_enabled() {
+    Config config =
+        TestConfigUtils.createTestConfig(
+            "dsbulk.executor", "adaptiveConcurrency.enabled", true, "maxInFlight", 100);
+    ExecutorSettings settings = new ExecutorSettings(config);
+    settings.init();
+    assertThat(settings.isAdaptiveConcurrencyEnabled()).isFalse();
+  }
+
+  @Test
+  void should_throw_exception_when_latencyTolerance_invalid() {
+    Config config =
+        TestConfigUtils.createTestConfig(
+            "dsbulk.executor", "adaptiveConcurrency.latencyTolerance", 0.5);
+    ExecutorSettings settings = new ExecutorSettings(config);
+    assertThatThrownBy(settings::init)
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining(
+            "Invalid value for dsbulk.executor.adaptiveConcurrency.latencyTolerance: "
+                + "expecting number greater than 1, got: 0.5");
+  }
+
   @Test
   void should_log_warning_when_concurrentMaxQueries_is_user_defined(
       @LogCapture LogInterceptor logs) {
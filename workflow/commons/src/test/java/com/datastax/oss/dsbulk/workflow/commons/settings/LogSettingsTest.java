@@ -37,9 +37,13 @@ import com.datastax.oss.dsbulk.workflow.api.error.UnlimitedErrorThreshold;
 import com.datastax.oss.dsbulk.workflow.commons.log.LogManager;
 import com.typesafe.config.Config;
 import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -376,4 +380,73 @@ class LogSettingsTest {
     ErrorThreshold threshold = settings.queryWarningsThreshold;
     assertThat(threshold).isInstanceOf(UnlimitedErrorThreshold.class);
   }
+
+  @Test
+  void should_resume_from_checkpoint() throws Exception {
+    Path previous = Files.createDirectories(customLogsDirectory.resolve("previous"));
+    Files.write(
+        previous.resolve("checkpoint.txt"),
+        Collections.singletonList("file:///data.csv\t1-10,12-15"),
+        StandardCharsets.UTF_8);
+    Config config =
+        TestConfigUtils.createTestConfig(
+            "dsbulk.log",
+            "directory",
+            quoteJson(customLogsDirectory),
+            "resume",
+            quoteJson(previous));
+    LogSettings settings = new LogSettings(config, executionId);
+    settings.init();
+    assertThat(settings.isResume()).isTrue();
+    try (LogManager logManager = settings.newLogManager(session, true)) {
+      logManager.init();
+      assertThat(logManager.getResumedPositions())
+          .containsOnlyKeys(URI.create("file:///data.csv"))
+          .containsValue(10L);
+    }
+  }
+
+  @Test
+  void should_resume_from_token_ranges_checkpoint() throws Exception {
+    Path previous = Files.createDirectories(customLogsDirectory.resolve("previous"));
+    Files.write(
+        previous.resolve("checkpoint-ranges.txt"),
+        Arrays.asList("rows\t42", "-100\t100"),
+        StandardCharsets.UTF_8);
+    Config config =
+        TestConfigUtils.createTestConfig(
+            "dsbulk.log",
+            "directory",
+            quoteJson(customLogsDirectory),
+            "resume",
+            quoteJson(previous));
+    LogSettings settings = new LogSettings(config, executionId);
+    settings.init();
+    assertThat(settings.isResume()).isTrue();
+    assertThat(settings.getResumedTokenRanges()).hasFileName("checkpoint-ranges.txt");
+    assertThatThrownBy(() -> settings.newLogManager(session, true))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("cannot be used to resume a load operation");
+  }
+
+  @Test
+  void should_error_when_resume_directory_has_no_checkpoint() {
+    Config config =
+        TestConfigUtils.createTestConfig("dsbulk.log", "resume", quoteJson(customLogsDirectory));
+    LogSettings settings = new LogSettings(config, executionId);
+    assertThatThrownBy(settings::init)
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("Invalid value for log.resume")
+        .hasMessageContaining("neither checkpoint.txt nor checkpoint-ranges.txt was found");
+  }
+
+  @Test
+  void should_error_when_checkpoint_interval_is_negative() {
+    Config config =
+        TestConfigUtils.createTestConfig("dsbulk.log", "checkpointInterval", "-1 seconds");
+    LogSettings settings = new LogSettings(config, executionId);
+    assertThatThrownBy(settings::init)
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("Invalid value for log.checkpointInterval");
+  }
 }
@@ -67,6 +67,9 @@ class MonitoringSettingsTest {
     assertThat(ReflectionUtils.getInternalState(metricsManager, "expectedReads")).isEqualTo(-1L);
     assertThat(ReflectionUtils.getInternalState(metricsManager, "jmx")).isEqualTo(true);
     assertThat(ReflectionUtils.getInternalState(metricsManager, "csv")).isEqualTo(false);
+    assertThat(ReflectionUtils.getInternalState(metricsManager, "prometheusHost"))
+        .isEqualTo("localhost");
+    assertThat(ReflectionUtils.getInternalState(metricsManager, "prometheusPort")).isEqualTo(-1);
   }
 
   @Test
@@ -90,7 +93,11 @@ class MonitoringSettingsTest {
             "jmx",
             false,
             "csv",
-            true);
+            true,
+            "prometheusHost",
+            "0.0.0.0",
+            "prometheusPort",
+            9100);
     MonitoringSettings settings = new MonitoringSettings(config, "test");
     settings.init();
     MetricsManager metricsManager =
@@ -112,6 +119,9 @@ class MonitoringSettingsTest {
     assertThat(ReflectionUtils.getInternalState(metricsManager, "expectedReads")).isEqualTo(50L);
     assertThat(ReflectionUtils.getInternalState(metricsManager, "jmx")).isEqualTo(false);
     assertThat(ReflectionUtils.getInternalState(metricsManager, "csv")).isEqualTo(true);
+    assertThat(ReflectionUtils.getInternalState(metricsManager, "prometheusHost"))
+        .isEqualTo("0.0.0.0");
+    assertThat(ReflectionUtils.getInternalState(metricsManager, "prometheusPort")).isEqualTo(9100);
     assertThat(ReflectionUtils.getInternalState(metricsManager, "operationDirectory"))
         .isEqualTo(tmpPath);
   }
@@ -191,6 +201,17 @@ class MonitoringSettingsTest {
             "Invalid value for dsbulk.monitoring.reportRate: No number in duration value 'NotADuration'");
   }
 
+  @Test
+  void should_throw_exception_when_prometheusPort_not_a_valid_port() {
+    Config config =
+        TestConfigUtils.createTestConfig("dsbulk.monitoring", "prometheusPort", 65536);
+    MonitoringSettings settings = new MonitoringSettings(config, "test");
+    assertThatThrownBy(settings::init)
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining(
+            "Invalid value for dsbulk.monitoring.prometheusPort, expecting -1 or a port number between 0 and 65535, got '65536'");
+  }
+
   @Test
   void should_log_warning_when_reportRate_lesser_than_one_second(LogInterceptor logs) {
     Config config =
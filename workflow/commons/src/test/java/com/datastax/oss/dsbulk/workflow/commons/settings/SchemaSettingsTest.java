@@ -758,7 +758,7 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init(SchemaGenerationType.READ_AND_MAP, session, true, false);
     ReadResultMapper readResultMapper =
-        schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true);
+        schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true, false);
     assertThat(readResultMapper).isNotNull();
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
@@ -788,7 +788,7 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init(SchemaGenerationType.READ_AND_MAP, session, true, false);
     ReadResultMapper readResultMapper =
-        schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true);
+        schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true, false);
     assertThat(readResultMapper).isNotNull();
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
@@ -818,7 +818,7 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init(SchemaGenerationType.READ_AND_MAP, session, false, true);
     ReadResultMapper readResultMapper =
-        schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true);
+        schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true, false);
     assertThat(readResultMapper).isNotNull();
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
@@ -849,7 +849,7 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init(SchemaGenerationType.READ_AND_MAP, session, false, true);
     ReadResultMapper readResultMapper =
-        schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true);
+        schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true, false);
     assertThat(readResultMapper).isNotNull();
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
@@ -881,7 +881,7 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init(SchemaGenerationType.READ_AND_MAP, session, false, true);
     ReadResultMapper readResultMapper =
-        schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true);
+        schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true, false);
     assertThat(readResultMapper).isNotNull();
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
@@ -912,7 +912,7 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init(SchemaGenerationType.READ_AND_MAP, session, false, true);
     ReadResultMapper readResultMapper =
-        schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true);
+        schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true, false);
     assertThat(readResultMapper).isNotNull();
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
@@ -939,7 +939,7 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init(SchemaGenerationType.READ_AND_MAP, session, true, false);
     ReadResultMapper readResultMapper =
-        schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true);
+        schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true, false);
     assertThat(readResultMapper).isNotNull();
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
@@ -961,7 +961,7 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init(SchemaGenerationType.READ_AND_MAP, session, false, true);
     ReadResultMapper readResultMapper =
-        schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true);
+        schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true, false);
     assertThat(readResultMapper).isNotNull();
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
@@ -985,7 +985,7 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init(SchemaGenerationType.READ_AND_MAP, session, false, true);
     ReadResultMapper readResultMapper =
-        schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true);
+        schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true, false);
     assertThat(readResultMapper).isNotNull();
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
@@ -1108,7 +1108,7 @@ class SchemaSettingsTest {
             "\" f1 = c1, f2 = now() \"");
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init(SchemaGenerationType.READ_AND_MAP, session, false, true);
-    schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true);
+    schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true, false);
     assertThat(getInternalState(schemaSettings, "query"))
         .isEqualTo(
             "SELECT c1, now() AS \"now()\" FROM ks.t1 WHERE token(c1) > :start AND token(c1) <= :end");
@@ -1163,7 +1163,7 @@ class SchemaSettingsTest {
         TestConfigUtils.createTestConfig("dsbulk.schema", "query", "\"SELECT a,b,c FROM ks.t1\"");
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init(SchemaGenerationType.READ_AND_MAP, session, false, true);
-    schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true);
+    schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true, false);
     List<?> statements = schemaSettings.createReadStatements(session);
     assertThat(statements).hasSize(1);
     assertThat(statements.get(0)).isEqualTo(bs);
@@ -1196,11 +1196,102 @@ class SchemaSettingsTest {
             "dsbulk.schema", "keyspace", "ks", "table", "t1", "splits", 3);
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init(SchemaGenerationType.READ_AND_MAP, session, false, true);
-    schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true);
+    schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true, false);
     List<Statement<?>> statements = schemaSettings.createReadStatements(session);
     assertThat(statements).hasSize(3).contains(bs1, bs2, bs3);
   }
 
+  @Test
+  void should_create_multiple_read_statements_when_size_estimates_not_available() {
+    ColumnDefinitions definitions =
+        mockColumnDefinitions(
+            mockColumnDefinition("start", BIGINT), mockColumnDefinition("end", BIGINT));
+    when(ps.getVariableDefinitions()).thenReturn(definitions);
+    BoundStatement bs1 = mock(BoundStatement.class);
+    when(bs1.setToken(0, token1)).thenReturn(bs1);
+    when(bs1.setToken(1, token2)).thenReturn(bs1);
+    when(bs1.setRoutingKeyspace(any(CqlIdentifier.class))).thenReturn(bs1);
+    when(bs1.setRoutingToken(token2)).thenReturn(bs1);
+    BoundStatement bs2 = mock(BoundStatement.class);
+    when(bs2.setToken(0, token2)).thenReturn(bs2);
+    when(bs2.setToken(1, token3)).thenReturn(bs2);
+    when(bs2.setRoutingKeyspace(any(CqlIdentifier.class))).thenReturn(bs2);
+    when(bs2.setRoutingToken(token3)).thenReturn(bs2);
+    BoundStatement bs3 = mock(BoundStatement.class);
+    when(bs3.setToken(0, token3)).thenReturn(bs3);
+    when(bs3.setToken(1, token1)).thenReturn(bs3);
+    when(bs3.setRoutingKeyspace(any(CqlIdentifier.class))).thenReturn(bs3);
+    when(bs3.setRoutingToken(token1)).thenReturn(bs3);
+    when(ps.bind()).thenReturn(bs1, bs2, bs3);
+    Config config =
+        TestConfigUtils.createTestConfig(
+            "dsbulk.schema",
+            "keyspace",
+            "ks",
+            "table",
+            "t1",
+            "splits",
+            3,
+            "splitStrategy",
+            "SIZE_ESTIMATES");
+    SchemaSettings schemaSettings = new SchemaSettings(config);
+    schemaSettings.init(SchemaGenerationType.READ_AND_MAP, session, false, true);
+    schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true, false);
+    List<Statement<?>> statements = schemaSettings.createReadStatements(session);
+    // no node published estimates: should fall back to splitting by token count
+    assertThat(statements).hasSize(3).contains(bs1, bs2, bs3);
+  }
+
+  @Test
+  void should_create_read_scheduler_when_dynamic_splitting_enabled() {
+    ColumnDefinitions definitions =
+        mockColumnDefinitions(
+            mockColumnDefinition("start", BIGINT), mockColumnDefinition("end", BIGINT));
+    when(ps.getVariableDefinitions()).thenReturn(definitions);
+    Config config =
+        TestConfigUtils.createTestConfig(
+            "dsbulk.schema", "keyspace", "ks", "table", "t1", "dynamicSplitting", true);
+    SchemaSettings schemaSettings = new SchemaSettings(config);
+    schemaSettings.init(SchemaGenerationType.READ_AND_MAP, session, false, true);
+    schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true, false);
+    assertThat(schemaSettings.createReadScheduler(session)).isPresent();
+  }
+
+  @Test
+  void should_not_create_read_scheduler_when_dynamic_splitting_disabled() {
+    ColumnDefinitions definitions =
+        mockColumnDefinitions(
+            mockColumnDefinition("start", BIGINT), mockColumnDefinition("end", BIGINT));
+    when(ps.getVariableDefinitions()).thenReturn(definitions);
+    Config config =
+        TestConfigUtils.createTestConfig("dsbulk.schema", "keyspace", "ks", "table", "t1");
+    SchemaSettings schemaSettings = new SchemaSettings(config);
+    schemaSettings.init(SchemaGenerationType.READ_AND_MAP, session, false, true);
+    schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true, false);
+    assertThat(schemaSettings.createReadScheduler(session)).isEmpty();
+  }
+
+  @Test
+  void should_not_create_read_scheduler_when_partition_key_not_selected() {
+    ColumnDefinitions definitions =
+        mockColumnDefinitions(
+            mockColumnDefinition("start", BIGINT), mockColumnDefinition("end", BIGINT));
+    when(ps.getVariableDefinitions()).thenReturn(definitions);
+    ColumnDefinitions resultSet = mockColumnDefinitions(mockColumnDefinition(C2, TEXT));
+    when(ps.getResultSetDefinitions()).thenReturn(resultSet);
+    Config config =
+        TestConfigUtils.createTestConfig(
+            "dsbulk.schema",
+            "query",
+            "\"SELECT c2 FROM ks.t1 WHERE token(c1) > :start AND token(c1) <= :end\"",
+            "dynamicSplitting",
+            true);
+    SchemaSettings schemaSettings = new SchemaSettings(config);
+    schemaSettings.init(SchemaGenerationType.READ_AND_MAP, session, false, true);
+    schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true, false);
+    assertThat(schemaSettings.createReadScheduler(session)).isEmpty();
+  }
+
   @Test
   void should_create_multiple_read_statements_when_token_range_provided_in_query() {
     ColumnDefinitions definitions =
@@ -1234,7 +1325,7 @@ class SchemaSettingsTest {
             3);
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init(SchemaGenerationType.READ_AND_MAP, session, false, true);
-    schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true);
+    schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true, false);
     List<Statement<?>> statements = schemaSettings.createReadStatements(session);
     assertThat(statements).hasSize(3).contains(bs1, bs2, bs3);
   }
@@ -1273,7 +1364,7 @@ class SchemaSettingsTest {
             3);
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init(SchemaGenerationType.READ_AND_MAP, session, false, true);
-    schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true);
+    schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true, false);
     List<Statement<?>> statements = schemaSettings.createReadStatements(session);
     assertThat(statements).hasSize(3).contains(bs1, bs2, bs3);
   }
@@ -1305,7 +1396,7 @@ class SchemaSettingsTest {
             "dsbulk.schema", "keyspace", "ks", "table", "t1", "splits", 3);
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init(SchemaGenerationType.READ_AND_COUNT, session, false, true);
-    schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true);
+    schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true, false);
     List<Statement<?>> statements = schemaSettings.createReadStatements(session);
     assertThat(statements).hasSize(3).contains(bs1, bs2, bs3);
   }
@@ -1450,7 +1541,7 @@ class SchemaSettingsTest {
             "\"SELECT a,b,c FROM t1 WHERE token(a) > :\\\"My Start\\\" and token(a) <= :\\\"My End\\\"\"");
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init(SchemaGenerationType.READ_AND_MAP, session, false, true);
-    schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true);
+    schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true, false);
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
     assertThat(argument.getValue())
@@ -1471,7 +1562,7 @@ class SchemaSettingsTest {
             "\"SELECT a,b,c FROM t1 WHERE foo = :bar\"");
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init(SchemaGenerationType.READ_AND_MAP, session, false, true);
-    schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true);
+    schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true, false);
     assertThatThrownBy(() -> schemaSettings.createReadStatements(session))
         .isInstanceOf(IllegalArgumentException.class)
         .hasMessage(
@@ -1495,7 +1586,7 @@ class SchemaSettingsTest {
             "\"SELECT a,b,c FROM t1 WHERE token(a) >= :foo and token(a) < :bar \"");
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init(SchemaGenerationType.READ_AND_MAP, session, false, true);
-    schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true);
+    schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true, false);
     assertThatThrownBy(() -> schemaSettings.createReadStatements(session))
         .isInstanceOf(IllegalArgumentException.class)
         .hasMessage(
@@ -2057,7 +2148,7 @@ class SchemaSettingsTest {
             "dsbulk.schema", "keyspace", "ks", "query", "\"SELECT a,b,c FROM t1\"", "splits", 3);
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init(SchemaGenerationType.READ_AND_MAP, session, false, true);
-    schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true);
+    schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true, false);
     List<?> stmts = schemaSettings.createReadStatements(session);
     assertThat(stmts).hasSize(3);
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
@@ -2101,7 +2192,7 @@ class SchemaSettingsTest {
             3);
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init(SchemaGenerationType.READ_AND_MAP, session, false, true);
-    schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true);
+    schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true, false);
     List<?> stmts = schemaSettings.createReadStatements(session);
     assertThat(stmts).hasSize(3);
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
@@ -2147,7 +2238,7 @@ class SchemaSettingsTest {
             3);
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init(SchemaGenerationType.READ_AND_MAP, session, false, true);
-    schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true);
+    schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true, false);
     List<?> stmts = schemaSettings.createReadStatements(session);
     assertThat(stmts).hasSize(3);
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
@@ -2230,7 +2321,7 @@ class SchemaSettingsTest {
             "dsbulk.schema", "keyspace", "ks", "query", "\"SELECT a,b,c FROM t1 WHERE c1 = 1\"");
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init(SchemaGenerationType.READ_AND_MAP, session, false, true);
-    schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true);
+    schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true, false);
     List<?> stmts = schemaSettings.createReadStatements(session);
     assertThat(stmts).hasSize(1);
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
@@ -2315,7 +2406,7 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init(SchemaGenerationType.READ_AND_MAP, session, false, true);
     ReadResultMapper mapper =
-        schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true);
+        schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true, false);
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
     assertThat(argument.getValue())
@@ -2343,7 +2434,7 @@ class SchemaSettingsTest {
     SchemaSettings schemaSettings = new SchemaSettings(config);
     schemaSettings.init(SchemaGenerationType.READ_AND_MAP, session, false, true);
     ReadResultMapper mapper =
-        schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true);
+        schemaSettings.createReadResultMapper(session, recordMetadata, codecFactory, true, false);
     ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
     verify(session).prepare(argument.capture());
     assertThat(argument.getValue())
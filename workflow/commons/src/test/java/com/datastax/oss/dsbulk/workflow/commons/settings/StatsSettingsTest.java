@@ -20,9 +20,11 @@ import static com.datastax.oss.dsbulk.workflow.commons.settings.StatsSettings.St
 import static com.datastax.oss.dsbulk.workflow.commons.settings.StatsSettings.StatisticsMode.partitions;
 import static com.datastax.oss.dsbulk.workflow.commons.settings.StatsSettings.StatisticsMode.ranges;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.datastax.oss.dsbulk.tests.utils.TestConfigUtils;
 import com.typesafe.config.Config;
+import java.time.Duration;
 import org.junit.jupiter.api.Test;
 
 class StatsSettingsTest {
@@ -44,4 +46,32 @@ class StatsSettingsTest {
     settings.init();
     assertThat(settings.getNumPartitions()).isEqualTo(20);
   }
+
+  @Test
+  void should_report_server_side() {
+    Config config = TestConfigUtils.createTestConfig("dsbulk.stats", "serverSide", true);
+    StatsSettings settings = new StatsSettings(config);
+    settings.init();
+    assertThat(settings.isServerSide()).isTrue();
+  }
+
+  @Test
+  void should_report_snapshot_interval() {
+    Config config =
+        TestConfigUtils.createTestConfig("dsbulk.stats", "snapshotInterval", "1 minute");
+    StatsSettings settings = new StatsSettings(config);
+    settings.init();
+    assertThat(settings.getSnapshotInterval()).isEqualTo(Duration.ofMinutes(1));
+  }
+
+  @Test
+  void should_throw_exception_when_snapshot_interval_negative() {
+    Config config =
+        TestConfigUtils.createTestConfig("dsbulk.stats", "snapshotInterval", "-1 seconds");
+    StatsSettings settings = new StatsSettings(config);
+    assertThatThrownBy(settings::init)
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining(
+            "Invalid value for stats.snapshotInterval: Expecting a positive duration or zero");
+  }
 }
@@ -15,6 +15,8 @@
  */
 package com.datastax.oss.dsbulk.workflow.count;
 
+import static com.datastax.oss.dsbulk.workflow.commons.schema.TokenRangeCounter.getCount;
+
 import com.codahale.metrics.MetricRegistry;
 import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.cql.Statement;
@@ -26,8 +28,10 @@ import com.datastax.oss.dsbulk.executor.api.result.ReadResult;
 import com.datastax.oss.dsbulk.workflow.api.Workflow;
 import com.datastax.oss.dsbulk.workflow.api.utils.DurationUtils;
 import com.datastax.oss.dsbulk.workflow.commons.log.LogManager;
+import com.datastax.oss.dsbulk.workflow.commons.log.TokenRangesTracker;
 import com.datastax.oss.dsbulk.workflow.commons.metrics.MetricsManager;
 import com.datastax.oss.dsbulk.workflow.commons.schema.ReadResultCounter;
+import com.datastax.oss.dsbulk.workflow.commons.schema.TokenRangeCounter;
 import com.datastax.oss.dsbulk.workflow.commons.settings.CodecSettings;
 import com.datastax.oss.dsbulk.workflow.commons.settings.DriverSettings;
 import com.datastax.oss.dsbulk.workflow.commons.settings.EngineSettings;
@@ -45,6 +49,8 @@ import io.netty.util.concurrent.DefaultThreadFactory;
 import java.time.Duration;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
@@ -70,6 +76,8 @@ public class CountWorkflow implements Workflow {
   private CqlSession session;
   private BulkReader executor;
   private List<? extends Statement<?>> readStatements;
+  private TokenRangeCounter tokenRangeCounter;
+  private TokenRangesTracker tokenRangesTracker;
   private volatile boolean success;
   private Function<Flux<ReadResult>, Flux<ReadResult>> totalItemsMonitor;
   private Function<Flux<ReadResult>, Flux<ReadResult>> totalItemsCounter;
@@ -78,6 +86,7 @@ public class CountWorkflow implements Workflow {
   private Function<Flux<ReadResult>, Flux<ReadResult>> queryWarningsHandler;
   private Function<Flux<Void>, Flux<Void>> terminationHandler;
   private int readConcurrency;
+  private Duration snapshotInterval;
 
   CountWorkflow(Config config) {
     settingsManager = new SettingsManager(config);
@@ -111,7 +120,19 @@ public class CountWorkflow implements Workflow {
     session = driverSettings.newSession(executionId);
     ClusterInformationUtils.printDebugInfoAboutCluster(session);
     schemaSettings.init(SchemaGenerationType.READ_AND_COUNT, session, false, false);
-    logManager = logSettings.newLogManager(session, false);
+    EnumSet<StatsSettings.StatisticsMode> modes = statsSettings.getStatisticsModes();
+    if (logSettings.isResume() && !modes.equals(EnumSet.of(StatsSettings.StatisticsMode.global))) {
+      throw new IllegalArgumentException(
+          "Invalid value for log.resume: resuming a count operation is only possible "
+              + "when counting rows globally (stats.modes = [global]).");
+    }
+    if (logSettings.isCheckpoint() || logSettings.isResume()) {
+      tokenRangesTracker =
+          schemaSettings
+              .createTokenRangesTracker(session, logSettings.getResumedTokenRanges())
+              .orElse(null);
+    }
+    logManager = logSettings.newLogManager(session, false, tokenRangesTracker);
     logManager.init();
     metricsManager =
         monitoringSettings.newMetricsManager(
@@ -129,11 +150,32 @@ public class CountWorkflow implements Workflow {
     ConvertingCodecFactory codecFactory =
         codecSettings.createCodecFactory(
             schemaSettings.isAllowExtraFields(), schemaSettings.isAllowMissingFields());
-    EnumSet<StatsSettings.StatisticsMode> modes = statsSettings.getStatisticsModes();
     int numPartitions = statsSettings.getNumPartitions();
+    snapshotInterval = statsSettings.getSnapshotInterval();
     readResultCounter =
         schemaSettings.createReadResultCounter(session, codecFactory, modes, numPartitions);
-    readStatements = schemaSettings.createReadStatements(session);
+    if (tokenRangesTracker != null) {
+      // rows counted in the ranges read by the resumed operation, if any
+      readResultCounter.addResumedRows(tokenRangesTracker.getRows());
+    }
+    if (statsSettings.isServerSide()) {
+      if (modes.equals(EnumSet.of(StatsSettings.StatisticsMode.global))) {
+        tokenRangeCounter =
+            schemaSettings.createTokenRangeCounter(session, tokenRangesTracker).orElse(null);
+        if (tokenRangeCounter == null) {
+          LOGGER.warn(
+              "Server-side counting is not compatible with user-provided queries (schema.query); "
+                  + "counting rows client-side.");
+        }
+      } else {
+        LOGGER.warn(
+            "Server-side counting is only compatible with stats.modes = [global]; "
+                + "counting rows client-side.");
+      }
+    }
+    if (tokenRangeCounter == null) {
+      readStatements = schemaSettings.createReadStatements(session, tokenRangesTracker);
+    }
     closed.set(false);
     success = false;
     totalItemsMonitor = metricsManager.newTotalItemsMonitor();
@@ -143,8 +185,9 @@ public class CountWorkflow implements Workflow {
     queryWarningsHandler = logManager.newQueryWarningsHandler();
     terminationHandler = logManager.newTerminationHandler();
     int numCores = Runtime.getRuntime().availableProcessors();
-    readConcurrency =
-        Math.min(readStatements.size(), engineSettings.getMaxConcurrentQueries().orElse(numCores));
+    int numReads =
+        tokenRangeCounter == null ? readStatements.size() : tokenRangeCounter.getRangeCount();
+    readConcurrency = Math.min(numReads, engineSettings.getMaxConcurrentQueries().orElse(numCores));
     LOGGER.debug(
         "Using read concurrency: {} (user-supplied: {})",
         readConcurrency,
@@ -158,10 +201,54 @@ public class CountWorkflow implements Workflow {
     LOGGER.debug("{} started.", this);
     metricsManager.start();
     Stopwatch timer = Stopwatch.createStarted();
-    Flux.fromIterable(readStatements)
+    ScheduledExecutorService snapshotScheduler = startSnapshots();
+    Flux<Void> flux = tokenRangeCounter == null ? countRows() : countRowsServerSide();
+    try {
+      flux.transform(terminationHandler).blockLast();
+    } finally {
+      if (snapshotScheduler != null) {
+        snapshotScheduler.shutdownNow();
+      }
+    }
+    timer.stop();
+    metricsManager.stop();
+    Duration elapsed = DurationUtils.round(timer.elapsed(), TimeUnit.SECONDS);
+    String elapsedStr =
+        elapsed.isZero() ? "less than one second" : DurationUtils.formatDuration(elapsed);
+    int totalErrors = logManager.getTotalErrors();
+    if (totalErrors == 0) {
+      success = true;
+      LOGGER.info("{} completed successfully in {}.", this, elapsedStr);
+    } else {
+      LOGGER.warn("{} completed with {} errors in {}.", this, totalErrors, elapsedStr);
+    }
+    return totalErrors == 0;
+  }
+
+  /**
+   * Periodically reports the totals counted so far, if enabled, so that long operations show
+   * partial results.
+   *
+   * @return the scheduler reporting snapshots, or null if snapshots are disabled.
+   */
+  private ScheduledExecutorService startSnapshots() {
+    if (snapshotInterval.isZero()) {
+      return null;
+    }
+    ScheduledExecutorService snapshotScheduler =
+        Executors.newSingleThreadScheduledExecutor(new DefaultThreadFactory("snapshot", true));
+    long interval = snapshotInterval.toMillis();
+    snapshotScheduler.scheduleWithFixedDelay(
+        readResultCounter::reportSnapshot, interval, interval, TimeUnit.MILLISECONDS);
+    return snapshotScheduler;
+  }
+
+  private Flux<Void> countRows() {
+    return Flux.fromIterable(readStatements)
         .flatMap(
             statement ->
                 Flux.from(executor.readReactive(statement))
+                    .transform(rangeCompletionHandler(statement))
                     .transform(queryWarningsHandler)
                     .transform(totalItemsMonitor)
                     .transform(totalItemsCounter)
@@ -176,22 +263,33 @@ public class CountWorkflow implements Workflow {
                     .doOnNext(readResultCounter.newCountingUnit()::update)
                     .then()
                     .subscribeOn(scheduler),
-            readConcurrency)
-        .transform(terminationHandler)
-        .blockLast();
-    timer.stop();
-    metricsManager.stop();
-    Duration elapsed = DurationUtils.round(timer.elapsed(), TimeUnit.SECONDS);
-    String elapsedStr =
-        elapsed.isZero() ? "less than one second" : DurationUtils.formatDuration(elapsed);
-    int totalErrors = logManager.getTotalErrors();
-    if (totalErrors == 0) {
-      success = true;
-      LOGGER.info("{} completed successfully in {}.", this, elapsedStr);
-    } else {
-      LOGGER.warn("{} completed with {} errors in {}.", this, totalErrors, elapsedStr);
+            readConcurrency);
+  }
+
+  private Flux<Void> countRowsServerSide() {
+    // Each result holds the number of rows of a token range; total and failed items are therefore
+    // token ranges, not rows.
+    return tokenRangeCounter.count(
+        executor::readReactive,
+        results ->
+            results
+                .transform(queryWarningsHandler)
+                .transform(totalItemsMonitor)
+                .transform(totalItemsCounter)
+                .transform(failedItemsMonitor)
+                .transform(failedReadsHandler)
+                .doOnNext(result -> readResultCounter.addCountedRows(getCount(result)))
+                .then()
+                .subscribeOn(scheduler),
+        readConcurrency);
+  }
+
+  private Function<Flux<ReadResult>, Flux<ReadResult>> rangeCompletionHandler(
+      Statement<?> statement) {
+    if (tokenRangesTracker == null) {
+      return Function.identity();
     }
-    return totalErrors == 0;
+    return tokenRangesTracker.newRangeCompletionHandler(statement);
   }
 
   @Override
@@ -19,15 +19,20 @@ import com.codahale.metrics.Histogram;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Snapshot;
 import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.config.DriverExecutionProfile;
 import com.datastax.oss.driver.api.core.cql.BatchableStatement;
 import com.datastax.oss.driver.api.core.cql.BoundStatement;
 import com.datastax.oss.driver.api.core.cql.Statement;
 import com.datastax.oss.driver.api.core.metrics.Metrics;
+import com.datastax.oss.driver.api.core.retry.RetryPolicy;
 import com.datastax.oss.driver.shaded.guava.common.base.Stopwatch;
+import com.datastax.oss.dsbulk.batcher.api.ReactiveStatementBatcher;
+import com.datastax.oss.dsbulk.codecs.api.CommonConversionContext;
 import com.datastax.oss.dsbulk.codecs.api.ConvertingCodecFactory;
 import com.datastax.oss.dsbulk.connectors.api.CommonConnectorFeature;
 import com.datastax.oss.dsbulk.connectors.api.Connector;
 import com.datastax.oss.dsbulk.connectors.api.Record;
+import com.datastax.oss.dsbulk.executor.api.limiter.AdaptiveConcurrencyLimiter;
 import com.datastax.oss.dsbulk.executor.api.result.EmptyWriteResult;
 import com.datastax.oss.dsbulk.executor.api.result.WriteResult;
 import com.datastax.oss.dsbulk.executor.api.writer.BulkWriter;
@@ -37,6 +42,7 @@ import com.datastax.oss.dsbulk.workflow.api.utils.DurationUtils;
 import com.datastax.oss.dsbulk.workflow.api.utils.ThrowableUtils;
 import com.datastax.oss.dsbulk.workflow.commons.log.LogManager;
 import com.datastax.oss.dsbulk.workflow.commons.metrics.MetricsManager;
+import com.datastax.oss.dsbulk.workflow.commons.policies.retry.BackoffRetryPolicy;
 import com.datastax.oss.dsbulk.workflow.commons.schema.RecordMapper;
 import com.datastax.oss.dsbulk.workflow.commons.settings.BatchSettings;
 import com.datastax.oss.dsbulk.workflow.commons.settings.CodecSettings;
@@ -84,6 +90,7 @@ public class LoadWorkflow implements Workflow {
   private CqlSession session;
   private BulkWriter executor;
   private boolean batchingEnabled;
+  private boolean continuousBatching;
   private boolean dryRun;
   private int batchBufferSize;
   private Scheduler scheduler;
@@ -94,6 +101,7 @@ public class LoadWorkflow implements Workflow {
 
   private Function<Record, BatchableStatement<?>> mapper;
   private Function<Publisher<BatchableStatement<?>>, Publisher<Statement<?>>> batcher;
+  private Function<Flux<Record>, Flux<Record>> processedRecordsFilter;
   private Function<Flux<Record>, Flux<Record>> totalItemsMonitor;
   private Function<Flux<Record>, Flux<Record>> totalItemsCounter;
   private Function<Flux<Record>, Flux<Record>> failedRecordsMonitor;
@@ -159,21 +167,35 @@ public class LoadWorkflow implements Workflow {
             session.getContext().getCodecRegistry(),
             schemaSettings.getRowType());
     metricsManager.init();
-    executor = executorSettings.newWriteExecutor(session, metricsManager.getExecutionListener());
     ConvertingCodecFactory codecFactory =
         codecSettings.createCodecFactory(
             schemaSettings.isAllowExtraFields(), schemaSettings.isAllowMissingFields());
+    if (codecSettings.getTemporalCacheSize() > 0) {
+      metricsManager.monitorTemporalCache(
+          codecFactory
+              .getContext()
+              .getAttribute(CommonConversionContext.TEMPORAL_CACHE_STATISTICS));
+    }
     RecordMapper recordMapper =
         schemaSettings.createRecordMapper(session, connector.getRecordMetadata(), codecFactory);
     mapper = recordMapper::map;
     if (batchingEnabled) {
-      batcher = batchSettings.newStatementBatcher(session)::batchByGroupingKey;
+      ReactiveStatementBatcher statementBatcher = batchSettings.newStatementBatcher(session);
+      continuousBatching = batchSettings.isContinuous();
+      if (continuousBatching) {
+        Duration maxDelay = batchSettings.getMaxDelay();
+        batcher =
+            stmts -> statementBatcher.accumulateByGroupingKey(stmts, batchBufferSize, maxDelay);
+      } else {
+        batcher = statementBatcher::batchByGroupingKey;
+      }
     }
     dryRun = engineSettings.isDryRun();
     if (dryRun) {
       LOGGER.info("Dry-run mode enabled.");
     }
     closed.set(false);
+    processedRecordsFilter = logManager.newProcessedRecordsFilter();
     totalItemsMonitor = metricsManager.newTotalItemsMonitor();
     failedRecordsMonitor = metricsManager.newFailedItemsMonitor();
     failedStatementsMonitor = metricsManager.newFailedItemsMonitor();
@@ -198,6 +220,39 @@ public class LoadWorkflow implements Workflow {
         "Using write concurrency: {} (user-supplied: {})",
         writeConcurrency,
         engineSettings.getMaxConcurrentQueries().isPresent());
+    AdaptiveConcurrencyLimiter concurrencyLimiter = null;
+    if (!dryRun
+        && !engineSettings.getMaxConcurrentQueries().isPresent()
+        && executorSettings.isAdaptiveConcurrencyEnabled()) {
+      // Start with the computed concurrency, and let the limiter adjust it within reasonable
+      // bounds; the flow itself must then allow as many concurrent writes as the maximum limit.
+      concurrencyLimiter =
+          executorSettings.newConcurrencyLimiter(
+              writeConcurrency, Math.min(numCores, writeConcurrency), writeConcurrency * 4);
+      writeConcurrency = concurrencyLimiter.getMaxLimit();
+      metricsManager.monitorConcurrencyLimiter(concurrencyLimiter);
+      LOGGER.debug(
+          "Using adaptive write concurrency: initial {}, min {}, max {}",
+          concurrencyLimiter.getLimit(),
+          concurrencyLimiter.getMinLimit(),
+          concurrencyLimiter.getMaxLimit());
+    }
+    BackoffRetryPolicy retryPolicy = null;
+    if (!dryRun) {
+      RetryPolicy policy = session.getContext().getRetryPolicy(DriverExecutionProfile.DEFAULT_NAME);
+      if (policy instanceof BackoffRetryPolicy) {
+        // let the policy delay retries of writes that failed because the cluster is overloaded
+        retryPolicy = (BackoffRetryPolicy) policy;
+        metricsManager.monitorRetryPolicy(retryPolicy);
+      }
+    }
+    executor =
+        executorSettings.newWriteExecutor(
+            session, metricsManager.getExecutionListener(), concurrencyLimiter, retryPolicy);
+    if (logSettings.isResume()) {
+      // done last, so that data size sampling is not affected
+      connector.skipProcessedRecords(logManager.getResumedPositions());
+    }
   }
 
   @Override
@@ -211,6 +266,14 @@ public class LoadWorkflow implements Workflow {
     } else {
       statements = fewReaders();
     }
+    if (continuousBatching) {
+      // statements coming from all readers are accumulated together
+      statements =
+          statements
+              .<BatchableStatement<?>>map(BatchableStatement.class::cast)
+              .transform(batcher)
+              .transform(batcherMonitor);
+    }
     statements
         .transform(this::executeStatements)
         .transform(queryWarningsHandler)
@@ -245,6 +308,7 @@ public class LoadWorkflow implements Workflow {
         .flatMap(
             records ->
                 Flux.from(records)
+                    .transform(processedRecordsFilter)
                     .transform(totalItemsMonitor)
                     .transform(totalItemsCounter)
                     .transform(failedRecordsMonitor)
@@ -271,7 +335,11 @@ public class LoadWorkflow implements Workflow {
         .flatMap(
             records ->
                 Flux.from(records)
-                    .window(batchingEnabled ? batchBufferSize : Queues.SMALL_BUFFER_SIZE),
+                    .transform(processedRecordsFilter)
+                    .window(
+                        batchingEnabled && !continuousBatching
+                            ? batchBufferSize
+                            : Queues.SMALL_BUFFER_SIZE),
             readConcurrency)
         .flatMap(
             records ->
@@ -289,25 +357,29 @@ public class LoadWorkflow implements Workflow {
   }
 
   /**
-   * Batches the given statement flow, if batching is enabled; otherwise do nothing.
+   * Batches the given statement flow, if batching is enabled and not continuous; otherwise do
+   * nothing.
    *
    * <p>The flow is expected to be unbuffered, so this method first applies buffering by {@code
    * batchBufferSize} before batching the resulting chunks.
    */
   private Flux<? extends Statement<?>> bufferAndBatch(Flux<BatchableStatement<?>> stmts) {
-    return batchingEnabled
+    return batchingEnabled && !continuousBatching
         ? stmts.window(batchBufferSize).flatMap(batcher).transform(batcherMonitor)
         : stmts;
   }
 
   /**
-   * Batches the given statement flow, if batching is enabled; otherwise do nothing.
+   * Batches the given statement flow, if batching is enabled and not continuous; otherwise do
+   * nothing.
    *
    * <p>The flow is expected to be already buffered by {@code batchBufferSize} so this method
    * applies batching immediately.
    */
   private Flux<? extends Statement<?>> batchBuffered(Flux<BatchableStatement<?>> stmts) {
-    return batchingEnabled ? stmts.transform(batcher).transform(batcherMonitor) : stmts;
+    return batchingEnabled && !continuousBatching
+        ? stmts.transform(batcher).transform(batcherMonitor)
+        : stmts;
   }
 
   /**
@@ -18,6 +18,7 @@ package com.datastax.oss.dsbulk.workflow.unload;
 import com.codahale.metrics.MetricRegistry;
 import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.metadata.token.Token;
 import com.datastax.oss.driver.api.core.metrics.Metrics;
 import com.datastax.oss.driver.shaded.guava.common.base.Stopwatch;
 import com.datastax.oss.dsbulk.codecs.api.ConvertingCodecFactory;
@@ -30,8 +31,10 @@ import com.datastax.oss.dsbulk.executor.api.result.ReadResult;
 import com.datastax.oss.dsbulk.workflow.api.Workflow;
 import com.datastax.oss.dsbulk.workflow.api.utils.DurationUtils;
 import com.datastax.oss.dsbulk.workflow.commons.log.LogManager;
+import com.datastax.oss.dsbulk.workflow.commons.log.TokenRangesTracker;
 import com.datastax.oss.dsbulk.workflow.commons.metrics.MetricsManager;
 import com.datastax.oss.dsbulk.workflow.commons.schema.ReadResultMapper;
+import com.datastax.oss.dsbulk.workflow.commons.schema.TokenRangeReadScheduler;
 import com.datastax.oss.dsbulk.workflow.commons.settings.CodecSettings;
 import com.datastax.oss.dsbulk.workflow.commons.settings.ConnectorSettings;
 import com.datastax.oss.dsbulk.workflow.commons.settings.DriverSettings;
@@ -52,7 +55,9 @@ import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -77,7 +82,10 @@ public class UnloadWorkflow implements Workflow {
   private CqlSession session;
   private BulkReader executor;
   private List<Statement<?>> readStatements;
+  private TokenRangeReadScheduler readScheduler;
+  private TokenRangesTracker tokenRangesTracker;
   private Function<Publisher<Record>, Publisher<Record>> writer;
+  private Function<Flux<Record>, Flux<Record>> writtenRecordsHandler;
   private Function<Flux<ReadResult>, Flux<ReadResult>> totalItemsMonitor;
   private Function<Flux<Record>, Flux<Record>> failedRecordsMonitor;
   private Function<Flux<ReadResult>, Flux<ReadResult>> failedReadResultsMonitor;
@@ -116,6 +124,9 @@ public class UnloadWorkflow implements Workflow {
     logSettings.init();
     connectorSettings.init(false);
     connector = connectorSettings.getConnector();
+    if (logSettings.isResume()) {
+      connector.preserveExistingData();
+    }
     connector.init();
     driverSettings.init(false);
     logSettings.logEffectiveSettings(
@@ -130,7 +141,13 @@ public class UnloadWorkflow implements Workflow {
         session,
         connector.supports(CommonConnectorFeature.INDEXED_RECORDS),
         connector.supports(CommonConnectorFeature.MAPPED_RECORDS));
-    logManager = logSettings.newLogManager(session, false);
+    if (logSettings.isCheckpoint() || logSettings.isResume()) {
+      tokenRangesTracker =
+          schemaSettings
+              .createTokenRangesTracker(session, logSettings.getResumedTokenRanges())
+              .orElse(null);
+    }
+    logManager = logSettings.newLogManager(session, false, tokenRangesTracker, connector::flush);
     logManager.init();
     metricsManager =
         monitoringSettings.newMetricsManager(
@@ -149,13 +166,24 @@ public class UnloadWorkflow implements Workflow {
             schemaSettings.isAllowExtraFields(), schemaSettings.isAllowMissingFields());
     readResultMapper =
         schemaSettings.createReadResultMapper(
-            session, recordMetadata, codecFactory, logSettings.isSources());
-    readStatements = schemaSettings.createReadStatements(session);
+            session,
+            recordMetadata,
+            codecFactory,
+            logSettings.isSources(),
+            connector.supports(CommonConnectorFeature.UTF8_VALUES));
+    readScheduler = schemaSettings.createReadScheduler(session, tokenRangesTracker).orElse(null);
+    if (readScheduler == null) {
+      readStatements = schemaSettings.createReadStatements(session, tokenRangesTracker);
+    }
     executor =
         executorSettings.newReadExecutor(
             session, metricsManager.getExecutionListener(), schemaSettings.isSearchQuery());
     closed.set(false);
     writer = connector.write();
+    writtenRecordsHandler =
+        tokenRangesTracker == null
+            ? Function.identity()
+            : tokenRangesTracker.newWrittenRecordsHandler();
     totalItemsMonitor = metricsManager.newTotalItemsMonitor();
     failedRecordsMonitor = metricsManager.newFailedItemsMonitor();
     failedReadResultsMonitor = metricsManager.newFailedItemsMonitor();
@@ -171,12 +199,12 @@ public class UnloadWorkflow implements Workflow {
     }
     writeConcurrency = connector.writeConcurrency();
     LOGGER.debug("Using write concurrency: {}", writeConcurrency);
-    readConcurrency =
-        Math.min(
-            readStatements.size(),
-            // Most connectors have a default of numCores/2 for writeConcurrency;
-            // a good readConcurrency is then numCores.
-            engineSettings.getMaxConcurrentQueries().orElse(numCores));
+    // Most connectors have a default of numCores/2 for writeConcurrency;
+    // a good readConcurrency is then numCores.
+    readConcurrency = engineSettings.getMaxConcurrentQueries().orElse(numCores);
+    if (readScheduler == null) {
+      readConcurrency = Math.min(readStatements.size(), readConcurrency);
+    }
     LOGGER.debug(
         "Using read concurrency: {} (user-supplied: {})",
         readConcurrency,
@@ -219,10 +247,9 @@ public class UnloadWorkflow implements Workflow {
             ? Schedulers.immediate()
             : Schedulers.newParallel(numThreads, new DefaultThreadFactory("workflow"));
     schedulers.add(scheduler);
-    return Flux.fromIterable(readStatements)
-        .flatMap(
-            results ->
-                Flux.from(executor.readReactive(results))
+    return read(
+            (results, pendingRecordsHandler) ->
+                results
                     .publishOn(scheduler, 500)
                     .transform(queryWarningsHandler)
                     .transform(totalItemsMonitor)
@@ -231,10 +258,11 @@ public class UnloadWorkflow implements Workflow {
                     .transform(failedReadsHandler)
                     .map(readResultMapper::map)
                     .transform(failedRecordsMonitor)
-                    .transform(unmappableRecordsHandler),
-            readConcurrency,
-            500)
+                    .transform(unmappableRecordsHandler)
+                    .transform(pendingRecordsHandler),
+            readConcurrency)
         .transform(writer)
+        .transform(writtenRecordsHandler)
         .transform(failedRecordsMonitor)
         .transform(failedRecordsHandler);
   }
@@ -251,10 +279,9 @@ public class UnloadWorkflow implements Workflow {
         Schedulers.newParallel(numThreadsForWrites, new DefaultThreadFactory("workflow-write"));
     schedulers.add(schedulerForReads);
     schedulers.add(schedulerForWrites);
-    return Flux.fromIterable(readStatements)
-        .flatMap(
-            results ->
-                Flux.from(executor.readReactive(results))
+    return read(
+            (results, pendingRecordsHandler) ->
+                results
                     .publishOn(schedulerForReads, 500)
                     .transform(queryWarningsHandler)
                     .transform(totalItemsMonitor)
@@ -263,9 +290,9 @@ public class UnloadWorkflow implements Workflow {
                     .transform(failedReadsHandler)
                     .map(readResultMapper::map)
                     .transform(failedRecordsMonitor)
-                    .transform(unmappableRecordsHandler),
-            readConcurrency,
-            500)
+                    .transform(unmappableRecordsHandler)
+                    .transform(pendingRecordsHandler),
+            readConcurrency)
         .parallel(writeConcurrency)
         .runOn(schedulerForWrites)
         .groups()
@@ -273,6 +300,7 @@ public class UnloadWorkflow implements Workflow {
             records ->
                 records
                     .transform(writer)
+                    .transform(writtenRecordsHandler)
                     .transform(failedRecordsMonitor)
                     .transform(failedRecordsHandler),
             writeConcurrency,
@@ -285,44 +313,86 @@ public class UnloadWorkflow implements Workflow {
     int numThreads = Math.min(numCores * 2, actualConcurrency);
     Scheduler scheduler = Schedulers.newParallel(numThreads, new DefaultThreadFactory("workflow"));
     schedulers.add(scheduler);
+    return read(
+        (results, pendingRecordsHandler) -> {
+          Flux<Record> records =
+              results
+                  .publishOn(scheduler, 500)
+                  .transform(queryWarningsHandler)
+                  .transform(totalItemsMonitor)
+                  .transform(totalItemsCounter)
+                  .transform(failedReadResultsMonitor)
+                  .transform(failedReadsHandler)
+                  .map(readResultMapper::map)
+                  .transform(failedRecordsMonitor)
+                  .transform(unmappableRecordsHandler)
+                  .transform(pendingRecordsHandler);
+          if (actualConcurrency == writeConcurrency) {
+            records = records.transform(writer);
+          } else {
+            // If the actual concurrency is lesser than the connector's desired write
+            // concurrency, we need to give the connector a chance to switch writers
+            // frequently so that it can really redirect records to all the final destinations
+            // (to that many files on disk for example). If the connector is correctly
+            // implemented, each window will be redirected to a different destination
+            // in a round-robin fashion.
+            records = records.window(500).flatMap(window -> window.transform(writer), 1, 500);
+          }
+          return records
+              .transform(writtenRecordsHandler)
+              .transform(failedRecordsMonitor)
+              .transform(failedRecordsHandler);
+        },
+        actualConcurrency);
+  }
+
+  /**
+   * Reads all the ranges, and applies the given mapper to the results of each range. The mapper is
+   * also given a handler that must be applied to the range's records right before they are
+   * written: ranges are only marked as read once all their records have been written.
+   */
+  private <T> Flux<T> read(
+      BiFunction<Flux<ReadResult>, Function<Flux<Record>, Flux<Record>>, Publisher<T>> mapper,
+      int concurrency) {
+    if (readScheduler != null) {
+      return readScheduler.read(
+          executor::readReactive,
+          (results, end) -> trackRange(results, end, mapper),
+          concurrency,
+          500);
+    }
     return Flux.fromIterable(readStatements)
         .flatMap(
-            results -> {
-              Flux<Record> records =
-                  Flux.from(executor.readReactive(results))
-                      .publishOn(scheduler, 500)
-                      .transform(queryWarningsHandler)
-                      .transform(totalItemsMonitor)
-                      .transform(totalItemsCounter)
-                      .transform(failedReadResultsMonitor)
-                      .transform(failedReadsHandler)
-                      .map(readResultMapper::map)
-                      .transform(failedRecordsMonitor)
-                      .transform(unmappableRecordsHandler);
-              if (actualConcurrency == writeConcurrency) {
-                records = records.transform(writer);
-              } else {
-                // If the actual concurrency is lesser than the connector's desired write
-                // concurrency, we need to give the connector a chance to switch writers
-                // frequently so that it can really redirect records to all the final destinations
-                // (to that many files on disk for example). If the connector is correctly
-                // implemented, each window will be redirected to a different destination
-                // in a round-robin fashion.
-                records = records.window(500).flatMap(window -> window.transform(writer), 1, 500);
-              }
-              return records.transform(failedRecordsMonitor).transform(failedRecordsHandler);
-            },
-            actualConcurrency,
+            statement ->
+                trackRange(
+                    Flux.from(executor.readReactive(statement)),
+                    statement::getRoutingToken,
+                    mapper),
+            concurrency,
             500);
   }
 
+  private <T> Publisher<T> trackRange(
+      Flux<ReadResult> results,
+      Supplier<Token> end,
+      BiFunction<Flux<ReadResult>, Function<Flux<Record>, Flux<Record>>, Publisher<T>> mapper) {
+    if (tokenRangesTracker == null) {
+      return mapper.apply(results, Function.identity());
+    }
+    TokenRangesTracker.PendingRange range = tokenRangesTracker.newPendingRange(end);
+    return mapper.apply(
+        results.transform(range.newReadResultsHandler()), range.newRecordsHandler());
+  }
+
   @Override
   public void close() throws Exception {
     if (closed.compareAndSet(false, true)) {
       LOGGER.debug("{} closing.", this);
       Exception e = CloseableUtils.closeQuietly(metricsManager, null);
-      e = CloseableUtils.closeQuietly(logManager, e);
+      // the connector must flush the records it emitted before the final checkpoint is written;
+      // if it cannot be closed, that checkpoint fails, and the last periodic one is kept instead
       e = CloseableUtils.closeQuietly(connector, e);
+      e = CloseableUtils.closeQuietly(logManager, e);
       if (schedulers != null) {
         for (Scheduler scheduler : schedulers) {
           e = CloseableUtils.closeQuietly(scheduler, e);